@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.adapters.controllers;
 
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.application.usecases.CategoryUseCase;
 import com.fiap.techchallenge.domain.entities.Category;
 
@@ -31,6 +32,10 @@ public class CategoryController {
         return categoryUseCase.findAll();
     }
 
+    public CatalogSnapshot.View findAllView() {
+        return categoryUseCase.findAllView();
+    }
+
     public void deleteById(UUID id) {
         categoryUseCase.deleteById(id);
     }
@@ -3,6 +3,7 @@ package com.fiap.techchallenge.adapters.controllers;
 import com.fiap.techchallenge.application.usecases.OrderUseCase;
 import com.fiap.techchallenge.application.usecases.OrderUseCase.OrderItemRequest;
 import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderPage;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
 import com.fiap.techchallenge.domain.entities.StatusPayment;
 
@@ -26,8 +27,8 @@ public class OrderController {
         return orderUseCase.findOrderById(id);
     }
 
-    public List<Order> findByOptionalStatus(OrderStatus status) {
-        return orderUseCase.findByOptionalStatus(status);
+    public OrderPage findOrders(OrderStatus status, String cursor, Integer limit) {
+        return orderUseCase.findOrders(status, cursor, limit);
     }
 
     public Order updateOrderStatus(Long id, OrderStatus status) {
@@ -0,0 +1,25 @@
+package com.fiap.techchallenge.adapters.controllers;
+
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.Subscriber;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.Subscription;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+
+public class OrderStreamController {
+
+    private final OrderChangeFeed orderChangeFeed;
+
+    /**
+     * @param orderChangeFeed nulo quando o stream está desabilitado (kitchen-board.enabled ou orders.stream.enabled)
+     */
+    public OrderStreamController(OrderChangeFeed orderChangeFeed) {
+        this.orderChangeFeed = orderChangeFeed;
+    }
+
+    public Subscription subscribe(Long lastVersion, Subscriber subscriber) {
+        if (orderChangeFeed == null) {
+            throw new ServiceUnavailableException("Order stream is disabled");
+        }
+        return orderChangeFeed.subscribe(lastVersion, subscriber);
+    }
+}
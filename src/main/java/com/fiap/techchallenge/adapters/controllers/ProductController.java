@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.adapters.controllers;
 
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.application.usecases.ProductUseCase;
 import com.fiap.techchallenge.domain.entities.Product;
 
@@ -36,6 +37,14 @@ public class ProductController {
         return productUseCase.findProductsByCategory(categoryId);
     }
 
+    public CatalogSnapshot.View findAllProductsView() {
+        return productUseCase.findAllProductsView();
+    }
+
+    public CatalogSnapshot.View findProductsByCategoryView(UUID categoryId) {
+        return productUseCase.findProductsByCategoryView(categoryId);
+    }
+
     public Product updateProduct(UUID id, String name, String description, BigDecimal price, UUID categoryId) {
         return productUseCase.updateProduct(id, name, description, price, categoryId);
     }
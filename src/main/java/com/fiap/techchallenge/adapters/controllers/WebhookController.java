@@ -1,18 +1,50 @@
 package com.fiap.techchallenge.adapters.controllers;
 
 import com.fiap.techchallenge.application.usecases.PaymentNotificationUseCase;
+import com.fiap.techchallenge.application.usecases.WebhookDeduplicationUseCase;
 
 public class WebhookController {
 
     private final PaymentNotificationUseCase paymentNotificationUseCase;
+    private final WebhookDeduplicationUseCase webhookDeduplicationUseCase;
 
     public WebhookController(PaymentNotificationUseCase paymentNotificationUseCase) {
+        this(paymentNotificationUseCase, null);
+    }
+
+    public WebhookController(PaymentNotificationUseCase paymentNotificationUseCase,
+                             WebhookDeduplicationUseCase webhookDeduplicationUseCase) {
         this.paymentNotificationUseCase = paymentNotificationUseCase;
+        this.webhookDeduplicationUseCase = webhookDeduplicationUseCase;
     }
 
     public void handlePaymentNotification(Long paymentId) {
-        if (paymentId != null) {
+        handlePaymentNotification(null, paymentId);
+    }
+
+    public void handlePaymentNotification(Long eventId, Long paymentId) {
+        if (paymentId == null) {
+            return;
+        }
+
+        if (webhookDeduplicationUseCase == null) {
             paymentNotificationUseCase.handlePaymentNotification(paymentId);
+            return;
+        }
+
+        // Reentrega já processada: responde 200 sem tocar nos pedidos
+        if (!webhookDeduplicationUseCase.registerIfFirst(eventId, paymentId)) {
+            return;
+        }
+
+        // O registro só vale se a aprovação for aplicada: recusa, falha no worker ou pedido ainda inexistente
+        // desfazem o registro para a reentrega do gateway ser processada
+        Runnable forget = () -> webhookDeduplicationUseCase.forget(eventId, paymentId);
+        try {
+            paymentNotificationUseCase.handlePaymentNotification(paymentId, forget);
+        } catch (RuntimeException e) {
+            forget.run();
+            throw e;
         }
     }
 }
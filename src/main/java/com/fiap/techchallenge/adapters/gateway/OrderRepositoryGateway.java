@@ -1,30 +1,86 @@
 package com.fiap.techchallenge.adapters.gateway;
 
 import com.fiap.techchallenge.application.usecases.mappers.OrderMapper;
+import com.fiap.techchallenge.application.usecases.mappers.PaymentOutboxMapper;
 import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderItem;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.entities.PendingPayment;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
 import com.fiap.techchallenge.domain.repositories.OrderRepository;
 import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity;
+import com.fiap.techchallenge.external.datasource.projections.OrderItemSummaryRow;
+import com.fiap.techchallenge.external.datasource.projections.OrderSummaryRow;
 import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class OrderRepositoryGateway implements OrderRepository {
 
     private final OrderJpaRepository orderJpaRepository;
+    private final PaymentOutboxJpaRepository paymentOutboxJpaRepository;
 
-    public OrderRepositoryGateway(OrderJpaRepository orderJpaRepository) {
+    public OrderRepositoryGateway(OrderJpaRepository orderJpaRepository,
+                                  PaymentOutboxJpaRepository paymentOutboxJpaRepository) {
         this.orderJpaRepository = orderJpaRepository;
+        this.paymentOutboxJpaRepository = paymentOutboxJpaRepository;
     }
 
+    // Compare-and-set pela versão: se o pedido mudou desde a leitura, nada é gravado
     @Override
     public Order save(Order order) {
         var jpaEntity = OrderMapper.toJpaEntity(order);
-        var savedEntity = orderJpaRepository.save(jpaEntity);
-        return OrderMapper.toDomainEntity(savedEntity);
+        try {
+            var savedEntity = orderJpaRepository.save(jpaEntity);
+            return withProducts(OrderMapper.toDomainEntity(savedEntity), order);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConcurrentUpdateException("Order " + order.getId() + " was modified concurrently", e);
+        }
+    }
+
+    // Pedido e pedido de pagamento pendente são gravados na mesma transação
+    @Override
+    @Transactional
+    public Order saveWithPaymentOutbox(Order order, PaymentOutboxEntry paymentOutboxEntry) {
+        var savedEntity = orderJpaRepository.save(OrderMapper.toJpaEntity(order));
+
+        paymentOutboxEntry.setOrderId(savedEntity.getId());
+        paymentOutboxJpaRepository.save(PaymentOutboxMapper.toJpaEntity(paymentOutboxEntry));
+
+        return withProducts(OrderMapper.toDomainEntity(savedEntity), order);
+    }
+
+    // A entidade gravada não traz os produtos dos itens (o mapeamento só grava product_id);
+    // a resposta reaproveita os que vieram no pedido, que mantêm a mesma ordem dos itens
+    private static Order withProducts(Order saved, Order original) {
+        List<OrderItem> savedItems = saved.getItems();
+        List<OrderItem> originalItems = original.getItems();
+        if (savedItems == null || originalItems == null || savedItems.size() != originalItems.size()) {
+            return saved;
+        }
+        for (int i = 0; i < savedItems.size(); i++) {
+            if (savedItems.get(i).getProduct() == null) {
+                savedItems.get(i).setProduct(originalItems.get(i).getProduct());
+            }
+        }
+        return saved;
     }
 
     @Override
@@ -39,18 +95,46 @@ public class OrderRepositoryGateway implements OrderRepository {
                 .map(OrderMapper::toDomainEntity);
     }
 
+    // Itens são LAZY: a leitura roda em transação para também servir chamadas fora de uma requisição (painel da cozinha)
     @Override
-    public List<Order> findByOptionalStatus(OrderStatus status) {
-        OrderJpaEntity.OrderStatusJpa jpaStatus = null;
-        if (status != null) {
-            jpaStatus = mapToJpaStatus(status);
-        }
-        return orderJpaRepository.findByOptionalStatus(jpaStatus)
+    @Transactional(readOnly = true)
+    public List<Order> findActiveOrders() {
+        return orderJpaRepository.findActiveOrders()
                 .stream()
                 .map(OrderMapper::toDomainEntity)
                 .collect(Collectors.toList());
     }
 
+    // Duas consultas por página (pedidos + itens), ambas projetadas direto em DTO
+    @Override
+    public List<OrderSummary> findSummaryPageByStatus(OrderStatus status, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        OrderJpaEntity.OrderStatusJpa jpaStatus = mapToJpaStatus(status);
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<OrderSummaryRow> rows = afterCreatedAt == null || afterId == null
+                ? orderJpaRepository.findFirstSummaryPageByStatus(jpaStatus, pageRequest)
+                : orderJpaRepository.findSummaryPageByStatusAfter(jpaStatus, afterCreatedAt, afterId, pageRequest);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<OrderSummary.Item>> itemsByOrderId = new HashMap<>();
+        List<Long> orderIds = rows.stream().map(OrderSummaryRow::id).toList();
+        for (OrderItemSummaryRow item : orderJpaRepository.findItemSummariesByOrderIds(orderIds)) {
+            itemsByOrderId.computeIfAbsent(item.orderId(), id -> new ArrayList<>())
+                    .add(new OrderSummary.Item(item.name(), item.quantity()));
+        }
+
+        List<OrderSummary> summaries = new ArrayList<>(rows.size());
+        for (OrderSummaryRow row : rows) {
+            summaries.add(new OrderSummary(row.id(),
+                    OrderMapper.mapToDomainStatus(row.status()),
+                    OrderMapper.mapToDomainPaymentStatus(row.statusPayment()),
+                    row.createdAt(),
+                    itemsByOrderId.getOrDefault(row.id(), List.of())));
+        }
+        return summaries;
+    }
+
     @Override
     public List<Order> findAll() {
         return orderJpaRepository.findAll()
@@ -73,4 +157,65 @@ public class OrderRepositoryGateway implements OrderRepository {
             default: throw new IllegalArgumentException("Unknown status: " + status);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findAllByIdPayments(Collection<Long> idPayments) {
+        if (idPayments == null || idPayments.isEmpty()) {
+            return List.of();
+        }
+        return orderJpaRepository.findByIdPaymentIn(idPayments)
+                .stream()
+                .map(OrderMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public boolean transitionStatus(Long id, Set<OrderStatus> fromStatuses, OrderStatus toStatus,
+                                    StatusPayment requiredStatusPayment, LocalDateTime updatedAt) {
+        if (fromStatuses == null || fromStatuses.isEmpty()) {
+            return false;
+        }
+        List<OrderJpaEntity.OrderStatusJpa> from = fromStatuses.stream().map(OrderMapper::mapToJpaStatus).toList();
+        OrderJpaEntity.OrderStatusJpa to = OrderMapper.mapToJpaStatus(toStatus);
+        int updated = requiredStatusPayment == null
+                ? orderJpaRepository.updateStatusIfIn(id, from, to, updatedAt)
+                : orderJpaRepository.updateStatusIfPaidAndIn(id, OrderMapper.mapToJpaPaymentStatus(requiredStatusPayment),
+                        from, to, updatedAt);
+        return updated > 0;
+    }
+
+    // Retorna os idPayment que tinham pedido; o UPDATE é um só para o lote inteiro
+    @Override
+    @Transactional
+    public Set<Long> approvePayments(Collection<Long> idPayments, LocalDateTime updatedAt) {
+        if (idPayments == null || idPayments.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> matched = new HashSet<>(orderJpaRepository.findExistingIdPayments(idPayments));
+        if (matched.isEmpty()) {
+            return matched;
+        }
+
+        orderJpaRepository.updatePaymentStatusByIdPayments(
+                matched,
+                OrderMapper.mapToJpaPaymentStatus(StatusPayment.APROVADO),
+                OrderMapper.mapToJpaStatus(OrderStatus.RECEIVED),
+                OrderMapper.mapToJpaStatus(OrderStatus.IN_PREPARATION),
+                updatedAt);
+        return matched;
+    }
+
+    @Override
+    public List<PendingPayment> findPendingPaymentsPage(LocalDateTime createdFrom, LocalDateTime createdBefore,
+                                                        Long afterId, int limit) {
+        return orderJpaRepository.findPendingPaymentsAfter(
+                        OrderMapper.mapToJpaPaymentStatus(StatusPayment.AGUARDANDO_PAGAMENTO),
+                        afterId != null ? afterId : 0L, createdFrom, createdBefore, PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new PendingPayment(row.id(), row.idPayment(), row.createdAt()))
+                .toList();
+    }
 }
@@ -0,0 +1,109 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.application.usecases.mappers.PaymentOutboxMapper;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxStatus;
+import com.fiap.techchallenge.domain.exception.NotFoundException;
+import com.fiap.techchallenge.domain.repositories.PaymentOutboxRepository;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PaymentOutboxRepositoryGateway implements PaymentOutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+    private final OrderJpaRepository orderJpaRepository;
+
+    public PaymentOutboxRepositoryGateway(PaymentOutboxJpaRepository paymentOutboxJpaRepository,
+                                          OrderJpaRepository orderJpaRepository) {
+        this.paymentOutboxJpaRepository = paymentOutboxJpaRepository;
+        this.orderJpaRepository = orderJpaRepository;
+    }
+
+    // Reserva o lote até leaseUntil; se a instância cair no meio do envio, as linhas voltam a ficar disponíveis
+    @Override
+    @Transactional
+    public List<PaymentOutboxEntry> claimDue(int batchSize, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<PaymentOutboxJpaEntity> due = paymentOutboxJpaRepository.findDueForUpdate(
+                PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING, now, PageRequest.of(0, batchSize));
+
+        for (PaymentOutboxJpaEntity entity : due) {
+            entity.setNextAttemptAt(leaseUntil);
+            entity.setUpdatedAt(now);
+        }
+        paymentOutboxJpaRepository.saveAll(due);
+
+        return due.stream()
+                .map(PaymentOutboxMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public boolean renewLease(PaymentOutboxEntry entry, LocalDateTime now, LocalDateTime leaseUntil) {
+        int updated = paymentOutboxJpaRepository.renewLease(entry.getId(), PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING,
+                now, entry.getNextAttemptAt(), leaseUntil);
+        if (updated == 0) {
+            return false;
+        }
+        entry.setNextAttemptAt(leaseUntil);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void markDispatched(PaymentOutboxEntry entry, Long idPayment) {
+        LocalDateTime now = LocalDateTime.now();
+        PaymentOutboxJpaEntity entity = findEntity(entry.getId());
+        entity.setStatus(PaymentOutboxMapper.mapToJpaStatus(PaymentOutboxStatus.DISPATCHED));
+        entity.setAttempts(entry.getAttempts());
+        entity.setIdPayment(idPayment);
+        entity.setLastError(null);
+        entity.setUpdatedAt(now);
+        paymentOutboxJpaRepository.save(entity);
+
+        orderJpaRepository.updateIdPayment(entry.getOrderId(), idPayment, now);
+    }
+
+    @Override
+    @Transactional
+    public void scheduleRetry(PaymentOutboxEntry entry, LocalDateTime nextAttemptAt, String error) {
+        PaymentOutboxJpaEntity entity = findEntity(entry.getId());
+        entity.setAttempts(entry.getAttempts());
+        entity.setNextAttemptAt(nextAttemptAt);
+        entity.setLastError(truncate(error));
+        entity.setUpdatedAt(LocalDateTime.now());
+        paymentOutboxJpaRepository.save(entity);
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(PaymentOutboxEntry entry, String error) {
+        PaymentOutboxJpaEntity entity = findEntity(entry.getId());
+        entity.setStatus(PaymentOutboxMapper.mapToJpaStatus(PaymentOutboxStatus.FAILED));
+        entity.setAttempts(entry.getAttempts());
+        entity.setLastError(truncate(error));
+        entity.setUpdatedAt(LocalDateTime.now());
+        paymentOutboxJpaRepository.save(entity);
+    }
+
+    private PaymentOutboxJpaEntity findEntity(Long id) {
+        return paymentOutboxJpaRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Payment outbox entry not found: " + id));
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.repositories.ProcessedWebhookEventRepository;
+import com.fiap.techchallenge.external.datasource.entities.ProcessedWebhookEventJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.ProcessedWebhookEventJpaRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public class ProcessedWebhookEventRepositoryGateway implements ProcessedWebhookEventRepository {
+
+    private final ProcessedWebhookEventJpaRepository processedWebhookEventJpaRepository;
+
+    public ProcessedWebhookEventRepositoryGateway(ProcessedWebhookEventJpaRepository processedWebhookEventJpaRepository) {
+        this.processedWebhookEventJpaRepository = processedWebhookEventJpaRepository;
+    }
+
+    // A unique em event_key resolve a corrida entre instâncias recebendo a mesma entrega
+    @Override
+    public boolean registerIfAbsent(String eventKey, Long eventId, Long paymentId, LocalDateTime receivedAt) {
+        if (processedWebhookEventJpaRepository.existsByEventKey(eventKey)) {
+            return false;
+        }
+        try {
+            processedWebhookEventJpaRepository.saveAndFlush(
+                    new ProcessedWebhookEventJpaEntity(eventKey, eventId, paymentId, receivedAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void remove(String eventKey) {
+        processedWebhookEventJpaRepository.deleteByEventKey(eventKey);
+    }
+
+    @Override
+    @Transactional
+    public int deleteReceivedBefore(LocalDateTime cutoff) {
+        return processedWebhookEventJpaRepository.deleteReceivedBefore(cutoff);
+    }
+}
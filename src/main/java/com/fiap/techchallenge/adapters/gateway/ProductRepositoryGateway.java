@@ -5,6 +5,8 @@ import com.fiap.techchallenge.domain.entities.Product;
 import com.fiap.techchallenge.domain.repositories.ProductRepository;
 import com.fiap.techchallenge.external.datasource.repositories.ProductJpaRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +33,17 @@ public class ProductRepositoryGateway implements ProductRepository {
                 .map(ProductMapper::toDomainEntity);
     }
 
+    @Override
+    public List<Product> findAllByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productJpaRepository.findAllByIdInWithCategory(new HashSet<>(ids))
+                .stream()
+                .map(ProductMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Product> findByName(String name) {
         return productJpaRepository.findByNameContainingIgnoreCase(name)
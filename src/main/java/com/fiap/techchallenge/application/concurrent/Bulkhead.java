@@ -0,0 +1,64 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limita quantas threads podem estar presas ao mesmo tempo numa dependência lenta. Quem não consegue
+ * vaga em {@code maxWait} recebe {@link ServiceUnavailableException} na hora, preservando o restante do
+ * pool de requisições para os outros endpoints.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param name prefixo das métricas ({@code <name>.bulkhead.available}, {@code <name>.bulkhead.rejected})
+     */
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.maxWaitNanos = maxWait.toNanos();
+
+        Gauge.builder(name + ".bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free slots for concurrent calls to the dependency")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(name + ".bulkhead.rejected")
+                .description("Calls refused because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = maxWaitNanos > 0 ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS) : permits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(name + " is saturated (too many concurrent calls), retry later");
+        }
+
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
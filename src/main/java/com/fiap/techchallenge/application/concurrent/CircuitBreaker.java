@@ -0,0 +1,193 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker por contagem: avalia as últimas {@code windowSize} chamadas e abre quando a taxa de falhas
+ * ou de chamadas lentas passa do limite. Aberto, recusa na hora com {@link ServiceUnavailableException} durante
+ * {@code openDuration}; depois deixa passar {@code halfOpenCalls} chamadas de teste e fecha se todas forem
+ * rápidas e bem-sucedidas, ou volta a abrir na primeira que falhar ou demorar.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * @param failureRateThreshold  percentual de falhas na janela que abre o circuito
+     * @param slowCallRateThreshold percentual de chamadas mais lentas que {@code slowCallDuration} que abre o circuito
+     * @param minimumCalls          chamadas necessárias na janela antes de avaliar as taxas
+     */
+    public record Settings(int failureRateThreshold, int slowCallRateThreshold, Duration slowCallDuration,
+                           int windowSize, int minimumCalls, Duration openDuration, int halfOpenCalls) {
+
+        public Settings {
+            if (windowSize <= 0 || halfOpenCalls <= 0) {
+                throw new IllegalArgumentException("windowSize and halfOpenCalls must be greater than zero");
+            }
+        }
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final Settings settings;
+    private final Predicate<Throwable> isFailure;
+    private final LongSupplier nanoClock;
+    private final byte[] window;
+    private final Counter rejectedCounter;
+    private final Counter openedCounter;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private long openUntil;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param name      prefixo das métricas ({@code <name>.circuit.state}, {@code .rejected}, {@code .opened})
+     * @param isFailure quais exceções contam como falha do serviço; as demais (ex.: 404) contam como sucesso
+     */
+    public CircuitBreaker(String name, Settings settings, Predicate<Throwable> isFailure, MeterRegistry meterRegistry) {
+        this(name, settings, isFailure, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, Settings settings, Predicate<Throwable> isFailure, MeterRegistry meterRegistry,
+                   LongSupplier nanoClock) {
+        this.name = name;
+        this.settings = settings;
+        this.isFailure = isFailure;
+        this.nanoClock = nanoClock;
+        this.window = new byte[settings.windowSize()];
+
+        Gauge.builder(name + ".circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(name + ".circuit.rejected")
+                .description("Calls refused without reaching the service because the circuit was open")
+                .register(meterRegistry);
+        this.openedCounter = Counter.builder(name + ".circuit.opened")
+                .description("Times the circuit opened after too many failed or slow calls")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquirePermission()) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(name + " is unavailable (circuit open), retry later");
+        }
+
+        long start = nanoClock.getAsLong();
+        try {
+            T result = call.get();
+            onResult(false, nanoClock.getAsLong() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onResult(isFailure.test(e), nanoClock.getAsLong() - start);
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        // Reflete a passagem do tempo mesmo sem chamadas, para a métrica não ficar presa em OPEN
+        if (state == State.OPEN && nanoClock.getAsLong() - openUntil >= 0) {
+            toHalfOpen();
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        switch (getState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private synchronized void onResult(boolean failed, long durationNanos) {
+        boolean slow = durationNanos > settings.slowCallDuration().toNanos();
+
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                toOpen(failed ? "failed" : "slow", 1, 1);
+                return;
+            }
+            if (++halfOpenSuccesses >= settings.halfOpenCalls()) {
+                toClosed();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Chamada iniciada antes de o circuito abrir: o resultado não muda mais nada
+            return;
+        }
+
+        if (recorded == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        failures += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        next = (next + 1) % window.length;
+
+        if (recorded < settings.minimumCalls()) {
+            return;
+        }
+        if (failures * 100 >= settings.failureRateThreshold() * recorded) {
+            toOpen("failure", failures, recorded);
+        } else if (slowCalls * 100 >= settings.slowCallRateThreshold() * recorded) {
+            toOpen("slow call", slowCalls, recorded);
+        }
+    }
+
+    private void toOpen(String reason, int count, int calls) {
+        state = State.OPEN;
+        openUntil = nanoClock.getAsLong() + settings.openDuration().toNanos();
+        openedCounter.increment();
+        logger.warn("Circuit {} opened - {} rate {}/{} calls, retrying in {}ms",
+                    name, reason, count, calls, settings.openDuration().toMillis());
+    }
+
+    private void toHalfOpen() {
+        state = State.HALF_OPEN;
+        halfOpenPermits = settings.halfOpenCalls();
+        halfOpenSuccesses = 0;
+    }
+
+    private void toClosed() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        logger.info("Circuit {} closed, service recovered", name);
+    }
+}
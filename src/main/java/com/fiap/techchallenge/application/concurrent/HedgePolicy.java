@@ -0,0 +1,180 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pedido "hedged" para chamadas idempotentes: se a resposta não chega até o percentil {@code percentile} das
+ * latências recentes, dispara uma segunda chamada igual e fica com a que responder primeiro, cancelando a outra.
+ * Um pod lento do serviço deixa de ditar a cauda da latência.
+ *
+ * Para não dobrar a carga quando o serviço inteiro fica lento, as segundas chamadas saem de um orçamento
+ * compartilhado como o do {@link RetryPolicy}: cada chamada credita {@code hedgeRatio} e cada segunda chamada
+ * debita um. Sem amostras suficientes no {@link LatencyTracker}, nada é duplicado.
+ */
+public class HedgePolicy {
+
+    /**
+     * @param percentile     percentil das latências a partir do qual a segunda chamada é disparada (ex.: 0.95)
+     * @param minDelay       espera mínima antes da segunda chamada, mesmo com latências muito baixas
+     * @param hedgeRatio     fração das chamadas que pode ser duplicada em regime (ex.: 0.1 = 10%)
+     * @param maxHedgeTokens segundas chamadas acumuláveis para rajadas curtas de lentidão
+     */
+    public record Settings(double percentile, Duration minDelay, double hedgeRatio, int maxHedgeTokens) {
+
+        public Settings {
+            if (percentile <= 0 || percentile >= 1) {
+                throw new IllegalArgumentException("percentile must be in (0, 1)");
+            }
+        }
+    }
+
+    /**
+     * Uma chamada assíncrona; {@code timeout} é o tempo que ela ainda pode levar
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        CompletableFuture<T> start(Duration timeout) throws Exception;
+    }
+
+    private final Settings settings;
+    private final LatencyTracker latencyTracker;
+    private final Counter hedgedCounter;
+    private final Counter hedgeWinsCounter;
+
+    private double hedgeTokens;
+
+    /**
+     * @param name prefixo das métricas ({@code <name>.hedged}, {@code <name>.hedge.wins})
+     */
+    public HedgePolicy(String name, Settings settings, LatencyTracker latencyTracker, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.latencyTracker = latencyTracker;
+        this.hedgeTokens = settings.maxHedgeTokens();
+
+        this.hedgedCounter = Counter.builder(name + ".hedged")
+                .description("Calls that sent a second request after exceeding the latency percentile")
+                .register(meterRegistry);
+        this.hedgeWinsCounter = Counter.builder(name + ".hedge.wins")
+                .description("Hedged calls answered first by the second request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Espera antes da segunda chamada, ou vazio quando ainda não há amostras para estimar o percentil
+     */
+    public Optional<Duration> hedgeDelay() {
+        return latencyTracker.percentile(settings.percentile())
+                .map(latency -> latency.compareTo(settings.minDelay()) < 0 ? settings.minDelay() : latency);
+    }
+
+    /**
+     * @param timeout prazo total da chamada; a segunda chamada recebe só o que sobrar dele
+     */
+    public <T> T execute(Attempt<T> attempt, Duration timeout) throws Exception {
+        long start = System.nanoTime();
+        deposit();
+        CompletableFuture<T> primary = attempt.start(timeout);
+
+        Optional<Duration> delay = hedgeDelay().filter(d -> d.compareTo(timeout) < 0);
+        if (delay.isEmpty()) {
+            return await(primary);
+        }
+        try {
+            return await(primary, delay.get());
+        } catch (TimeoutException e) {
+            // Primeira chamada passou do percentil: tenta em paralelo, se ainda houver tempo e orçamento
+        }
+
+        long remaining = timeout.toNanos() - (System.nanoTime() - start);
+        if (remaining <= 0 || !withdraw()) {
+            return await(primary);
+        }
+        hedgedCounter.increment();
+        CompletableFuture<T> hedge;
+        try {
+            hedge = attempt.start(Duration.ofNanos(remaining));
+        } catch (Exception e) {
+            return await(primary);
+        }
+        return firstSuccessful(primary, hedge);
+    }
+
+    private <T> T firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) throws Exception {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<T> candidate : List.of(primary, hedge)) {
+            candidate.whenComplete((result, error) -> {
+                if (error == null) {
+                    if (winner.complete(result) && candidate == hedge) {
+                        hedgeWinsCounter.increment();
+                    }
+                } else if (failed.incrementAndGet() == 2) {
+                    // As duas falharam: vale o erro da primeira chamada, como se não houvesse hedge
+                    primary.whenComplete((ignored, primaryError) -> winner.completeExceptionally(primaryError));
+                }
+            });
+        }
+        try {
+            return await(winner);
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future, Duration timeout) throws Exception {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+
+    private synchronized void deposit() {
+        hedgeTokens = Math.min(settings.maxHedgeTokens(), hedgeTokens + settings.hedgeRatio());
+    }
+
+    private synchronized boolean withdraw() {
+        if (hedgeTokens < 1) {
+            return false;
+        }
+        hedgeTokens--;
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Histograma das latências recentes de uma dependência, usado para dimensionar o timeout das chamadas pelo que o
+ * serviço realmente entrega em vez de um valor fixo muito acima do normal.
+ *
+ * As amostras caem em faixas exponenciais (cada faixa ~9% maior que a anterior, de 100µs a dezenas de minutos) e a
+ * janela é dividida em {@link #SLOTS} fatias que vão sendo descartadas conforme o tempo passa, então o percentil
+ * reflete só a última {@code window}. O percentil devolvido é o limite superior da faixa, nunca abaixo do real.
+ * Até juntar {@code minSamples} amostras na janela, o timeout é o máximo configurado.
+ */
+public class LatencyTracker {
+
+    static final int SLOTS = 6;
+    private static final int BUCKETS_PER_OCTAVE = 8;
+    private static final int BUCKETS = 25 * BUCKETS_PER_OCTAVE;
+    private static final long MIN_NANOS = 100_000;
+    private static final long NO_EPOCH = Long.MIN_VALUE;
+
+    /**
+     * @param timeoutPercentile percentil das latências usado como base do timeout (ex.: 0.99)
+     * @param timeoutMultiplier folga sobre o percentil, para uma oscilação normal não virar timeout
+     * @param maxTimeout        teto do timeout e valor usado enquanto não há amostras suficientes
+     */
+    public record Settings(Duration window, int minSamples, double timeoutPercentile, double timeoutMultiplier,
+                           Duration minTimeout, Duration maxTimeout) {
+
+        public Settings {
+            if (timeoutPercentile <= 0 || timeoutPercentile > 1) {
+                throw new IllegalArgumentException("timeoutPercentile must be in (0, 1]");
+            }
+            if (minTimeout.compareTo(maxTimeout) > 0) {
+                throw new IllegalArgumentException("minTimeout must not be greater than maxTimeout");
+            }
+        }
+    }
+
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+    private final long slotNanos;
+    private final long[][] slots = new long[SLOTS][BUCKETS];
+    private final long[] slotCounts = new long[SLOTS];
+    private final long[] slotEpochs = new long[SLOTS];
+
+    /**
+     * @param name prefixo das métricas ({@code <name>.timeout}, em ms)
+     */
+    public LatencyTracker(String name, Settings settings, MeterRegistry meterRegistry) {
+        this(name, settings, meterRegistry, System::nanoTime);
+    }
+
+    LatencyTracker(String name, Settings settings, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.slotNanos = Math.max(1, settings.window().toNanos() / SLOTS);
+        Arrays.fill(slotEpochs, NO_EPOCH);
+
+        Gauge.builder(name + ".timeout", this, tracker -> tracker.timeout().toMillis())
+                .description("Timeout in milliseconds derived from the recent latency of the dependency")
+                .register(meterRegistry);
+    }
+
+    public synchronized void record(Duration latency) {
+        int slot = currentSlot();
+        slots[slot][bucketOf(latency.toNanos())]++;
+        slotCounts[slot]++;
+    }
+
+    /**
+     * @return latência abaixo da qual ficam {@code percentile} das amostras da janela, ou vazio com poucas amostras
+     */
+    public synchronized Optional<Duration> percentile(double percentile) {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        long total = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (isLive(slot, epoch)) {
+                total += slotCounts[slot];
+            }
+        }
+        if (total == 0 || total < settings.minSamples()) {
+            return Optional.empty();
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (isLive(slot, epoch)) {
+                    seen += slots[slot][bucket];
+                }
+            }
+            if (seen >= rank) {
+                return Optional.of(Duration.ofNanos(upperBound(bucket)));
+            }
+        }
+        return Optional.of(Duration.ofNanos(upperBound(BUCKETS - 1)));
+    }
+
+    /**
+     * Timeout para a próxima chamada: percentil configurado vezes a folga, entre {@code minTimeout} e
+     * {@code maxTimeout}
+     */
+    public Duration timeout() {
+        return percentile(settings.timeoutPercentile())
+                .map(latency -> {
+                    long nanos = (long) Math.min(Long.MAX_VALUE, latency.toNanos() * settings.timeoutMultiplier());
+                    long clamped = Math.max(settings.minTimeout().toNanos(), Math.min(nanos, settings.maxTimeout().toNanos()));
+                    return Duration.ofNanos(clamped);
+                })
+                .orElse(settings.maxTimeout());
+    }
+
+    private int currentSlot() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        int slot = Math.floorMod(epoch, SLOTS);
+        if (slotEpochs[slot] != epoch) {
+            // Fatia reaproveitada: as amostras dela já saíram da janela
+            Arrays.fill(slots[slot], 0);
+            slotCounts[slot] = 0;
+            slotEpochs[slot] = epoch;
+        }
+        return slot;
+    }
+
+    private boolean isLive(int slot, long epoch) {
+        return slotEpochs[slot] != NO_EPOCH && epoch - slotEpochs[slot] < SLOTS;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        double octaves = Math.log((double) nanos / MIN_NANOS) / Math.log(2);
+        return (int) Math.min(BUCKETS - 1, Math.ceil(octaves * BUCKETS_PER_OCTAVE));
+    }
+
+    static long upperBound(int bucket) {
+        return (long) (MIN_NANOS * Math.pow(2, (double) bucket / BUCKETS_PER_OCTAVE));
+    }
+}
@@ -0,0 +1,37 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita a taxa de chamadas a um serviço externo espaçando as permissões uniformemente: com N por segundo,
+ * cada chamada espera até 1/N segundo depois da anterior. Não acumula permissões ociosas, então não há rajadas.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeAt = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be greater than zero");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Bloqueia até a próxima permissão disponível
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(nextFreeAt, now);
+        nextFreeAt = slot + intervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,85 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Prazo da requisição em andamento, definido pelo {@code TraceFilter} e lido por quem faz I/O (clientes HTTP e
+ * consultas ao banco) para limitar o próprio timeout ao tempo que ainda resta. Depois que o prazo acaba ninguém
+ * mais espera pela resposta, então {@link #cap} e {@link #check} falham na hora com
+ * {@link DeadlineExceededException} em vez de começar trabalho que vai ser descartado.
+ *
+ * O prazo fica na thread da requisição e segue para outros pools junto com o MDC via {@link TaskContext}.
+ * Sem prazo definido (tarefas agendadas, outbox), nada muda: os timeouts configurados valem como estão.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {}
+
+    /**
+     * @param budget tempo total da requisição a partir de agora
+     */
+    public static void start(Duration budget) {
+        DEADLINE.set(System.nanoTime() + budget.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return tempo restante (zero ou negativo quando o prazo já passou), ou vazio quando não há prazo
+     */
+    public static Optional<Duration> remaining() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Optional.empty() : Optional.of(Duration.ofNanos(deadline - System.nanoTime()));
+    }
+
+    public static boolean isExpired() {
+        Long deadline = DEADLINE.get();
+        return deadline != null && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @param operation o que ia ser feito, para a mensagem de erro
+     */
+    public static void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + operation);
+        }
+    }
+
+    /**
+     * @return o menor entre {@code timeout} e o tempo restante da requisição
+     */
+    public static Duration cap(Duration timeout, String operation) {
+        Optional<Duration> remaining = remaining();
+        if (remaining.isEmpty()) {
+            return timeout;
+        }
+        if (remaining.get().isNegative() || remaining.get().isZero()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + operation);
+        }
+        return remaining.get().compareTo(timeout) < 0 ? remaining.get() : timeout;
+    }
+
+    static Long capture() {
+        return DEADLINE.get();
+    }
+
+    static void restore(Long deadline) {
+        if (deadline == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadline);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Repete chamadas a um serviço externo que falharam de forma transitória.
+ *
+ * Cada nova tentativa espera um tempo sorteado entre zero e {@code baseBackoff * 2^(tentativa-1)}, limitado a
+ * {@code maxBackoff} ("full jitter"), e nenhuma tentativa passa do prazo total da chamada: a tentativa recebe o
+ * tempo que ainda resta para usar como timeout. Para não multiplicar a carga de um serviço já sobrecarregado,
+ * as repetições saem de um orçamento compartilhado: cada chamada nova credita {@code retryRatio} e cada
+ * repetição debita um, então em regime as repetições ficam limitadas a essa fração das chamadas.
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    /**
+     * @param totalBudget    prazo máximo da chamada somando todas as tentativas e esperas
+     * @param retryRatio     fração das chamadas que pode ser repetida em regime (ex.: 0.1 = 10%)
+     * @param maxRetryTokens repetições acumuláveis para rajadas curtas de falhas
+     */
+    public record Settings(int maxAttempts, Duration baseBackoff, Duration maxBackoff, Duration totalBudget,
+                           double retryRatio, int maxRetryTokens) {
+
+        public Settings {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("maxAttempts must be greater than zero");
+            }
+        }
+    }
+
+    /**
+     * Uma tentativa; {@code remaining} é o tempo que ainda sobra do prazo total e deve limitar o timeout da chamada
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T call(Duration remaining) throws Exception;
+    }
+
+    public interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private final Counter retriesCounter;
+    private final Counter budgetExhaustedCounter;
+
+    private double retryTokens;
+
+    /**
+     * @param name prefixo das métricas ({@code <name>.retries}, {@code <name>.retries.throttled})
+     */
+    public RetryPolicy(String name, Settings settings, MeterRegistry meterRegistry) {
+        this(name, settings, meterRegistry, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    RetryPolicy(String name, Settings settings, MeterRegistry meterRegistry, LongSupplier nanoClock, Sleeper sleeper) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        this.retryTokens = settings.maxRetryTokens();
+
+        this.retriesCounter = Counter.builder(name + ".retries")
+                .description("Calls repeated after a retryable failure")
+                .register(meterRegistry);
+        this.budgetExhaustedCounter = Counter.builder(name + ".retries.throttled")
+                .description("Retryable failures not repeated because the retry budget or the call deadline ran out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param retryable quais falhas podem ser repetidas com segurança; as demais são relançadas na hora
+     */
+    public <T> T execute(Attempt<T> attempt, Predicate<Exception> retryable) throws Exception {
+        long deadline = nanoClock.getAsLong() + settings.totalBudget().toNanos();
+        deposit();
+
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            long remaining = deadline - nanoClock.getAsLong();
+            try {
+                return attempt.call(Duration.ofNanos(Math.max(remaining, 1)));
+            } catch (Exception e) {
+                if (attemptNumber >= settings.maxAttempts() || !retryable.test(e)) {
+                    throw e;
+                }
+                long backoff = backoffNanos(attemptNumber);
+                // A espera mais uma tentativa mínima precisam caber no prazo
+                if (nanoClock.getAsLong() + backoff >= deadline || !withdraw()) {
+                    budgetExhaustedCounter.increment();
+                    throw e;
+                }
+                retriesCounter.increment();
+                logger.warn("{} attempt {} failed, retrying in {}ms: {}",
+                            name, attemptNumber, TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+                sleeper.sleep(backoff);
+            }
+        }
+    }
+
+    long backoffNanos(int attemptNumber) {
+        long base = settings.baseBackoff().toNanos();
+        long cap = settings.maxBackoff().toNanos();
+        long ceiling = attemptNumber >= 62 || base << (attemptNumber - 1) <= 0
+                ? cap : Math.min(cap, base << (attemptNumber - 1));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private synchronized void deposit() {
+        retryTokens = Math.min(settings.maxRetryTokens(), retryTokens + settings.retryRatio());
+    }
+
+    private synchronized boolean withdraw() {
+        if (retryTokens < 1) {
+            return false;
+        }
+        retryTokens--;
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Junta chamadas idênticas e simultâneas a um serviço externo: o primeiro a chegar com uma chave faz a chamada na
+ * própria thread (mantendo traceId e prazo) e quem chega com a mesma chave enquanto ela está em andamento recebe o
+ * mesmo resultado, ou a mesma exceção, sem chamar de novo. Nada fica guardado depois que a chamada termina.
+ *
+ * Quem está esperando desiste sozinho quando o próprio prazo ({@link RequestDeadline}) acaba, sem afetar a chamada
+ * nem os demais. Se quem fez a chamada a abandonou (prazo esgotado ou thread interrompida, como no cancelamento do
+ * createOrder paralelo), a falha não é repassada: o próximo da fila refaz a chamada com o próprio prazo.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    /**
+     * @param name prefixo das métricas ({@code <name>.singleflight.coalesced}, {@code <name>.singleflight.in-flight})
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.coalescedCounter = Counter.builder(name + ".singleflight.coalesced")
+                .description("Calls answered by an identical call already in flight instead of reaching the service")
+                .register(meterRegistry);
+        Gauge.builder(name + ".singleflight.in-flight", inFlight, Map::size)
+                .description("Distinct calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        while (true) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return lead(key, call, created);
+            }
+            try {
+                V result = await(existing);
+                coalescedCounter.increment();
+                return result;
+            } catch (AbandonedException e) {
+                // Quem chamava desistiu antes de terminar; tenta de novo, agora talvez como o primeiro
+            }
+        }
+    }
+
+    private V lead(K key, Supplier<V> call, CompletableFuture<V> future) {
+        try {
+            V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            boolean abandoned = e instanceof DeadlineExceededException || Thread.currentThread().isInterrupted();
+            future.completeExceptionally(abandoned ? new AbandonedException(e) : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        Optional<Duration> remaining = RequestDeadline.remaining();
+        try {
+            if (remaining.isEmpty()) {
+                return future.get();
+            }
+            return future.get(Math.max(remaining.get().toNanos(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AbandonedException abandoned) {
+                throw abandoned;
+            }
+            coalescedCounter.increment();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded waiting for an identical call in flight", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted waiting for an identical call in flight", e);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static final class AbandonedException extends RuntimeException {
+        private AbandonedException(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
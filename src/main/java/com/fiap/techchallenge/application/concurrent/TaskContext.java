@@ -0,0 +1,81 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Propaga o contexto da thread chamadora (MDC com traceId e o {@link RequestDeadline}) para tarefas executadas
+ * em outros pools, restaurando o estado original da thread de execução ao final.
+ *
+ * {@link #wrap} leva o prazo junto e serve para trabalho cujo resultado a requisição está esperando (ex.: etapas
+ * paralelas do createOrder). Trabalho que continua depois da resposta (filas, workers, tarefas agendadas) usa
+ * {@link #detach}, que leva só o MDC: o prazo de quem enfileirou não pode derrubar o processamento mais tarde.
+ */
+public final class TaskContext {
+
+    private TaskContext() {}
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        return propagate(task, RequestDeadline.capture());
+    }
+
+    public static Runnable wrap(Runnable task) {
+        return toRunnable(wrap(toCallable(task)));
+    }
+
+    /**
+     * Como {@link #wrap}, mas a tarefa roda sem prazo de requisição
+     */
+    public static <T> Callable<T> detach(Callable<T> task) {
+        return propagate(task, null);
+    }
+
+    public static Runnable detach(Runnable task) {
+        return toRunnable(detach(toCallable(task)));
+    }
+
+    private static <T> Callable<T> propagate(Callable<T> task, Long callerDeadline) {
+        Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            Long previousDeadline = RequestDeadline.capture();
+            restore(callerContext);
+            RequestDeadline.restore(callerDeadline);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+                RequestDeadline.restore(previousDeadline);
+            }
+        };
+    }
+
+    private static Callable<Void> toCallable(Runnable task) {
+        return () -> {
+            task.run();
+            return null;
+        };
+    }
+
+    private static Runnable toRunnable(Callable<Void> callable) {
+        return () -> {
+            try {
+                callable.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static void restore(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -1,16 +1,38 @@
 package com.fiap.techchallenge.application.config;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.adapters.controllers.*;
 import com.fiap.techchallenge.adapters.gateway.*;
+import com.fiap.techchallenge.application.concurrent.Bulkhead;
+import com.fiap.techchallenge.application.concurrent.CircuitBreaker;
+import com.fiap.techchallenge.application.concurrent.HedgePolicy;
+import com.fiap.techchallenge.application.concurrent.LatencyTracker;
+import com.fiap.techchallenge.application.concurrent.RetryPolicy;
+import com.fiap.techchallenge.application.concurrent.SingleFlight;
 import com.fiap.techchallenge.application.usecases.*;
 import com.fiap.techchallenge.domain.repositories.*;
 import com.fiap.techchallenge.external.api.CustomerApiClient;
+import com.fiap.techchallenge.external.api.CustomerCache;
+import com.fiap.techchallenge.external.api.HttpTransport;
 import com.fiap.techchallenge.external.api.PaymentApiClient;
 import com.fiap.techchallenge.external.datasource.repositories.*;
 import com.fiap.techchallenge.external.datasource.mercadopago.MercadoPagoClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class UseCaseConfig {
@@ -27,50 +49,335 @@ public class UseCaseConfig {
     }
 
     @Bean
-    public OrderRepository orderRepository(OrderJpaRepository orderJpaRepository) {
-        return new OrderRepositoryGateway(orderJpaRepository);
+    public OrderRepository orderRepository(OrderJpaRepository orderJpaRepository,
+                                           PaymentOutboxJpaRepository paymentOutboxJpaRepository) {
+        return new OrderRepositoryGateway(orderJpaRepository, paymentOutboxJpaRepository);
+    }
+
+    @Bean
+    public PaymentOutboxRepository paymentOutboxRepository(PaymentOutboxJpaRepository paymentOutboxJpaRepository,
+                                                           OrderJpaRepository orderJpaRepository) {
+        return new PaymentOutboxRepositoryGateway(paymentOutboxJpaRepository, orderJpaRepository);
+    }
+
+    @Bean
+    public ProcessedWebhookEventRepository processedWebhookEventRepository(
+            ProcessedWebhookEventJpaRepository processedWebhookEventJpaRepository) {
+        return new ProcessedWebhookEventRepositoryGateway(processedWebhookEventJpaRepository);
     }
 
     // Use Cases (aplicação core)
     @Bean
-    public CategoryUseCase categoryUseCase(CategoryRepository categoryRepository, ProductRepository productRepository) {
-        return new CategoryUseCaseImpl(categoryRepository, productRepository);
+    public CategoryUseCase categoryUseCase(CategoryRepository categoryRepository, ProductRepository productRepository,
+                                           ObjectProvider<CatalogCache> catalogCache) {
+        return new CategoryUseCaseImpl(categoryRepository, productRepository, catalogCache.getIfAvailable());
     }
 
     @Bean
     public ProductUseCase productUseCase(ProductRepository productRepository,
                                         CategoryRepository categoryRepository,
-                                        OrderRepository orderRepository) {
-        return new ProductUseCaseImpl(productRepository, categoryRepository, orderRepository);
+                                        OrderRepository orderRepository,
+                                        ObjectProvider<CatalogCache> catalogCache) {
+        return new ProductUseCaseImpl(productRepository, categoryRepository, orderRepository, catalogCache.getIfAvailable());
+    }
+
+    // Cardápio em memória com o JSON das listagens pronto; remontado a cada alteração e pelo scheduler
+    @Bean
+    @ConditionalOnProperty(name = "catalog.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CatalogCache catalogCache(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new CatalogCache(productRepository, categoryRepository, objectMapper, meterRegistry);
     }
 
     @Bean
     public OrderUseCase orderUseCase(OrderRepository orderRepository,
                                     ProductRepository productRepository,
                                     CustomerApiClient customerApiClient,
-                                    PaymentApiClient paymentApiClient) {
-        return new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient, paymentApiClient);
+                                    @Qualifier("createOrderExecutor") ObjectProvider<ExecutorService> createOrderExecutor,
+                                    @Value("${orders.create.parallel.timeout-ms:30000}") long createOrderTimeoutMs,
+                                    ObjectProvider<KitchenBoard> kitchenBoard,
+                                    OptimisticRetry optimisticRetry) {
+        return new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient,
+                createOrderExecutor.getIfAvailable(), Duration.ofMillis(createOrderTimeoutMs), kitchenBoard.getIfAvailable(),
+                optimisticRetry);
     }
 
+    // Conflitos de versão ao regravar um pedido são refeitos algumas vezes antes de virar 409
     @Bean
-    public PaymentNotificationUseCase paymentNotificationUseCase(OrderUseCase orderUseCase) {
-        return new PaymentNotificationUseCaseImpl(orderUseCase);
+    public OptimisticRetry optimisticRetry(@Value("${orders.update.max-attempts:3}") int maxAttempts,
+                                           MeterRegistry meterRegistry) {
+        return new OptimisticRetry(maxAttempts, meterRegistry);
+    }
+
+    // Pedidos em aberto mantidos em memória para o GET /orders; carregado na subida e reconciliado pelo scheduler
+    @Bean(initMethod = "load")
+    @ConditionalOnProperty(name = "kitchen-board.enabled", havingValue = "true", matchIfMissing = true)
+    public KitchenBoard kitchenBoard(OrderRepository orderRepository, MeterRegistry meterRegistry,
+                                     ObjectProvider<OrderChangeFeed> orderChangeFeed) {
+        return new KitchenBoard(orderRepository, meterRegistry, orderChangeFeed.getIfAvailable());
+    }
+
+    // Deltas de status para o GET /orders/stream; alimentado pelo painel da cozinha
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = {"kitchen-board.enabled", "orders.stream.enabled"}, havingValue = "true", matchIfMissing = true)
+    public OrderChangeFeed orderChangeFeed(
+            @Value("${orders.stream.buffer-size:10000}") int bufferSize,
+            @Value("${orders.stream.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${orders.stream.send-queue:256}") int sendQueue,
+            @Value("${orders.stream.sender-threads:8}") int senderThreads,
+            MeterRegistry meterRegistry) {
+        return new OrderChangeFeed(bufferSize, Duration.ofMillis(heartbeatMs), sendQueue, senderThreads, meterRegistry);
+    }
+
+    // Pool limitado para o modo paralelo do createOrder; quando saturado, a própria thread da requisição executa a etapa
+    @Bean(name = "createOrderExecutor", destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(name = "orders.create.parallel.enabled", havingValue = "true")
+    public ExecutorService createOrderExecutor(
+            @Value("${orders.create.parallel.pool-size:16}") int poolSize,
+            @Value("${orders.create.parallel.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "create-order-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public PaymentOutboxUseCase paymentOutboxUseCase(
+            PaymentOutboxRepository paymentOutboxRepository,
+            PaymentApiClient paymentApiClient,
+            @Value("${payment-outbox.dispatcher.batch-size:20}") int batchSize,
+            @Value("${payment-outbox.dispatcher.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${payment-outbox.dispatcher.max-attempts:10}") int maxAttempts,
+            @Value("${payment-outbox.dispatcher.lease-ms:120000}") long leaseMs,
+            @Value("${payment-outbox.dispatcher.base-backoff-ms:1000}") long baseBackoffMs,
+            @Value("${payment-outbox.dispatcher.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${payment-api.read-timeout:60000}") long readTimeoutMs,
+            @Value("${payment-api.retry.total-budget-ms:30000}") long retryBudgetMs) {
+        // O lease é renovado a cada envio, então precisa cobrir uma chamada completa ao createPayment
+        long maxCallMs = Math.max(readTimeoutMs, retryBudgetMs);
+        if (leaseMs <= maxCallMs) {
+            throw new IllegalStateException("payment-outbox.dispatcher.lease-ms (" + leaseMs
+                    + ") must be greater than the longest createPayment call (" + maxCallMs + "ms)");
+        }
+        return new PaymentOutboxUseCaseImpl(paymentOutboxRepository, paymentApiClient, batchSize, maxBatchesPerRun,
+                maxAttempts, Duration.ofMillis(leaseMs), Duration.ofMillis(baseBackoffMs), Duration.ofMillis(maxBackoffMs));
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "webhook.queue.enabled", havingValue = "false")
+    public PaymentNotificationUseCase paymentNotificationUseCase(OrderUseCase orderUseCase,
+                                                                 ObjectProvider<PaymentApprovalBatcher> paymentApprovalBatcher) {
+        PaymentApprovalBatcher batcher = paymentApprovalBatcher.getIfAvailable();
+        return batcher != null ? batcher : new PaymentNotificationUseCaseImpl(orderUseCase);
+    }
+
+    // Webhook responde assim que a notificação entra na fila; workers aplicam a atualização do pedido
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    @ConditionalOnProperty(name = "webhook.queue.enabled", havingValue = "true", matchIfMissing = true)
+    public QueuedPaymentNotificationUseCase queuedPaymentNotificationUseCase(
+            OrderUseCase orderUseCase,
+            ObjectProvider<PaymentApprovalBatcher> paymentApprovalBatcher,
+            @Value("${webhook.queue.capacity:1000}") int capacity,
+            @Value("${webhook.queue.workers:4}") int workers,
+            MeterRegistry meterRegistry) {
+        PaymentApprovalBatcher batcher = paymentApprovalBatcher.getIfAvailable();
+        PaymentNotificationUseCase delegate = batcher != null ? batcher : new PaymentNotificationUseCaseImpl(orderUseCase);
+        return new QueuedPaymentNotificationUseCase(delegate, capacity, workers, meterRegistry);
+    }
+
+    // Webhooks perdidos: consulta o serviço de pagamentos e aplica as aprovações pelo mesmo caminho do webhook
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "payment-reconcile.enabled", havingValue = "true", matchIfMissing = true)
+    public PaymentReconciliationUseCaseImpl paymentReconciliationUseCase(
+            OrderRepository orderRepository,
+            PaymentApiClient paymentApiClient,
+            PaymentNotificationUseCase paymentNotificationUseCase,
+            @Value("${payment-reconcile.page-size:100}") int pageSize,
+            @Value("${payment-reconcile.max-pages-per-run:10}") int maxPagesPerRun,
+            @Value("${payment-reconcile.concurrency:4}") int concurrency,
+            @Value("${payment-reconcile.max-calls-per-second:20}") double maxCallsPerSecond,
+            @Value("${payment-reconcile.stale-after-ms:120000}") long staleAfterMs,
+            @Value("${payment-reconcile.max-age-ms:86400000}") long maxAgeMs,
+            MeterRegistry meterRegistry) {
+        return new PaymentReconciliationUseCaseImpl(orderRepository, paymentApiClient, paymentNotificationUseCase,
+                pageSize, maxPagesPerRun, concurrency, maxCallsPerSecond, Duration.ofMillis(staleAfterMs),
+                Duration.ofMillis(maxAgeMs), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "webhook.dedup.enabled", havingValue = "true", matchIfMissing = true)
+    public WebhookDeduplicationUseCase webhookDeduplicationUseCase(
+            ProcessedWebhookEventRepository processedWebhookEventRepository,
+            @Value("${webhook.dedup.window-ms:600000}") long windowMs,
+            @Value("${webhook.dedup.max-size:100000}") long maxSize,
+            @Value("${webhook.dedup.retention-days:7}") long retentionDays,
+            MeterRegistry meterRegistry) {
+        return new WebhookDeduplicationUseCaseImpl(processedWebhookEventRepository, Duration.ofMillis(windowMs),
+                maxSize, Duration.ofDays(retentionDays), meterRegistry);
+    }
+
+    // Aprovações acumuladas por uma janela curta viram um único UPDATE ... WHERE id_payment IN (...)
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "webhook.approval-batch.enabled", havingValue = "true", matchIfMissing = true)
+    public PaymentApprovalBatcher paymentApprovalBatcher(
+            OrderUseCase orderUseCase,
+            @Value("${webhook.approval-batch.capacity:10000}") int capacity,
+            @Value("${webhook.approval-batch.max-size:500}") int maxBatchSize,
+            @Value("${webhook.approval-batch.window-ms:50}") long windowMs,
+            MeterRegistry meterRegistry) {
+        return new PaymentApprovalBatcher(orderUseCase, capacity, maxBatchSize, Duration.ofMillis(windowMs), meterRegistry);
+    }
+
+    @Bean
+    public HttpTransport httpTransport(
+            @Value("${http-client.connect-timeout:30000}") int connectTimeout,
+            @Value("${http-client.max-connections-per-host:20}") int maxConnectionsPerHost,
+            @Value("${http-client.h2c:false}") boolean h2c) {
+        return new HttpTransport(connectTimeout, maxConnectionsPerHost, h2c);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CustomerCache customerCache(
+            @Value("${customer-api.cache.ttl-ms:600000}") long ttlMs,
+            @Value("${customer-api.cache.not-found-ttl-ms:30000}") long notFoundTtlMs,
+            @Value("${customer-api.cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        CustomerCache customerCache = new CustomerCache(Duration.ofMillis(ttlMs), Duration.ofMillis(notFoundTtlMs), maxSize);
+        customerCache.bindTo(meterRegistry);
+        return customerCache;
     }
 
     @Bean
     public CustomerApiClient customerApiClient(
             @Value("${customer-api.base-url}") String baseUrl,
-            @Value("${customer-api.connect-timeout:30000}") int connectTimeout,
-            @Value("${customer-api.read-timeout:60000}") int readTimeout) {
-        return new CustomerApiClient(baseUrl, connectTimeout, readTimeout);
+            @Value("${customer-api.read-timeout:60000}") int readTimeout,
+            HttpTransport httpTransport,
+            ObjectProvider<CustomerCache> customerCache,
+            @Qualifier("customerApiCircuitBreaker") ObjectProvider<CircuitBreaker> circuitBreaker,
+            @Qualifier("customerApiBulkhead") ObjectProvider<Bulkhead> bulkhead,
+            @Value("${customer-api.fallback.anonymous-orders:true}") boolean anonymousFallback,
+            @Qualifier("customerApiLatencyTracker") ObjectProvider<LatencyTracker> latencyTracker,
+            @Qualifier("customerApiHedgePolicy") ObjectProvider<HedgePolicy> hedgePolicy,
+            @Qualifier("customerApiSingleFlight") ObjectProvider<SingleFlight<String, JsonNode>> singleFlight) {
+        return new CustomerApiClient(baseUrl, readTimeout, httpTransport, customerCache.getIfAvailable(),
+                circuitBreaker.getIfAvailable(), bulkhead.getIfAvailable(), anonymousFallback,
+                latencyTracker.getIfAvailable(), hedgePolicy.getIfAvailable(), singleFlight.getIfAvailable());
+    }
+
+    // Pedidos em grupo no totem buscam o mesmo CPF ao mesmo tempo: uma chamada em andamento atende a todos
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+    public SingleFlight<String, JsonNode> customerApiSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("customer.api", meterRegistry);
+    }
+
+    // Timeout do serviço de clientes acompanha a latência observada, com read-timeout como teto
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.adaptive-timeout.enabled", havingValue = "true", matchIfMissing = true)
+    public LatencyTracker customerApiLatencyTracker(
+            @Value("${customer-api.read-timeout:60000}") long readTimeoutMs,
+            @Value("${customer-api.adaptive-timeout.window-ms:60000}") long windowMs,
+            @Value("${customer-api.adaptive-timeout.min-samples:50}") int minSamples,
+            @Value("${customer-api.adaptive-timeout.percentile:0.99}") double percentile,
+            @Value("${customer-api.adaptive-timeout.multiplier:2.0}") double multiplier,
+            @Value("${customer-api.adaptive-timeout.min-ms:500}") long minTimeoutMs,
+            MeterRegistry meterRegistry) {
+        return new LatencyTracker("customer.api", new LatencyTracker.Settings(Duration.ofMillis(windowMs), minSamples,
+                percentile, multiplier, Duration.ofMillis(Math.min(minTimeoutMs, readTimeoutMs)),
+                Duration.ofMillis(readTimeoutMs)), meterRegistry);
+    }
+
+    // Busca por CPF é idempotente: passando do p95, uma segunda busca disputa com a primeira
+    @Bean
+    @ConditionalOnProperty(name = {"customer-api.adaptive-timeout.enabled", "customer-api.hedge.enabled"},
+            havingValue = "true", matchIfMissing = true)
+    public HedgePolicy customerApiHedgePolicy(
+            @Qualifier("customerApiLatencyTracker") LatencyTracker latencyTracker,
+            @Value("${customer-api.hedge.percentile:0.95}") double percentile,
+            @Value("${customer-api.hedge.min-delay-ms:20}") long minDelayMs,
+            @Value("${customer-api.hedge.hedge-ratio:0.1}") double hedgeRatio,
+            @Value("${customer-api.hedge.max-hedge-tokens:10}") int maxHedgeTokens,
+            MeterRegistry meterRegistry) {
+        return new HedgePolicy("customer.api", new HedgePolicy.Settings(percentile, Duration.ofMillis(minDelayMs),
+                hedgeRatio, maxHedgeTokens), latencyTracker, meterRegistry);
+    }
+
+    // Serviço de clientes lento ou fora: recusa rápido em vez de prender as threads do Tomcat até o timeout
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.resilience.enabled", havingValue = "true", matchIfMissing = true)
+    public CircuitBreaker customerApiCircuitBreaker(
+            @Value("${customer-api.resilience.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${customer-api.resilience.slow-call-rate-threshold:50}") int slowCallRateThreshold,
+            @Value("${customer-api.resilience.slow-call-ms:2000}") long slowCallMs,
+            @Value("${customer-api.resilience.window-size:20}") int windowSize,
+            @Value("${customer-api.resilience.minimum-calls:10}") int minimumCalls,
+            @Value("${customer-api.resilience.open-ms:30000}") long openMs,
+            @Value("${customer-api.resilience.half-open-calls:3}") int halfOpenCalls,
+            MeterRegistry meterRegistry) {
+        CircuitBreaker.Settings settings = new CircuitBreaker.Settings(failureRateThreshold, slowCallRateThreshold,
+                Duration.ofMillis(slowCallMs), windowSize, minimumCalls, Duration.ofMillis(openMs), halfOpenCalls);
+        return new CircuitBreaker("customer.api", settings, CustomerApiClient::isServiceFailure, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customer-api.resilience.enabled", havingValue = "true", matchIfMissing = true)
+    public Bulkhead customerApiBulkhead(
+            @Value("${customer-api.resilience.max-concurrent-calls:10}") int maxConcurrentCalls,
+            @Value("${customer-api.resilience.max-wait-ms:0}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        return new Bulkhead("customer.api", maxConcurrentCalls, Duration.ofMillis(maxWaitMs), meterRegistry);
     }
 
     @Bean
     public PaymentApiClient paymentApiClient(
             @Value("${payment-api.base-url}") String baseUrl,
-            @Value("${payment-api.connect-timeout:30000}") int connectTimeout,
-            @Value("${payment-api.read-timeout:60000}") int readTimeout) {
-        return new PaymentApiClient(baseUrl, connectTimeout, readTimeout);
+            @Value("${payment-api.read-timeout:60000}") int readTimeout,
+            HttpTransport httpTransport,
+            @Qualifier("paymentApiRetryPolicy") ObjectProvider<RetryPolicy> retryPolicy,
+            @Qualifier("paymentApiLatencyTracker") ObjectProvider<LatencyTracker> latencyTracker) {
+        return new PaymentApiClient(baseUrl, readTimeout, httpTransport, retryPolicy.getIfAvailable(),
+                latencyTracker.getIfAvailable());
+    }
+
+    // Timeout de cada tentativa do createPayment acompanha a latência observada, com read-timeout como teto
+    @Bean
+    @ConditionalOnProperty(name = "payment-api.adaptive-timeout.enabled", havingValue = "true", matchIfMissing = true)
+    public LatencyTracker paymentApiLatencyTracker(
+            @Value("${payment-api.read-timeout:60000}") long readTimeoutMs,
+            @Value("${payment-api.adaptive-timeout.window-ms:300000}") long windowMs,
+            @Value("${payment-api.adaptive-timeout.min-samples:50}") int minSamples,
+            @Value("${payment-api.adaptive-timeout.percentile:0.99}") double percentile,
+            @Value("${payment-api.adaptive-timeout.multiplier:2.0}") double multiplier,
+            @Value("${payment-api.adaptive-timeout.min-ms:2000}") long minTimeoutMs,
+            MeterRegistry meterRegistry) {
+        return new LatencyTracker("payment.api", new LatencyTracker.Settings(Duration.ofMillis(windowMs), minSamples,
+                percentile, multiplier, Duration.ofMillis(Math.min(minTimeoutMs, readTimeoutMs)),
+                Duration.ofMillis(readTimeoutMs)), meterRegistry);
+    }
+
+    // Falhas transitórias ao criar o pagamento são repetidas com backoff e jitter, dentro de um prazo total
+    // e de um orçamento de repetições; a chave de idempotência do pedido evita cobrança em dobro
+    @Bean
+    @ConditionalOnProperty(name = "payment-api.retry.enabled", havingValue = "true", matchIfMissing = true)
+    public RetryPolicy paymentApiRetryPolicy(
+            @Value("${payment-api.retry.max-attempts:3}") int maxAttempts,
+            @Value("${payment-api.retry.base-backoff-ms:200}") long baseBackoffMs,
+            @Value("${payment-api.retry.max-backoff-ms:2000}") long maxBackoffMs,
+            @Value("${payment-api.retry.total-budget-ms:30000}") long totalBudgetMs,
+            @Value("${payment-api.retry.retry-ratio:0.1}") double retryRatio,
+            @Value("${payment-api.retry.max-retry-tokens:10}") int maxRetryTokens,
+            MeterRegistry meterRegistry) {
+        return new RetryPolicy("payment.api", new RetryPolicy.Settings(maxAttempts, Duration.ofMillis(baseBackoffMs),
+                Duration.ofMillis(maxBackoffMs), Duration.ofMillis(totalBudgetMs), retryRatio, maxRetryTokens),
+                meterRegistry);
     }
 
     // Controllers de orquestração (adapters)
@@ -90,7 +397,13 @@ public class UseCaseConfig {
     }
 
     @Bean
-    public WebhookController webhookController(PaymentNotificationUseCase paymentNotificationUseCase) {
-        return new WebhookController(paymentNotificationUseCase);
+    public OrderStreamController orderStreamController(ObjectProvider<OrderChangeFeed> orderChangeFeed) {
+        return new OrderStreamController(orderChangeFeed.getIfAvailable());
+    }
+
+    @Bean
+    public WebhookController webhookController(PaymentNotificationUseCase paymentNotificationUseCase,
+                                               ObjectProvider<WebhookDeduplicationUseCase> webhookDeduplicationUseCase) {
+        return new WebhookController(paymentNotificationUseCase, webhookDeduplicationUseCase.getIfAvailable());
     }
 }
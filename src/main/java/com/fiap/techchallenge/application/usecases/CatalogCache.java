@@ -0,0 +1,104 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.domain.repositories.CategoryRepository;
+import com.fiap.techchallenge.domain.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém a {@link CatalogSnapshot} atual. As leituras do cardápio não consultam o banco: a foto é montada na
+ * primeira leitura, remontada logo depois de cada alteração feita por esta instância e periodicamente para
+ * pegar alterações feitas por outras instâncias.
+ */
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final Object rebuildLock = new Object();
+    private final AtomicLong versions = new AtomicLong();
+    private final Counter rebuilds;
+
+    private volatile CatalogSnapshot current;
+
+    public CatalogCache(ProductRepository productRepository, CategoryRepository categoryRepository,
+                        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("catalog.snapshot.version", versions, AtomicLong::get)
+                .description("Version of the in-memory catalog snapshot served to menu reads")
+                .register(meterRegistry);
+        Gauge.builder("catalog.search.index.bytes", this, CatalogCache::searchIndexBytes)
+                .description("Estimated memory used by the product name search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rebuilds = Counter.builder("catalog.snapshot.rebuilds")
+                .description("Catalog snapshots rebuilt after changes or periodic refreshes")
+                .register(meterRegistry);
+    }
+
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (rebuildLock) {
+            // Outra leitura pode ter montado a foto enquanto esperávamos
+            return current != null ? current : rebuildLocked();
+        }
+    }
+
+    /**
+     * Monta uma nova foto a partir do banco e passa a servi-la
+     */
+    public CatalogSnapshot refresh() {
+        synchronized (rebuildLock) {
+            return rebuildLocked();
+        }
+    }
+
+    /**
+     * Chamado depois de uma alteração já gravada. Se a nova foto não puder ser montada, a atual é descartada
+     * para que a próxima leitura tente de novo em vez de servir o cardápio antigo.
+     */
+    public void onCatalogChanged() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            current = null;
+            logger.warn("Catalog snapshot rebuild failed, next read will retry: {}", e.getMessage());
+        }
+    }
+
+    private double searchIndexBytes() {
+        CatalogSnapshot snapshot = current;
+        return snapshot != null ? snapshot.getSearchIndex().estimatedBytes() : 0;
+    }
+
+    private CatalogSnapshot rebuildLocked() {
+        CatalogSnapshot snapshot = CatalogSnapshot.build(versions.get() + 1, productRepository.findAll(),
+                categoryRepository.findAll(), objectMapper);
+        rebuilds.increment();
+        CatalogSnapshot previous = current;
+        // Refresh sem mudança nenhuma mantém a foto (e a versão) atual
+        if (snapshot.sameContentAs(previous)) {
+            return previous;
+        }
+        versions.set(snapshot.getVersion());
+        current = snapshot;
+        logger.debug("Catalog snapshot {} built: {} products, search index with {} grams (~{} bytes)",
+                snapshot.getVersion(), snapshot.getSearchIndex().size(), snapshot.getSearchIndex().grams(),
+                snapshot.getSearchIndex().estimatedBytes());
+        return snapshot;
+    }
+}
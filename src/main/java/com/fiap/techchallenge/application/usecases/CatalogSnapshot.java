@@ -0,0 +1,142 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.domain.entities.Category;
+import com.fiap.techchallenge.domain.entities.Product;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Foto imutável do cardápio (produtos e categorias) com o JSON de cada listagem já serializado.
+ *
+ * Uma nova foto é montada inteira a cada alteração do catálogo e trocada de uma vez; quem está lendo a
+ * anterior continua com uma visão consistente. As listas e os produtos devolvidos aqui são compartilhados
+ * entre requisições e não devem ser alterados.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Corpo pronto de uma listagem e o ETag calculado sobre ele (o mesmo conteúdo gera o mesmo ETag em
+     * qualquer instância). O array é compartilhado: só deve ser escrito na resposta, nunca alterado.
+     */
+    public record View(byte[] json, String etag) {
+
+        public static View of(Object value, ObjectMapper objectMapper) {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(value);
+                return new View(json, etagOf(json));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize catalog view", e);
+            }
+        }
+
+        private static String etagOf(byte[] json) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+                return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final long version;
+    private final List<Product> products;
+    private final List<Category> categories;
+    private final Map<UUID, List<Product>> productsByCategory;
+    private final View productsView;
+    private final View categoriesView;
+    private final Map<UUID, View> productsByCategoryViews;
+    private final View emptyView;
+    private final ProductSearchIndex searchIndex;
+
+    private CatalogSnapshot(long version, List<Product> products, List<Category> categories,
+                            Map<UUID, List<Product>> productsByCategory, ObjectMapper objectMapper) {
+        this.version = version;
+        this.products = products;
+        this.categories = categories;
+        this.productsByCategory = productsByCategory;
+        this.productsView = View.of(products, objectMapper);
+        this.categoriesView = View.of(categories, objectMapper);
+        this.emptyView = View.of(List.of(), objectMapper);
+        this.searchIndex = ProductSearchIndex.build(products);
+
+        Map<UUID, View> views = new HashMap<>();
+        productsByCategory.forEach((categoryId, categoryProducts) ->
+                views.put(categoryId, View.of(categoryProducts, objectMapper)));
+        this.productsByCategoryViews = Map.copyOf(views);
+    }
+
+    /**
+     * @param products   na ordem em que a listagem completa deve aparecer; a listagem por categoria mantém a mesma ordem
+     */
+    public static CatalogSnapshot build(long version, List<Product> products, List<Category> categories,
+                                        ObjectMapper objectMapper) {
+        Map<UUID, List<Product>> grouped = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product.getCategory() != null && product.getCategory().getId() != null) {
+                grouped.computeIfAbsent(product.getCategory().getId(), id -> new ArrayList<>()).add(product);
+            }
+        }
+        Map<UUID, List<Product>> productsByCategory = new HashMap<>();
+        grouped.forEach((categoryId, categoryProducts) -> productsByCategory.put(categoryId, List.copyOf(categoryProducts)));
+
+        return new CatalogSnapshot(version, List.copyOf(products), List.copyOf(categories),
+                Map.copyOf(productsByCategory), objectMapper);
+    }
+
+    // Produtos por categoria derivam da listagem completa, então comparar as duas listagens basta
+    public boolean sameContentAs(CatalogSnapshot other) {
+        return other != null
+                && productsView.etag().equals(other.productsView.etag())
+                && categoriesView.etag().equals(other.categoriesView.etag());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public List<Product> getProductsByCategory(UUID categoryId) {
+        return productsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    // Busca por nome ou descrição, ordenada por relevância e sem diferenciar acentos
+    public List<Product> searchProducts(String query) {
+        return searchIndex.search(query);
+    }
+
+    public ProductSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public View getProductsView() {
+        return productsView;
+    }
+
+    public View getCategoriesView() {
+        return categoriesView;
+    }
+
+    // Categoria sem produtos (ou inexistente) responde lista vazia, como a consulta ao banco fazia
+    public View getProductsByCategoryView(UUID categoryId) {
+        return productsByCategoryViews.getOrDefault(categoryId, emptyView);
+    }
+}
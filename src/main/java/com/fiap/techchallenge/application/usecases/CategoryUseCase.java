@@ -11,5 +11,6 @@ public interface CategoryUseCase {
     Category updateCategory(UUID id, String name);
     Optional<Category> findById(UUID id);
     List<Category> findAll();
+    CatalogSnapshot.View findAllView();
     void deleteById(UUID id);
 }
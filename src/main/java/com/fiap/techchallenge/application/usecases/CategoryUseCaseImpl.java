@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.application.usecases;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.domain.entities.Category;
 import com.fiap.techchallenge.domain.entities.Product;
 import com.fiap.techchallenge.domain.exception.DomainException;
@@ -15,12 +16,27 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
 
     private static final String RECORD_NOT_FOUND_MESSAGE = "Record not found";
 
+    // Só usado sem o CatalogCache, que serializa com o ObjectMapper da aplicação
+    private static final ObjectMapper FALLBACK_MAPPER = new ObjectMapper();
+
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CatalogCache catalogCache;
 
     public CategoryUseCaseImpl(CategoryRepository categoryRepository, ProductRepository productRepository) {
+        this(categoryRepository, productRepository, null);
+    }
+
+    /**
+     * @param catalogCache foto do cardápio em memória; quando informada, a listagem não consulta o banco e cada
+     *                     alteração remonta a foto (os produtos carregam o nome da categoria). Quando nula,
+     *                     toda listagem vai ao banco
+     */
+    public CategoryUseCaseImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
+                               CatalogCache catalogCache) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.catalogCache = catalogCache;
     }
 
     @Override
@@ -34,7 +50,7 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
                 .name(name)
                 .build();
 
-        return categoryRepository.save(category);
+        return catalogChanged(categoryRepository.save(category));
     }
 
     @Override
@@ -49,7 +65,7 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
                             .id(category.getId())
                             .name(name)
                             .build();
-                    return categoryRepository.save(updatedCategory);
+                    return catalogChanged(categoryRepository.save(updatedCategory));
                 })
                 .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE));
     }
@@ -65,7 +81,14 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
 
     @Override
     public List<Category> findAll() {
-        return categoryRepository.findAll();
+        return catalogCache != null ? catalogCache.snapshot().getCategories() : categoryRepository.findAll();
+    }
+
+    @Override
+    public CatalogSnapshot.View findAllView() {
+        return catalogCache != null
+                ? catalogCache.snapshot().getCategoriesView()
+                : CatalogSnapshot.View.of(categoryRepository.findAll(), FALLBACK_MAPPER);
     }
 
     @Override
@@ -81,5 +104,13 @@ public class CategoryUseCaseImpl implements CategoryUseCase {
         }
 
         categoryRepository.deleteById(id);
+        catalogChanged(null);
+    }
+
+    private <T> T catalogChanged(T result) {
+        if (catalogCache != null) {
+            catalogCache.onCatalogChanged();
+        }
+        return result;
     }
 }
@@ -0,0 +1,314 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.repositories.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Read model em memória dos pedidos em aberto (painel da cozinha).
+ *
+ * Cada status ativo mantém seus pedidos ordenados por chegada; a lista publicada segue a mesma ordem da
+ * consulta original (READY, IN_PREPARATION, RECEIVED e, dentro de cada um, createdAt ASC). As alterações
+ * feitas pelo {@link OrderUseCaseImpl} são aplicadas na hora; o {@link #reconcile()} periódico corrige o
+ * que mudou fora da aplicação (outras instâncias, dispatcher do outbox, ajustes manuais no banco).
+ */
+public class KitchenBoard {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenBoard.class);
+
+    // Mesma ordem do CASE em OrderJpaRepository.findActiveOrders
+    private static final List<OrderStatus> DISPLAY_ORDER =
+            List.of(OrderStatus.READY, OrderStatus.IN_PREPARATION, OrderStatus.RECEIVED);
+
+    private static final Comparator<Order> BY_ARRIVAL = Comparator
+            .comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(Order::getId);
+
+    private final OrderRepository orderRepository;
+    private final OrderChangeFeed orderChangeFeed;
+    private final Map<Long, Entry> ordersById = new HashMap<>();
+    private final Map<OrderStatus, TreeSet<Order>> ordersByStatus = new EnumMap<>(OrderStatus.class);
+    // Pedidos que saíram do painel, com a sequência da saída, para um reconcile em andamento não trazê-los de volta
+    private final Map<Long, Long> removedAt = new HashMap<>();
+    private final Counter reconcileCorrections;
+    private final Object reconcileLock = new Object();
+
+    // Número de sequência da última alteração; o reconcile só sobrescreve pedidos que não mudaram durante a consulta
+    private long sequence;
+    private volatile boolean loaded;
+    // Publicado numa única referência: quem lê nunca mistura listas de publicações diferentes
+    private volatile Snapshot published = new Snapshot(List.of(), Map.of());
+
+    public KitchenBoard(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this(orderRepository, meterRegistry, null);
+    }
+
+    /**
+     * @param orderChangeFeed recebe um delta sempre que um pedido muda de status ou de status de pagamento;
+     *                        opcional
+     */
+    public KitchenBoard(OrderRepository orderRepository, MeterRegistry meterRegistry, OrderChangeFeed orderChangeFeed) {
+        this.orderRepository = orderRepository;
+        this.orderChangeFeed = orderChangeFeed;
+        for (OrderStatus status : DISPLAY_ORDER) {
+            ordersByStatus.put(status, new TreeSet<>(BY_ARRIVAL));
+        }
+
+        Gauge.builder("kitchen.board.orders", this, board -> board.published.orders().size())
+                .description("Active orders held by the in-memory kitchen board")
+                .register(meterRegistry);
+        this.reconcileCorrections = Counter.builder("kitchen.board.reconcile.corrections")
+                .description("Orders added, updated or removed by reconciliation because they changed outside the app")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial; se o banco estiver indisponível o painel continua vazio e as leituras voltam ao banco
+     * até o próximo reconcile bem-sucedido
+     */
+    public void load() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("Kitchen board initial load failed, serving GET /orders from the database: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Pedidos em aberto na ordem de exibição; a lista é imutável e não consulta o banco
+     */
+    public List<Order> activeOrders() {
+        return published.orders();
+    }
+
+    /**
+     * Página de um status ativo em (createdAt, id) ASC, começando depois da posição informada; não consulta o
+     * banco nem aloca novos objetos, os resumos são montados quando o pedido muda
+     */
+    public List<OrderSummary> page(OrderStatus status, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StatusPage statusPage = published.byStatus().getOrDefault(status, StatusPage.EMPTY);
+        List<Order> orders = statusPage.orders();
+        List<OrderSummary> summaries = statusPage.summaries();
+        int from = 0;
+        if (afterCreatedAt != null && afterId != null) {
+            Order probe = new Order();
+            probe.setId(afterId);
+            probe.setCreatedAt(afterCreatedAt);
+            int index = Collections.binarySearch(orders, probe, BY_ARRIVAL);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return summaries.subList(from, Math.min(summaries.size(), from + limit));
+    }
+
+    /**
+     * Aplica o estado atual de um pedido: entra, muda de status ou sai do painel (FINISHED)
+     */
+    public synchronized void onOrderChanged(Order order) {
+        if (order == null || order.getId() == null) {
+            return;
+        }
+        sequence++;
+        apply(order);
+        publish();
+    }
+
+    /**
+     * Aplica uma mudança de status já gravada por UPDATE condicional, reaproveitando a cópia do painel
+     *
+     * @return o pedido com o novo status, ou vazio quando o painel não está carregado ou não tem o pedido
+     */
+    public synchronized Optional<Order> onStatusChanged(Long id, OrderStatus status, LocalDateTime updatedAt) {
+        Entry entry = ordersById.get(id);
+        if (!loaded || entry == null) {
+            return Optional.empty();
+        }
+        Order updated = copyOf(entry.order);
+        updated.setStatus(status);
+        updated.setUpdatedAt(updatedAt);
+        // O UPDATE condicional também incrementou a versão no banco
+        if (updated.getVersion() != null) {
+            updated.setVersion(updated.getVersion() + 1);
+        }
+        sequence++;
+        apply(updated);
+        publish();
+        return Optional.of(updated);
+    }
+
+    public synchronized void onOrdersChanged(Collection<Order> orders) {
+        sequence++;
+        for (Order order : orders) {
+            if (order != null && order.getId() != null) {
+                apply(order);
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Recarrega os pedidos em aberto do banco e corrige divergências. Pedidos alterados pela aplicação
+     * enquanto a consulta rodava são mantidos, pois o estado em memória é mais novo que o lido.
+     *
+     * @return quantidade de pedidos corrigidos
+     */
+    public int reconcile() {
+        synchronized (reconcileLock) {
+            return reconcileLocked();
+        }
+    }
+
+    private int reconcileLocked() {
+        long startedAt;
+        synchronized (this) {
+            startedAt = sequence;
+        }
+
+        List<Order> activeInDatabase = orderRepository.findActiveOrders();
+
+        synchronized (this) {
+            int corrections = 0;
+            Set<Long> activeIds = new HashSet<>();
+            for (Order order : activeInDatabase) {
+                activeIds.add(order.getId());
+                Entry current = ordersById.get(order.getId());
+                Long removedSequence = removedAt.get(order.getId());
+                if ((current != null && current.sequence > startedAt)
+                        || (removedSequence != null && removedSequence > startedAt)) {
+                    continue;
+                }
+                if (current == null || !sameState(current.order, order)) {
+                    apply(order);
+                    corrections++;
+                }
+            }
+
+            Iterator<Map.Entry<Long, Entry>> iterator = ordersById.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next().getValue();
+                if (!activeIds.contains(entry.order.getId()) && entry.sequence <= startedAt) {
+                    ordersByStatus.get(entry.order.getStatus()).remove(entry.order);
+                    iterator.remove();
+                    corrections++;
+                    // Saiu da consulta de pedidos em aberto: foi finalizado fora da aplicação
+                    notifyChange(entry.order.getId(), OrderStatus.FINISHED, entry.order.getStatusPayment());
+                }
+            }
+            removedAt.values().removeIf(removedSequence -> removedSequence <= startedAt);
+
+            // A carga inicial não conta como correção
+            if (loaded && corrections > 0) {
+                reconcileCorrections.increment(corrections);
+                logger.info("Kitchen board reconciliation corrected {} orders", corrections);
+            }
+            loaded = true;
+            publish();
+            return corrections;
+        }
+    }
+
+    private void apply(Order order) {
+        Entry previous = ordersById.remove(order.getId());
+        if (previous != null) {
+            ordersByStatus.get(previous.order.getStatus()).remove(previous.order);
+        }
+        if (previous == null
+                || previous.order.getStatus() != order.getStatus()
+                || previous.order.getStatusPayment() != order.getStatusPayment()) {
+            notifyChange(order.getId(), order.getStatus(), order.getStatusPayment());
+        }
+
+        TreeSet<Order> bucket = order.getStatus() != null ? ordersByStatus.get(order.getStatus()) : null;
+        if (bucket == null) {
+            // FINISHED (ou status desconhecido) não aparece no painel
+            removedAt.put(order.getId(), sequence);
+            return;
+        }
+        removedAt.remove(order.getId());
+        Order copy = copyOf(order);
+        bucket.add(copy);
+        ordersById.put(copy.getId(), new Entry(copy, OrderSummary.of(copy), sequence));
+    }
+
+    private void notifyChange(Long orderId, OrderStatus status, StatusPayment statusPayment) {
+        // A carga inicial não é mudança: quem conecta depois busca a lista completa pelo GET /orders
+        if (orderChangeFeed != null && loaded) {
+            orderChangeFeed.publish(orderId, status, statusPayment);
+        }
+    }
+
+    private void publish() {
+        List<Order> orders = new ArrayList<>(ordersById.size());
+        Map<OrderStatus, StatusPage> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : DISPLAY_ORDER) {
+            List<Order> statusOrders = List.copyOf(ordersByStatus.get(status));
+            List<OrderSummary> statusSummaries = new ArrayList<>(statusOrders.size());
+            for (Order order : statusOrders) {
+                statusSummaries.add(ordersById.get(order.getId()).summary);
+            }
+            byStatus.put(status, new StatusPage(statusOrders, List.copyOf(statusSummaries)));
+            orders.addAll(statusOrders);
+        }
+        published = new Snapshot(List.copyOf(orders), byStatus);
+    }
+
+    private static boolean sameState(Order boardOrder, Order databaseOrder) {
+        return boardOrder.getStatus() == databaseOrder.getStatus()
+                && boardOrder.getStatusPayment() == databaseOrder.getStatusPayment()
+                && Objects.equals(boardOrder.getIdPayment(), databaseOrder.getIdPayment())
+                && Objects.equals(truncate(boardOrder.getUpdatedAt()), truncate(databaseOrder.getUpdatedAt()));
+    }
+
+    // O banco guarda menos casas decimais que o LocalDateTime.now() usado na gravação
+    private static LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+
+    // O painel guarda sua própria cópia: quem chamou pode continuar alterando a instância recebida
+    private static Order copyOf(Order order) {
+        Order copy = new Order(order.getId(), order.getCpf(),
+                order.getItems() != null ? List.copyOf(order.getItems()) : null,
+                order.getTotalAmount(), order.getStatus(), order.getStatusPayment(), order.getIdPayment(),
+                order.getCreatedAt(), order.getUpdatedAt());
+        copy.setVersion(order.getVersion());
+        return copy;
+    }
+
+    private record Entry(Order order, OrderSummary summary, long sequence) {
+    }
+
+    // Pedidos de um status e seus resumos, na mesma ordem: o índice da busca vale para as duas listas
+    private record StatusPage(List<Order> orders, List<OrderSummary> summaries) {
+        static final StatusPage EMPTY = new StatusPage(List.of(), List.of());
+    }
+
+    private record Snapshot(List<Order> orders, Map<OrderStatus, StatusPage> byStatus) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Repete uma operação de leitura-alteração-gravação quando outra requisição alterou o mesmo pedido no meio
+ * do caminho. Cada tentativa relê o pedido, então a alteração é sempre aplicada sobre o estado mais novo.
+ * Depois de {@code maxAttempts} conflitos seguidos a {@link ConcurrentUpdateException} é propagada (409).
+ */
+public class OptimisticRetry {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final int maxAttempts;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetry(int maxAttempts) {
+        this(maxAttempts, new SimpleMeterRegistry());
+    }
+
+    public OptimisticRetry(int maxAttempts, MeterRegistry meterRegistry) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be greater than zero");
+        }
+        this.maxAttempts = maxAttempts;
+        this.conflicts = Counter.builder("orders.update.conflicts")
+                .description("Order writes rejected because the order changed since it was read")
+                .register(meterRegistry);
+        this.retries = Counter.builder("orders.update.retries")
+                .description("Order updates retried after a version conflict")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("orders.update.retries.exhausted")
+                .description("Order updates that still conflicted after the last attempt")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (ConcurrentUpdateException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    logger.warn("Giving up order update after {} conflicting attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                retries.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed versionado das mudanças de status dos pedidos, consumido pelas telas da cozinha e de retirada.
+ *
+ * Cada mudança recebe uma versão sequencial e fica num buffer circular com as últimas {@code capacity}
+ * versões, o que permite retomar de onde o cliente parou ao reconectar. Quem está atrás do buffer recebe
+ * um reset e deve recarregar a lista completa. Uma única thread de despacho decide o que cada inscrito deve
+ * receber, então quem publica (requisições, reconcile do painel) nunca espera por clientes lentos.
+ *
+ * O envio em si (escrita bloqueante no socket) sai de um pool pequeno de threads, com no máximo um envio por
+ * inscrito de cada vez para manter a ordem. Cada inscrito tem uma fila de saída limitada: quem a enche recebe
+ * um reset no lugar das mudanças acumuladas e, se a enche de novo antes do reset sair, é descartado. Assim um
+ * cliente travado prende no máximo uma thread de envio e nunca atrasa os demais.
+ */
+public class OrderChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeFeed.class);
+
+    public record OrderChange(long version, Long orderId, OrderStatus status, StatusPayment statusPayment) {
+    }
+
+    /**
+     * Destino das mudanças; qualquer exceção lançada aqui encerra a inscrição
+     */
+    public interface Subscriber {
+        void onChange(OrderChange change) throws Exception;
+
+        void onReset(long version) throws Exception;
+
+        void onHeartbeat() throws Exception;
+    }
+
+    // Evento aguardando envio na fila de saída de um inscrito
+    private interface Delivery {
+        void to(Subscriber subscriber) throws Exception;
+    }
+
+    private record Reset(long version) implements Delivery {
+        @Override
+        public void to(Subscriber subscriber) throws Exception {
+            subscriber.onReset(version);
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final Subscriber subscriber;
+        private final BlockingQueue<Delivery> outbound;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Reset enfileirado por estouro da fila que ainda não foi enviado
+        private volatile boolean resetPending;
+        // Só é lido e alterado pela thread de despacho depois da inscrição
+        private long cursor;
+
+        private Subscription(Subscriber subscriber, long cursor) {
+            this.subscriber = subscriber;
+            this.outbound = new ArrayBlockingQueue<>(sendQueueCapacity);
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+
+    private final OrderChange[] ring;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+    private final int sendQueueCapacity;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Counter resets;
+    private final Counter dropped;
+
+    private long version;
+
+    /**
+     * @param sendQueueCapacity eventos que podem aguardar envio por inscrito antes de ele ser tratado como atrasado
+     * @param senderThreads     threads que fazem as escritas; cada cliente travado prende uma até a escrita falhar
+     */
+    public OrderChangeFeed(int capacity, Duration heartbeatInterval, int sendQueueCapacity, int senderThreads,
+                           MeterRegistry meterRegistry) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+        if (sendQueueCapacity <= 0) {
+            throw new IllegalArgumentException("sendQueueCapacity must be greater than zero");
+        }
+        if (senderThreads <= 0) {
+            throw new IllegalArgumentException("senderThreads must be greater than zero");
+        }
+        this.ring = new OrderChange[capacity];
+        this.sendQueueCapacity = sendQueueCapacity;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        // Fila sem limite, mas com no máximo uma tarefa por inscrito (ver schedule)
+        ThreadPoolExecutor senderPool = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "order-change-feed-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        senderPool.allowCoreThreadTimeOut(true);
+        this.senders = senderPool;
+        long heartbeatMs = heartbeatInterval.toMillis();
+        if (heartbeatMs > 0) {
+            dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("orders.stream.subscribers", subscriptions, Set::size)
+                .description("Clients currently subscribed to the order change stream")
+                .register(meterRegistry);
+        this.resets = Counter.builder("orders.stream.resets")
+                .description("Subscribers that fell behind the change buffer and had to reload the full order list")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("orders.stream.dropped")
+                .description("Subscribers disconnected for not keeping up with their outbound queue")
+                .register(meterRegistry);
+    }
+
+    public synchronized long currentVersion() {
+        return version;
+    }
+
+    public OrderChange publish(Long orderId, OrderStatus status, StatusPayment statusPayment) {
+        OrderChange change;
+        synchronized (this) {
+            version++;
+            change = new OrderChange(version, orderId, status, statusPayment);
+            ring[(int) (version % ring.length)] = change;
+        }
+        scheduleDrain();
+        return change;
+    }
+
+    /**
+     * @param lastVersion última versão que o cliente já recebeu; nulo para receber só o que acontecer a partir de agora
+     */
+    public Subscription subscribe(Long lastVersion, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber, lastVersion != null ? lastVersion : currentVersion());
+        subscriptions.add(subscription);
+        scheduleDrain();
+        return subscription;
+    }
+
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.clear();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Feed encerrado
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        for (Subscription subscription : subscriptions) {
+            deliver(subscription);
+        }
+    }
+
+    private void deliver(Subscription subscription) {
+        long latest;
+        long oldest;
+        synchronized (this) {
+            latest = version;
+            oldest = Math.max(1, version - ring.length + 1);
+        }
+
+        // Cliente à frente (versão de outra instância ou de antes de um restart) ou atrás do buffer: recarrega tudo
+        if (subscription.cursor > latest || subscription.cursor < oldest - 1) {
+            reset(subscription, latest);
+            return;
+        }
+
+        while (subscription.cursor < latest) {
+            long next = subscription.cursor + 1;
+            OrderChange change;
+            synchronized (this) {
+                // O publicador pode ter sobrescrito a posição enquanto entregávamos as anteriores
+                change = next >= version - ring.length + 1 ? ring[(int) (next % ring.length)] : null;
+                latest = version;
+            }
+            if (change == null) {
+                reset(subscription, latest);
+                return;
+            }
+            if (!enqueue(subscription, target -> target.onChange(change))) {
+                // Fila cheia: as mudanças acumuladas viram um reset
+                subscription.outbound.clear();
+                reset(subscription, latest);
+                return;
+            }
+            subscription.cursor = next;
+        }
+    }
+
+    private void reset(Subscription subscription, long latest) {
+        if (subscription.resetPending) {
+            // Encheu a fila de novo sem conseguir enviar nem o reset anterior
+            drop(subscription);
+            return;
+        }
+        subscription.cursor = latest;
+        subscription.resetPending = true;
+        resets.increment();
+        if (!enqueue(subscription, new Reset(latest))) {
+            subscription.outbound.clear();
+            enqueue(subscription, new Reset(latest));
+        }
+    }
+
+    private void drop(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            dropped.increment();
+            logger.debug("Dropping order stream subscriber that stopped receiving");
+        }
+        subscription.outbound.clear();
+    }
+
+    private boolean enqueue(Subscription subscription, Delivery delivery) {
+        if (!subscription.outbound.offer(delivery)) {
+            return false;
+        }
+        schedule(subscription);
+        return true;
+    }
+
+    // Garante uma única tarefa de envio por inscrito, preservando a ordem da fila
+    private void schedule(Subscription subscription) {
+        if (subscription.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscription));
+            } catch (RuntimeException e) {
+                // Feed encerrado
+                subscription.sending.set(false);
+            }
+        }
+    }
+
+    private void send(Subscription subscription) {
+        while (true) {
+            Delivery delivery;
+            while ((delivery = subscription.outbound.poll()) != null) {
+                if (!subscriptions.contains(subscription)) {
+                    subscription.outbound.clear();
+                    return;
+                }
+                if (delivery instanceof Reset) {
+                    subscription.resetPending = false;
+                }
+                try {
+                    delivery.to(subscription.subscriber);
+                } catch (Exception e) {
+                    logger.debug("Dropping order stream subscriber: {}", e.getMessage());
+                    subscription.close();
+                    subscription.outbound.clear();
+                    return;
+                }
+            }
+            subscription.sending.set(false);
+            // O despacho pode ter enfileirado algo depois do último poll e antes de liberar o flag
+            if (subscription.outbound.isEmpty() || !subscription.sending.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            // Com a fila ocupada o cliente já tem o que receber; o heartbeat só serve para conexões ociosas
+            if (subscription.outbound.isEmpty()) {
+                enqueue(subscription, Subscriber::onHeartbeat);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.exception.DomainException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição da listagem paginada: último pedido entregue na chave (prioridade do status, createdAt, id).
+ * Para o cliente é um token opaco; o formato interno pode mudar sem quebrar quem só repassa o valor.
+ */
+public record OrderCursor(OrderStatus status, LocalDateTime createdAt, Long id) {
+
+    private static final String VERSION = "v1";
+
+    public static OrderCursor after(OrderSummary order) {
+        return new OrderCursor(order.getStatus(), order.getCreatedAt(), order.getId());
+    }
+
+    public String encode() {
+        String raw = String.join("|", VERSION, status.name(), createdAt.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new DomainException("Invalid cursor");
+            }
+            return new OrderCursor(OrderStatus.valueOf(parts[1]), LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+        } catch (DomainException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new DomainException("Invalid cursor", e);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.fiap.techchallenge.application.usecases;
 
 import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderPage;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
 import com.fiap.techchallenge.domain.entities.StatusPayment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface OrderUseCase {
@@ -29,8 +32,9 @@ public interface OrderUseCase {
 
     Order createOrder(String cpf, List<OrderItemRequest> items);
     Optional<Order> findOrderById(Long id);
-    List<Order> findByOptionalStatus(OrderStatus status);
+    OrderPage findOrders(OrderStatus status, String cursor, Integer limit);
     Order updateOrderStatus(Long id, OrderStatus status);
     Order updateOrderStatus(Long id);
     Order updateOrderStatusPayment(Long id, StatusPayment statusPayment);
+    Set<Long> approvePayments(Collection<Long> paymentIds);
 }
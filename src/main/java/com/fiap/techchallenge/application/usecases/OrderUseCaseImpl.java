@@ -1,58 +1,186 @@
 package com.fiap.techchallenge.application.usecases;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.application.concurrent.TaskContext;
 import com.fiap.techchallenge.domain.entities.*;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
 import com.fiap.techchallenge.domain.exception.DomainException;
+import com.fiap.techchallenge.domain.exception.InvalidStatusTransitionException;
 import com.fiap.techchallenge.domain.exception.NotFoundException;
 import com.fiap.techchallenge.domain.repositories.OrderRepository;
 import com.fiap.techchallenge.domain.repositories.ProductRepository;
 import com.fiap.techchallenge.external.api.CustomerApiClient;
-import com.fiap.techchallenge.external.api.PaymentApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class OrderUseCaseImpl implements OrderUseCase {
 
     public static final String RECORD_NOT_FOUND_MESSAGE = "Record not found";
 
+    public static final Duration DEFAULT_CREATE_ORDER_TIMEOUT = Duration.ofSeconds(30);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Ordem de exibição sem filtro: mesma prioridade do painel da cozinha (FINISHED só aparece filtrando)
+    private static final List<OrderStatus> ACTIVE_STATUS_PRIORITY =
+            List.of(OrderStatus.READY, OrderStatus.IN_PREPARATION, OrderStatus.RECEIVED);
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderUseCaseImpl.class);
+
     public final OrderRepository orderRepository;
     public final ProductRepository productRepository;
     public final CustomerApiClient customerApiClient;
-    private final PaymentApiClient paymentApiClient;
+    private final ExecutorService createOrderExecutor;
+    private final Duration createOrderTimeout;
+    private final KitchenBoard kitchenBoard;
+    private final OptimisticRetry optimisticRetry;
+
+    public OrderUseCaseImpl(OrderRepository orderRepository,
+                            ProductRepository productRepository,
+                            CustomerApiClient customerApiClient) {
+        this(orderRepository, productRepository, customerApiClient, null, null);
+    }
+
+    /**
+     * @param createOrderExecutor pool usado para buscar o cliente e validar os produtos em paralelo;
+     *                            quando nulo, o pedido é montado sequencialmente
+     * @param createOrderTimeout  prazo compartilhado pelas duas etapas no modo paralelo
+     */
+    public OrderUseCaseImpl(OrderRepository orderRepository,
+                            ProductRepository productRepository,
+                            CustomerApiClient customerApiClient,
+                            ExecutorService createOrderExecutor,
+                            Duration createOrderTimeout) {
+        this(orderRepository, productRepository, customerApiClient, createOrderExecutor, createOrderTimeout, null);
+    }
+
+    public OrderUseCaseImpl(OrderRepository orderRepository,
+                            ProductRepository productRepository,
+                            CustomerApiClient customerApiClient,
+                            ExecutorService createOrderExecutor,
+                            Duration createOrderTimeout,
+                            KitchenBoard kitchenBoard) {
+        this(orderRepository, productRepository, customerApiClient, createOrderExecutor, createOrderTimeout,
+                kitchenBoard, null);
+    }
 
+    /**
+     * @param kitchenBoard read model dos pedidos em aberto; quando informado, toda alteração feita aqui é aplicada
+     *                     nele e o GET /orders é servido da memória. Quando nulo, a listagem consulta o banco
+     * @param optimisticRetry tentativas para as alterações que leem e regravam o pedido inteiro; quando nulo,
+     *                        usa {@link OptimisticRetry#DEFAULT_MAX_ATTEMPTS} sem métricas publicadas
+     */
     public OrderUseCaseImpl(OrderRepository orderRepository,
                             ProductRepository productRepository,
                             CustomerApiClient customerApiClient,
-                            PaymentApiClient paymentApiClient) {
+                            ExecutorService createOrderExecutor,
+                            Duration createOrderTimeout,
+                            KitchenBoard kitchenBoard,
+                            OptimisticRetry optimisticRetry) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.customerApiClient = customerApiClient;
-        this.paymentApiClient = paymentApiClient;
+        this.createOrderExecutor = createOrderExecutor;
+        this.createOrderTimeout = createOrderTimeout != null ? createOrderTimeout : DEFAULT_CREATE_ORDER_TIMEOUT;
+        this.kitchenBoard = kitchenBoard;
+        this.optimisticRetry = optimisticRetry != null
+                ? optimisticRetry : new OptimisticRetry(OptimisticRetry.DEFAULT_MAX_ATTEMPTS);
     }
 
     @Override
     public Order createOrder(String cpf, List<OrderItemRequest> items) {
+        if (createOrderExecutor != null) {
+            return createOrderInParallel(cpf, items);
+        }
         JsonNode customerData = customerApiClient.fetchCustomerByCpf(cpf);
         List<OrderItem> orderItems = validateAndConvertOrderItems(items);
         return createAndSaveOrder(customerData, orderItems);
     }
 
+    // Busca do cliente e validação dos produtos são independentes: roda as duas ao mesmo tempo,
+    // com um prazo único (nunca maior que o que resta da requisição), e cancela a outra assim que uma delas falhar
+    private Order createOrderInParallel(String cpf, List<OrderItemRequest> items) {
+        Duration timeout = RequestDeadline.cap(createOrderTimeout, "creating order");
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(createOrderExecutor);
+
+        Future<Object> customerFuture = completionService.submit(
+                TaskContext.wrap(() -> customerApiClient.fetchCustomerByCpf(cpf)));
+        Future<Object> itemsFuture = completionService.submit(
+                TaskContext.wrap(() -> validateAndConvertOrderItems(items)));
+
+        try {
+            for (int pending = 2; pending > 0; pending--) {
+                long remaining = deadline - System.nanoTime();
+                Future<Object> completed = completionService.poll(remaining, TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new DeadlineExceededException(String.format(
+                            "Timeout creating order: customer lookup and product validation exceeded %dms",
+                            timeout.toMillis()));
+                }
+                getCompleted(completed);
+            }
+
+            JsonNode customerData = (JsonNode) customerFuture.get();
+            @SuppressWarnings("unchecked")
+            List<OrderItem> orderItems = (List<OrderItem>) itemsFuture.get();
+            return createAndSaveOrder(customerData, orderItems);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted while creating order", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected failure creating order", e.getCause());
+        } finally {
+            customerFuture.cancel(true);
+            itemsFuture.cancel(true);
+        }
+    }
+
+    private void getCompleted(Future<Object> completed) throws InterruptedException {
+        try {
+            completed.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            logger.debug("Parallel order step failed, cancelling sibling: {}", cause.getMessage());
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error creating order", cause);
+        }
+    }
+
     public List<OrderItem> validateAndConvertOrderItems(List<OrderItemRequest> items) {
+        Map<UUID, Product> productsById = findProductsByIds(items);
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemRequest itemRequest : items) {
             validateQuantity(itemRequest.getQuantity());
-            Product product = validateProduct(itemRequest.getProductId());
+            Product product = validateProduct(productsById.get(itemRequest.getProductId()));
             OrderItem orderItem = OrderItem.create(product, itemRequest.getQuantity());
             orderItems.add(orderItem);
         }
@@ -60,9 +188,33 @@ public class OrderUseCaseImpl implements OrderUseCase {
         return orderItems;
     }
 
+    // Busca todos os produtos do pedido em uma única consulta, ignorando IDs repetidos
+    private Map<UUID, Product> findProductsByIds(List<OrderItemRequest> items) {
+        Set<UUID> productIds = new HashSet<>();
+        for (OrderItemRequest itemRequest : items) {
+            if (itemRequest.getProductId() != null) {
+                productIds.add(itemRequest.getProductId());
+            }
+        }
+
+        Map<UUID, Product> productsById = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return productsById;
+        }
+        for (Product product : productRepository.findAllByIds(productIds)) {
+            productsById.put(product.getId(), product);
+        }
+        return productsById;
+    }
+
     public Product validateProduct(UUID productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product not found"));
+        return validateProduct(productRepository.findById(productId).orElse(null));
+    }
+
+    private Product validateProduct(Product product) {
+        if (product == null) {
+            throw new NotFoundException("Product not found");
+        }
 
         if (!product.isActive()) {
             throw new DomainException("Product is not active: " + product.getName());
@@ -84,14 +236,12 @@ public class OrderUseCaseImpl implements OrderUseCase {
         order.setStatus(OrderStatus.RECEIVED);
         order.setStatusPayment(StatusPayment.AGUARDANDO_PAGAMENTO);
 
-        Long idPayment = createPaymentOrder(order, customerData);
-        order.setIdPayment(idPayment);
-
-        return orderRepository.save(order);
+        // O pagamento é criado depois pelo dispatcher do outbox; o pedido é retornado sem idPayment
+        PaymentOutboxEntry paymentOutboxEntry = createPaymentOutboxEntry(order, customerData);
+        return publish(orderRepository.saveWithPaymentOutbox(order, paymentOutboxEntry));
     }
 
-    public Long createPaymentOrder(Order order, JsonNode customerData) {
-        Double amount = order.getTotalAmount().doubleValue();
+    public PaymentOutboxEntry createPaymentOutboxEntry(Order order, JsonNode customerData) {
         String description = "Pagamento para o pedido";
         String paymentMethodId = "pix";
         Integer installments = 1;
@@ -99,17 +249,9 @@ public class OrderUseCaseImpl implements OrderUseCase {
         String email = (customerData != null && customerData.has("email")) ? customerData.get("email").asText() : "default@example.com";
         String cpf = (customerData != null && customerData.has("cpf")) ? customerData.get("cpf").asText() : "00000000000";
 
-        String response = paymentApiClient.createPayment(
-            amount, description, paymentMethodId, installments, email, "CPF", cpf
+        return PaymentOutboxEntry.pending(
+            order.getTotalAmount(), description, paymentMethodId, installments, email, "CPF", cpf
         );
-
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            JsonNode root = mapper.readTree(response);
-            return root.path("id").asLong();
-        } catch (IOException e) {
-            throw new RuntimeException("Error parsing payment response", e);
-        }
     }
 
     @Override
@@ -121,43 +263,140 @@ public class OrderUseCaseImpl implements OrderUseCase {
         return order;
     }
 
+    /**
+     * Listagem paginada por keyset em (prioridade do status, createdAt, id). Sem filtro, percorre os status
+     * ativos na ordem de prioridade; cada página custa no máximo uma consulta por status, não importa
+     * quantos pedidos existam antes do cursor.
+     */
     @Override
-    public List<Order> findByOptionalStatus(OrderStatus status) {
-        return orderRepository.findByOptionalStatus(status);
+    public OrderPage findOrders(OrderStatus status, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<OrderStatus> statuses = status != null ? List.of(status) : ACTIVE_STATUS_PRIORITY;
+        if (after != null && !statuses.contains(after.status())) {
+            throw new DomainException("Cursor does not match the status filter");
+        }
+
+        // Busca um item a mais para saber se existe próxima página
+        List<OrderSummary> orders = new ArrayList<>();
+        int start = after != null ? statuses.indexOf(after.status()) : 0;
+        for (int i = start; i < statuses.size() && orders.size() <= pageSize; i++) {
+            OrderStatus current = statuses.get(i);
+            boolean resume = after != null && after.status() == current;
+            orders.addAll(findPage(current,
+                    resume ? after.createdAt() : null,
+                    resume ? after.id() : null,
+                    pageSize + 1 - orders.size()));
+        }
+
+        if (orders.size() <= pageSize) {
+            return new OrderPage(orders, null);
+        }
+        List<OrderSummary> items = List.copyOf(orders.subList(0, pageSize));
+        return new OrderPage(items, OrderCursor.after(items.get(pageSize - 1)).encode());
     }
 
-    @Override
-    public Order updateOrderStatus(Long id, OrderStatus status) {
-        Order existingOrder = orderRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE));
+    private List<OrderSummary> findPage(OrderStatus status, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        if (status != OrderStatus.FINISHED && kitchenBoard != null && kitchenBoard.isLoaded()) {
+            return kitchenBoard.page(status, afterCreatedAt, afterId, limit);
+        }
+        return orderRepository.findSummaryPageByStatus(status, afterCreatedAt, afterId, limit);
+    }
 
-        if (!existingOrder.getStatusPayment().equals(StatusPayment.APROVADO)) {
-            throw new DomainException("The order is not paid");
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0) {
+            throw new DomainException("Limit must be greater than zero");
         }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 
-        existingOrder.setStatus(status);
-        existingOrder.setUpdatedAt(LocalDateTime.now());
-        return orderRepository.save(existingOrder);
+    @Override
+    public Order updateOrderStatus(Long id, OrderStatus status) {
+        if (status == null) {
+            throw new DomainException("Status is required");
+        }
+        return transitionStatus(id, status, StatusPayment.APROVADO);
     }
 
     @Override
     public Order updateOrderStatus(Long id) {
+        return transitionStatus(id, OrderStatus.IN_PREPARATION, null);
+    }
+
+    /**
+     * Um único UPDATE condicional; o pedido só é lido de volta quando o painel não tem a cópia dele ou quando
+     * o UPDATE não alterou nada e é preciso explicar o motivo
+     */
+    private Order transitionStatus(Long id, OrderStatus status, StatusPayment requiredStatusPayment) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        if (!orderRepository.transitionStatus(id, status.allowedPredecessors(), status, requiredStatusPayment, updatedAt)) {
+            throw rejectedTransition(id, status, requiredStatusPayment);
+        }
+
+        if (kitchenBoard != null) {
+            Optional<Order> fromBoard = kitchenBoard.onStatusChanged(id, status, updatedAt);
+            if (fromBoard.isPresent()) {
+                return fromBoard.get();
+            }
+        }
+        return publish(orderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE)));
+    }
+
+    private DomainException rejectedTransition(Long id, OrderStatus status, StatusPayment requiredStatusPayment) {
         Order existingOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE));
-
-        existingOrder.setStatus(OrderStatus.IN_PREPARATION);
-        existingOrder.setUpdatedAt(LocalDateTime.now());
-        return orderRepository.save(existingOrder);
+        if (requiredStatusPayment != null && existingOrder.getStatusPayment() != requiredStatusPayment) {
+            return new DomainException("The order is not paid");
+        }
+        return new InvalidStatusTransitionException(
+                "Cannot change order status from " + existingOrder.getStatus() + " to " + status);
     }
 
     @Override
     public Order updateOrderStatusPayment(Long id, StatusPayment statusPayment) {
-        Order existingOrder = orderRepository.findByIdPayment(id)
-                .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE));
+        // Cada tentativa relê o pedido: se a cozinha o alterou no meio do caminho, a gravação falha e é refeita
+        return optimisticRetry.execute(() -> {
+            Order existingOrder = orderRepository.findByIdPayment(id)
+                    .orElseThrow(() -> new NotFoundException(RECORD_NOT_FOUND_MESSAGE));
+
+            existingOrder.setStatusPayment(statusPayment);
+            // Mesma regra da aprovação em lote: só avança quem ainda está RECEIVED, reentregas não regridem o pedido
+            if (existingOrder.getStatus() == OrderStatus.RECEIVED) {
+                existingOrder.setStatus(OrderStatus.IN_PREPARATION);
+            }
+            existingOrder.setUpdatedAt(LocalDateTime.now());
+            return publish(orderRepository.save(existingOrder));
+        });
+    }
+
+    /**
+     * Aprova os pagamentos em um único UPDATE e retorna os paymentIds que não correspondem a nenhum pedido
+     */
+    @Override
+    public Set<Long> approvePayments(Collection<Long> paymentIds) {
+        Set<Long> requested = new LinkedHashSet<>(paymentIds);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            return Set.of();
+        }
 
-        existingOrder.setStatusPayment(statusPayment);
-        existingOrder.setStatus(OrderStatus.IN_PREPARATION);
-        existingOrder.setUpdatedAt(LocalDateTime.now());
-        return orderRepository.save(existingOrder);
+        Set<Long> matched = orderRepository.approvePayments(requested, LocalDateTime.now());
+        if (kitchenBoard != null && !matched.isEmpty()) {
+            // O UPDATE em lote não devolve as linhas: relê só os pedidos afetados para atualizar o painel
+            kitchenBoard.onOrdersChanged(orderRepository.findAllByIdPayments(matched));
+        }
+        requested.removeAll(matched);
+        return requested;
+    }
+
+    private Order publish(Order saved) {
+        if (kitchenBoard != null) {
+            kitchenBoard.onOrderChanged(saved);
+        }
+        return saved;
     }
 }
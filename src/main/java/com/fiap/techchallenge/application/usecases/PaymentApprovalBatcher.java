@@ -0,0 +1,182 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa as aprovações de pagamento recebidas numa janela curta e aplica todas com um único UPDATE
+ * (via {@link OrderUseCase#approvePayments}). Os paymentIds sem pedido são logados e contados, e quem enviou a
+ * aprovação é avisado pelo {@code onFailure} tanto nesse caso quanto quando o lote falha; as demais recebem
+ * {@code onApplied} depois do UPDATE.
+ */
+public class PaymentApprovalBatcher implements PaymentNotificationUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentApprovalBatcher.class);
+
+    private final OrderUseCase orderUseCase;
+    private final BlockingQueue<Approval> pending;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Thread flusher;
+    private final Counter unmatchedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private volatile boolean running = true;
+
+    public PaymentApprovalBatcher(OrderUseCase orderUseCase, int capacity, int maxBatchSize, Duration window,
+                                  MeterRegistry meterRegistry) {
+        this.orderUseCase = orderUseCase;
+        this.pending = new LinkedBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+
+        this.unmatchedCounter = Counter.builder("webhook.approval.unmatched")
+                .description("Approved payment ids that matched no order")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("webhook.approval.failed")
+                .description("Approved payment ids not applied because the batch update failed")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("webhook.approval.batch.size")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("webhook.approval.flush")
+                .register(meterRegistry);
+
+        this.flusher = new Thread(this::runFlusher, "payment-approval-batcher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void handlePaymentNotification(Long paymentId) {
+        handlePaymentNotification(paymentId, () -> { }, () -> { });
+    }
+
+    @Override
+    public void handlePaymentNotification(Long paymentId, Runnable onApplied, Runnable onFailure) {
+        Approval approval = new Approval(paymentId, onApplied, onFailure);
+        if (!running) {
+            // Depois do shutdown (ex.: fila do webhook ainda drenando) aplica direto, sem agrupar
+            flush(List.of(approval));
+            return;
+        }
+        if (!pending.offer(approval)) {
+            logger.warn("Payment approval buffer full, rejecting - PaymentId: {}", paymentId);
+            throw new ServiceUnavailableException("Payment approval buffer is full, retry later");
+        }
+    }
+
+    private void runFlusher() {
+        List<Approval> batch = new ArrayList<>(maxBatchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                Approval first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Janela começa no primeiro item; fecha antes se o lote encher
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        pending.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    Approval next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                pending.drainTo(batch);
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<Approval> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+        List<Long> paymentIds = batch.stream().map(Approval::paymentId).toList();
+        Set<Long> unmatched;
+        try {
+            unmatched = orderUseCase.approvePayments(paymentIds);
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("Error applying payment approval batch - BatchSize: {}, PaymentIds: {}, Error: {}",
+                         batch.size(), paymentIds, e.getMessage(), e);
+            batch.forEach(approval -> approval.onFailure().run());
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!unmatched.isEmpty()) {
+            unmatchedCounter.increment(unmatched.size());
+            logger.warn("Approved payments without order - Count: {}, PaymentIds: {}", unmatched.size(), unmatched);
+        }
+        logger.info("Payment approvals applied - BatchSize: {}, Unmatched: {}", batch.size(), unmatched.size());
+        for (Approval approval : batch) {
+            try {
+                (unmatched.contains(approval.paymentId()) ? approval.onFailure() : approval.onApplied()).run();
+            } catch (RuntimeException e) {
+                // Um callback com erro não pode derrubar a thread que aplica os lotes
+                logger.warn("Payment approval callback failed - PaymentId: {}, Error: {}",
+                            approval.paymentId(), e.getMessage());
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Para de aceitar aprovações e aplica o que já está no buffer, esperando até o timeout
+     */
+    public void shutdown(Duration timeout) {
+        running = false;
+        try {
+            flusher.join(timeout.toMillis());
+            if (flusher.isAlive()) {
+                flusher.interrupt();
+            }
+        } catch (InterruptedException e) {
+            flusher.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void shutdown() {
+        shutdown(Duration.ofSeconds(10));
+    }
+
+    record Approval(Long paymentId, Runnable onApplied, Runnable onFailure) {
+    }
+}
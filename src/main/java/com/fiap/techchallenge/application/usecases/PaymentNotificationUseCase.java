@@ -2,4 +2,23 @@ package com.fiap.techchallenge.application.usecases;
 
 public interface PaymentNotificationUseCase {
     void handlePaymentNotification(Long paymentId);
+
+    /**
+     * Como {@link #handlePaymentNotification(Long)}, chamando {@code onFailure} se a aprovação não for aplicada
+     * depois que este método retornou (erro no processamento ou nenhum pedido com esse paymentId). Se o método
+     * lança exceção, a falha fica com quem chamou e {@code onFailure} não é chamado.
+     */
+    default void handlePaymentNotification(Long paymentId, Runnable onFailure) {
+        handlePaymentNotification(paymentId, () -> { }, onFailure);
+    }
+
+    /**
+     * Como {@link #handlePaymentNotification(Long, Runnable)}, chamando também {@code onApplied} quando a aprovação
+     * for gravada no pedido; cada notificação termina em no máximo um dos dois. Implementações que processam na
+     * hora, sem aviso de falha, aplicaram a aprovação se retornaram sem exceção.
+     */
+    default void handlePaymentNotification(Long paymentId, Runnable onApplied, Runnable onFailure) {
+        handlePaymentNotification(paymentId);
+        onApplied.run();
+    }
 }
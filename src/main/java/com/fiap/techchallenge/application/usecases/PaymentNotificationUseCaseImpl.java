@@ -12,12 +12,20 @@ public class PaymentNotificationUseCaseImpl implements PaymentNotificationUseCas
 
     @Override
     public void handlePaymentNotification(Long paymentId) {
+        handlePaymentNotification(paymentId, () -> { }, () -> { });
+    }
+
+    @Override
+    public void handlePaymentNotification(Long paymentId, Runnable onApplied, Runnable onFailure) {
         try {
             // Se o pedido existe, atualiza o status de pagamento para APROVADO
             orderUseCase.updateOrderStatusPayment(paymentId, StatusPayment.APROVADO);
 
         } catch (Exception e) {
-            // do nothing
+            // Pedido ainda não existe ou falha ao gravar: avisa para a reentrega do gateway não ser descartada
+            onFailure.run();
+            return;
         }
+        onApplied.run();
     }
 }
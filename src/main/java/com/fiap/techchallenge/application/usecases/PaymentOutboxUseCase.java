@@ -0,0 +1,5 @@
+package com.fiap.techchallenge.application.usecases;
+
+public interface PaymentOutboxUseCase {
+    int dispatchPendingPayments();
+}
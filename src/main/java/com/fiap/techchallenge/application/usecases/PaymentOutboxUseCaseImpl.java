@@ -0,0 +1,161 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.repositories.PaymentOutboxRepository;
+import com.fiap.techchallenge.external.api.PaymentApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Despacha os pagamentos pendentes do outbox para o serviço de pagamentos, em lotes,
+ * gravando o idPayment no pedido e reagendando com backoff exponencial em caso de falha.
+ *
+ * O lote é reservado por {@code lease}, mas as entradas são enviadas uma a uma: antes de cada envio o lease da
+ * entrada é renovado, e a entrada é pulada se ele já expirou, para outra instância não criar o mesmo pagamento.
+ * Basta então que {@code lease} cubra uma única chamada ao serviço de pagamentos, com retentativas.
+ *
+ * O despacho roda na thread do scheduler, fora de qualquer requisição: cada envio ganha um traceId próprio no
+ * MDC, removido ao final, para os logs e o X-Trace-ID de um pagamento não se misturarem com os do seguinte.
+ */
+public class PaymentOutboxUseCaseImpl implements PaymentOutboxUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOutboxUseCaseImpl.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentApiClient paymentApiClient;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    public PaymentOutboxUseCaseImpl(PaymentOutboxRepository paymentOutboxRepository,
+                                    PaymentApiClient paymentApiClient,
+                                    int batchSize,
+                                    int maxBatchesPerRun,
+                                    int maxAttempts,
+                                    Duration lease,
+                                    Duration baseBackoff,
+                                    Duration maxBackoff) {
+        this.paymentOutboxRepository = paymentOutboxRepository;
+        this.paymentApiClient = paymentApiClient;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public int dispatchPendingPayments() {
+        int dispatched = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentOutboxEntry> entries = paymentOutboxRepository.claimDue(batchSize, now, now.plus(lease));
+
+            for (PaymentOutboxEntry entry : entries) {
+                LocalDateTime renewedAt = LocalDateTime.now();
+                if (!paymentOutboxRepository.renewLease(entry, renewedAt, renewedAt.plus(lease))) {
+                    logger.warn("Outbox lease expired before dispatch, leaving entry to the next claim - OrderId: {}",
+                                entry.getOrderId());
+                    continue;
+                }
+                if (dispatch(entry)) {
+                    dispatched++;
+                }
+            }
+
+            if (entries.size() < batchSize) {
+                break;
+            }
+        }
+
+        return dispatched;
+    }
+
+    private boolean dispatch(PaymentOutboxEntry entry) {
+        MDC.put(TRACE_ID_MDC_KEY, UUID.randomUUID().toString());
+        try {
+            return send(entry);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+
+    private boolean send(PaymentOutboxEntry entry) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        try {
+            String response = paymentApiClient.createPayment(idempotencyKeyFor(entry),
+                entry.getAmount().doubleValue(), entry.getDescription(), entry.getPaymentMethodId(),
+                entry.getInstallments(), entry.getPayerEmail(), entry.getDocumentType(), entry.getDocumentNumber()
+            );
+            Long idPayment = parsePaymentId(response);
+            paymentOutboxRepository.markDispatched(entry, idPayment);
+
+            logger.info("Payment created from outbox - OrderId: {}, PaymentId: {}, Attempt: {}",
+                        entry.getOrderId(), idPayment, entry.getAttempts());
+            return true;
+
+        } catch (RuntimeException e) {
+            handleFailure(entry, e);
+            return false;
+        }
+    }
+
+    private void handleFailure(PaymentOutboxEntry entry, RuntimeException e) {
+        if (entry.getAttempts() >= maxAttempts) {
+            logger.error("Giving up creating payment from outbox - OrderId: {}, Attempts: {}, Error: {}",
+                         entry.getOrderId(), entry.getAttempts(), e.getMessage(), e);
+            paymentOutboxRepository.markFailed(entry, e.getMessage());
+            return;
+        }
+
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoffFor(entry.getAttempts()));
+        logger.warn("Error creating payment from outbox, retrying at {} - OrderId: {}, Attempt: {}, Error: {}",
+                    nextAttemptAt, entry.getOrderId(), entry.getAttempts(), e.getMessage());
+        paymentOutboxRepository.scheduleRetry(entry, nextAttemptAt, e.getMessage());
+    }
+
+    /**
+     * Mesma chave em todas as tentativas do mesmo pedido, inclusive nas reentregas do outbox depois de um lease
+     * expirado: o serviço de pagamentos devolve o pagamento já criado em vez de cobrar duas vezes
+     */
+    public String idempotencyKeyFor(PaymentOutboxEntry entry) {
+        return "order-" + entry.getOrderId() + "-payment";
+    }
+
+    public Duration backoffFor(int attempts) {
+        long multiplier = 1L << Math.min(Math.max(attempts - 1, 0), 30);
+        long backoffMillis = baseBackoff.toMillis() * multiplier;
+        if (backoffMillis <= 0 || backoffMillis > maxBackoff.toMillis()) {
+            return maxBackoff;
+        }
+        return Duration.ofMillis(backoffMillis);
+    }
+
+    public Long parsePaymentId(String response) {
+        try {
+            JsonNode id = MAPPER.readTree(response).path("id");
+            if (!id.canConvertToLong() || id.asLong() <= 0) {
+                throw new IllegalStateException("Payment response without id: " + response);
+            }
+            return id.asLong();
+        } catch (IOException e) {
+            throw new RuntimeException("Error parsing payment response", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.fiap.techchallenge.application.usecases;
+
+public interface PaymentReconciliationUseCase {
+    /**
+     * @return aprovações encontradas e entregues para aplicação; as efetivamente gravadas são contadas em
+     * {@code payments.reconcile.fixed}
+     */
+    int reconcilePendingPayments();
+}
@@ -0,0 +1,214 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.application.concurrent.RateLimiter;
+import com.fiap.techchallenge.application.concurrent.TaskContext;
+import com.fiap.techchallenge.domain.entities.PendingPayment;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.exception.PaymentNotFoundException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import com.fiap.techchallenge.domain.repositories.OrderRepository;
+import com.fiap.techchallenge.external.api.PaymentApiClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recupera pedidos que ficaram em AGUARDANDO_PAGAMENTO porque o webhook se perdeu.
+ *
+ * Percorre por keyset (id) os pedidos aguardando pagamento há mais de {@code staleAfter}, consulta cada
+ * pagamento no serviço de pagamentos com concorrência limitada e no máximo {@code maxCallsPerSecond} chamadas
+ * por segundo, e entrega os aprovados ao mesmo {@link PaymentNotificationUseCase} usado pelo webhook.
+ * Pagamentos ainda pendentes ou rejeitados ficam como estão (o webhook só trata aprovações); pedidos mais
+ * antigos que {@code maxAge} deixam de ser consultados.
+ *
+ * Os aprovados só contam em {@code payments.reconcile.fixed} quando a aprovação é gravada no pedido: com a fila
+ * do webhook, a entrega aqui é só um enfileiramento.
+ *
+ * Cada execução cobre no máximo {@code maxPagesPerRun} páginas e a seguinte continua de onde ela parou, voltando
+ * ao início quando chega ao fim; assim um acúmulo maior que uma execução não deixa os pedidos mais novos de fora.
+ */
+public class PaymentReconciliationUseCaseImpl implements PaymentReconciliationUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationUseCaseImpl.class);
+
+    private final OrderRepository orderRepository;
+    private final PaymentApiClient paymentApiClient;
+    private final PaymentNotificationUseCase paymentNotificationUseCase;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final Duration staleAfter;
+    private final Duration maxAge;
+    private final RateLimiter rateLimiter;
+    private final ExecutorService lookups;
+    private final Counter scannedCounter;
+    private final Counter fixedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    // Último id da execução anterior que parou antes do fim; null recomeça do pedido mais antigo
+    private volatile Long resumeAfterId;
+
+    public PaymentReconciliationUseCaseImpl(OrderRepository orderRepository,
+                                            PaymentApiClient paymentApiClient,
+                                            PaymentNotificationUseCase paymentNotificationUseCase,
+                                            int pageSize,
+                                            int maxPagesPerRun,
+                                            int concurrency,
+                                            double maxCallsPerSecond,
+                                            Duration staleAfter,
+                                            Duration maxAge,
+                                            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.paymentApiClient = paymentApiClient;
+        this.paymentNotificationUseCase = paymentNotificationUseCase;
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.staleAfter = staleAfter;
+        this.maxAge = maxAge;
+        this.rateLimiter = new RateLimiter(maxCallsPerSecond);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.lookups = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-reconciler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scannedCounter = Counter.builder("payments.reconcile.scanned")
+                .description("Stale orders awaiting payment checked against the payments service")
+                .register(meterRegistry);
+        this.fixedCounter = Counter.builder("payments.reconcile.fixed")
+                .description("Approved payments whose webhook was lost, applied to their order by the reconciler")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("payments.reconcile.failed")
+                .description("Payment lookups that failed and will be retried on the next run")
+                .register(meterRegistry);
+        Gauge.builder("payments.reconcile.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest order still awaiting payment confirmation at the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int reconcilePendingPayments() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdFrom = now.minus(maxAge);
+        LocalDateTime createdBefore = now.minus(staleAfter);
+        Long afterId = resumeAfterId;
+        int submitted = 0;
+        boolean reachedEnd = false;
+
+        if (afterId != null) {
+            updateLag(orderRepository.findPendingPaymentsPage(createdFrom, createdBefore, null, 1), now);
+        }
+
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<PendingPayment> pending = orderRepository.findPendingPaymentsPage(createdFrom, createdBefore, afterId, pageSize);
+            if (page == 0 && afterId == null) {
+                updateLag(pending, now);
+            }
+            if (pending.isEmpty()) {
+                reachedEnd = true;
+                break;
+            }
+            scannedCounter.increment(pending.size());
+
+            try {
+                for (Long paymentId : lookupApproved(pending)) {
+                    paymentNotificationUseCase.handlePaymentNotification(paymentId,
+                            () -> applied(paymentId), () -> notApplied(paymentId));
+                    submitted++;
+                }
+            } catch (ServiceUnavailableException e) {
+                // Fila do webhook cheia: o restante fica para a próxima execução
+                logger.warn("Payment reconciliation paused, notification queue is full - Submitted so far: {}",
+                            submitted);
+                break;
+            }
+
+            afterId = pending.get(pending.size() - 1).getOrderId();
+            if (pending.size() < pageSize) {
+                reachedEnd = true;
+                break;
+            }
+        }
+
+        resumeAfterId = reachedEnd ? null : afterId;
+        return submitted;
+    }
+
+    private void applied(Long paymentId) {
+        fixedCounter.increment();
+        logger.info("Lost payment webhook recovered - PaymentId: {}", paymentId);
+    }
+
+    // O pedido continua aguardando pagamento e volta a ser consultado na próxima passagem do cursor
+    private void notApplied(Long paymentId) {
+        logger.warn("Recovered payment approval was not applied - PaymentId: {}", paymentId);
+    }
+
+    // Ids crescem com a criação, então o primeiro pedido a partir do início é o mais antigo
+    private void updateLag(List<PendingPayment> fromStart, LocalDateTime now) {
+        lagSeconds.set(fromStart.isEmpty() ? 0 : Duration.between(fromStart.get(0).getCreatedAt(), now).toSeconds());
+    }
+
+    private List<Long> lookupApproved(List<PendingPayment> pending) {
+        List<Future<StatusPayment>> futures = new ArrayList<>(pending.size());
+        for (PendingPayment payment : pending) {
+            futures.add(lookups.submit(TaskContext.detach(() -> lookup(payment))));
+        }
+
+        List<Long> approved = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i).get() == StatusPayment.APROVADO) {
+                    approved.add(pending.get(i).getIdPayment());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                failedCounter.increment();
+            }
+        }
+        return approved;
+    }
+
+    private StatusPayment lookup(PendingPayment payment) throws InterruptedException {
+        rateLimiter.acquire();
+        try {
+            return StatusPayment.fromMercadoPagoStatus(paymentApiClient.findPaymentStatus(payment.getIdPayment()));
+        } catch (PaymentNotFoundException e) {
+            logger.warn("Pending order references an unknown payment - OrderId: {}, PaymentId: {}",
+                        payment.getOrderId(), payment.getIdPayment());
+            throw e;
+        } catch (RuntimeException e) {
+            logger.warn("Payment status lookup failed - OrderId: {}, PaymentId: {}, Error: {}",
+                        payment.getOrderId(), payment.getIdPayment(), e.getMessage());
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        lookups.shutdownNow();
+        try {
+            lookups.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Índice imutável de n-gramas (1 a 3 caracteres) sobre nome e descrição dos produtos, usado pela busca do
+ * totem no lugar do {@code LIKE '%x%'} no banco.
+ *
+ * Os textos são normalizados (minúsculas, sem acento, espaços colapsados) e cada n-grama aponta para a lista
+ * ordenada dos produtos que o contêm. A busca cruza as listas dos trigramas do termo, confirma a ocorrência
+ * nos candidatos e ordena o resultado: nome igual, nome começando pelo termo, palavra do nome começando
+ * pelo termo, nome contendo o termo e, por último, só a descrição contendo o termo.
+ */
+public final class ProductSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Estimativas da JVM 64 bits com oops comprimidos, usadas só para reportar o tamanho do índice
+    private static final int OBJECT_HEADER = 16;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int MAP_ENTRY = 32;
+
+    private static final int[] NONE = new int[0];
+
+    private final List<Product> products;
+    private final String[] names;
+    private final String[] descriptions;
+    private final Map<String, int[]> postings;
+    private final long estimatedBytes;
+
+    private ProductSearchIndex(List<Product> products, String[] names, String[] descriptions, Map<String, int[]> postings) {
+        this.products = products;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.postings = postings;
+        this.estimatedBytes = estimateBytes();
+    }
+
+    /**
+     * @param products na ordem em que resultados de mesma relevância devem aparecer
+     */
+    public static ProductSearchIndex build(List<Product> products) {
+        int size = products.size();
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        Map<String, List<Integer>> grams = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            Product product = products.get(i);
+            names[i] = normalize(product.getName());
+            descriptions[i] = normalize(product.getDescription());
+            addGrams(grams, names[i], i);
+            addGrams(grams, descriptions[i], i);
+        }
+
+        Map<String, int[]> postings = new HashMap<>(grams.size() * 4 / 3 + 1);
+        // Os produtos são percorridos em ordem, então cada lista já sai ordenada
+        grams.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return new ProductSearchIndex(List.copyOf(products), names, descriptions, postings);
+    }
+
+    public List<Product> search(String query) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return products;
+        }
+
+        int[] candidates = candidates(term);
+        List<int[]> hits = new ArrayList<>();
+        for (int id : candidates) {
+            int rank = rank(id, term);
+            if (rank >= 0) {
+                hits.add(new int[]{rank, id});
+            }
+        }
+        hits.sort(Comparator.<int[]>comparingInt(hit -> hit[0])
+                .thenComparing(hit -> names[hit[1]])
+                .thenComparingInt(hit -> hit[1]));
+
+        List<Product> result = new ArrayList<>(hits.size());
+        hits.forEach(hit -> result.add(products.get(hit[1])));
+        return result;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public int grams() {
+        return postings.size();
+    }
+
+    /**
+     * Tamanho aproximado em bytes dos textos normalizados e das listas de n-gramas (os produtos em si são
+     * compartilhados com a {@link CatalogSnapshot} e não entram na conta)
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static void addGrams(Map<String, List<Integer>> grams, String text, int id) {
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int start = 0; start + length <= text.length(); start++) {
+                List<Integer> ids = grams.computeIfAbsent(text.substring(start, start + length), gram -> new ArrayList<>());
+                // Nome e descrição podem repetir o mesmo n-grama para o produto
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Produtos que contêm todos os n-gramas do termo; ainda pode haver falso positivo quando os trigramas
+     * aparecem fora de ordem, por isso {@link #rank} confirma cada um
+     */
+    private int[] candidates(String term) {
+        if (term.length() <= MAX_GRAM) {
+            return postings.getOrDefault(term, NONE);
+        }
+        List<int[]> lists = new ArrayList<>();
+        for (int start = 0; start + MAX_GRAM <= term.length(); start++) {
+            int[] list = postings.get(term.substring(start, start + MAX_GRAM));
+            if (list == null) {
+                return NONE;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int rank(int id, String term) {
+        String name = names[id];
+        if (name.equals(term)) {
+            return 0;
+        }
+        if (name.startsWith(term)) {
+            return 1;
+        }
+        if (name.contains(" " + term)) {
+            return 2;
+        }
+        if (name.contains(term)) {
+            return 3;
+        }
+        return descriptions[id].contains(term) ? 4 : -1;
+    }
+
+    private long estimateBytes() {
+        long bytes = 2L * (ARRAY_HEADER + (long) REFERENCE * names.length);
+        for (int i = 0; i < names.length; i++) {
+            bytes += stringBytes(names[i]) + stringBytes(descriptions[i]);
+        }
+        bytes += ARRAY_HEADER + (long) REFERENCE * postings.size() * 2;
+        for (Map.Entry<String, int[]> entry : postings.entrySet()) {
+            bytes += MAP_ENTRY + stringBytes(entry.getKey()) + ARRAY_HEADER + 4L * entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    // Strings compactas (Latin-1) depois da normalização, que remove os acentos
+    private static long stringBytes(String text) {
+        return OBJECT_HEADER + 8 + ARRAY_HEADER + text.length();
+    }
+}
@@ -13,6 +13,9 @@ public interface ProductUseCase {
     List<Product> findProductsByName(String name);
     List<Product> findAllProducts();
     List<Product> findProductsByCategory(UUID categoryId);
+    // Mesmas listagens já serializadas em JSON, para o GET devolver os bytes sem mapear nem serializar de novo
+    CatalogSnapshot.View findAllProductsView();
+    CatalogSnapshot.View findProductsByCategoryView(UUID categoryId);
     Product updateProduct(UUID id, String name, String description, BigDecimal price, UUID categoryId);
     void deleteProduct(UUID id);
 }
@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.application.usecases;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.domain.entities.Category;
 import com.fiap.techchallenge.domain.entities.Product;
 import com.fiap.techchallenge.domain.exception.NotFoundException;
@@ -19,14 +20,28 @@ public class ProductUseCaseImpl implements ProductUseCase {
     private static final String CATEGORY_NOT_FOUND_MESSAGE = "Category Record not found";
     private static final String PRODUCT_LINKED_TO_ORDER_MESSAGE = "Product is already linked to an order and cannot be deleted";
 
+    // Só usado sem o CatalogCache, que serializa com o ObjectMapper da aplicação
+    private static final ObjectMapper FALLBACK_MAPPER = new ObjectMapper();
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final OrderRepository orderRepository;
+    private final CatalogCache catalogCache;
 
     public ProductUseCaseImpl(ProductRepository productRepository, CategoryRepository categoryRepository, OrderRepository orderRepository) {
+        this(productRepository, categoryRepository, orderRepository, null);
+    }
+
+    /**
+     * @param catalogCache foto do cardápio em memória; quando informada, as listagens não consultam o banco e
+     *                     cada alteração remonta a foto. Quando nula, toda listagem vai ao banco
+     */
+    public ProductUseCaseImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              OrderRepository orderRepository, CatalogCache catalogCache) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.orderRepository = orderRepository;
+        this.catalogCache = catalogCache;
     }
 
     @Override
@@ -43,7 +58,7 @@ public class ProductUseCaseImpl implements ProductUseCase {
                 .active(true)
                 .build();
 
-        return productRepository.save(product);
+        return catalogChanged(productRepository.save(product));
     }
 
     @Override
@@ -57,17 +72,33 @@ public class ProductUseCaseImpl implements ProductUseCase {
 
     @Override
     public List<Product> findProductsByName(String name) {
-        return productRepository.findByName(name);
+        return catalogCache != null ? catalogCache.snapshot().searchProducts(name) : productRepository.findByName(name);
     }
 
     @Override
     public List<Product> findAllProducts() {
-        return productRepository.findAll();
+        return catalogCache != null ? catalogCache.snapshot().getProducts() : productRepository.findAll();
     }
 
     @Override
     public List<Product> findProductsByCategory(UUID categoryId) {
-        return productRepository.findByCategoryId(categoryId);
+        return catalogCache != null
+                ? catalogCache.snapshot().getProductsByCategory(categoryId)
+                : productRepository.findByCategoryId(categoryId);
+    }
+
+    @Override
+    public CatalogSnapshot.View findAllProductsView() {
+        return catalogCache != null
+                ? catalogCache.snapshot().getProductsView()
+                : CatalogSnapshot.View.of(productRepository.findAll(), FALLBACK_MAPPER);
+    }
+
+    @Override
+    public CatalogSnapshot.View findProductsByCategoryView(UUID categoryId) {
+        return catalogCache != null
+                ? catalogCache.snapshot().getProductsByCategoryView(categoryId)
+                : CatalogSnapshot.View.of(productRepository.findByCategoryId(categoryId), FALLBACK_MAPPER);
     }
 
     @Override
@@ -82,7 +113,7 @@ public class ProductUseCaseImpl implements ProductUseCase {
         }
 
         Product updatedProduct = existingProduct.update(name, description, price, category);
-        return productRepository.save(updatedProduct);
+        return catalogChanged(productRepository.save(updatedProduct));
     }
 
     @Override
@@ -96,5 +127,13 @@ public class ProductUseCaseImpl implements ProductUseCase {
         }
 
         productRepository.deleteById(id);
+        catalogChanged(null);
+    }
+
+    private <T> T catalogChanged(T result) {
+        if (catalogCache != null) {
+            catalogCache.onCatalogChanged();
+        }
+        return result;
     }
 }
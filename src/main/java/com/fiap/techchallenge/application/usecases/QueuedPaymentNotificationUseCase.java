@@ -0,0 +1,139 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.application.concurrent.TaskContext;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enfileira as notificações de pagamento e as processa num pool de workers, liberando a thread
+ * do webhook imediatamente. Com a fila cheia a notificação é recusada (503) para o gateway reenviar.
+ */
+public class QueuedPaymentNotificationUseCase implements PaymentNotificationUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueuedPaymentNotificationUseCase.class);
+
+    private final PaymentNotificationUseCase delegate;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor workers;
+    private final Timer lagTimer;
+    private final Timer processingTimer;
+    private final Counter rejectedCounter;
+
+    public QueuedPaymentNotificationUseCase(PaymentNotificationUseCase delegate, int capacity, int workerCount,
+                                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "webhook-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("webhook.queue.depth", queue, BlockingQueue::size)
+                .description("Payment notifications waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("webhook.queue.remaining.capacity", queue, BlockingQueue::remainingCapacity)
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("webhook.queue.lag")
+                .description("Time between acknowledging a payment notification and a worker picking it up")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("webhook.processing")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("webhook.queue.rejected")
+                .description("Payment notifications refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void handlePaymentNotification(Long paymentId) {
+        handlePaymentNotification(paymentId, () -> { }, () -> { });
+    }
+
+    @Override
+    public void handlePaymentNotification(Long paymentId, Runnable onApplied, Runnable onFailure) {
+        long enqueuedAt = System.nanoTime();
+        Runnable task = new Notification(TaskContext.detach(() -> process(paymentId, enqueuedAt, onApplied, onFailure)),
+                onFailure);
+
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Payment notification queue full, rejecting - PaymentId: {}, Depth: {}", paymentId, queue.size());
+            throw new ServiceUnavailableException("Payment notification queue is full, retry later");
+        }
+    }
+
+    private void process(Long paymentId, long enqueuedAt, Runnable onApplied, Runnable onFailure) {
+        lagTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        long start = System.nanoTime();
+        try {
+            delegate.handlePaymentNotification(paymentId, onApplied, onFailure);
+        } catch (Exception e) {
+            logger.error("Error processing queued payment notification - PaymentId: {}, Error: {}",
+                         paymentId, e.getMessage(), e);
+            onFailure.run();
+        } finally {
+            processingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Para de aceitar notificações e espera as já enfileiradas terminarem, até o timeout
+     */
+    public void shutdown(Duration timeout) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Payment notification queue did not drain in {}ms, {} pending dropped",
+                            timeout.toMillis(), drop());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop();
+        }
+    }
+
+    // Notificações descartadas também contam como falha, para a reentrega do gateway ser processada
+    private int drop() {
+        List<Runnable> dropped = workers.shutdownNow();
+        for (Runnable task : dropped) {
+            if (task instanceof Notification notification) {
+                notification.onFailure().run();
+            }
+        }
+        return dropped.size();
+    }
+
+    public void shutdown() {
+        shutdown(Duration.ofSeconds(10));
+    }
+
+    private record Notification(Runnable task, Runnable onFailure) implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.fiap.techchallenge.application.usecases;
+
+public interface WebhookDeduplicationUseCase {
+    boolean registerIfFirst(Long eventId, Long paymentId);
+    void forget(Long eventId, Long paymentId);
+    int purgeExpired();
+}
@@ -0,0 +1,107 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.repositories.ProcessedWebhookEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Descarta reentregas do mesmo webhook (mesmo id de evento e mesmo data.id).
+ *
+ * A janela em memória responde às reentregas rápidas sem ir ao banco; a tabela processed_webhook_events
+ * cobre reentregas mais tardias e as que chegam em outra instância.
+ */
+public class WebhookDeduplicationUseCaseImpl implements WebhookDeduplicationUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDeduplicationUseCaseImpl.class);
+
+    private final ProcessedWebhookEventRepository processedWebhookEventRepository;
+    private final Cache<String, Boolean> recentEvents;
+    private final Duration retention;
+    private final Counter newCounter;
+    private final Counter duplicateInMemoryCounter;
+    private final Counter duplicateInDatabaseCounter;
+
+    public WebhookDeduplicationUseCaseImpl(ProcessedWebhookEventRepository processedWebhookEventRepository,
+                                           Duration window, long maxSize, Duration retention,
+                                           MeterRegistry meterRegistry) {
+        this.processedWebhookEventRepository = processedWebhookEventRepository;
+        this.recentEvents = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+        this.retention = retention;
+        this.newCounter = deliveries(meterRegistry, "new", "none");
+        this.duplicateInMemoryCounter = deliveries(meterRegistry, "duplicate", "memory");
+        this.duplicateInDatabaseCounter = deliveries(meterRegistry, "duplicate", "database");
+    }
+
+    private static Counter deliveries(MeterRegistry meterRegistry, String result, String source) {
+        return Counter.builder("webhook.deliveries")
+                .description("Payment webhook deliveries by de-duplication result")
+                .tag("result", result)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean registerIfFirst(Long eventId, Long paymentId) {
+        String eventKey = eventKey(eventId, paymentId);
+
+        if (recentEvents.asMap().putIfAbsent(eventKey, Boolean.TRUE) != null) {
+            duplicateInMemoryCounter.increment();
+            logger.info("Duplicate webhook ignored (memory) - EventId: {}, PaymentId: {}", eventId, paymentId);
+            return false;
+        }
+
+        boolean first;
+        try {
+            first = processedWebhookEventRepository.registerIfAbsent(eventKey, eventId, paymentId, LocalDateTime.now());
+        } catch (Exception e) {
+            // Aprovação é idempotente: sem o banco de deduplicação, processa em vez de perder a notificação
+            logger.warn("Could not check processed webhook events, processing anyway - EventId: {}, PaymentId: {}, Error: {}",
+                        eventId, paymentId, e.getMessage());
+            newCounter.increment();
+            return true;
+        }
+
+        if (!first) {
+            duplicateInDatabaseCounter.increment();
+            logger.info("Duplicate webhook ignored (database) - EventId: {}, PaymentId: {}", eventId, paymentId);
+            return false;
+        }
+
+        newCounter.increment();
+        return true;
+    }
+
+    /**
+     * Desfaz o registro quando a notificação não pôde ser aceita, para a reentrega do gateway ser processada
+     */
+    @Override
+    public void forget(Long eventId, Long paymentId) {
+        String eventKey = eventKey(eventId, paymentId);
+        recentEvents.invalidate(eventKey);
+        try {
+            processedWebhookEventRepository.remove(eventKey);
+        } catch (Exception e) {
+            logger.warn("Could not remove processed webhook event - EventId: {}, PaymentId: {}, Error: {}",
+                        eventId, paymentId, e.getMessage());
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        return processedWebhookEventRepository.deleteReceivedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    static String eventKey(Long eventId, Long paymentId) {
+        return (eventId != null ? eventId : "-") + ":" + paymentId;
+    }
+}
@@ -27,6 +27,7 @@ public class OrderMapper {
         jpaEntity.setIdPayment(order.getIdPayment());
         jpaEntity.setCreatedAt(order.getCreatedAt());
         jpaEntity.setUpdatedAt(order.getUpdatedAt());
+        jpaEntity.setVersion(order.getVersion());
 
         return jpaEntity;
     }
@@ -41,7 +42,7 @@ public class OrderMapper {
                 .collect(Collectors.toList());
         }
 
-        return new Order(
+        Order order = new Order(
             jpaEntity.getId(),
             jpaEntity.getCpf(),
             items,
@@ -52,6 +53,8 @@ public class OrderMapper {
             jpaEntity.getCreatedAt(),
             jpaEntity.getUpdatedAt()
         );
+        order.setVersion(jpaEntity.getVersion());
+        return order;
     }
 
     private static OrderItemJpaEntity toJpaOrderItem(OrderItem orderItem) {
@@ -59,12 +62,10 @@ public class OrderMapper {
 
         OrderItemJpaEntity jpaEntity = new OrderItemJpaEntity();
         jpaEntity.setId(orderItem.getId());
+        // Só o productId é gravado (a associação é somente leitura); montar um ProductJpaEntity solto aqui faria
+        // o Hibernate consultar o produto a cada item só para descobrir se ele já existe
         jpaEntity.setProductId(orderItem.getProductId());
 
-        if (orderItem.getProduct() != null) {
-            jpaEntity.setProduct(ProductMapper.toJpaEntity(orderItem.getProduct()));
-        }
-
         jpaEntity.setQuantity(orderItem.getQuantity());
         jpaEntity.setUnitPrice(orderItem.getUnitPrice());
         jpaEntity.setSubTotal(orderItem.getSubTotal());
@@ -91,7 +92,7 @@ public class OrderMapper {
     }
 
     // Status mappers
-    private static OrderJpaEntity.OrderStatusJpa mapToJpaStatus(OrderStatus status) {
+    public static OrderJpaEntity.OrderStatusJpa mapToJpaStatus(OrderStatus status) {
         if (status == null) return null;
         switch (status) {
             case RECEIVED: return OrderJpaEntity.OrderStatusJpa.RECEIVED;
@@ -102,7 +103,7 @@ public class OrderMapper {
         }
     }
 
-    private static OrderStatus mapToDomainStatus(OrderJpaEntity.OrderStatusJpa jpaStatus) {
+    public static OrderStatus mapToDomainStatus(OrderJpaEntity.OrderStatusJpa jpaStatus) {
         if (jpaStatus == null) return null;
         switch (jpaStatus) {
             case RECEIVED: return OrderStatus.RECEIVED;
@@ -113,7 +114,7 @@ public class OrderMapper {
         }
     }
 
-    private static OrderJpaEntity.StatusPaymentJpa mapToJpaPaymentStatus(StatusPayment status) {
+    public static OrderJpaEntity.StatusPaymentJpa mapToJpaPaymentStatus(StatusPayment status) {
         if (status == null) return null;
         switch (status) {
             case AGUARDANDO_PAGAMENTO: return OrderJpaEntity.StatusPaymentJpa.AGUARDANDO_PAGAMENTO;
@@ -123,7 +124,7 @@ public class OrderMapper {
         }
     }
 
-    private static StatusPayment mapToDomainPaymentStatus(OrderJpaEntity.StatusPaymentJpa jpaStatus) {
+    public static StatusPayment mapToDomainPaymentStatus(OrderJpaEntity.StatusPaymentJpa jpaStatus) {
         if (jpaStatus == null) return null;
         switch (jpaStatus) {
             case AGUARDANDO_PAGAMENTO: return StatusPayment.AGUARDANDO_PAGAMENTO;
@@ -0,0 +1,77 @@
+package com.fiap.techchallenge.application.usecases.mappers;
+
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxStatus;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+
+public class PaymentOutboxMapper {
+
+    public static PaymentOutboxJpaEntity toJpaEntity(PaymentOutboxEntry entry) {
+        if (entry == null) return null;
+
+        PaymentOutboxJpaEntity jpaEntity = new PaymentOutboxJpaEntity();
+        jpaEntity.setId(entry.getId());
+        jpaEntity.setOrderId(entry.getOrderId());
+        jpaEntity.setAmount(entry.getAmount());
+        jpaEntity.setDescription(entry.getDescription());
+        jpaEntity.setPaymentMethodId(entry.getPaymentMethodId());
+        jpaEntity.setInstallments(entry.getInstallments());
+        jpaEntity.setPayerEmail(entry.getPayerEmail());
+        jpaEntity.setDocumentType(entry.getDocumentType());
+        jpaEntity.setDocumentNumber(entry.getDocumentNumber());
+        jpaEntity.setStatus(mapToJpaStatus(entry.getStatus()));
+        jpaEntity.setAttempts(entry.getAttempts());
+        jpaEntity.setNextAttemptAt(entry.getNextAttemptAt());
+        jpaEntity.setLastError(entry.getLastError());
+        jpaEntity.setIdPayment(entry.getIdPayment());
+        jpaEntity.setCreatedAt(entry.getCreatedAt());
+        jpaEntity.setUpdatedAt(entry.getUpdatedAt());
+
+        return jpaEntity;
+    }
+
+    public static PaymentOutboxEntry toDomainEntity(PaymentOutboxJpaEntity jpaEntity) {
+        if (jpaEntity == null) return null;
+
+        PaymentOutboxEntry entry = new PaymentOutboxEntry();
+        entry.setId(jpaEntity.getId());
+        entry.setOrderId(jpaEntity.getOrderId());
+        entry.setAmount(jpaEntity.getAmount());
+        entry.setDescription(jpaEntity.getDescription());
+        entry.setPaymentMethodId(jpaEntity.getPaymentMethodId());
+        entry.setInstallments(jpaEntity.getInstallments());
+        entry.setPayerEmail(jpaEntity.getPayerEmail());
+        entry.setDocumentType(jpaEntity.getDocumentType());
+        entry.setDocumentNumber(jpaEntity.getDocumentNumber());
+        entry.setStatus(mapToDomainStatus(jpaEntity.getStatus()));
+        entry.setAttempts(jpaEntity.getAttempts());
+        entry.setNextAttemptAt(jpaEntity.getNextAttemptAt());
+        entry.setLastError(jpaEntity.getLastError());
+        entry.setIdPayment(jpaEntity.getIdPayment());
+        entry.setCreatedAt(jpaEntity.getCreatedAt());
+        entry.setUpdatedAt(jpaEntity.getUpdatedAt());
+
+        return entry;
+    }
+
+    // Status mappers
+    public static PaymentOutboxJpaEntity.OutboxStatusJpa mapToJpaStatus(PaymentOutboxStatus status) {
+        if (status == null) return null;
+        switch (status) {
+            case PENDING: return PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING;
+            case DISPATCHED: return PaymentOutboxJpaEntity.OutboxStatusJpa.DISPATCHED;
+            case FAILED: return PaymentOutboxJpaEntity.OutboxStatusJpa.FAILED;
+            default: throw new IllegalArgumentException("Unknown outbox status: " + status);
+        }
+    }
+
+    private static PaymentOutboxStatus mapToDomainStatus(PaymentOutboxJpaEntity.OutboxStatusJpa jpaStatus) {
+        if (jpaStatus == null) return null;
+        switch (jpaStatus) {
+            case PENDING: return PaymentOutboxStatus.PENDING;
+            case DISPATCHED: return PaymentOutboxStatus.DISPATCHED;
+            case FAILED: return PaymentOutboxStatus.FAILED;
+            default: throw new IllegalArgumentException("Unknown JPA outbox status: " + jpaStatus);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fiap.techchallenge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (dispatcher do outbox de pagamentos)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.config;
 
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,13 +11,18 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.UUID;
 
 /**
- * Filter que adiciona trace ID a todas as requisições para correlação de logs
+ * Filter que adiciona trace ID a todas as requisições para correlação de logs e define o prazo da requisição
+ * ({@link RequestDeadline}): o que o chamador informar em {@code X-Request-Timeout} (milissegundos restantes),
+ * limitado a {@code request.deadline.max-ms}, ou {@code request.deadline.default-ms} sem o header. Chamador que
+ * já chega sem tempo recebe 504 sem que nada seja executado
  */
 @Component
 public class TraceFilter implements Filter {
@@ -24,6 +30,20 @@ public class TraceFilter implements Filter {
     private static final Logger logger = LoggerFactory.getLogger(TraceFilter.class);
     private static final String TRACE_ID_HEADER = "X-Trace-ID";
     private static final String TRACE_ID_MDC_KEY = "traceId";
+    static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final long defaultDeadlineMs;
+    private final long maxDeadlineMs;
+
+    /**
+     * @param defaultDeadlineMs prazo das requisições sem header; zero desliga o prazo
+     * @param maxDeadlineMs     maior prazo aceito do header; zero aceita qualquer valor
+     */
+    public TraceFilter(@Value("${request.deadline.default-ms:0}") long defaultDeadlineMs,
+                       @Value("${request.deadline.max-ms:0}") long maxDeadlineMs) {
+        this.defaultDeadlineMs = defaultDeadlineMs;
+        this.maxDeadlineMs = maxDeadlineMs;
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -47,11 +67,43 @@ public class TraceFilter implements Filter {
 
             logger.debug("[traceId: {}] Request: {} {}", traceId, httpRequest.getMethod(), httpRequest.getRequestURI());
 
+            long deadlineMs = deadlineMs(httpRequest.getHeader(REQUEST_TIMEOUT_HEADER));
+            if (deadlineMs < 0) {
+                logger.warn("[traceId: {}] Request arrived with its deadline already spent: {} {}",
+                            traceId, httpRequest.getMethod(), httpRequest.getRequestURI());
+                httpResponse.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Request deadline exceeded");
+                return;
+            }
+            if (deadlineMs > 0) {
+                RequestDeadline.start(Duration.ofMillis(deadlineMs));
+            }
+
             chain.doFilter(request, response);
 
         } finally {
-            // Limpa MDC após processamento
+            // Limpa MDC e o prazo após processamento
             MDC.clear();
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * @return prazo em ms, zero para nenhum prazo ou negativo quando o chamador já não tem mais tempo
+     */
+    long deadlineMs(String header) {
+        if (header == null || header.isBlank()) {
+            return defaultDeadlineMs;
+        }
+        long requested;
+        try {
+            requested = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid {} header: {}", REQUEST_TIMEOUT_HEADER, header);
+            return defaultDeadlineMs;
+        }
+        if (requested <= 0) {
+            return -1;
         }
+        return maxDeadlineMs > 0 ? Math.min(requested, maxDeadlineMs) : requested;
     }
 }
@@ -14,6 +14,8 @@ public class Order {
     private Long idPayment;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Versão lida do banco; a gravação só acontece se ninguém alterou o pedido desde então
+    private Long version;
 
     public Order() {}
 
@@ -61,6 +63,12 @@ public class Order {
     public Long getIdPayment() { return idPayment; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
+
+    // O pagamento é criado de forma assíncrona (outbox): enquanto não houver idPayment, ainda está pendente de criação
+    public PaymentCreationStatus getPaymentCreationStatus() {
+        return idPayment == null ? PaymentCreationStatus.PENDING_CREATION : PaymentCreationStatus.CREATED;
+    }
 
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -72,4 +80,5 @@ public class Order {
     public void setIdPayment(Long idPayment) { this.idPayment = idPayment; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public void setVersion(Long version) { this.version = version; }
 }
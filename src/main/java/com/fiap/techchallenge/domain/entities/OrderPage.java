@@ -0,0 +1,20 @@
+package com.fiap.techchallenge.domain.entities;
+
+import java.util.List;
+
+/**
+ * Página da listagem de pedidos; nextCursor é nulo na última página
+ */
+public class OrderPage {
+    private final List<OrderSummary> items;
+    private final String nextCursor;
+
+    public OrderPage(List<OrderSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummary> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+}
@@ -1,8 +1,24 @@
 package com.fiap.techchallenge.domain.entities;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     RECEIVED,
     IN_PREPARATION,
     READY,
-    FINISHED
+    FINISHED;
+
+    /**
+     * Status a partir dos quais o pedido pode chegar a este. O próprio status é aceito para que repetir a
+     * mesma requisição não falhe; nenhum pedido volta para RECEIVED.
+     */
+    public Set<OrderStatus> allowedPredecessors() {
+        return switch (this) {
+            case RECEIVED -> EnumSet.noneOf(OrderStatus.class);
+            case IN_PREPARATION -> EnumSet.of(RECEIVED, IN_PREPARATION);
+            case READY -> EnumSet.of(IN_PREPARATION, READY);
+            case FINISHED -> EnumSet.of(READY, FINISHED);
+        };
+    }
 }
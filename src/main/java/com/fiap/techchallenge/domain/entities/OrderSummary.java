@@ -0,0 +1,50 @@
+package com.fiap.techchallenge.domain.entities;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Visão resumida do pedido para listagens: só o que as telas exibem, sem produto/categoria aninhados
+ */
+public class OrderSummary {
+
+    public static class Item {
+        private final String name;
+        private final Integer quantity;
+
+        public Item(String name, Integer quantity) {
+            this.name = name;
+            this.quantity = quantity;
+        }
+
+        public String getName() { return name; }
+        public Integer getQuantity() { return quantity; }
+    }
+
+    private final Long id;
+    private final OrderStatus status;
+    private final StatusPayment statusPayment;
+    private final LocalDateTime createdAt;
+    private final List<Item> items;
+
+    public OrderSummary(Long id, OrderStatus status, StatusPayment statusPayment, LocalDateTime createdAt, List<Item> items) {
+        this.id = id;
+        this.status = status;
+        this.statusPayment = statusPayment;
+        this.createdAt = createdAt;
+        this.items = items;
+    }
+
+    public static OrderSummary of(Order order) {
+        List<Item> items = order.getItems() == null ? List.of() : order.getItems().stream()
+                .map(item -> new Item(item.getProduct() != null ? item.getProduct().getName() : null, item.getQuantity()))
+                .toList();
+        return new OrderSummary(order.getId(), order.getStatus(), order.getStatusPayment(), order.getCreatedAt(), items);
+    }
+
+    public Long getId() { return id; }
+    public OrderStatus getStatus() { return status; }
+    public StatusPayment getStatusPayment() { return statusPayment; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public List<Item> getItems() { return items; }
+}
@@ -0,0 +1,6 @@
+package com.fiap.techchallenge.domain.entities;
+
+public enum PaymentCreationStatus {
+    PENDING_CREATION,
+    CREATED
+}
@@ -0,0 +1,86 @@
+package com.fiap.techchallenge.domain.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido de criação de pagamento gravado junto com o pedido e despachado depois para o serviço de pagamentos
+ */
+public class PaymentOutboxEntry {
+    private Long id;
+    private Long orderId;
+    private BigDecimal amount;
+    private String description;
+    private String paymentMethodId;
+    private Integer installments;
+    private String payerEmail;
+    private String documentType;
+    private String documentNumber;
+    private PaymentOutboxStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private Long idPayment;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public PaymentOutboxEntry() {}
+
+    // Factory method
+    public static PaymentOutboxEntry pending(BigDecimal amount, String description, String paymentMethodId,
+                                             Integer installments, String payerEmail,
+                                             String documentType, String documentNumber) {
+        LocalDateTime now = LocalDateTime.now();
+
+        PaymentOutboxEntry entry = new PaymentOutboxEntry();
+        entry.setAmount(amount);
+        entry.setDescription(description);
+        entry.setPaymentMethodId(paymentMethodId);
+        entry.setInstallments(installments);
+        entry.setPayerEmail(payerEmail);
+        entry.setDocumentType(documentType);
+        entry.setDocumentNumber(documentNumber);
+        entry.setStatus(PaymentOutboxStatus.PENDING);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        entry.setUpdatedAt(now);
+        return entry;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getDescription() { return description; }
+    public String getPaymentMethodId() { return paymentMethodId; }
+    public Integer getInstallments() { return installments; }
+    public String getPayerEmail() { return payerEmail; }
+    public String getDocumentType() { return documentType; }
+    public String getDocumentNumber() { return documentNumber; }
+    public PaymentOutboxStatus getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public Long getIdPayment() { return idPayment; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public void setDescription(String description) { this.description = description; }
+    public void setPaymentMethodId(String paymentMethodId) { this.paymentMethodId = paymentMethodId; }
+    public void setInstallments(Integer installments) { this.installments = installments; }
+    public void setPayerEmail(String payerEmail) { this.payerEmail = payerEmail; }
+    public void setDocumentType(String documentType) { this.documentType = documentType; }
+    public void setDocumentNumber(String documentNumber) { this.documentNumber = documentNumber; }
+    public void setStatus(PaymentOutboxStatus status) { this.status = status; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public void setIdPayment(Long idPayment) { this.idPayment = idPayment; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,7 @@
+package com.fiap.techchallenge.domain.entities;
+
+public enum PaymentOutboxStatus {
+    PENDING,
+    DISPATCHED,
+    FAILED
+}
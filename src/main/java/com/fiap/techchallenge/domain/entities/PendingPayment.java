@@ -0,0 +1,23 @@
+package com.fiap.techchallenge.domain.entities;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pedido com pagamento já criado no serviço de pagamentos, mas ainda sem confirmação (AGUARDANDO_PAGAMENTO)
+ */
+public class PendingPayment {
+
+    private final Long orderId;
+    private final Long idPayment;
+    private final LocalDateTime createdAt;
+
+    public PendingPayment(Long orderId, Long idPayment, LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.idPayment = idPayment;
+        this.createdAt = createdAt;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getIdPayment() { return idPayment; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
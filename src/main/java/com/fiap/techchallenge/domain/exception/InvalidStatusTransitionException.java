@@ -0,0 +1,7 @@
+package com.fiap.techchallenge.domain.exception;
+
+public class InvalidStatusTransitionException extends DomainException {
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
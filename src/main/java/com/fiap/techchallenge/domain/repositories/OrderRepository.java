@@ -2,16 +2,40 @@ package com.fiap.techchallenge.domain.repositories;
 
 import com.fiap.techchallenge.domain.entities.Order;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.entities.PendingPayment;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface OrderRepository {
+    // Lança ConcurrentUpdateException quando o pedido foi alterado depois de lido (versão diferente)
     Order save(Order order);
+    Order saveWithPaymentOutbox(Order order, PaymentOutboxEntry paymentOutboxEntry);
     Optional<Order> findById(Long id);
-    List<Order> findByOptionalStatus(OrderStatus status);
+    // Pedidos em aberto (todos menos FINISHED) na ordem do painel: READY, IN_PREPARATION, RECEIVED e createdAt ASC
+    List<Order> findActiveOrders();
+    // Página de um status em (createdAt, id) ASC, começando depois da posição informada (ou do início, se nula)
+    List<OrderSummary> findSummaryPageByStatus(OrderStatus status, LocalDateTime afterCreatedAt, Long afterId, int limit);
     List<Order> findAll();
     boolean existsByProductId(UUID productId);
     Optional<Order>  findByIdPayment(Long id);
+    List<Order> findAllByIdPayments(Collection<Long> idPayments);
+    /**
+     * Muda o status com um UPDATE condicional, sem carregar o pedido
+     *
+     * @param requiredStatusPayment quando informado, o pedido também precisa estar com esse status de pagamento
+     * @return false quando o pedido não existe ou não atende às condições
+     */
+    boolean transitionStatus(Long id, Set<OrderStatus> fromStatuses, OrderStatus toStatus,
+                             StatusPayment requiredStatusPayment, LocalDateTime updatedAt);
+    Set<Long> approvePayments(Collection<Long> idPayments, LocalDateTime updatedAt);
+    // Pedidos aguardando pagamento criados em [createdFrom, createdBefore), por id ASC a partir do id informado (exclusivo)
+    List<PendingPayment> findPendingPaymentsPage(LocalDateTime createdFrom, LocalDateTime createdBefore, Long afterId, int limit);
 }
@@ -0,0 +1,18 @@
+package com.fiap.techchallenge.domain.repositories;
+
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PaymentOutboxRepository {
+    List<PaymentOutboxEntry> claimDue(int batchSize, LocalDateTime now, LocalDateTime leaseUntil);
+    /**
+     * Estende até leaseUntil o lease obtido no claimDue; retorna false se ele já expirou ou passou para outra
+     * instância, caso em que a entrada não deve ser enviada
+     */
+    boolean renewLease(PaymentOutboxEntry entry, LocalDateTime now, LocalDateTime leaseUntil);
+    void markDispatched(PaymentOutboxEntry entry, Long idPayment);
+    void scheduleRetry(PaymentOutboxEntry entry, LocalDateTime nextAttemptAt, String error);
+    void markFailed(PaymentOutboxEntry entry, String error);
+}
@@ -0,0 +1,12 @@
+package com.fiap.techchallenge.domain.repositories;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedWebhookEventRepository {
+    /**
+     * Registra o evento; retorna false se ele já tinha sido registrado
+     */
+    boolean registerIfAbsent(String eventKey, Long eventId, Long paymentId, LocalDateTime receivedAt);
+    void remove(String eventKey);
+    int deleteReceivedBefore(LocalDateTime cutoff);
+}
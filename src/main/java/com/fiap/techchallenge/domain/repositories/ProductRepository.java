@@ -2,6 +2,7 @@ package com.fiap.techchallenge.domain.repositories;
 
 import com.fiap.techchallenge.domain.entities.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,6 +10,7 @@ import java.util.UUID;
 public interface ProductRepository {
     Product save(Product product);
     Optional<Product> findById(UUID id);
+    List<Product> findAllByIds(Collection<UUID> ids);
     List<Product> findByName(String name);
     List<Product> findByCategoryId(UUID categoryId);
     List<Product> findAll();
@@ -0,0 +1,26 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Respostas das listagens do cardápio: devolve os bytes prontos da foto, ou 304 quando o cliente já tem a versão
+ */
+final class CatalogResponses {
+
+    private CatalogResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(CatalogSnapshot.View view, String ifNoneMatch) {
+        if (ifNoneMatch != null && (ifNoneMatch.equals(view.etag()) || ifNoneMatch.equals("W/" + view.etag()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(view.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(view.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(view.json().length)
+                .body(view.json());
+    }
+}
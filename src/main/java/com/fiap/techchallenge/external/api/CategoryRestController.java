@@ -3,12 +3,17 @@ package com.fiap.techchallenge.external.api;
 import com.fiap.techchallenge.adapters.controllers.CategoryController;
 import com.fiap.techchallenge.domain.entities.Category;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -37,11 +42,12 @@ public class CategoryRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
+    // Corpo já serializado pela foto do cardápio; o ETag permite ao quiosque revalidar com If-None-Match
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Listar todas as categorias")
-    public ResponseEntity<List<Category>> findAll() {
-        List<Category> categories = categoryController.findAll();
-        return ResponseEntity.ok(categories);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Category.class))))
+    public ResponseEntity<byte[]> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return CatalogResponses.of(categoryController.findAllView(), ifNoneMatch);
     }
 
     @PutMapping("/{id}")
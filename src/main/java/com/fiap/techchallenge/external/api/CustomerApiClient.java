@@ -2,6 +2,13 @@ package com.fiap.techchallenge.external.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.application.concurrent.Bulkhead;
+import com.fiap.techchallenge.application.concurrent.CircuitBreaker;
+import com.fiap.techchallenge.application.concurrent.HedgePolicy;
+import com.fiap.techchallenge.application.concurrent.LatencyTracker;
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.application.concurrent.SingleFlight;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -9,44 +16,158 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.SocketTimeoutException;
-import java.net.URL;
-import java.util.Scanner;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class CustomerApiClient {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerApiClient.class);
     private final String apiUrl;
-    private final int connectTimeout;
     private final int readTimeout;
+    private final HttpTransport httpTransport;
+    private final CustomerCache customerCache;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final boolean anonymousFallback;
+    private final LatencyTracker latencyTracker;
+    private final HedgePolicy hedgePolicy;
+    private final SingleFlight<String, JsonNode> singleFlight;
 
     public CustomerApiClient(String apiUrl, int connectTimeout, int readTimeout) {
+        this(apiUrl, readTimeout, new HttpTransport(connectTimeout, HttpTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST, false));
+    }
+
+    public CustomerApiClient(String apiUrl, int readTimeout, HttpTransport httpTransport) {
+        this(apiUrl, readTimeout, httpTransport, null);
+    }
+
+    public CustomerApiClient(String apiUrl, int readTimeout, HttpTransport httpTransport,
+                             CustomerCache customerCache) {
+        this(apiUrl, readTimeout, httpTransport, customerCache, null, null, false);
+    }
+
+    /**
+     * @param circuitBreaker    recusa as chamadas enquanto o serviço de clientes está falhando ou lento; opcional
+     * @param bulkhead          limita as requisições presas esperando o serviço de clientes; opcional
+     * @param anonymousFallback quando o serviço está indisponível (circuito aberto, bulkhead cheio, timeout ou 5xx),
+     *                          devolve null para o pedido seguir como anônimo em vez de falhar. Cliente inexistente
+     *                          (404) continua sendo erro
+     */
+    public CustomerApiClient(String apiUrl, int readTimeout, HttpTransport httpTransport,
+                             CustomerCache customerCache, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                             boolean anonymousFallback) {
+        this(apiUrl, readTimeout, httpTransport, customerCache, circuitBreaker, bulkhead,
+                anonymousFallback, null, null);
+    }
+
+    /**
+     * @param latencyTracker latências recentes do serviço; quando informado, o timeout de cada chamada vem dele
+     *                       (com {@code readTimeout} como teto) em vez de ser sempre {@code readTimeout}; opcional
+     * @param hedgePolicy    dispara uma segunda busca quando a primeira passa do percentil configurado e fica com a
+     *                       que responder primeiro (o GET por CPF é idempotente); opcional
+     */
+    public CustomerApiClient(String apiUrl, int readTimeout, HttpTransport httpTransport,
+                             CustomerCache customerCache, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                             boolean anonymousFallback, LatencyTracker latencyTracker, HedgePolicy hedgePolicy) {
+        this(apiUrl, readTimeout, httpTransport, customerCache, circuitBreaker, bulkhead,
+                anonymousFallback, latencyTracker, hedgePolicy, null);
+    }
+
+    /**
+     * @param singleFlight buscas simultâneas pelo mesmo CPF (pedidos em grupo no totem) compartilham uma única
+     *                     chamada ao serviço, com ou sem cache; opcional
+     */
+    public CustomerApiClient(String apiUrl, int readTimeout, HttpTransport httpTransport,
+                             CustomerCache customerCache, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                             boolean anonymousFallback, LatencyTracker latencyTracker, HedgePolicy hedgePolicy,
+                             SingleFlight<String, JsonNode> singleFlight) {
         this.apiUrl = apiUrl;
-        this.connectTimeout = connectTimeout;
         this.readTimeout = readTimeout;
-        logger.info("CustomerApiClient initialized with URL: {}, connectTimeout: {}ms, readTimeout: {}ms", 
-                    apiUrl, connectTimeout, readTimeout);
+        this.httpTransport = httpTransport;
+        this.customerCache = customerCache;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.anonymousFallback = anonymousFallback;
+        this.latencyTracker = latencyTracker;
+        this.hedgePolicy = hedgePolicy;
+        this.singleFlight = singleFlight;
+        logger.info("CustomerApiClient initialized with URL: {}, readTimeout: {}ms", apiUrl, readTimeout);
     }
 
     public JsonNode fetchCustomerByCpf(String cpf) {
+        try {
+            if (customerCache == null) {
+                return fetchShared(cpf);
+            }
+
+            return customerCache.get(cpf, this::fetchShared)
+                    .orElseThrow(() -> {
+                        logger.warn("[traceId: {}] Customer not found (cached) - CPF: {}", getOrCreateTraceId(), maskCpf(cpf));
+                        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found: " + maskCpf(cpf));
+                    });
+        } catch (RuntimeException e) {
+            if (!anonymousFallback || !isServiceFailure(e)) {
+                throw e;
+            }
+            // Fora do cache: a indisponibilidade não pode ficar gravada como "cliente sem dados"
+            logger.warn("[traceId: {}] Customer service unavailable, continuing as anonymous order - CPF: {}, Error: {}",
+                        getOrCreateTraceId(), maskCpf(cpf), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Falhas do serviço de clientes (timeout, erro de rede, 5xx, recusa do circuito ou do bulkhead), em oposição
+     * a respostas válidas como 404. O fim do prazo da requisição não é culpa do serviço: não conta para o circuito
+     * nem vira pedido anônimo, já que ninguém está mais esperando o resultado
+     */
+    public static boolean isServiceFailure(Throwable e) {
+        if (e instanceof DeadlineExceededException) {
+            return false;
+        }
+        if (e instanceof ResponseStatusException responseStatusException) {
+            return responseStatusException.getStatusCode().is5xxServerError();
+        }
+        return e instanceof RuntimeException;
+    }
+
+    private JsonNode fetchShared(String cpf) {
+        return singleFlight != null ? singleFlight.execute(cpf, () -> fetchGuarded(cpf)) : fetchGuarded(cpf);
+    }
+
+    private JsonNode fetchGuarded(String cpf) {
+        RequestDeadline.check("customer lookup");
+        if (circuitBreaker == null && bulkhead == null) {
+            return fetchRemote(cpf);
+        }
+        if (bulkhead == null) {
+            return circuitBreaker.execute(() -> fetchRemote(cpf));
+        }
+        return bulkhead.execute(() -> circuitBreaker != null
+                ? circuitBreaker.execute(() -> fetchRemote(cpf))
+                : fetchRemote(cpf));
+    }
+
+    private JsonNode fetchRemote(String cpf) {
         String traceId = getOrCreateTraceId();
         String fullUrl = apiUrl + "/cpf/" + cpf;
         long startTime = System.currentTimeMillis();
         
+        Duration configuredTimeout = latencyTracker != null ? latencyTracker.timeout() : Duration.ofMillis(readTimeout);
+        Duration timeout = RequestDeadline.cap(configuredTimeout, "customer lookup");
+        boolean cappedByDeadline = timeout.compareTo(configuredTimeout) < 0;
+
         logger.info("[traceId: {}] Fetching customer from external API - CPF: {}, URL: {}", traceId, maskCpf(cpf), fullUrl);
         
-        HttpURLConnection connection = null;
         try {
-            connection = (HttpURLConnection) new URL(fullUrl).openConnection();
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("X-Trace-ID", traceId);
-            connection.setConnectTimeout(connectTimeout);
-            connection.setReadTimeout(readTimeout);
-
-            int statusCode = connection.getResponseCode();
+            HttpResponse<String> httpResponse = send(fullUrl, traceId, timeout, cappedByDeadline);
+            int statusCode = httpResponse.statusCode();
             long duration = System.currentTimeMillis() - startTime;
 
             logger.info("[traceId: {}] Customer API response - Status: {}, Duration: {}ms", traceId, statusCode, duration);
@@ -57,7 +178,7 @@ public class CustomerApiClient {
             }
 
             if (statusCode != 200) {
-                String errorBody = readErrorStream(connection);
+                String errorBody = httpResponse.body() != null ? httpResponse.body() : "";
                 logger.error("[traceId: {}] Customer API error - Status: {}, URL: {}, ErrorBody: {}", 
                             traceId, statusCode, fullUrl, errorBody);
                 throw new ResponseStatusException(
@@ -66,28 +187,27 @@ public class CustomerApiClient {
                 );
             }
 
-            Scanner scanner = new Scanner(connection.getInputStream());
-            StringBuilder response = new StringBuilder();
-            while (scanner.hasNext()) {
-                response.append(scanner.nextLine());
-            }
-            scanner.close();
-
             ObjectMapper mapper = new ObjectMapper();
-            JsonNode result = mapper.readTree(response.toString());
+            JsonNode result = mapper.readTree(httpResponse.body());
             
             logger.info("[traceId: {}] Customer fetched successfully - CPF: {}, Duration: {}ms", 
                        traceId, maskCpf(cpf), duration);
             
             return result;
             
-        } catch (SocketTimeoutException e) {
+        } catch (HttpTimeoutException e) {
             long duration = System.currentTimeMillis() - startTime;
-            logger.error("[traceId: {}] Timeout fetching customer - CPF: {}, URL: {}, Duration: {}ms, ConnectTimeout: {}ms, ReadTimeout: {}ms", 
-                        traceId, maskCpf(cpf), fullUrl, duration, connectTimeout, readTimeout, e);
+            if (RequestDeadline.isExpired()) {
+                logger.warn("[traceId: {}] Request deadline exceeded fetching customer - CPF: {}, Duration: {}ms",
+                            traceId, maskCpf(cpf), duration);
+                throw new DeadlineExceededException(String.format(
+                    "Request deadline exceeded fetching customer (CPF: %s, Duration: %dms)", maskCpf(cpf), duration), e);
+            }
+            logger.error("[traceId: {}] Timeout fetching customer - CPF: {}, URL: {}, Duration: {}ms, ReadTimeout: {}ms", 
+                        traceId, maskCpf(cpf), fullUrl, duration, timeout.toMillis(), e);
             throw new RuntimeException(
-                String.format("Timeout connecting to Customer Service (CPF: %s, Duration: %dms, ConnectTimeout: %dms, ReadTimeout: %dms)", 
-                             maskCpf(cpf), duration, connectTimeout, readTimeout), e);
+                String.format("Timeout connecting to Customer Service (CPF: %s, Duration: %dms, ReadTimeout: %dms)", 
+                             maskCpf(cpf), duration, timeout.toMillis()), e);
         } catch (IOException e) {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[traceId: {}] IO error fetching customer - CPF: {}, URL: {}, Duration: {}ms, Error: {}", 
@@ -95,20 +215,69 @@ public class CustomerApiClient {
             throw new RuntimeException(
                 String.format("Error connecting to Customer Service (CPF: %s, URL: %s, Error: %s)", 
                              maskCpf(cpf), fullUrl, e.getMessage()), e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
     }
     
+    private HttpResponse<String> send(String fullUrl, String traceId, Duration timeout, boolean cappedByDeadline)
+            throws IOException {
+        if (hedgePolicy == null) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpTransport.send(request(fullUrl, traceId, timeout));
+                recordLatency(start, null, cappedByDeadline);
+                return response;
+            } catch (IOException e) {
+                recordLatency(start, e, cappedByDeadline);
+                throw e;
+            }
+        }
+
+        try {
+            return hedgePolicy.execute(attemptTimeout -> {
+                long start = System.nanoTime();
+                CompletableFuture<HttpResponse<String>> response =
+                        httpTransport.sendAsync(request(fullUrl, traceId, attemptTimeout));
+                response.whenComplete((ignored, error) -> recordLatency(start, error, cappedByDeadline));
+                return response;
+            }, timeout);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted fetching customer", e);
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private HttpRequest request(String fullUrl, String traceId, Duration timeout) throws IOException {
+        return HttpRequest.newBuilder(HttpTransport.toUri(fullUrl))
+                .header("Accept", "application/json")
+                .header("X-Trace-ID", traceId)
+                .header("X-Request-Timeout", String.valueOf(timeout.toMillis()))
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    // Respostas (inclusive 404/5xx) e timeouts entram no histograma; chamadas canceladas pelo hedge e timeouts
+    // encurtados pelo prazo da requisição não dizem nada sobre o serviço
+    private void recordLatency(long startNanos, Throwable error, boolean cappedByDeadline) {
+        if (latencyTracker == null) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null || (cause instanceof HttpTimeoutException && !cappedByDeadline)) {
+            latencyTracker.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        } else if (!(cause instanceof CancellationException)) {
+            logger.debug("Customer API call failed without response, latency not recorded: {}", cause.getMessage());
+        }
+    }
+
+    // Sem requisição em andamento o traceId vale só para esta chamada; não fica no MDC da thread
     private String getOrCreateTraceId() {
         String traceId = MDC.get("traceId");
-        if (traceId == null) {
-            traceId = UUID.randomUUID().toString();
-            MDC.put("traceId", traceId);
-        }
-        return traceId;
+        return traceId != null ? traceId : UUID.randomUUID().toString();
     }
     
     private String maskCpf(String cpf) {
@@ -117,21 +286,4 @@ public class CustomerApiClient {
         }
         return "***" + cpf.substring(cpf.length() - 3);
     }
-    
-    private String readErrorStream(HttpURLConnection connection) {
-        try {
-            if (connection.getErrorStream() != null) {
-                Scanner scanner = new Scanner(connection.getErrorStream());
-                StringBuilder error = new StringBuilder();
-                while (scanner.hasNext()) {
-                    error.append(scanner.nextLine());
-                }
-                scanner.close();
-                return error.toString();
-            }
-        } catch (Exception e) {
-            logger.debug("Could not read error stream: {}", e.getMessage());
-        }
-        return "";
-    }
-}
\ No newline at end of file
+}
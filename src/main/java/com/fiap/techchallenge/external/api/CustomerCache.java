@@ -0,0 +1,175 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Cache em memória dos clientes retornados pela API de customer, por CPF.
+ *
+ * - TTL e tamanho máximo configuráveis;
+ * - 404 fica em cache por um TTL curto (cache negativo);
+ * - chamadas concorrentes para o mesmo CPF esperam uma única busca remota (single-flight),
+ *   executada na thread de quem chegou primeiro para manter o traceId do MDC. Quem espera a busca de outra
+ *   requisição desiste quando o próprio prazo ({@link RequestDeadline}) acaba;
+ * - se quem buscava abandonou a busca (prazo esgotado ou thread interrompida, como no cancelamento do createOrder
+ *   paralelo), a falha não é repassada a quem espera: a entrada sai do cache e o próximo refaz a busca com o
+ *   próprio prazo, como no {@link com.fiap.techchallenge.application.concurrent.SingleFlight}.
+ */
+public class CustomerCache {
+
+    public static final String CACHE_NAME = "customers";
+
+    // Marcador para CPF inexistente; nunca é devolvido a quem chama
+    private static final JsonNode NOT_FOUND = MissingNode.getInstance();
+
+    private final AsyncCache<String, JsonNode> cache;
+
+    public CustomerCache(Duration ttl, Duration notFoundTtl, long maxSize) {
+        this(ttl, notFoundTtl, maxSize, Ticker.systemTicker());
+    }
+
+    public CustomerCache(Duration ttl, Duration notFoundTtl, long maxSize, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JsonNode>() {
+                    @Override
+                    public long expireAfterCreate(String cpf, JsonNode customer, long currentTime) {
+                        return customer == NOT_FOUND ? notFoundTtl.toNanos() : ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String cpf, JsonNode customer, long currentTime, long currentDuration) {
+                        return expireAfterCreate(cpf, customer, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String cpf, JsonNode customer, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Retorna o cliente do cache ou carrega com o loader. Optional vazio significa 404 em cache.
+     * Outras falhas do loader não ficam em cache.
+     */
+    public Optional<JsonNode> get(String cpf, Function<String, JsonNode> loader) {
+        while (true) {
+            CompletableFuture<JsonNode> created = new CompletableFuture<>();
+            CompletableFuture<JsonNode> future = cache.get(cpf, (key, executor) -> created);
+            boolean loading = future == created;
+
+            if (loading) {
+                load(cpf, loader, created);
+            }
+
+            try {
+                JsonNode customer = await(future);
+                return customer == NOT_FOUND ? Optional.empty() : Optional.of(customer);
+            } catch (AbandonedException e) {
+                if (loading) {
+                    throw e.original();
+                }
+                // Quem buscava desistiu antes de terminar; tenta de novo, agora talvez como quem busca
+            }
+        }
+    }
+
+    private static JsonNode await(CompletableFuture<JsonNode> future) {
+        Optional<Duration> remaining = RequestDeadline.remaining();
+        try {
+            if (remaining.isEmpty() || future.isDone()) {
+                return future.join();
+            }
+            return future.get(Math.max(remaining.get().toNanos(), 0), TimeUnit.NANOSECONDS);
+        } catch (CompletionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e instanceof CompletionException completionException) {
+                throw completionException;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded waiting for customer lookup", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted waiting for customer lookup", e);
+        }
+    }
+
+    public void invalidate(String cpf) {
+        cache.synchronous().invalidate(cpf);
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        // CaffeineCacheMetrics só publica cargas para LoadingCache; o tempo de carga vem das estatísticas do Caffeine
+        FunctionTimer.builder("cache.loads", cache,
+                        c -> c.synchronous().stats().loadCount(),
+                        c -> c.synchronous().stats().totalLoadTime(),
+                        TimeUnit.NANOSECONDS)
+                .tag("cache", CACHE_NAME)
+                .description("Remote loads of customers by CPF and the time spent on them")
+                .register(meterRegistry);
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private void load(String cpf, Function<String, JsonNode> loader, CompletableFuture<JsonNode> created) {
+        try {
+            created.complete(loader.apply(cpf));
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                created.complete(NOT_FOUND);
+            } else {
+                created.completeExceptionally(e);
+            }
+        } catch (RuntimeException | Error e) {
+            if (e instanceof DeadlineExceededException || Thread.currentThread().isInterrupted()) {
+                cache.asMap().remove(cpf, created);
+                created.completeExceptionally(new AbandonedException(e));
+            } else {
+                created.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class AbandonedException extends RuntimeException {
+        private AbandonedException(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+
+        private RuntimeException original() {
+            if (getCause() instanceof Error error) {
+                throw error;
+            }
+            return (RuntimeException) getCause();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte HTTP compartilhado pelos clientes das APIs externas.
+ *
+ * Usa um único {@link HttpClient}, que mantém as conexões abertas (keep-alive) e as reaproveita
+ * entre chamadas. O número de requisições simultâneas por host é limitado, o que também limita
+ * quantas conexões o pool abre para cada serviço.
+ */
+public class HttpTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpTransport.class);
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+    // Teto da espera por vaga quando só o prazo da requisição limita (sem timeout na própria HttpRequest)
+    private static final Duration MAX_WAIT = Duration.ofDays(1);
+
+    private final HttpClient httpClient;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    public HttpTransport(int connectTimeout, int maxConnectionsPerHost, boolean h2c) {
+        if (maxConnectionsPerHost <= 0) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be positive");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.httpClient = HttpClient.newBuilder()
+                // HTTP_2 em URL http:// negocia h2c via Upgrade e cai para HTTP/1.1 se o servidor não suportar
+                .version(h2c ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        logger.info("HttpTransport initialized - connectTimeout: {}ms, maxConnectionsPerHost: {}, h2c: {}",
+                    connectTimeout, maxConnectionsPerHost, h2c);
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws IOException {
+        Semaphore permits = acquire(request);
+
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted calling " + request.uri(), e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Versão assíncrona de {@link #send}, usada pelas chamadas duplicadas (hedge). A vaga do host é obtida antes de
+     * enviar, com a mesma espera limitada de {@link #send}, e devolvida quando a resposta chega, falha ou a chamada é
+     * cancelada; {@code cancel(true)} no future aborta a requisição em andamento
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) throws IOException {
+        Semaphore permits = acquire(request);
+
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        response.whenComplete((ignored, error) -> permits.release());
+        return response;
+    }
+
+    /**
+     * Espera por uma vaga do host no máximo até o timeout da requisição e o prazo da requisição de entrada
+     * ({@link RequestDeadline}): com o pool tomado por chamadas lentas, quem chega falha em vez de ficar preso.
+     * Sem vaga a tempo, lança {@link DeadlineExceededException} se o prazo acabou ou
+     * {@link ServiceUnavailableException} (503) se acabou o timeout da requisição
+     */
+    private Semaphore acquire(HttpRequest request) throws IOException {
+        String host = request.uri().getHost();
+        Semaphore permits = permitsByHost.computeIfAbsent(hostKey(request.uri()),
+                key -> new Semaphore(maxConnectionsPerHost, true));
+        Optional<Duration> timeout = request.timeout();
+        try {
+            if (timeout.isEmpty() && !RequestDeadline.isSet()) {
+                permits.acquire();
+                return permits;
+            }
+            Duration wait = RequestDeadline.cap(timeout.orElse(MAX_WAIT), "waiting for a connection to " + host);
+            if (permits.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return permits;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a connection to " + host, e);
+        }
+
+        RequestDeadline.check("getting a connection to " + host);
+        logger.warn("No connection available to {} within {}ms, all {} connections busy",
+                    host, timeout.map(Duration::toMillis).orElse(0L), maxConnectionsPerHost);
+        throw new ServiceUnavailableException("No connection available to " + host + ", retry later");
+    }
+
+    /**
+     * Converte a URL em URI absoluta, falhando como a antiga {@code new URL(...)} para URLs inválidas
+     */
+    public static URI toUri(String url) throws MalformedURLException {
+        try {
+            URI uri = new URI(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                throw new MalformedURLException("no protocol: " + url);
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            throw new MalformedURLException(e.getMessage());
+        }
+    }
+
+    private String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+}
@@ -3,9 +3,12 @@ package com.fiap.techchallenge.external.api;
 import com.fiap.techchallenge.adapters.controllers.OrderController;
 import com.fiap.techchallenge.application.usecases.OrderUseCase.OrderItemRequest;
 import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderPage;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
 import com.fiap.techchallenge.domain.entities.StatusPayment;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,11 +43,26 @@ public class OrderRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping
-    @Operation(summary = "Listar pedidos por status")
-    public ResponseEntity<List<Order>> findByOptionalStatus(@RequestParam(required = false) OrderStatus status) {
-        List<Order> orders = orderController.findByOptionalStatus(status);
-        return ResponseEntity.ok(orders);
+    @Operation(summary = "Listar pedidos por status",
+            description = "Sem status, lista os pedidos em aberto (READY, IN_PREPARATION, RECEIVED). Cada item é um " +
+                    "resumo (id, status, pagamento, criação e nome/quantidade dos itens); o pedido completo fica em " +
+                    "GET /orders/{id}. A resposta é paginada: quando houver mais itens, o header X-Next-Cursor traz " +
+                    "o cursor da próxima página.")
+    public ResponseEntity<List<OrderSummary>> findByOptionalStatus(
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Valor do X-Next-Cursor da página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (padrão 50, máximo 200)")
+            @RequestParam(required = false) Integer limit) {
+        OrderPage page = orderController.findOrders(status, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PutMapping("/{id}/status")
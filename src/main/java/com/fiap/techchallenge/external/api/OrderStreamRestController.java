@@ -0,0 +1,81 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fiap.techchallenge.adapters.controllers.OrderStreamController;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.OrderChange;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.Subscriber;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.Subscription;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Stream (SSE) das mudanças de status dos pedidos. A conexão fica em modo assíncrono do servlet, então
+ * clientes ociosos não ocupam thread do Tomcat; as entregas saem das threads de envio do feed.
+ */
+@RestController
+@RequestMapping("/orders")
+@Tag(name = "Orders", description = "API para gerenciamento de pedidos")
+public class OrderStreamRestController {
+
+    private final OrderStreamController orderStreamController;
+    private final long timeoutMs;
+
+    public OrderStreamRestController(OrderStreamController orderStreamController,
+                                     @Value("${orders.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.orderStreamController = orderStreamController;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar mudanças de status dos pedidos (SSE)",
+            description = "Envia eventos 'order' com a versão como id. Ao reconectar, o EventSource reenvia o " +
+                    "Last-Event-ID e o stream continua da versão seguinte; um evento 'reset' indica que o " +
+                    "cliente deve recarregar GET /orders.")
+    public SseEmitter stream(
+            @Parameter(description = "Última versão recebida (enviada automaticamente pelo EventSource)")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @Parameter(description = "Alternativa ao Last-Event-ID para clientes que não enviam o header")
+            @RequestParam(value = "since", required = false) Long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = orderStreamController.subscribe(
+                lastEventId != null ? lastEventId : since, new EmitterSubscriber(emitter));
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(() -> {
+            subscription.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    private record EmitterSubscriber(SseEmitter emitter) implements Subscriber {
+
+        @Override
+        public void onChange(OrderChange change) throws Exception {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.version()))
+                    .name("order")
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onReset(long version) throws Exception {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(version))
+                    .name("reset")
+                    .data(Map.of("version", version), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onHeartbeat() throws Exception {
+            emitter.send(SseEmitter.event().comment("keepalive"));
+        }
+    }
+}
@@ -1,36 +1,81 @@
 package com.fiap.techchallenge.external.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.application.concurrent.LatencyTracker;
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.application.concurrent.RetryPolicy;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import com.fiap.techchallenge.domain.exception.PaymentNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.SocketTimeoutException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class PaymentApiClient {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentApiClient.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
     private final String baseUrl;
-    private final int connectTimeout;
     private final int readTimeout;
+    private final HttpTransport httpTransport;
+    private final RetryPolicy retryPolicy;
+    private final LatencyTracker latencyTracker;
 
     public PaymentApiClient(String baseUrl, int connectTimeout, int readTimeout) {
+        this(baseUrl, readTimeout, new HttpTransport(connectTimeout, HttpTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST, false));
+    }
+
+    public PaymentApiClient(String baseUrl, int readTimeout, HttpTransport httpTransport) {
+        this(baseUrl, readTimeout, httpTransport, null);
+    }
+
+    /**
+     * @param retryPolicy repetição das falhas transitórias do createPayment; quando nula, faz uma única tentativa
+     */
+    public PaymentApiClient(String baseUrl, int readTimeout, HttpTransport httpTransport,
+                            RetryPolicy retryPolicy) {
+        this(baseUrl, readTimeout, httpTransport, retryPolicy, null);
+    }
+
+    /**
+     * @param latencyTracker latências recentes do createPayment; quando informado, o timeout de cada tentativa vem
+     *                       dele (com {@code readTimeout} como teto) em vez de ser sempre {@code readTimeout}. A
+     *                       consulta de status do reconciliador, fora do caminho do pedido, segue com
+     *                       {@code readTimeout}; opcional
+     */
+    public PaymentApiClient(String baseUrl, int readTimeout, HttpTransport httpTransport,
+                            RetryPolicy retryPolicy, LatencyTracker latencyTracker) {
         this.baseUrl = baseUrl;
-        this.connectTimeout = connectTimeout;
         this.readTimeout = readTimeout;
-        logger.info("PaymentApiClient initialized with URL: {}, connectTimeout: {}ms, readTimeout: {}ms", 
-                    baseUrl, connectTimeout, readTimeout);
+        this.httpTransport = httpTransport;
+        this.retryPolicy = retryPolicy;
+        this.latencyTracker = latencyTracker;
+        logger.info("PaymentApiClient initialized with URL: {}, readTimeout: {}ms", baseUrl, readTimeout);
     }
 
     public String createPayment(Double amount, String description, String method, Integer installments,
                                 String email, String documentType, String documentNumber) {
+        return createPayment(null, amount, description, method, installments, email, documentType, documentNumber);
+    }
+
+    /**
+     * @param idempotencyKey enviado em {@code X-Idempotency-Key}; a mesma chave para o mesmo pedido faz o serviço de
+     *                       pagamentos devolver o pagamento já criado em vez de cobrar de novo, o que permite repetir
+     *                       a chamada depois de um timeout. Sem chave, só falhas em que a requisição com certeza não
+     *                       chegou ao serviço (conexão recusada) são repetidas
+     */
+    public String createPayment(String idempotencyKey, Double amount, String description, String method,
+                                Integer installments, String email, String documentType, String documentNumber) {
         String traceId = getOrCreateTraceId();
         String fullUrl = baseUrl + "/payments";
         long startTime = System.currentTimeMillis();
@@ -38,18 +83,7 @@ public class PaymentApiClient {
         logger.info("[traceId: {}] Creating payment request - Amount: {}, Method: {}, Email: {}, Document: {}***", 
                     traceId, amount, method, email, maskDocument(documentNumber));
         
-        HttpURLConnection connection = null;
         try {
-            URL url = new URL(fullUrl);
-            connection = (HttpURLConnection) url.openConnection();
-
-            connection.setRequestMethod("GET"); // Mantido GET conforme código original
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("X-Trace-ID", traceId);
-            connection.setConnectTimeout(connectTimeout);
-            connection.setReadTimeout(readTimeout);
-            connection.setDoOutput(true);
-
             String payload = String.format("""
                 {
                     "amount": %.2f,
@@ -68,63 +102,178 @@ public class PaymentApiClient {
 
             logger.debug("[traceId: {}] Payment payload prepared - Size: {} bytes", traceId, payload.length());
 
-            try (OutputStream os = connection.getOutputStream()) {
-                os.write(payload.getBytes(StandardCharsets.UTF_8));
+            if (retryPolicy == null) {
+                return sendCreatePayment(traceId, fullUrl, payload, idempotencyKey, Duration.ofMillis(readTimeout));
             }
+            return retryPolicy.execute(
+                    remaining -> sendCreatePayment(traceId, fullUrl, payload, idempotencyKey, remaining),
+                    e -> !RequestDeadline.isExpired() && isRetryable(e, idempotencyKey != null));
 
-            int status = connection.getResponseCode();
+        } catch (DeadlineExceededException | ServiceUnavailableException e) {
+            throw e;
+        } catch (HttpTimeoutException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            if (RequestDeadline.isExpired()) {
+                throw new DeadlineExceededException(String.format(
+                    "Request deadline exceeded creating payment (Duration: %dms)", duration), e);
+            }
+            logger.error("[traceId: {}] Timeout creating payment - URL: {}, Duration: {}ms, ReadTimeout: {}ms", 
+                        traceId, fullUrl, duration, readTimeout, e);
+            throw new RuntimeException(
+                String.format("Timeout connecting to Payment Service (Duration: %dms, ReadTimeout: %dms)", 
+                             duration, readTimeout), e);
+        } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
-            
-            logger.info("[traceId: {}] Payment API response - Status: {}, Duration: {}ms", traceId, status, duration);
+            logger.error("[traceId: {}] Error creating payment - URL: {}, Duration: {}ms, Error: {}", 
+                        traceId, fullUrl, duration, e.getMessage(), e);
+            throw new RuntimeException(
+                String.format("Erro ao chamar API de pagamento (URL: %s, Error: %s)", fullUrl, e.getMessage()), e);
+        }
+    }
+
+    private String sendCreatePayment(String traceId, String fullUrl, String payload, String idempotencyKey,
+                                     Duration remaining) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Duration attemptTimeout = latencyTracker != null ? latencyTracker.timeout() : Duration.ofMillis(readTimeout);
+        Duration timeout = RequestDeadline.cap(min(attemptTimeout, remaining), "payment creation");
+
+        // HttpURLConnection convertia o GET com corpo em POST; o método real enviado sempre foi POST
+        HttpRequest.Builder builder = HttpRequest.newBuilder(HttpTransport.toUri(fullUrl))
+                .header("Content-Type", "application/json")
+                .header("X-Trace-ID", traceId)
+                .header("X-Request-Timeout", String.valueOf(timeout.toMillis()))
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofString(payload));
+        if (idempotencyKey != null) {
+            builder.header("X-Idempotency-Key", idempotencyKey);
+        }
+
+        HttpResponse<String> httpResponse;
+        long start = System.nanoTime();
+        try {
+            httpResponse = httpTransport.send(builder.build());
+        } catch (HttpTimeoutException e) {
+            // Timeout encurtado pelo prazo total ou da requisição não diz nada sobre a latência do serviço
+            if (latencyTracker != null && timeout.equals(attemptTimeout)) {
+                latencyTracker.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+            throw e;
+        }
+        if (latencyTracker != null) {
+            latencyTracker.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        int status = httpResponse.statusCode();
+        long duration = System.currentTimeMillis() - startTime;
+        
+        logger.info("[traceId: {}] Payment API response - Status: {}, Duration: {}ms", traceId, status, duration);
+
+        String response = httpResponse.body();
+
+        if (status < 200 || status >= 300) {
+            logger.error("[traceId: {}] Payment API error - Status: {}, URL: {}, Duration: {}ms, Response: {}", 
+                        traceId, status, fullUrl, duration, response);
+            throw new PaymentApiStatusException(status,
+                String.format("Payment API failed: HTTP %d (Duration: %dms) - %s", status, duration, response));
+        }
+
+        logger.info("[traceId: {}] Payment created successfully - Duration: {}ms, ResponseSize: {} bytes", 
+                   traceId, duration, response.length());
+        
+        return response;
+    }
+
+    /**
+     * Falhas transitórias que podem ser repetidas. Timeout, conexão caída no meio e 502/503/504/429 só são seguros
+     * com chave de idempotência (a requisição pode ter sido processada); 4xx e 500 não mudam repetindo
+     */
+    static boolean isRetryable(Exception e, boolean idempotent) {
+        if (e instanceof MalformedURLException) {
+            return false;
+        }
+        if (e instanceof ConnectException || e.getCause() instanceof ConnectException) {
+            return true;
+        }
+        if (!idempotent) {
+            return false;
+        }
+        if (e instanceof PaymentApiStatusException statusException) {
+            int status = statusException.status;
+            return status == 429 || status == 502 || status == 503 || status == 504;
+        }
+        return e instanceof IOException;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(
-                    (status >= 200 && status < 300)
-                            ? connection.getInputStream()
-                            : connection.getErrorStream(),
-                    StandardCharsets.UTF_8
-            ));
+    static class PaymentApiStatusException extends RuntimeException {
+        private final int status;
 
-            String response = reader.lines().collect(Collectors.joining("\n"));
+        PaymentApiStatusException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
 
+    /**
+     * Consulta o status atual de um pagamento (usado pelo reconciliador quando o webhook não chegou)
+     *
+     * @return status no formato do Mercado Pago (approved, pending, rejected...)
+     */
+    public String findPaymentStatus(Long paymentId) {
+        String traceId = getOrCreateTraceId();
+        String fullUrl = baseUrl + "/payments/" + paymentId;
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Duration timeout = RequestDeadline.cap(Duration.ofMillis(readTimeout), "payment status lookup");
+            HttpRequest request = HttpRequest.newBuilder(HttpTransport.toUri(fullUrl))
+                    .header("Accept", "application/json")
+                    .header("X-Trace-ID", traceId)
+                    .header("X-Request-Timeout", String.valueOf(timeout.toMillis()))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+
+            HttpResponse<String> httpResponse = httpTransport.send(request);
+            int status = httpResponse.statusCode();
+            long duration = System.currentTimeMillis() - startTime;
+
+            if (status == 404) {
+                throw new PaymentNotFoundException("Payment not found: " + paymentId);
+            }
             if (status < 200 || status >= 300) {
-                logger.error("[traceId: {}] Payment API error - Status: {}, URL: {}, Duration: {}ms, Response: {}", 
-                            traceId, status, fullUrl, duration, response);
+                logger.error("[traceId: {}] Payment API error - Status: {}, URL: {}, Duration: {}ms, Response: {}",
+                            traceId, status, fullUrl, duration, httpResponse.body());
                 throw new RuntimeException(
-                    String.format("Payment API failed: HTTP %d (Duration: %dms) - %s", status, duration, response));
+                    String.format("Payment API failed: HTTP %d (Duration: %dms)", status, duration));
             }
 
-            logger.info("[traceId: {}] Payment created successfully - Duration: {}ms, ResponseSize: {} bytes", 
-                       traceId, duration, response.length());
-            
-            return response;
+            JsonNode paymentStatus = MAPPER.readTree(httpResponse.body()).path("status");
+            if (!paymentStatus.isTextual()) {
+                throw new RuntimeException("Payment API response without status for payment " + paymentId);
+            }
+            logger.debug("[traceId: {}] Payment status fetched - PaymentId: {}, Status: {}, Duration: {}ms",
+                        traceId, paymentId, paymentStatus.asText(), duration);
+            return paymentStatus.asText();
 
-        } catch (SocketTimeoutException e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("[traceId: {}] Timeout creating payment - URL: {}, Duration: {}ms, ConnectTimeout: {}ms, ReadTimeout: {}ms", 
-                        traceId, fullUrl, duration, connectTimeout, readTimeout, e);
-            throw new RuntimeException(
-                String.format("Timeout connecting to Payment Service (Duration: %dms, ConnectTimeout: %dms, ReadTimeout: %dms)", 
-                             duration, connectTimeout, readTimeout), e);
+        } catch (PaymentNotFoundException | DeadlineExceededException | ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
-            logger.error("[traceId: {}] Error creating payment - URL: {}, Duration: {}ms, Error: {}", 
-                        traceId, fullUrl, duration, e.getMessage(), e);
+            logger.warn("[traceId: {}] Error fetching payment status - URL: {}, Duration: {}ms, Error: {}",
+                        traceId, fullUrl, duration, e.getMessage());
             throw new RuntimeException(
-                String.format("Error calling Payment API (URL: %s, Error: %s)", fullUrl, e.getMessage()), e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
+                String.format("Erro ao consultar pagamento (URL: %s, Error: %s)", fullUrl, e.getMessage()), e);
         }
     }
-    
+
+    // Fora de uma requisição, gera um traceId só para esta chamada: gravá-lo no MDC da thread o faria vazar
+    // para as chamadas seguintes feitas pela mesma thread de pool ou scheduler
     private String getOrCreateTraceId() {
         String traceId = MDC.get("traceId");
-        if (traceId == null) {
-            traceId = UUID.randomUUID().toString();
-            MDC.put("traceId", traceId);
-        }
-        return traceId;
+        return traceId != null ? traceId : UUID.randomUUID().toString();
     }
     
     private String maskDocument(String document) {
@@ -3,8 +3,14 @@ package com.fiap.techchallenge.external.api;
 import com.fiap.techchallenge.adapters.controllers.ProductController;
 import com.fiap.techchallenge.domain.entities.Product;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -43,11 +49,12 @@ public class ProductRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
+    // Corpo já serializado pela foto do cardápio; o ETag permite ao quiosque revalidar com If-None-Match
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Listar todos os produtos")
-    public ResponseEntity<List<Product>> findAllProducts() {
-        List<Product> products = productController.findAllProducts();
-        return ResponseEntity.ok(products);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Product.class))))
+    public ResponseEntity<byte[]> findAllProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return CatalogResponses.of(productController.findAllProductsView(), ifNoneMatch);
     }
 
     @GetMapping("/search")
@@ -57,11 +64,12 @@ public class ProductRestController {
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/category/{categoryId}")
+    @GetMapping(value = "/category/{categoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Buscar produtos por categoria")
-    public ResponseEntity<List<Product>> findProductsByCategory(@PathVariable UUID categoryId) {
-        List<Product> products = productController.findProductsByCategory(categoryId);
-        return ResponseEntity.ok(products);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Product.class))))
+    public ResponseEntity<byte[]> findProductsByCategory(@PathVariable UUID categoryId,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return CatalogResponses.of(productController.findProductsByCategoryView(categoryId), ifNoneMatch);
     }
 
     @PutMapping("/{id}")
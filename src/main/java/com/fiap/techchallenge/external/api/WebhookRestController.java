@@ -45,7 +45,7 @@ public class WebhookRestController {
             @Parameter(description = "Payload da notificação de pagamento", required = true)
             WebhookRequestDTO notificationRequest) {
 
-        webhookController.handlePaymentNotification(notificationRequest.getData().getId());
+        webhookController.handlePaymentNotification(notificationRequest.getId(), notificationRequest.getData().getId());
         return ResponseEntity.ok().build();
     }
 }
@@ -2,10 +2,14 @@ package com.fiap.techchallenge.external.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 @lombok.Data
 public class Data {
 
     @Schema(description = "Id do pagamento", example = "9988776655")
+    @NotNull(message = "data.id é obrigatório")
+    @Positive(message = "data.id deve ser positivo")
     private Long id;
 }
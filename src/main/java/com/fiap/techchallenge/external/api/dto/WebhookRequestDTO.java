@@ -2,6 +2,7 @@ package com.fiap.techchallenge.external.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -36,5 +37,7 @@ public class WebhookRequestDTO {
     private String apiVersion;
 
     @Schema(description = "Dados específicos do evento")
+    @NotNull(message = "data é obrigatório")
+    @Valid
     private com.fiap.techchallenge.external.api.dto.Data data;
 }
@@ -1,15 +1,21 @@
 package com.fiap.techchallenge.external.api.exception;
 
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
 import com.fiap.techchallenge.domain.exception.DomainException;
 import com.fiap.techchallenge.domain.exception.InvalidCpfException;
 import com.fiap.techchallenge.domain.exception.InvalidEmailException;
 import com.fiap.techchallenge.domain.exception.NotFoundException;
+import com.fiap.techchallenge.domain.exception.InvalidStatusTransitionException;
 import com.fiap.techchallenge.domain.exception.ProductLinkedToOrderException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,6 +23,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -58,6 +65,52 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getMessage(), HttpStatus.CONFLICT, traceId);
     }
 
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<Object> handleInvalidStatusTransitionException(InvalidStatusTransitionException ex) {
+        String traceId = MDC.get("traceId");
+        logger.warn("[traceId: {}] Invalid status transition: {}", traceId, ex.getMessage());
+        return buildResponse(ex.getMessage(), HttpStatus.CONFLICT, traceId);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<Object> handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        String traceId = MDC.get("traceId");
+        logger.warn("[traceId: {}] Concurrent update: {}", traceId, ex.getMessage());
+        return buildResponse(ex.getMessage(), HttpStatus.CONFLICT, traceId);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Object> handleDeadlineExceededException(DeadlineExceededException ex) {
+        String traceId = MDC.get("traceId");
+        logger.warn("[traceId: {}] Deadline exceeded: {}", traceId, ex.getMessage());
+        return buildResponse(ex.getMessage(), HttpStatus.GATEWAY_TIMEOUT, traceId);
+    }
+
+    // Consulta cancelada pelo banco ao atingir o prazo da requisição (setQueryTimeout)
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<Object> handleQueryTimeoutException(QueryTimeoutException ex) {
+        String traceId = MDC.get("traceId");
+        logger.warn("[traceId: {}] Database query timed out: {}", traceId, ex.getMessage());
+        return buildResponse("Request deadline exceeded waiting for the database", HttpStatus.GATEWAY_TIMEOUT, traceId);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Object> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        String traceId = MDC.get("traceId");
+        String message = ex.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        logger.warn("[traceId: {}] Invalid request: {}", traceId, message);
+        return buildResponse(message, HttpStatus.BAD_REQUEST, traceId);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        String traceId = MDC.get("traceId");
+        logger.warn("[traceId: {}] Service unavailable: {}", traceId, ex.getMessage());
+        return buildResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, traceId);
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex) {
         String traceId = MDC.get("traceId");
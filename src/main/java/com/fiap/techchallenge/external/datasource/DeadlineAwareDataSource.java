@@ -0,0 +1,89 @@
+package com.fiap.techchallenge.external.datasource;
+
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * DataSource que limita cada comando SQL ao tempo restante da requisição ({@link RequestDeadline}): o statement
+ * sai com {@code setQueryTimeout} igual ao prazo (em segundos, arredondado para cima, que é a resolução do JDBC)
+ * e, se o prazo já acabou, o comando nem é preparado. Sem prazo na thread, os statements ficam como estão.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+    public DeadlineAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineAwareDataSource.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new DeadlineHandler(connection));
+    }
+
+    private static final class DeadlineHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private DeadlineHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                default:
+                    break;
+            }
+
+            boolean createsStatement = Statement.class.isAssignableFrom(method.getReturnType());
+            if (createsStatement) {
+                RequestDeadline.check("database query");
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+
+            Optional<Duration> remaining = createsStatement ? RequestDeadline.remaining() : Optional.empty();
+            if (remaining.isPresent()) {
+                ((Statement) result).setQueryTimeout(toSeconds(remaining.get()));
+            }
+            return result;
+        }
+
+        private static int toSeconds(Duration remaining) {
+            long seconds = (remaining.toMillis() + 999) / 1000;
+            return (int) Math.max(1, Math.min(seconds, Integer.MAX_VALUE));
+        }
+    }
+}
@@ -7,17 +7,33 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+// Pedido com itens, produto e categoria numa única consulta (evita o N+1 ao mapear para o domínio)
+@NamedEntityGraph(name = OrderJpaEntity.WITH_ITEMS_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category"))
+        })
 public class OrderJpaEntity {
 
+    public static final String WITH_ITEMS_GRAPH = "Order.withItems";
+
+    // Mesmo valor do INCREMENT BY da sequence (V5)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence com alocação em blocos: o id sai da memória sem ir ao banco e o INSERT pode esperar o flush,
+    // o que permite agrupar os INSERTs em lote (com IDENTITY cada pedido é inserido na hora, sozinho)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "customer_cpf", nullable = true)
     private String cpf;
 
+    // order_id vai no próprio INSERT do item e nunca muda, sem um UPDATE por item depois
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", nullable = false, updatable = false)
     private List<OrderItemJpaEntity> items;
 
     @Column(name = "total_amount", nullable = false)
@@ -40,6 +56,10 @@ public class OrderJpaEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public OrderJpaEntity() {}
 
     // Getters e Setters
@@ -115,6 +135,14 @@ public class OrderJpaEntity {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Enums JPA específicos para persistência
     public enum OrderStatusJpa {
         RECEIVED, IN_PREPARATION, READY, FINISHED
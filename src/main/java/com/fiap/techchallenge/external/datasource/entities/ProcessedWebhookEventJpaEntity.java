@@ -0,0 +1,47 @@
+package com.fiap.techchallenge.external.datasource.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "processed_webhook_events",
+       uniqueConstraints = @UniqueConstraint(name = "uk_processed_webhook_events_event_key", columnNames = "event_key"),
+       indexes = @Index(name = "idx_processed_webhook_events_received_at", columnList = "received_at"))
+public class ProcessedWebhookEventJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_key", nullable = false, length = 64)
+    private String eventKey;
+
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    public ProcessedWebhookEventJpaEntity() {}
+
+    public ProcessedWebhookEventJpaEntity(String eventKey, Long eventId, Long paymentId, LocalDateTime receivedAt) {
+        this.eventKey = eventKey;
+        this.eventId = eventId;
+        this.paymentId = paymentId;
+        this.receivedAt = receivedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventKey() { return eventKey; }
+    public void setEventKey(String eventKey) { this.eventKey = eventKey; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Long getPaymentId() { return paymentId; }
+    public void setPaymentId(Long paymentId) { this.paymentId = paymentId; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
@@ -0,0 +1,7 @@
+package com.fiap.techchallenge.external.datasource.projections;
+
+/**
+ * Item de um pedido da listagem: apenas nome do produto e quantidade
+ */
+public record OrderItemSummaryRow(Long orderId, String name, Integer quantity) {
+}
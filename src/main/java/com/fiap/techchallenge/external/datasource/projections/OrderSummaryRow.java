@@ -0,0 +1,12 @@
+package com.fiap.techchallenge.external.datasource.projections;
+
+import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity.OrderStatusJpa;
+import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity.StatusPaymentJpa;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de pedidos projetada direto pela consulta (não passa pelo contexto de persistência)
+ */
+public record OrderSummaryRow(Long id, OrderStatusJpa status, StatusPaymentJpa statusPayment, LocalDateTime createdAt) {
+}
@@ -0,0 +1,9 @@
+package com.fiap.techchallenge.external.datasource.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pedido aguardando pagamento projetado direto pela consulta do reconciliador
+ */
+public record PendingPaymentRow(Long id, Long idPayment, LocalDateTime createdAt) {
+}
@@ -2,11 +2,19 @@ package com.fiap.techchallenge.external.datasource.repositories;
 
 import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity;
 import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity.OrderStatusJpa;
+import com.fiap.techchallenge.external.datasource.projections.OrderItemSummaryRow;
+import com.fiap.techchallenge.external.datasource.projections.OrderSummaryRow;
+import com.fiap.techchallenge.external.datasource.projections.PendingPaymentRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,6 +22,15 @@ import java.util.UUID;
 @Repository
 public interface OrderJpaRepository extends JpaRepository<OrderJpaEntity, Long> {
 
+    @Override
+    @EntityGraph(OrderJpaEntity.WITH_ITEMS_GRAPH)
+    Optional<OrderJpaEntity> findById(Long id);
+
+    @Override
+    @EntityGraph(OrderJpaEntity.WITH_ITEMS_GRAPH)
+    List<OrderJpaEntity> findAll();
+
+    @EntityGraph(OrderJpaEntity.WITH_ITEMS_GRAPH)
     @Query("SELECT o FROM OrderJpaEntity o " +
        "WHERE o.status <> 'FINISHED' " +
        "ORDER BY " +
@@ -23,10 +40,90 @@ public interface OrderJpaRepository extends JpaRepository<OrderJpaEntity, Long>
        "WHEN 'RECEIVED' THEN 3 " +
        "ELSE 4 END, " +
        "o.createdAt ASC")
-    List<OrderJpaEntity> findByOptionalStatus(@Param("status") OrderStatusJpa status);
+    List<OrderJpaEntity> findActiveOrders();
+
+    // Listagem: projeções em DTO, sem hidratar entidades. Keyset: a página seguinte começa logo após
+    // (createdAt, id) do último item, usando o índice (status, created_at, id)
+    @Query("SELECT new com.fiap.techchallenge.external.datasource.projections.OrderSummaryRow(" +
+           "o.id, o.status, o.statusPayment, o.createdAt) " +
+           "FROM OrderJpaEntity o WHERE o.status = :status " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<OrderSummaryRow> findFirstSummaryPageByStatus(@Param("status") OrderStatusJpa status, Pageable pageable);
 
+    @Query("SELECT new com.fiap.techchallenge.external.datasource.projections.OrderSummaryRow(" +
+           "o.id, o.status, o.statusPayment, o.createdAt) " +
+           "FROM OrderJpaEntity o WHERE o.status = :status " +
+           "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.id > :id)) " +
+           "ORDER BY o.createdAt ASC, o.id ASC")
+    List<OrderSummaryRow> findSummaryPageByStatusAfter(@Param("status") OrderStatusJpa status,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query("SELECT new com.fiap.techchallenge.external.datasource.projections.OrderItemSummaryRow(" +
+           "o.id, p.name, i.quantity) " +
+           "FROM OrderJpaEntity o JOIN o.items i JOIN i.product p WHERE o.id IN :orderIds")
+    List<OrderItemSummaryRow> findItemSummariesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @EntityGraph(OrderJpaEntity.WITH_ITEMS_GRAPH)
     Optional<OrderJpaEntity> findByIdPayment(@Param("idPayment") Long idPayment);
 
+    @EntityGraph(OrderJpaEntity.WITH_ITEMS_GRAPH)
+    List<OrderJpaEntity> findByIdPaymentIn(Collection<Long> idPayments);
+
+    // Os UPDATEs em massa incrementam a versão manualmente: o Hibernate só faz isso no save da entidade
+    @Modifying
+    @Query("UPDATE OrderJpaEntity o SET o.idPayment = :idPayment, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id = :id")
+    int updateIdPayment(@Param("id") Long id,
+                        @Param("idPayment") Long idPayment,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Transições de status: um único UPDATE condicionado ao status atual; 0 linhas = inexistente ou transição inválida
+    @Modifying
+    @Query("UPDATE OrderJpaEntity o SET o.status = :toStatus, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status IN :fromStatuses")
+    int updateStatusIfIn(@Param("id") Long id,
+                         @Param("fromStatuses") Collection<OrderStatusJpa> fromStatuses,
+                         @Param("toStatus") OrderStatusJpa toStatus,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE OrderJpaEntity o SET o.status = :toStatus, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.statusPayment = :statusPayment AND o.status IN :fromStatuses")
+    int updateStatusIfPaidAndIn(@Param("id") Long id,
+                                @Param("statusPayment") OrderJpaEntity.StatusPaymentJpa statusPayment,
+                                @Param("fromStatuses") Collection<OrderStatusJpa> fromStatuses,
+                                @Param("toStatus") OrderStatusJpa toStatus,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT o.idPayment FROM OrderJpaEntity o WHERE o.idPayment IN :idPayments")
+    List<Long> findExistingIdPayments(@Param("idPayments") Collection<Long> idPayments);
+
+    // Aprovação em lote: só avança para IN_PREPARATION quem ainda está RECEIVED (reentregas não regridem o pedido)
+    @Modifying
+    @Query("UPDATE OrderJpaEntity o SET o.statusPayment = :statusPayment, " +
+           "o.status = CASE WHEN o.status = :fromStatus THEN :toStatus ELSE o.status END, " +
+           "o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.idPayment IN :idPayments")
+    int updatePaymentStatusByIdPayments(@Param("idPayments") Collection<Long> idPayments,
+                                        @Param("statusPayment") OrderJpaEntity.StatusPaymentJpa statusPayment,
+                                        @Param("fromStatus") OrderStatusJpa fromStatus,
+                                        @Param("toStatus") OrderStatusJpa toStatus,
+                                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Reconciliador de pagamentos: keyset por id sobre o índice parcial dos pedidos aguardando pagamento
+    @Query("SELECT new com.fiap.techchallenge.external.datasource.projections.PendingPaymentRow(" +
+           "o.id, o.idPayment, o.createdAt) " +
+           "FROM OrderJpaEntity o WHERE o.statusPayment = :statusPayment AND o.idPayment IS NOT NULL " +
+           "AND o.id > :afterId AND o.createdAt >= :createdFrom AND o.createdAt < :createdBefore " +
+           "ORDER BY o.id ASC")
+    List<PendingPaymentRow> findPendingPaymentsAfter(@Param("statusPayment") OrderJpaEntity.StatusPaymentJpa statusPayment,
+                                                     @Param("afterId") Long afterId,
+                                                     @Param("createdFrom") LocalDateTime createdFrom,
+                                                     @Param("createdBefore") LocalDateTime createdBefore,
+                                                     Pageable pageable);
+
     @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM OrderJpaEntity o JOIN o.items i WHERE i.productId = :productId")
     boolean existsByItemsProductId(@Param("productId") UUID productId);
 }
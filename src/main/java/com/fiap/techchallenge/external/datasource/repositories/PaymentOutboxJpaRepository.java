@@ -0,0 +1,41 @@
+package com.fiap.techchallenge.external.datasource.repositories;
+
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity.OutboxStatusJpa;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentOutboxJpaRepository extends JpaRepository<PaymentOutboxJpaEntity, Long> {
+
+    // SKIP LOCKED (-2): várias instâncias podem despachar ao mesmo tempo sem disputar as mesmas linhas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM PaymentOutboxJpaEntity p " +
+           "WHERE p.status = :status AND p.nextAttemptAt <= :now " +
+           "ORDER BY p.nextAttemptAt ASC, p.id ASC")
+    List<PaymentOutboxJpaEntity> findDueForUpdate(@Param("status") OutboxStatusJpa status,
+                                                  @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    // Só renova enquanto o lease ainda é nosso: não expirou (> now) e ninguém o reservou depois (<= heldUntil)
+    @Modifying
+    @Query("UPDATE PaymentOutboxJpaEntity p SET p.nextAttemptAt = :leaseUntil, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status = :status AND p.nextAttemptAt > :now AND p.nextAttemptAt <= :heldUntil")
+    int renewLease(@Param("id") Long id,
+                   @Param("status") OutboxStatusJpa status,
+                   @Param("now") LocalDateTime now,
+                   @Param("heldUntil") LocalDateTime heldUntil,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+}
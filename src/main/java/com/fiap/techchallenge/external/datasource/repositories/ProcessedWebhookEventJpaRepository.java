@@ -0,0 +1,24 @@
+package com.fiap.techchallenge.external.datasource.repositories;
+
+import com.fiap.techchallenge.external.datasource.entities.ProcessedWebhookEventJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedWebhookEventJpaRepository extends JpaRepository<ProcessedWebhookEventJpaEntity, Long> {
+
+    boolean existsByEventKey(String eventKey);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedWebhookEventJpaEntity e WHERE e.eventKey = :eventKey")
+    int deleteByEventKey(@Param("eventKey") String eventKey);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedWebhookEventJpaEntity e WHERE e.receivedAt < :cutoff")
+    int deleteReceivedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
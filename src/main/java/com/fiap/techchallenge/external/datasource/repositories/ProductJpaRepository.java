@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +17,7 @@ public interface ProductJpaRepository extends JpaRepository<ProductJpaEntity, UU
 
     @Query("SELECT p FROM ProductJpaEntity p WHERE p.category.id = :categoryId")
     List<ProductJpaEntity> findByCategoryId(@Param("categoryId") UUID categoryId);
+
+    @Query("SELECT p FROM ProductJpaEntity p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<ProductJpaEntity> findAllByIdInWithCategory(@Param("ids") Collection<UUID> ids);
 }
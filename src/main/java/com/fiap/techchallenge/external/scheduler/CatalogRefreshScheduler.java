@@ -0,0 +1,34 @@
+package com.fiap.techchallenge.external.scheduler;
+
+import com.fiap.techchallenge.application.usecases.CatalogCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remonta periodicamente a foto do cardápio, cobrindo alterações feitas por outras instâncias
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogRefreshScheduler.class);
+
+    private final CatalogCache catalogCache;
+
+    public CatalogRefreshScheduler(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.cache.refresh-interval-ms:60000}",
+               initialDelayString = "${catalog.cache.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            catalogCache.refresh();
+        } catch (Exception e) {
+            logger.error("Catalog snapshot refresh failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fiap.techchallenge.external.scheduler;
+
+import com.fiap.techchallenge.application.usecases.KitchenBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconcilia periodicamente o painel da cozinha com o banco, cobrindo alterações feitas fora desta instância
+ */
+@Component
+@ConditionalOnProperty(name = "kitchen-board.enabled", havingValue = "true", matchIfMissing = true)
+public class KitchenBoardReconcileScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenBoardReconcileScheduler.class);
+
+    private final KitchenBoard kitchenBoard;
+
+    public KitchenBoardReconcileScheduler(KitchenBoard kitchenBoard) {
+        this.kitchenBoard = kitchenBoard;
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen-board.reconcile-interval-ms:30000}",
+               initialDelayString = "${kitchen-board.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        try {
+            kitchenBoard.reconcile();
+        } catch (Exception e) {
+            logger.error("Kitchen board reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.fiap.techchallenge.external.scheduler;
+
+import com.fiap.techchallenge.application.usecases.PaymentOutboxUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispara periodicamente o envio dos pagamentos pendentes do outbox
+ */
+@Component
+@ConditionalOnProperty(name = "payment-outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOutboxScheduler.class);
+
+    private final PaymentOutboxUseCase paymentOutboxUseCase;
+
+    public PaymentOutboxScheduler(PaymentOutboxUseCase paymentOutboxUseCase) {
+        this.paymentOutboxUseCase = paymentOutboxUseCase;
+    }
+
+    @Scheduled(fixedDelayString = "${payment-outbox.dispatcher.interval-ms:1000}")
+    public void dispatchPendingPayments() {
+        try {
+            int dispatched = paymentOutboxUseCase.dispatchPendingPayments();
+            if (dispatched > 0) {
+                logger.info("Payment outbox dispatcher created {} payments", dispatched);
+            }
+        } catch (Exception e) {
+            logger.error("Payment outbox dispatcher run failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fiap.techchallenge.external.scheduler;
+
+import com.fiap.techchallenge.application.usecases.PaymentReconciliationUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consulta periodicamente os pagamentos dos pedidos parados em AGUARDANDO_PAGAMENTO, cobrindo webhooks perdidos
+ */
+@Component
+@ConditionalOnProperty(name = "payment-reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentReconcileScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconcileScheduler.class);
+
+    private final PaymentReconciliationUseCase paymentReconciliationUseCase;
+
+    public PaymentReconcileScheduler(PaymentReconciliationUseCase paymentReconciliationUseCase) {
+        this.paymentReconciliationUseCase = paymentReconciliationUseCase;
+    }
+
+    @Scheduled(fixedDelayString = "${payment-reconcile.interval-ms:60000}",
+               initialDelayString = "${payment-reconcile.interval-ms:60000}")
+    public void reconcilePendingPayments() {
+        try {
+            int submitted = paymentReconciliationUseCase.reconcilePendingPayments();
+            if (submitted > 0) {
+                logger.info("Payment reconciliation submitted {} approved payments", submitted);
+            }
+        } catch (Exception e) {
+            logger.error("Payment reconciliation run failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fiap.techchallenge.external.scheduler;
+
+import com.fiap.techchallenge.application.usecases.WebhookDeduplicationUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remove periodicamente os eventos de webhook processados que já saíram do período de retenção
+ */
+@Component
+@ConditionalOnProperty(name = "webhook.dedup.enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessedWebhookEventCleanupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedWebhookEventCleanupScheduler.class);
+
+    private final WebhookDeduplicationUseCase webhookDeduplicationUseCase;
+
+    public ProcessedWebhookEventCleanupScheduler(WebhookDeduplicationUseCase webhookDeduplicationUseCase) {
+        this.webhookDeduplicationUseCase = webhookDeduplicationUseCase;
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.dedup.purge-interval-ms:3600000}",
+               initialDelayString = "${webhook.dedup.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int removed = webhookDeduplicationUseCase.purgeExpired();
+            if (removed > 0) {
+                logger.info("Removed {} expired processed webhook events", removed);
+            }
+        } catch (Exception e) {
+            logger.error("Processed webhook events cleanup failed: {}", e.getMessage(), e);
+        }
+    }
+}
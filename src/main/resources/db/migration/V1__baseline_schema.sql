@@ -0,0 +1,45 @@
+-- Schema inicial, equivalente ao que o Hibernate gerava com ddl-auto: update antes do Flyway.
+-- Bancos existentes recebem o baseline nesta versão, então aqui só entra o que eles já têm;
+-- tabelas novas vão em migrations posteriores.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id   UUID         NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id          UUID           NOT NULL,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(255),
+    price       NUMERIC(38, 2) NOT NULL,
+    category_id UUID,
+    active      BOOLEAN        NOT NULL,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    customer_cpf   VARCHAR(255),
+    total_amount   NUMERIC(38, 2) NOT NULL,
+    status         VARCHAR(255)   NOT NULL,
+    status_payment VARCHAR(255)   NOT NULL,
+    id_payment     BIGINT,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         UUID           NOT NULL,
+    order_id   BIGINT,
+    product_id UUID           NOT NULL,
+    quantity   INTEGER        NOT NULL,
+    unit_price NUMERIC(38, 2) NOT NULL,
+    sub_total  NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
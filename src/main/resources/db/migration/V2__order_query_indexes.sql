@@ -0,0 +1,11 @@
+-- Índices para as consultas quentes de pedidos
+
+-- findByIdPayment / aprovação em lote do webhook; parcial porque pedidos sem pagamento ficam com NULL
+CREATE INDEX IF NOT EXISTS idx_orders_id_payment ON orders (id_payment) WHERE id_payment IS NOT NULL;
+
+-- Painel da cozinha: só pedidos em aberto, ordenados por status e chegada
+CREATE INDEX IF NOT EXISTS idx_orders_open_status_created_at ON orders (status, created_at) WHERE status <> 'FINISHED';
+
+-- existsByItemsProductId (bloqueia a exclusão de produtos já pedidos) e o join dos itens do pedido
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items (product_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
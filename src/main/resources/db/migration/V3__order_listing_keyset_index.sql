@@ -0,0 +1,5 @@
+-- Listagem paginada por keyset (status, created_at, id), incluindo FINISHED quando filtrado por status.
+-- Substitui o índice parcial da V2, que não atende a listagem de pedidos finalizados.
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders (status, created_at, id);
+
+DROP INDEX IF EXISTS idx_orders_open_status_created_at;
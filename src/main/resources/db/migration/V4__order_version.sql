@@ -0,0 +1,2 @@
+-- Controle de concorrência otimista: cada gravação compara e incrementa a versão do pedido
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Ids de pedidos passam a vir de uma sequence alocada em blocos de 50 (allocationSize do OrderJpaEntity),
+-- o que libera o Hibernate para inserir pedidos e itens em lotes JDBC.
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+
+-- A sequence passa a ser a única fonte de ids: um INSERT sem id que usasse o contador do IDENTITY
+-- (~ MAX(id) + 1) cairia dentro dos blocos entregues pelo otimizador pooled e colidiria com a aplicação.
+-- Sem default, quem inserir pedidos fora da aplicação reserva um bloco com nextval('orders_seq') (ids de n - 49 a n).
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- O otimizador pooled usa o valor da sequence como limite superior do bloco: começar em MAX(id) + 50
+-- garante que o primeiro bloco não reutilize ids já existentes
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 50, false);
+
+-- Itens já gravados sempre têm pedido; o mapeamento agora grava order_id no próprio INSERT
+ALTER TABLE order_items ALTER COLUMN order_id SET NOT NULL;
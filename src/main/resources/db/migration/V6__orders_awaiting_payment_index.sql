@@ -0,0 +1,3 @@
+-- Reconciliador de pagamentos: percorre por id (keyset) só os pedidos que ainda aguardam a confirmação
+CREATE INDEX IF NOT EXISTS idx_orders_awaiting_payment ON orders (id)
+    WHERE status_payment = 'AGUARDANDO_PAGAMENTO' AND id_payment IS NOT NULL;
@@ -0,0 +1,37 @@
+-- Tabelas do outbox de pagamentos e da deduplicação do webhook, fora do baseline (V1) para serem criadas
+-- também nos bancos que recebem o baseline
+
+CREATE TABLE IF NOT EXISTS payment_outbox (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id          BIGINT         NOT NULL,
+    amount            NUMERIC(38, 2) NOT NULL,
+    description       VARCHAR(255),
+    payment_method_id VARCHAR(255)   NOT NULL,
+    installments      INTEGER        NOT NULL,
+    payer_email       VARCHAR(255),
+    document_type     VARCHAR(255),
+    document_number   VARCHAR(255),
+    status            VARCHAR(255)   NOT NULL,
+    attempts          INTEGER        NOT NULL,
+    next_attempt_at   TIMESTAMP(6)   NOT NULL,
+    last_error        VARCHAR(1000),
+    id_payment        BIGINT,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_payment_outbox PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS processed_webhook_events (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_key   VARCHAR(64)  NOT NULL,
+    event_id    BIGINT,
+    payment_id  BIGINT       NOT NULL,
+    received_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_processed_webhook_events PRIMARY KEY (id),
+    CONSTRAINT uk_processed_webhook_events_event_key UNIQUE (event_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_webhook_events_received_at ON processed_webhook_events (received_at);
+
+-- Dispatcher do outbox: apenas entradas pendentes, na ordem de próxima tentativa
+CREATE INDEX IF NOT EXISTS idx_payment_outbox_pending_next_attempt ON payment_outbox (next_attempt_at, id) WHERE status = 'PENDING';
@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.adapters.controllers;
 
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.application.usecases.CategoryUseCase;
 import com.fiap.techchallenge.domain.entities.Category;
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +110,18 @@ class CategoryControllerTest {
         // Assert
         verify(categoryUseCase).deleteById(categoryId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return the serialized categories view from the use case")
+    void testShouldFindAllView() {
+        // Arrange
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[]".getBytes(), "\"abc\"");
+        when(categoryUseCase.findAllView()).thenReturn(view);
+
+        // Act
+        CatalogSnapshot.View result = categoryController.findAllView();
+
+        // Assert
+        assertSame(view, result);
+    }
+}
@@ -85,23 +85,6 @@ class OrderControllerTest {
         verify(orderUseCase).findOrderById(orderId);
     }
 
-    @Test
-    @DisplayName("Should find orders by status successfully")
-    void testShouldFindOrdersByStatusSuccessfully() {
-        // Arrange
-        OrderStatus status = OrderStatus.RECEIVED;
-        List<Order> orders = List.of(order);
-        when(orderUseCase.findByOptionalStatus(status)).thenReturn(orders);
-
-        // Act
-        List<Order> result = orderController.findByOptionalStatus(status);
-
-        // Assert
-        assertEquals(1, result.size());
-        assertEquals(order, result.get(0));
-        verify(orderUseCase).findByOptionalStatus(status);
-    }
-
     @Test
     @DisplayName("Should update order status successfully")
     void testShouldUpdateOrderStatusSuccessfully() {
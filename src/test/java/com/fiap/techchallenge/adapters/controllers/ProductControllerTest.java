@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.adapters.controllers;
 
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.application.usecases.ProductUseCase;
 import com.fiap.techchallenge.domain.entities.Category;
 import com.fiap.techchallenge.domain.entities.Product;
@@ -169,4 +170,18 @@ class ProductControllerTest {
         // Assert
         verify(productUseCase).deleteProduct(productId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return the serialized products view from the use case")
+    void testShouldFindAllProductsView() {
+        // Arrange
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[]".getBytes(), "\"abc\"");
+        when(productUseCase.findAllProductsView()).thenReturn(view);
+
+        // Act
+        CatalogSnapshot.View result = productController.findAllProductsView();
+
+        // Assert
+        assertSame(view, result);
+    }
+}
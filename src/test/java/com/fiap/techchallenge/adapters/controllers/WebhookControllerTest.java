@@ -1,6 +1,16 @@
 package com.fiap.techchallenge.adapters.controllers;
 
+import com.fiap.techchallenge.application.usecases.OrderUseCase;
 import com.fiap.techchallenge.application.usecases.PaymentNotificationUseCase;
+import com.fiap.techchallenge.application.usecases.PaymentNotificationUseCaseImpl;
+import com.fiap.techchallenge.application.usecases.QueuedPaymentNotificationUseCase;
+import com.fiap.techchallenge.application.usecases.WebhookDeduplicationUseCase;
+import com.fiap.techchallenge.application.usecases.WebhookDeduplicationUseCaseImpl;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.exception.NotFoundException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import com.fiap.techchallenge.domain.repositories.ProcessedWebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +18,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -16,6 +35,9 @@ class WebhookControllerTest {
     @Mock
     private PaymentNotificationUseCase paymentNotificationUseCase;
 
+    @Mock
+    private WebhookDeduplicationUseCase webhookDeduplicationUseCase;
+
     @InjectMocks
     private WebhookController webhookController;
 
@@ -24,12 +46,14 @@ class WebhookControllerTest {
     void testShouldHandlePaymentNotificationSuccessfully() {
         // Arrange
         Long paymentId = 123L;
+        when(webhookDeduplicationUseCase.registerIfFirst(null, paymentId)).thenReturn(true);
 
         // Act
         webhookController.handlePaymentNotification(paymentId);
 
         // Assert
-        verify(paymentNotificationUseCase).handlePaymentNotification(paymentId);
+        verify(paymentNotificationUseCase).handlePaymentNotification(eq(paymentId), any(Runnable.class));
+        verify(webhookDeduplicationUseCase, never()).forget(any(), any());
     }
 
     @Test
@@ -41,7 +65,98 @@ class WebhookControllerTest {
         // Act
         webhookController.handlePaymentNotification(paymentId);
 
+        // Assert
+        verifyNoInteractions(paymentNotificationUseCase, webhookDeduplicationUseCase);
+    }
+
+    @Test
+    @DisplayName("Should ignore duplicate deliveries without touching orders")
+    void testShouldIgnoreDuplicateDelivery() {
+        // Arrange
+        when(webhookDeduplicationUseCase.registerIfFirst(10L, 123L)).thenReturn(false);
+
+        // Act
+        webhookController.handlePaymentNotification(10L, 123L);
+
         // Assert
         verifyNoInteractions(paymentNotificationUseCase);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should forget the delivery when the notification cannot be accepted")
+    void testShouldForgetDeliveryWhenQueueIsFull() {
+        // Arrange
+        when(webhookDeduplicationUseCase.registerIfFirst(10L, 123L)).thenReturn(true);
+        doThrow(new ServiceUnavailableException("Payment notification queue is full, retry later"))
+                .when(paymentNotificationUseCase).handlePaymentNotification(eq(123L), any(Runnable.class));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class,
+                () -> webhookController.handlePaymentNotification(10L, 123L));
+        verify(webhookDeduplicationUseCase).forget(10L, 123L);
+    }
+
+    @Test
+    @DisplayName("Should apply a redelivery when the first delivery failed after being acknowledged")
+    void testShouldApplyRedeliveryAfterAsyncFailure() throws Exception {
+        // Arrange: fila e deduplicação reais; o pedido só aparece depois da primeira entrega
+        Set<String> processedEvents = ConcurrentHashMap.newKeySet();
+        ProcessedWebhookEventRepository repository = new ProcessedWebhookEventRepository() {
+            @Override
+            public boolean registerIfAbsent(String eventKey, Long eventId, Long paymentId, LocalDateTime receivedAt) {
+                return processedEvents.add(eventKey);
+            }
+
+            @Override
+            public void remove(String eventKey) {
+                processedEvents.remove(eventKey);
+            }
+
+            @Override
+            public int deleteReceivedBefore(LocalDateTime cutoff) {
+                return 0;
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderUseCase orderUseCase = mock(OrderUseCase.class);
+        when(orderUseCase.updateOrderStatusPayment(123L, StatusPayment.APROVADO))
+                .thenThrow(new NotFoundException("Order not found"))
+                .thenReturn(null);
+        QueuedPaymentNotificationUseCase queue = new QueuedPaymentNotificationUseCase(
+                new PaymentNotificationUseCaseImpl(orderUseCase), 10, 1, meterRegistry);
+        WebhookController controller = new WebhookController(queue, new WebhookDeduplicationUseCaseImpl(
+                repository, Duration.ofMinutes(10), 100, Duration.ofDays(7), meterRegistry));
+
+        // Act
+        controller.handlePaymentNotification(10L, 123L);
+        verify(orderUseCase, timeout(5000)).updateOrderStatusPayment(123L, StatusPayment.APROVADO);
+        await(processedEvents::isEmpty);
+        controller.handlePaymentNotification(10L, 123L);
+        queue.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        verify(orderUseCase, times(2)).updateOrderStatusPayment(123L, StatusPayment.APROVADO);
+        assertTrue(processedEvents.contains("10:123"));
+    }
+
+    @Test
+    @DisplayName("Should process notifications when de-duplication is disabled")
+    void testShouldProcessWithoutDeduplication() {
+        // Arrange
+        WebhookController controller = new WebhookController(paymentNotificationUseCase);
+
+        // Act
+        controller.handlePaymentNotification(10L, 123L);
+        controller.handlePaymentNotification(10L, 123L);
+
+        // Assert
+        verify(paymentNotificationUseCase, times(2)).handlePaymentNotification(123L);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
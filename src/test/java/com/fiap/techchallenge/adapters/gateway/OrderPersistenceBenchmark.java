@@ -0,0 +1,115 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.entities.Category;
+import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderItem;
+import com.fiap.techchallenge.domain.entities.Product;
+import com.fiap.techchallenge.external.datasource.entities.CategoryJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.ProductJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.CategoryJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.ProductJpaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Vazão de gravação de pedidos (pedido + itens, uma transação por pedido, como no POST /orders).
+ *
+ * Fica fora da suíte normal (o nome não termina em Test); para rodar contra o H2 em memória:
+ * {@code mvn test -Dtest=OrderPersistenceBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ *
+ * Contra um PostgreSQL local, onde o número de round trips pesa de verdade, acrescente
+ * {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/orders -Dspring.datasource.username=...
+ * -Dspring.datasource.password=... -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect}.
+ * O schema é recriado pelo create-drop do profile de teste, então use um banco descartável.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPersistenceBenchmark {
+
+    private static final int WARMUP_ORDERS = 500;
+    private static final int MEASURED_ORDERS = Integer.getInteger("benchmark.orders", 5000);
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
+    @Autowired
+    private ProductJpaRepository productJpaRepository;
+
+    @Autowired
+    private CategoryJpaRepository categoryJpaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void measureOrderInsertThroughput() {
+        OrderRepositoryGateway gateway = new OrderRepositoryGateway(orderJpaRepository, paymentOutboxJpaRepository);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = seedProducts();
+
+        insert(gateway, transaction, products, WARMUP_ORDERS);
+
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        insert(gateway, transaction, products, MEASURED_ORDERS);
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        System.out.printf("Order insert benchmark: %d orders x %d items in %.2fs -> %.0f orders/s, %.1f statements/order%n",
+                MEASURED_ORDERS, ITEMS_PER_ORDER, seconds, MEASURED_ORDERS / seconds,
+                (double) statistics.getPrepareStatementCount() / MEASURED_ORDERS);
+    }
+
+    private void insert(OrderRepositoryGateway gateway, TransactionTemplate transaction, List<Product> products, int count) {
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                items.add(OrderItem.create(products.get((i + j) % products.size()), 1));
+            }
+            Order order = Order.create("12345678900", items);
+            transaction.executeWithoutResult(status -> gateway.save(order));
+        }
+    }
+
+    private List<Product> seedProducts() {
+        CategoryJpaEntity category = categoryJpaRepository.save(new CategoryJpaEntity(UUID.randomUUID(), "Benchmark"));
+        Category domainCategory = new Category(category.getId(), category.getName());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ProductJpaEntity product = productJpaRepository.save(new ProductJpaEntity(UUID.randomUUID(),
+                    "Product " + i, "Description", BigDecimal.TEN, category, true));
+            products.add(Product.builder().id(product.getId()).name(product.getName()).price(product.getPrice())
+                    .category(domainCategory).active(true).build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,106 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que uma gravação baseada numa leitura antiga não sobrescreve alterações feitas depois dela
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class OrderRepositoryGatewayOptimisticLockTest {
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private OrderRepositoryGateway gateway;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new OrderRepositoryGateway(orderJpaRepository, paymentOutboxJpaRepository);
+
+        OrderJpaEntity order = new OrderJpaEntity();
+        order.setItems(List.of());
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setStatus(OrderJpaEntity.OrderStatusJpa.IN_PREPARATION);
+        order.setStatusPayment(OrderJpaEntity.StatusPaymentJpa.APROVADO);
+        order.setIdPayment(555L);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        orderId = orderJpaRepository.save(order).getId();
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should start new orders at version zero and bump it on every write")
+    void testShouldIncrementVersionOnWrites() {
+        // Arrange
+        Order order = gateway.findById(orderId).orElseThrow();
+        entityManager.clear();
+
+        // Act
+        order.setStatus(OrderStatus.READY);
+        gateway.save(order);
+        entityManager.flush();
+        entityManager.clear();
+        Long afterSave = gateway.findById(orderId).orElseThrow().getVersion();
+        entityManager.clear();
+        gateway.transitionStatus(orderId, OrderStatus.FINISHED.allowedPredecessors(), OrderStatus.FINISHED, null,
+                LocalDateTime.now());
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0L, order.getVersion());
+        assertEquals(1L, afterSave);
+        assertEquals(2L, gateway.findById(orderId).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Should reject a save based on a stale read instead of overwriting a newer status")
+    void testShouldRejectStaleSave() {
+        // Arrange: o webhook leu o pedido e, antes de gravar, a cozinha marcou como READY
+        Order readByWebhook = gateway.findById(orderId).orElseThrow();
+        entityManager.clear();
+        assertTrue(gateway.transitionStatus(orderId, OrderStatus.READY.allowedPredecessors(), OrderStatus.READY,
+                StatusPayment.APROVADO, LocalDateTime.now()));
+        entityManager.clear();
+
+        // Act
+        readByWebhook.setStatus(OrderStatus.IN_PREPARATION);
+
+        // Assert
+        assertThrows(ConcurrentUpdateException.class, () -> {
+            gateway.save(readByWebhook);
+            entityManager.flush();
+        });
+        entityManager.clear();
+        assertEquals(OrderStatus.READY, gateway.findById(orderId).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,254 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderItem;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.entities.PendingPayment;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.external.datasource.entities.CategoryJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.OrderItemJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.ProductJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.CategoryJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.ProductJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que as leituras de pedidos carregam itens, produtos e categorias com um número fixo de consultas,
+ * independentemente da quantidade de pedidos no painel
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class OrderRepositoryGatewayQueryCountTest {
+
+    private static final int BOARD_SIZE = 200;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
+    @Autowired
+    private ProductJpaRepository productJpaRepository;
+
+    @Autowired
+    private CategoryJpaRepository categoryJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private OrderRepositoryGateway gateway;
+    private Statistics statistics;
+    private Long firstOrderId;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new OrderRepositoryGateway(orderJpaRepository, paymentOutboxJpaRepository);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<ProductJpaEntity> products = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            CategoryJpaEntity category = categoryJpaRepository.save(new CategoryJpaEntity(UUID.randomUUID(), "Category " + c));
+            for (int p = 0; p < 5; p++) {
+                products.add(productJpaRepository.save(new ProductJpaEntity(UUID.randomUUID(), "Product " + c + "-" + p,
+                        "Description", BigDecimal.TEN, category, true)));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            List<OrderItemJpaEntity> items = new ArrayList<>();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                ProductJpaEntity product = products.get((i + j) % products.size());
+                items.add(new OrderItemJpaEntity(null, product.getId(), null, 1, BigDecimal.TEN, BigDecimal.TEN));
+            }
+            OrderJpaEntity order = new OrderJpaEntity();
+            order.setCpf("12345678900");
+            order.setItems(items);
+            order.setTotalAmount(BigDecimal.valueOf(30));
+            order.setStatus(OrderJpaEntity.OrderStatusJpa.values()[i % 3]);
+            order.setStatusPayment(OrderJpaEntity.StatusPaymentJpa.APROVADO);
+            order.setIdPayment(1000L + i);
+            order.setCreatedAt(now.plusSeconds(i));
+            order.setUpdatedAt(now.plusSeconds(i));
+            OrderJpaEntity saved = orderJpaRepository.save(order);
+            if (firstOrderId == null) {
+                firstOrderId = saved.getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private void assertFullyLoaded(List<Order> orders) {
+        for (Order order : orders) {
+            assertEquals(ITEMS_PER_ORDER, order.getItems().size());
+            order.getItems().forEach(item -> assertNotNull(item.getProduct().getCategory().getName()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should load the whole 200-order board with a single query")
+    void testShouldLoadBoardWithSingleQuery() {
+        // Act
+        List<Order> board = gateway.findActiveOrders();
+
+        // Assert
+        assertEquals(BOARD_SIZE, board.size());
+        assertFullyLoaded(board);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should load all orders with a single query")
+    void testShouldLoadAllWithSingleQuery() {
+        // Act
+        List<Order> orders = gateway.findAll();
+
+        // Assert
+        assertEquals(BOARD_SIZE, orders.size());
+        assertFullyLoaded(orders);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should load a single order by id or payment id with one query each")
+    void testShouldLoadSingleOrderWithOneQuery() {
+        // Act
+        Order byId = gateway.findById(firstOrderId).orElseThrow();
+        Order byPayment = gateway.findByIdPayment(1001L).orElseThrow();
+
+        // Assert
+        assertFullyLoaded(List.of(byId, byPayment));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should list a page as flat summaries with two queries and no managed entities")
+    void testShouldListSummaryPageWithoutEntities() {
+        // Act
+        List<OrderSummary> page = gateway.findSummaryPageByStatus(OrderStatus.RECEIVED, null, null, 60);
+
+        // Assert
+        assertEquals(60, page.size());
+        page.forEach(summary -> assertEquals(ITEMS_PER_ORDER, summary.getItems().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should change the status with a single conditional update and reject illegal transitions")
+    void testShouldTransitionStatusWithSingleStatement() {
+        // Arrange: o primeiro pedido semeado está RECEIVED
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        // Act
+        boolean moved = gateway.transitionStatus(firstOrderId, OrderStatus.IN_PREPARATION.allowedPredecessors(),
+                OrderStatus.IN_PREPARATION, StatusPayment.APROVADO, updatedAt);
+        long statements = statistics.getPrepareStatementCount();
+        boolean skipped = gateway.transitionStatus(firstOrderId, OrderStatus.FINISHED.allowedPredecessors(),
+                OrderStatus.FINISHED, StatusPayment.APROVADO, updatedAt);
+        boolean missing = gateway.transitionStatus(-1L, OrderStatus.READY.allowedPredecessors(),
+                OrderStatus.READY, null, updatedAt);
+
+        // Assert
+        assertTrue(moved);
+        assertEquals(1, statements);
+        assertFalse(skipped);
+        assertFalse(missing);
+        entityManager.clear();
+        assertEquals(OrderStatus.IN_PREPARATION, gateway.findById(firstOrderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should insert an order and its items in batched statements without product lookups")
+    void testShouldInsertOrderWithBatchedStatements() {
+        // Arrange
+        Order existing = gateway.findById(firstOrderId).orElseThrow();
+        entityManager.clear();
+        statistics.clear();
+        List<OrderItem> items = existing.getItems().stream()
+                .map(item -> OrderItem.create(item.getProduct(), 2))
+                .toList();
+
+        // Act
+        Order saved = gateway.save(Order.create("12345678900", items));
+        entityManager.flush();
+
+        // Assert: próximo bloco da sequence, INSERT do pedido e um lote com os itens
+        assertNotNull(saved.getId());
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+        assertEquals(0, statistics.getEntityLoadCount());
+        saved.getItems().forEach(item -> assertNotNull(item.getProduct().getName()));
+    }
+
+    @Test
+    @DisplayName("Should page orders awaiting payment by id with one query per page")
+    void testShouldPagePendingPaymentsByKeyset() {
+        // Arrange: três pedidos recentes aguardando pagamento, um deles ainda sem pagamento criado
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> awaiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OrderJpaEntity order = new OrderJpaEntity();
+            order.setCpf("12345678900");
+            order.setItems(new ArrayList<>());
+            order.setTotalAmount(BigDecimal.TEN);
+            order.setStatus(OrderJpaEntity.OrderStatusJpa.RECEIVED);
+            order.setStatusPayment(OrderJpaEntity.StatusPaymentJpa.AGUARDANDO_PAGAMENTO);
+            order.setIdPayment(i == 2 ? null : 5000L + i);
+            order.setCreatedAt(createdAt);
+            order.setUpdatedAt(createdAt);
+            awaiting.add(orderJpaRepository.save(order).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        LocalDateTime from = createdAt.minusDays(1);
+        LocalDateTime before = createdAt.plusMinutes(1);
+
+        // Act
+        List<PendingPayment> first = gateway.findPendingPaymentsPage(from, before, null, 1);
+        List<PendingPayment> second = gateway.findPendingPaymentsPage(from, before, first.get(0).getOrderId(), 1);
+        List<PendingPayment> third = gateway.findPendingPaymentsPage(from, before, second.get(0).getOrderId(), 1);
+
+        // Assert
+        assertEquals(awaiting.get(0), first.get(0).getOrderId());
+        assertEquals(5000L, first.get(0).getIdPayment());
+        assertEquals(awaiting.get(1), second.get(0).getOrderId());
+        assertTrue(third.isEmpty());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(gateway.findPendingPaymentsPage(from, createdAt, null, 10).isEmpty());
+    }
+}
@@ -1,20 +1,29 @@
 package com.fiap.techchallenge.adapters.gateway;
 
 import com.fiap.techchallenge.domain.entities.*;
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
 import com.fiap.techchallenge.external.datasource.entities.OrderJpaEntity;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+import com.fiap.techchallenge.external.datasource.projections.OrderItemSummaryRow;
+import com.fiap.techchallenge.external.datasource.projections.OrderSummaryRow;
 import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +36,9 @@ class OrderRepositoryGatewayTest {
     @Mock
     private OrderJpaRepository orderJpaRepository;
 
+    @Mock
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
     @InjectMocks
     private OrderRepositoryGateway orderRepositoryGateway;
 
@@ -80,6 +92,40 @@ class OrderRepositoryGatewayTest {
         verify(orderJpaRepository).save(any(OrderJpaEntity.class));
     }
 
+    @Test
+    @DisplayName("Should translate a version mismatch into ConcurrentUpdateException")
+    void testShouldTranslateOptimisticLockFailure() {
+        // Arrange
+        when(orderJpaRepository.save(any(OrderJpaEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OrderJpaEntity.class, 1L));
+
+        // Act & Assert
+        assertThrows(ConcurrentUpdateException.class, () -> orderRepositoryGateway.save(order));
+    }
+
+    @Test
+    @DisplayName("Should save order and pending payment outbox entry in the same transaction")
+    void testShouldSaveOrderWithPaymentOutbox() {
+        // Arrange
+        orderJpaEntity.setIdPayment(null);
+        when(orderJpaRepository.save(any(OrderJpaEntity.class))).thenReturn(orderJpaEntity);
+        PaymentOutboxEntry entry = PaymentOutboxEntry.pending(BigDecimal.valueOf(20.00), "Pagamento para o pedido",
+                "pix", 1, "test@test.com", "CPF", "12345678900");
+
+        // Act
+        Order result = orderRepositoryGateway.saveWithPaymentOutbox(order, entry);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals(PaymentCreationStatus.PENDING_CREATION, result.getPaymentCreationStatus());
+
+        ArgumentCaptor<PaymentOutboxJpaEntity> captor = ArgumentCaptor.forClass(PaymentOutboxJpaEntity.class);
+        verify(paymentOutboxJpaRepository).save(captor.capture());
+        assertEquals(1L, captor.getValue().getOrderId());
+        assertEquals(PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING, captor.getValue().getStatus());
+        assertEquals(BigDecimal.valueOf(20.00), captor.getValue().getAmount());
+    }
+
     @Test
     @DisplayName("Should find order by id successfully")
     void testShouldFindOrderByIdSuccessfully() {
@@ -125,35 +171,121 @@ class OrderRepositoryGatewayTest {
     }
 
     @Test
-    @DisplayName("Should find orders by status successfully")
-    void testShouldFindOrdersByStatusSuccessfully() {
+    @DisplayName("Should project the first page of a status with its items")
+    void testShouldProjectFirstSummaryPage() {
         // Arrange
-        List<OrderJpaEntity> jpaEntities = List.of(orderJpaEntity);
-        when(orderJpaRepository.findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.RECEIVED))
-                .thenReturn(jpaEntities);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(orderJpaRepository.findFirstSummaryPageByStatus(OrderJpaEntity.OrderStatusJpa.FINISHED, PageRequest.of(0, 10)))
+                .thenReturn(List.of(
+                        new OrderSummaryRow(1L, OrderJpaEntity.OrderStatusJpa.FINISHED, OrderJpaEntity.StatusPaymentJpa.APROVADO, createdAt),
+                        new OrderSummaryRow(2L, OrderJpaEntity.OrderStatusJpa.FINISHED, OrderJpaEntity.StatusPaymentJpa.APROVADO, createdAt)));
+        when(orderJpaRepository.findItemSummariesByOrderIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new OrderItemSummaryRow(1L, "X-Burger", 2), new OrderItemSummaryRow(1L, "Soda", 1)));
 
         // Act
-        List<Order> result = orderRepositoryGateway.findByOptionalStatus(OrderStatus.RECEIVED);
+        List<OrderSummary> result = orderRepositoryGateway.findSummaryPageByStatus(OrderStatus.FINISHED, null, null, 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(OrderStatus.FINISHED, result.get(0).getStatus());
+        assertEquals(StatusPayment.APROVADO, result.get(0).getStatusPayment());
+        assertEquals(2, result.get(0).getItems().size());
+        assertEquals("X-Burger", result.get(0).getItems().get(0).getName());
+        assertTrue(result.get(1).getItems().isEmpty());
+        verify(orderJpaRepository, never()).findSummaryPageByStatusAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should project the page after the cursor position and skip items when empty")
+    void testShouldProjectSummaryPageAfterCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(orderJpaRepository.findSummaryPageByStatusAfter(OrderJpaEntity.OrderStatusJpa.READY, createdAt, 5L, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        // Act
+        List<OrderSummary> result = orderRepositoryGateway.findSummaryPageByStatus(OrderStatus.READY, createdAt, 5L, 10);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(orderJpaRepository, never()).findItemSummariesByOrderIds(any());
+    }
+
+    @Test
+    @DisplayName("Should transition status requiring the payment when informed")
+    void testShouldTransitionStatusRequiringPayment() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(orderJpaRepository.updateStatusIfPaidAndIn(eq(1L), eq(OrderJpaEntity.StatusPaymentJpa.APROVADO),
+                anyCollection(), eq(OrderJpaEntity.OrderStatusJpa.READY), eq(updatedAt))).thenReturn(1);
+
+        // Act
+        boolean result = orderRepositoryGateway.transitionStatus(1L, OrderStatus.READY.allowedPredecessors(),
+                OrderStatus.READY, StatusPayment.APROVADO, updatedAt);
+
+        // Assert
+        assertTrue(result);
+        verify(orderJpaRepository, never()).updateStatusIfIn(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report a transition that updated no rows")
+    void testShouldReportTransitionWithoutRows() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(orderJpaRepository.updateStatusIfIn(1L,
+                List.of(OrderJpaEntity.OrderStatusJpa.RECEIVED, OrderJpaEntity.OrderStatusJpa.IN_PREPARATION),
+                OrderJpaEntity.OrderStatusJpa.IN_PREPARATION, updatedAt)).thenReturn(0);
+
+        // Act
+        boolean result = orderRepositoryGateway.transitionStatus(1L, OrderStatus.IN_PREPARATION.allowedPredecessors(),
+                OrderStatus.IN_PREPARATION, null, updatedAt);
+
+        // Assert
+        assertFalse(result);
+        assertFalse(orderRepositoryGateway.transitionStatus(1L, OrderStatus.RECEIVED.allowedPredecessors(),
+                OrderStatus.RECEIVED, null, updatedAt));
+    }
+
+    @Test
+    @DisplayName("Should find orders by a batch of payment ids")
+    void testShouldFindOrdersByPaymentIds() {
+        // Arrange
+        when(orderJpaRepository.findByIdPaymentIn(List.of(123L))).thenReturn(List.of(orderJpaEntity));
+
+        // Act
+        List<Order> result = orderRepositoryGateway.findAllByIdPayments(List.of(123L));
 
         // Assert
         assertEquals(1, result.size());
-        assertEquals(OrderStatus.RECEIVED, result.get(0).getStatus());
-        verify(orderJpaRepository).findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.RECEIVED);
+        assertEquals(123L, result.get(0).getIdPayment());
+    }
+
+    @Test
+    @DisplayName("Should not query when no payment ids are given")
+    void testShouldNotQueryEmptyPaymentIds() {
+        // Act
+        List<Order> result = orderRepositoryGateway.findAllByIdPayments(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(orderJpaRepository);
     }
 
     @Test
-    @DisplayName("Should find all orders when status is null")
-    void testShouldFindAllOrdersWhenStatusIsNull() {
+    @DisplayName("Should find active orders successfully")
+    void testShouldFindActiveOrdersSuccessfully() {
         // Arrange
         List<OrderJpaEntity> jpaEntities = List.of(orderJpaEntity);
-        when(orderJpaRepository.findByOptionalStatus(null)).thenReturn(jpaEntities);
+        when(orderJpaRepository.findActiveOrders()).thenReturn(jpaEntities);
 
         // Act
-        List<Order> result = orderRepositoryGateway.findByOptionalStatus(null);
+        List<Order> result = orderRepositoryGateway.findActiveOrders();
 
         // Assert
         assertEquals(1, result.size());
-        verify(orderJpaRepository).findByOptionalStatus(null);
+        assertEquals(OrderStatus.RECEIVED, result.get(0).getStatus());
+        verify(orderJpaRepository).findActiveOrders();
     }
 
     @Test
@@ -202,53 +334,36 @@ class OrderRepositoryGatewayTest {
     }
 
     @Test
-    @DisplayName("Should find orders by IN_PREPARATION status")
-    void testShouldFindOrdersByInPreparationStatus() {
+    @DisplayName("Should approve matched payments with a single update and return them")
+    void testShouldApprovePaymentsInBatch() {
         // Arrange
-        orderJpaEntity.setStatus(OrderJpaEntity.OrderStatusJpa.IN_PREPARATION);
-        List<OrderJpaEntity> jpaEntities = List.of(orderJpaEntity);
-        when(orderJpaRepository.findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.IN_PREPARATION))
-                .thenReturn(jpaEntities);
+        LocalDateTime now = LocalDateTime.now();
+        when(orderJpaRepository.findExistingIdPayments(List.of(10L, 20L, 30L))).thenReturn(List.of(10L, 30L));
 
         // Act
-        List<Order> result = orderRepositoryGateway.findByOptionalStatus(OrderStatus.IN_PREPARATION);
+        Set<Long> matched = orderRepositoryGateway.approvePayments(List.of(10L, 20L, 30L), now);
 
         // Assert
-        assertEquals(1, result.size());
-        verify(orderJpaRepository).findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.IN_PREPARATION);
+        assertEquals(Set.of(10L, 30L), matched);
+        verify(orderJpaRepository).updatePaymentStatusByIdPayments(
+                Set.of(10L, 30L),
+                OrderJpaEntity.StatusPaymentJpa.APROVADO,
+                OrderJpaEntity.OrderStatusJpa.RECEIVED,
+                OrderJpaEntity.OrderStatusJpa.IN_PREPARATION,
+                now);
     }
 
     @Test
-    @DisplayName("Should find orders by READY status")
-    void testShouldFindOrdersByReadyStatus() {
+    @DisplayName("Should skip update when no payment matches an order")
+    void testShouldSkipUpdateWhenNothingMatches() {
         // Arrange
-        orderJpaEntity.setStatus(OrderJpaEntity.OrderStatusJpa.READY);
-        List<OrderJpaEntity> jpaEntities = List.of(orderJpaEntity);
-        when(orderJpaRepository.findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.READY))
-                .thenReturn(jpaEntities);
+        when(orderJpaRepository.findExistingIdPayments(List.of(99L))).thenReturn(List.of());
 
         // Act
-        List<Order> result = orderRepositoryGateway.findByOptionalStatus(OrderStatus.READY);
+        Set<Long> matched = orderRepositoryGateway.approvePayments(List.of(99L), LocalDateTime.now());
 
         // Assert
-        assertEquals(1, result.size());
-        verify(orderJpaRepository).findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.READY);
-    }
-
-    @Test
-    @DisplayName("Should find orders by FINISHED status")
-    void testShouldFindOrdersByFinishedStatus() {
-        // Arrange
-        orderJpaEntity.setStatus(OrderJpaEntity.OrderStatusJpa.FINISHED);
-        List<OrderJpaEntity> jpaEntities = List.of(orderJpaEntity);
-        when(orderJpaRepository.findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.FINISHED))
-                .thenReturn(jpaEntities);
-
-        // Act
-        List<Order> result = orderRepositoryGateway.findByOptionalStatus(OrderStatus.FINISHED);
-
-        // Assert
-        assertEquals(1, result.size());
-        verify(orderJpaRepository).findByOptionalStatus(OrderJpaEntity.OrderStatusJpa.FINISHED);
+        assertTrue(matched.isEmpty());
+        verify(orderJpaRepository, never()).updatePaymentStatusByIdPayments(any(), any(), any(), any(), any());
     }
 }
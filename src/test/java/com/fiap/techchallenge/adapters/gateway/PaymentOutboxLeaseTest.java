@@ -0,0 +1,114 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que uma instância só renova o lease de uma entrada do outbox enquanto ele ainda é dela
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class PaymentOutboxLeaseTest {
+
+    @Autowired
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private PaymentOutboxRepositoryGateway gateway;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new PaymentOutboxRepositoryGateway(paymentOutboxJpaRepository, orderJpaRepository);
+        start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        PaymentOutboxJpaEntity entity = new PaymentOutboxJpaEntity();
+        entity.setOrderId(1L);
+        entity.setAmount(BigDecimal.TEN);
+        entity.setPaymentMethodId("pix");
+        entity.setInstallments(1);
+        entity.setStatus(PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING);
+        entity.setAttempts(0);
+        entity.setNextAttemptAt(start);
+        entity.setCreatedAt(start);
+        entity.setUpdatedAt(start);
+        paymentOutboxJpaRepository.save(entity);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private PaymentOutboxEntry claim(LocalDateTime now) {
+        List<PaymentOutboxEntry> claimed = gateway.claimDue(10, now, now.plusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(1, claimed.size());
+        return claimed.get(0);
+    }
+
+    @Test
+    @DisplayName("Should extend a lease that has not expired yet")
+    void testShouldRenewLeaseStillHeld() {
+        // Arrange
+        PaymentOutboxEntry entry = claim(start);
+        LocalDateTime now = start.plusSeconds(50);
+
+        // Act
+        boolean renewed = gateway.renewLease(entry, now, now.plusMinutes(1));
+
+        // Assert
+        assertTrue(renewed);
+        assertEquals(now.plusMinutes(1), entry.getNextAttemptAt());
+        entityManager.clear();
+        assertEquals(now.plusMinutes(1), paymentOutboxJpaRepository.findById(entry.getId()).orElseThrow().getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Should refuse to renew a lease that expired and was claimed by another instance")
+    void testShouldNotRenewLeaseTakenOver() {
+        // Arrange: a primeira instância demorou mais que o lease e a segunda reservou a entrada
+        PaymentOutboxEntry slow = claim(start);
+        PaymentOutboxEntry other = claim(start.plusMinutes(2));
+
+        // Act
+        LocalDateTime now = start.plusMinutes(2).plusSeconds(10);
+        boolean slowRenewed = gateway.renewLease(slow, now, now.plusMinutes(1));
+        boolean otherRenewed = gateway.renewLease(other, now, now.plusMinutes(1));
+
+        // Assert
+        assertFalse(slowRenewed);
+        assertTrue(otherRenewed);
+    }
+
+    @Test
+    @DisplayName("Should refuse to renew an expired lease even if nobody claimed the entry")
+    void testShouldNotRenewExpiredLease() {
+        // Arrange
+        PaymentOutboxEntry entry = claim(start);
+        LocalDateTime now = start.plusMinutes(1).plusSeconds(1);
+
+        // Act & Assert
+        assertFalse(gateway.renewLease(entry, now, now.plusMinutes(1)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.entities.PaymentOutboxStatus;
+import com.fiap.techchallenge.domain.exception.NotFoundException;
+import com.fiap.techchallenge.external.datasource.entities.PaymentOutboxJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.OrderJpaRepository;
+import com.fiap.techchallenge.external.datasource.repositories.PaymentOutboxJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxRepositoryGatewayTest {
+
+    @Mock
+    private PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+
+    @Mock
+    private OrderJpaRepository orderJpaRepository;
+
+    @InjectMocks
+    private PaymentOutboxRepositoryGateway paymentOutboxRepositoryGateway;
+
+    private PaymentOutboxJpaEntity entity;
+    private PaymentOutboxEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entity = new PaymentOutboxJpaEntity();
+        entity.setId(10L);
+        entity.setOrderId(1L);
+        entity.setAmount(BigDecimal.valueOf(20.00));
+        entity.setDescription("Pagamento para o pedido");
+        entity.setPaymentMethodId("pix");
+        entity.setInstallments(1);
+        entity.setPayerEmail("test@test.com");
+        entity.setDocumentType("CPF");
+        entity.setDocumentNumber("12345678900");
+        entity.setStatus(PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING);
+        entity.setAttempts(0);
+        entity.setNextAttemptAt(now);
+        entity.setCreatedAt(now);
+        entity.setUpdatedAt(now);
+
+        entry = new PaymentOutboxEntry();
+        entry.setId(10L);
+        entry.setOrderId(1L);
+        entry.setAttempts(1);
+    }
+
+    @Test
+    @DisplayName("Should claim due entries leasing them until the given time")
+    void testShouldClaimDueEntries() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(1);
+        when(paymentOutboxJpaRepository.findDueForUpdate(eq(PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING),
+                eq(now), any(Pageable.class))).thenReturn(List.of(entity));
+
+        // Act
+        List<PaymentOutboxEntry> result = paymentOutboxRepositoryGateway.claimDue(5, now, leaseUntil);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getOrderId());
+        assertEquals(PaymentOutboxStatus.PENDING, result.get(0).getStatus());
+        assertEquals(leaseUntil, entity.getNextAttemptAt());
+        verify(paymentOutboxJpaRepository).saveAll(List.of(entity));
+    }
+
+    @Test
+    @DisplayName("Should mark entry as dispatched and write idPayment to the order")
+    void testShouldMarkDispatched() {
+        // Arrange
+        when(paymentOutboxJpaRepository.findById(10L)).thenReturn(Optional.of(entity));
+
+        // Act
+        paymentOutboxRepositoryGateway.markDispatched(entry, 123L);
+
+        // Assert
+        assertEquals(PaymentOutboxJpaEntity.OutboxStatusJpa.DISPATCHED, entity.getStatus());
+        assertEquals(123L, entity.getIdPayment());
+        assertEquals(1, entity.getAttempts());
+        verify(paymentOutboxJpaRepository).save(entity);
+        verify(orderJpaRepository).updateIdPayment(eq(1L), eq(123L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should schedule retry truncating long error messages")
+    void testShouldScheduleRetry() {
+        // Arrange
+        LocalDateTime next = LocalDateTime.now().plusSeconds(2);
+        when(paymentOutboxJpaRepository.findById(10L)).thenReturn(Optional.of(entity));
+
+        // Act
+        paymentOutboxRepositoryGateway.scheduleRetry(entry, next, "x".repeat(2000));
+
+        // Assert
+        assertEquals(next, entity.getNextAttemptAt());
+        assertEquals(1000, entity.getLastError().length());
+        assertEquals(PaymentOutboxJpaEntity.OutboxStatusJpa.PENDING, entity.getStatus());
+        verifyNoInteractions(orderJpaRepository);
+    }
+
+    @Test
+    @DisplayName("Should mark entry as failed")
+    void testShouldMarkFailed() {
+        // Arrange
+        when(paymentOutboxJpaRepository.findById(10L)).thenReturn(Optional.of(entity));
+
+        // Act
+        paymentOutboxRepositoryGateway.markFailed(entry, "boom");
+
+        // Assert
+        assertEquals(PaymentOutboxJpaEntity.OutboxStatusJpa.FAILED, entity.getStatus());
+        assertEquals("boom", entity.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when outbox entry does not exist")
+    void testShouldThrowWhenEntryNotFound() {
+        // Arrange
+        when(paymentOutboxJpaRepository.findById(10L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> paymentOutboxRepositoryGateway.markFailed(entry, "boom"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.fiap.techchallenge.adapters.gateway;
+
+import com.fiap.techchallenge.external.datasource.entities.ProcessedWebhookEventJpaEntity;
+import com.fiap.techchallenge.external.datasource.repositories.ProcessedWebhookEventJpaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedWebhookEventRepositoryGatewayTest {
+
+    @Mock
+    private ProcessedWebhookEventJpaRepository processedWebhookEventJpaRepository;
+
+    @InjectMocks
+    private ProcessedWebhookEventRepositoryGateway gateway;
+
+    @Test
+    @DisplayName("Should insert event when it was not processed yet")
+    void testShouldRegisterNewEvent() {
+        // Arrange
+        when(processedWebhookEventJpaRepository.existsByEventKey("10:123")).thenReturn(false);
+
+        // Act
+        boolean registered = gateway.registerIfAbsent("10:123", 10L, 123L, LocalDateTime.now());
+
+        // Assert
+        assertTrue(registered);
+        verify(processedWebhookEventJpaRepository).saveAndFlush(any(ProcessedWebhookEventJpaEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should report existing event without inserting")
+    void testShouldReportExistingEvent() {
+        // Arrange
+        when(processedWebhookEventJpaRepository.existsByEventKey("10:123")).thenReturn(true);
+
+        // Act
+        boolean registered = gateway.registerIfAbsent("10:123", 10L, 123L, LocalDateTime.now());
+
+        // Assert
+        assertFalse(registered);
+        verify(processedWebhookEventJpaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should treat unique key violation from a concurrent insert as duplicate")
+    void testShouldTreatUniqueViolationAsDuplicate() {
+        // Arrange
+        when(processedWebhookEventJpaRepository.existsByEventKey("10:123")).thenReturn(false);
+        when(processedWebhookEventJpaRepository.saveAndFlush(any(ProcessedWebhookEventJpaEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_processed_webhook_events_event_key"));
+
+        // Act
+        boolean registered = gateway.registerIfAbsent("10:123", 10L, 123L, LocalDateTime.now());
+
+        // Assert
+        assertFalse(registered);
+    }
+}
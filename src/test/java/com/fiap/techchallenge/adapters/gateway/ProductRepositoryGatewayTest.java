@@ -16,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -106,6 +107,34 @@ class ProductRepositoryGatewayTest {
         verify(productJpaRepository).findById(productId);
     }
 
+    @Test
+    @DisplayName("Should find products by ids with a single query, folding duplicates")
+    void testShouldFindProductsByIdsFoldingDuplicates() {
+        // Arrange
+        when(productJpaRepository.findAllByIdInWithCategory(Set.of(productId)))
+                .thenReturn(List.of(productJpaEntity));
+
+        // Act
+        List<Product> result = productRepositoryGateway.findAllByIds(List.of(productId, productId));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(productId, result.get(0).getId());
+        assertEquals(categoryId, result.get(0).getCategory().getId());
+        verify(productJpaRepository, times(1)).findAllByIdInWithCategory(Set.of(productId));
+    }
+
+    @Test
+    @DisplayName("Should not query when no product ids are given")
+    void testShouldNotQueryWhenNoProductIdsAreGiven() {
+        // Act
+        List<Product> result = productRepositoryGateway.findAllByIds(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(productJpaRepository);
+    }
+
     @Test
     @DisplayName("Should find products by name successfully")
     void testShouldFindProductsByNameSuccessfully() {
@@ -0,0 +1,54 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    @DisplayName("Should reject calls beyond the concurrency limit and release slots when calls finish")
+    void testShouldRejectBeyondLimit() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ZERO, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> inFlight = executor.submit(() -> bulkhead.execute(() -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            assertThrows(ServiceUnavailableException.class, () -> bulkhead.execute(() -> "fast"));
+            assertEquals(1.0, meterRegistry.get("test.bulkhead.rejected").counter().count());
+            assertEquals(0.0, meterRegistry.get("test.bulkhead.available").gauge().value());
+
+            release.countDown();
+            assertEquals("slow", inFlight.get(5, TimeUnit.SECONDS));
+            assertEquals("fast", bulkhead.execute(() -> "fast"));
+            assertEquals(1, bulkhead.availablePermits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final CircuitBreaker.Settings SETTINGS = new CircuitBreaker.Settings(50, 50,
+            Duration.ofMillis(100), 4, 4, Duration.ofSeconds(10), 2);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("test", SETTINGS, e -> !(e instanceof IllegalArgumentException),
+                meterRegistry, clock::get);
+    }
+
+    private String succeed(long tookMs) {
+        return circuitBreaker.execute(() -> {
+            calls.incrementAndGet();
+            clock.addAndGet(Duration.ofMillis(tookMs).toNanos());
+            return "ok";
+        });
+    }
+
+    private void fail(RuntimeException error) {
+        assertThrows(error.getClass(), () -> circuitBreaker.execute(() -> {
+            calls.incrementAndGet();
+            throw error;
+        }));
+    }
+
+    @Test
+    @DisplayName("Should open when the failure rate reaches the threshold and reject without calling")
+    void testShouldOpenOnFailureRate() {
+        // Arrange
+        succeed(1);
+        succeed(1);
+        fail(new RuntimeException("timeout"));
+
+        // Act
+        fail(new RuntimeException("timeout"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(ServiceUnavailableException.class, () -> succeed(1));
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.get("test.circuit.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("test.circuit.opened").counter().count());
+        assertEquals(1.0, meterRegistry.get("test.circuit.state").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should open when too many calls are slow even if they succeed")
+    void testShouldOpenOnSlowCallRate() {
+        // Act
+        succeed(1);
+        succeed(1);
+        succeed(500);
+        succeed(500);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should not count business errors as failures")
+    void testShouldIgnoreNonFailures() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            fail(new IllegalArgumentException("not found"));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should close after the half-open probes succeed")
+    void testShouldCloseAfterSuccessfulProbes() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            fail(new RuntimeException("down"));
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Act
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        succeed(1);
+        succeed(1);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0.0, meterRegistry.get("test.circuit.state").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reopen when a half-open probe fails and limit the number of probes")
+    void testShouldReopenOnFailedProbe() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            fail(new RuntimeException("down"));
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Act
+        fail(new RuntimeException("still down"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(ServiceUnavailableException.class, () -> succeed(1));
+        assertEquals(2.0, meterRegistry.get("test.circuit.opened").counter().count());
+    }
+}
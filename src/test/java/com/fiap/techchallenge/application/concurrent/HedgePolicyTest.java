@@ -0,0 +1,142 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgePolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LatencyTracker latencyTracker;
+    private final List<CompletableFuture<String>> started = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        latencyTracker = new LatencyTracker("test", new LatencyTracker.Settings(Duration.ofMinutes(1), 10, 0.99, 2.0,
+                Duration.ofMillis(1), Duration.ofSeconds(5)), meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            latencyTracker.record(Duration.ofMillis(10));
+        }
+    }
+
+    private HedgePolicy policy(int maxHedgeTokens) {
+        return new HedgePolicy("test", new HedgePolicy.Settings(0.95, Duration.ofMillis(5), 0.1, maxHedgeTokens),
+                latencyTracker, meterRegistry);
+    }
+
+    // Primeira chamada fica pendurada; a segunda responde na hora
+    private CompletableFuture<String> stuckThenFast(Duration timeout) {
+        CompletableFuture<String> future = started.isEmpty()
+                ? new CompletableFuture<>() : CompletableFuture.completedFuture("hedge");
+        started.add(future);
+        return future;
+    }
+
+    @Test
+    @DisplayName("Should send a second request past the latency percentile and keep the first answer")
+    void testShouldHedgeSlowCall() throws Exception {
+        // Act
+        String result = policy(10).execute(this::stuckThenFast, Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("hedge", result);
+        assertEquals(2, started.size());
+        assertTrue(started.get(0).isCancelled(), "the slow request should be cancelled");
+        assertEquals(1.0, meterRegistry.get("test.hedged").counter().count());
+        assertEquals(1.0, meterRegistry.get("test.hedge.wins").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not hedge fast calls nor calls without latency samples")
+    void testShouldNotHedgeFastOrUnknownCalls() throws Exception {
+        // Arrange
+        LatencyTracker empty = new LatencyTracker("empty", new LatencyTracker.Settings(Duration.ofMinutes(1), 10, 0.99,
+                2.0, Duration.ofMillis(1), Duration.ofSeconds(5)), meterRegistry);
+        HedgePolicy withoutSamples = new HedgePolicy("empty", new HedgePolicy.Settings(0.95, Duration.ofMillis(5), 0.1,
+                10), empty, meterRegistry);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> {
+            sleep(50);
+            return "slow";
+        });
+
+        // Act
+        String fast = policy(10).execute(timeout -> CompletableFuture.completedFuture("fast"), Duration.ofSeconds(2));
+        String unknown = withoutSamples.execute(timeout -> slow, Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("fast", fast);
+        assertEquals("slow", unknown);
+        assertTrue(withoutSamples.hedgeDelay().isEmpty());
+        assertEquals(0.0, meterRegistry.get("test.hedged").counter().count());
+        assertEquals(0.0, meterRegistry.get("empty.hedged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop hedging when the hedge budget is spent")
+    void testShouldRespectHedgeBudget() throws Exception {
+        // Arrange: orçamento de um único hedge
+        HedgePolicy policy = policy(1);
+        policy.execute(this::stuckThenFast, Duration.ofSeconds(2));
+        started.clear();
+
+        // Act: a primeira chamada responde depois do percentil, sem segunda chamada
+        String result = policy.execute(timeout -> {
+            CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
+                sleep(100);
+                return "primary";
+            });
+            started.add(future);
+            return future;
+        }, Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("primary", result);
+        assertEquals(1, started.size());
+        assertEquals(1.0, meterRegistry.get("test.hedged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should surface the first request's error when both requests fail")
+    void testShouldReportPrimaryErrorWhenBothFail() {
+        // Arrange
+        HedgePolicy policy = policy(10);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> policy.execute(timeout -> {
+            boolean first = started.isEmpty();
+            CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            if (first) {
+                CompletableFuture.runAsync(() -> {
+                    sleep(100);
+                    future.completeExceptionally(new IOException("primary failed"));
+                });
+            } else {
+                future.completeExceptionally(new IOException("hedge failed"));
+            }
+            return future;
+        }, Duration.ofSeconds(2)));
+
+        // Assert
+        assertEquals("primary failed", exception.getMessage());
+        assertEquals(2, started.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyTrackerTest {
+
+    private static final LatencyTracker.Settings SETTINGS = new LatencyTracker.Settings(Duration.ofSeconds(60), 10,
+            0.99, 2.0, Duration.ofMillis(100), Duration.ofSeconds(30));
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new LatencyTracker("test", SETTINGS, meterRegistry, clock::get);
+    }
+
+    private void record(int samples, long millis) {
+        for (int i = 0; i < samples; i++) {
+            tracker.record(Duration.ofMillis(millis));
+        }
+    }
+
+    @Test
+    @DisplayName("Should use the maximum timeout until enough samples are collected")
+    void testShouldUseMaxTimeoutWithoutSamples() {
+        // Arrange
+        record(9, 50);
+
+        // Act & Assert
+        assertTrue(tracker.percentile(0.5).isEmpty());
+        assertEquals(Duration.ofSeconds(30), tracker.timeout());
+        assertEquals(30000.0, meterRegistry.get("test.timeout").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should derive percentiles within one bucket and the timeout from the configured percentile")
+    void testShouldDeriveTimeoutFromPercentile() {
+        // Arrange: 98 chamadas de 50ms e 2 de 400ms
+        record(98, 50);
+        record(2, 400);
+
+        // Act
+        Duration p50 = tracker.percentile(0.5).orElseThrow();
+        Duration p99 = tracker.percentile(0.99).orElseThrow();
+
+        // Assert: limite superior da faixa, no máximo ~9% acima da amostra
+        assertTrue(p50.toMillis() >= 50 && p50.toMillis() <= 55, "p50 was " + p50);
+        assertTrue(p99.toMillis() >= 400 && p99.toMillis() <= 440, "p99 was " + p99);
+        assertEquals(p99.multipliedBy(2), tracker.timeout());
+    }
+
+    @Test
+    @DisplayName("Should clamp the timeout between the minimum and the maximum")
+    void testShouldClampTimeout() {
+        // Arrange
+        record(20, 1);
+
+        // Act & Assert
+        assertEquals(Duration.ofMillis(100), tracker.timeout());
+
+        record(20, 120_000);
+        assertEquals(Duration.ofSeconds(30), tracker.timeout());
+    }
+
+    @Test
+    @DisplayName("Should forget samples older than the window")
+    void testShouldExpireOldSamples() {
+        // Arrange: serviço lento e depois normalizado
+        record(20, 5000);
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        record(20, 50);
+
+        // Act
+        Duration p99 = tracker.percentile(0.99).orElseThrow();
+
+        // Assert
+        assertTrue(p99.toMillis() < 60, "p99 was " + p99);
+    }
+
+    @Test
+    @DisplayName("Should map latencies to buckets whose upper bound never underestimates them")
+    void testShouldBoundBuckets() {
+        for (long nanos : new long[]{1, 100_000, 150_000, 1_000_000, 37_000_000, 2_000_000_000L}) {
+            long upper = LatencyTracker.upperBound(LatencyTracker.bucketOf(nanos));
+            assertTrue(upper >= Math.min(nanos, 100_000) && upper <= Math.max(nanos * 1.1, 100_000),
+                    nanos + " -> " + upper);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Should keep configured timeouts when no deadline is set")
+    void testShouldKeepTimeoutWithoutDeadline() {
+        // Act
+        Duration timeout = RequestDeadline.cap(Duration.ofSeconds(60), "customer lookup");
+
+        // Assert
+        assertEquals(Duration.ofSeconds(60), timeout);
+        assertFalse(RequestDeadline.isSet());
+        assertFalse(RequestDeadline.isExpired());
+        assertDoesNotThrow(() -> RequestDeadline.check("database query"));
+    }
+
+    @Test
+    @DisplayName("Should cap timeouts to the remaining budget and fail fast once it is spent")
+    void testShouldCapTimeoutsToRemainingBudget() {
+        // Arrange
+        RequestDeadline.start(Duration.ofSeconds(2));
+
+        // Act
+        Duration capped = RequestDeadline.cap(Duration.ofSeconds(60), "customer lookup");
+        Duration shorter = RequestDeadline.cap(Duration.ofMillis(100), "customer lookup");
+        RequestDeadline.start(Duration.ZERO);
+
+        // Assert
+        assertTrue(capped.compareTo(Duration.ofSeconds(2)) <= 0 && !capped.isNegative(), "capped to " + capped);
+        assertEquals(Duration.ofMillis(100), shorter);
+        assertTrue(RequestDeadline.isExpired());
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> RequestDeadline.cap(Duration.ofSeconds(60), "customer lookup"));
+        assertEquals("Request deadline exceeded before customer lookup", exception.getMessage());
+        assertThrows(DeadlineExceededException.class, () -> RequestDeadline.check("database query"));
+    }
+
+    @Test
+    @DisplayName("Should carry the deadline to other threads through TaskContext and restore them afterwards")
+    void testShouldPropagateThroughTaskContext() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        RequestDeadline.start(Duration.ofSeconds(5));
+
+        try {
+            // Act
+            Optional<Duration> inTask = executor.submit(TaskContext.wrap(RequestDeadline::remaining))
+                    .get(5, TimeUnit.SECONDS);
+            boolean setAfterTask = executor.submit(RequestDeadline::isSet).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertTrue(inTask.isPresent());
+            assertTrue(inTask.get().compareTo(Duration.ofSeconds(5)) <= 0);
+            assertFalse(setAfterTask);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
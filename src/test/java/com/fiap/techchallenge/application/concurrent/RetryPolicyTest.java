@@ -0,0 +1,137 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Long> sleeps = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RetryPolicy policy(int maxAttempts, Duration totalBudget, int maxRetryTokens) {
+        return new RetryPolicy("test", new RetryPolicy.Settings(maxAttempts, Duration.ofMillis(100),
+                Duration.ofMillis(1000), totalBudget, 0.1, maxRetryTokens), meterRegistry, clock::get, nanos -> {
+            sleeps.add(nanos);
+            clock.addAndGet(nanos);
+        });
+    }
+
+    @Test
+    @DisplayName("Should retry retryable failures until the call succeeds")
+    void testShouldRetryUntilSuccess() throws Exception {
+        // Arrange
+        RetryPolicy retryPolicy = policy(3, Duration.ofSeconds(10), 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = retryPolicy.execute(remaining -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("connection reset");
+            }
+            return "ok";
+        }, e -> e instanceof IOException);
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, sleeps.size());
+        assertEquals(2.0, meterRegistry.get("test.retries").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should rethrow non-retryable failures and the last failure after max attempts")
+    void testShouldStopOnNonRetryableAndMaxAttempts() {
+        // Arrange
+        RetryPolicy retryPolicy = policy(2, Duration.ofSeconds(10), 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> retryPolicy.execute(remaining -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("HTTP 400");
+        }, e -> e instanceof IOException));
+        assertEquals(1, attempts.get());
+
+        assertThrows(IOException.class, () -> retryPolicy.execute(remaining -> {
+            attempts.incrementAndGet();
+            throw new IOException("timeout");
+        }, e -> e instanceof IOException));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should give each attempt only what is left of the total budget and stop when it runs out")
+    void testShouldRespectTotalBudget() {
+        // Arrange
+        RetryPolicy retryPolicy = policy(10, Duration.ofMillis(1500), 10);
+        List<Duration> remainingPerAttempt = new ArrayList<>();
+
+        // Act
+        assertThrows(IOException.class, () -> retryPolicy.execute(remaining -> {
+            remainingPerAttempt.add(remaining);
+            clock.addAndGet(Duration.ofMillis(600).toNanos());
+            throw new IOException("timeout");
+        }, e -> true));
+
+        // Assert
+        assertEquals(Duration.ofMillis(1500), remainingPerAttempt.get(0));
+        assertTrue(remainingPerAttempt.size() <= 3);
+        for (int i = 1; i < remainingPerAttempt.size(); i++) {
+            assertTrue(remainingPerAttempt.get(i).compareTo(remainingPerAttempt.get(i - 1)) < 0);
+        }
+        assertEquals(1.0, meterRegistry.get("test.retries.throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the shared retry budget is spent")
+    void testShouldThrottleRetriesWhenBudgetIsSpent() {
+        // Arrange: uma ficha de repetição; cada chamada nova credita só 0.1
+        RetryPolicy retryPolicy = policy(5, Duration.ofSeconds(10), 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        for (int call = 0; call < 3; call++) {
+            assertThrows(IOException.class, () -> retryPolicy.execute(remaining -> {
+                attempts.incrementAndGet();
+                throw new IOException("503");
+            }, e -> true));
+        }
+
+        // Assert: 3 primeiras tentativas e uma única repetição
+        assertEquals(4, attempts.get());
+        assertEquals(1.0, meterRegistry.get("test.retries").counter().count());
+        assertEquals(3.0, meterRegistry.get("test.retries.throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should draw each backoff between zero and the capped exponential ceiling")
+    void testShouldJitterBackoffUnderCap() {
+        // Arrange
+        RetryPolicy retryPolicy = policy(3, Duration.ofSeconds(10), 10);
+
+        // Act & Assert
+        for (int i = 0; i < 200; i++) {
+            assertTrue(retryPolicy.backoffNanos(1) <= Duration.ofMillis(100).toNanos());
+            assertTrue(retryPolicy.backoffNanos(3) <= Duration.ofMillis(400).toNanos());
+            long capped = retryPolicy.backoffNanos(40);
+            assertTrue(capped >= 0 && capped <= Duration.ofMillis(1000).toNanos());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.fiap.techchallenge.application.concurrent;
+
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        RequestDeadline.clear();
+    }
+
+    // Chamada que só termina quando o teste libera
+    private String blockingCall(String result) {
+        calls.incrementAndGet();
+        started.countDown();
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        }
+        if (result == null) {
+            throw new IllegalArgumentException("customer service failed");
+        }
+        return result;
+    }
+
+    private List<Future<String>> callConcurrently(int callers, String result) throws InterruptedException {
+        List<Future<String>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> singleFlight.execute("12345678900", () -> blockingCall(result))));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callers; i++) {
+            futures.add(executor.submit(() -> singleFlight.execute("12345678900", () -> blockingCall(result))));
+        }
+        // Espera os demais entrarem na fila da chamada em andamento
+        Thread.sleep(100);
+        return futures;
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight call among concurrent callers with the same key")
+    void testShouldCoalesceConcurrentCalls() throws Exception {
+        // Arrange
+        List<Future<String>> futures = callConcurrently(5, "customer");
+
+        // Act
+        release.countDown();
+
+        // Assert
+        for (Future<String> future : futures) {
+            assertEquals("customer", future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(4.0, meterRegistry.get("test.singleflight.coalesced").counter().count());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should deliver the same failure to every waiter and not keep it afterwards")
+    void testShouldPropagateErrorsToAllCallers() throws Exception {
+        // Arrange
+        List<Future<String>> futures = callConcurrently(3, null);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        for (Future<String> future : futures) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        }
+        assertEquals(1, calls.get());
+        assertEquals("fresh", singleFlight.execute("12345678900", () -> "fresh"));
+    }
+
+    @Test
+    @DisplayName("Should let a waiter give up at its own deadline without cancelling the shared call")
+    void testShouldGiveUpAtWaiterDeadline() throws Exception {
+        // Arrange
+        Future<String> leader = executor.submit(() -> singleFlight.execute("12345678900", () -> blockingCall("customer")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        RequestDeadline.start(Duration.ofMillis(50));
+
+        // Act
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> singleFlight.execute("12345678900", () -> blockingCall("customer")));
+        release.countDown();
+
+        // Assert
+        assertTrue(exception.getMessage().contains("identical call in flight"));
+        assertEquals("customer", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should run the call again for waiters when the caller abandons it")
+    void testShouldRetryWhenLeaderAbandons() throws Exception {
+        // Arrange: o primeiro chamador é cancelado no meio da chamada
+        Future<String> leader = executor.submit(() -> singleFlight.execute("12345678900", () -> blockingCall("customer")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> waiter = executor.submit(() -> singleFlight.execute("12345678900", () -> {
+            calls.incrementAndGet();
+            return "retried";
+        }));
+        Thread.sleep(100);
+
+        // Act
+        leader.cancel(true);
+
+        // Assert
+        assertEquals("retried", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(0.0, meterRegistry.get("test.singleflight.coalesced").counter().count());
+    }
+}
@@ -0,0 +1,134 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.domain.entities.Category;
+import com.fiap.techchallenge.domain.entities.Product;
+import com.fiap.techchallenge.domain.repositories.CategoryRepository;
+import com.fiap.techchallenge.domain.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogCache catalogCache;
+
+    private Category drinks;
+    private Category burgers;
+    private Product soda;
+    private Product burger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogCache = new CatalogCache(productRepository, categoryRepository, objectMapper, meterRegistry);
+
+        drinks = new Category(UUID.randomUUID(), "Drinks");
+        burgers = new Category(UUID.randomUUID(), "Burgers");
+        soda = new Product(UUID.randomUUID(), "Soda", "Cold", BigDecimal.valueOf(5), drinks, true);
+        burger = new Product(UUID.randomUUID(), "X-Burger", "Big", BigDecimal.valueOf(20), burgers, true);
+    }
+
+    @Test
+    @DisplayName("Should build the snapshot once and serve every view from memory")
+    void testShouldBuildOnceAndServeFromMemory() throws Exception {
+        // Arrange
+        when(productRepository.findAll()).thenReturn(List.of(soda, burger));
+        when(categoryRepository.findAll()).thenReturn(List.of(drinks, burgers));
+
+        // Act
+        CatalogSnapshot first = catalogCache.snapshot();
+        CatalogSnapshot second = catalogCache.snapshot();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(objectMapper.writeValueAsString(List.of(soda, burger)),
+                new String(first.getProductsView().json(), StandardCharsets.UTF_8));
+        assertEquals(objectMapper.writeValueAsString(List.of(drinks, burgers)),
+                new String(first.getCategoriesView().json(), StandardCharsets.UTF_8));
+        assertEquals(List.of(soda), first.getProductsByCategory(drinks.getId()));
+        assertEquals(objectMapper.writeValueAsString(List.of(burger)),
+                new String(first.getProductsByCategoryView(burgers.getId()).json(), StandardCharsets.UTF_8));
+        assertEquals("[]", new String(first.getProductsByCategoryView(UUID.randomUUID()).json(), StandardCharsets.UTF_8));
+        assertEquals(List.of(burger), first.searchProducts("burg"));
+        assertTrue(meterRegistry.get("catalog.search.index.bytes").gauge().value() > 0);
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should publish a new version with a new ETag when the catalog changes")
+    void testShouldPublishNewVersionOnChange() {
+        // Arrange
+        when(productRepository.findAll()).thenReturn(List.of(soda), List.of(soda, burger));
+        when(categoryRepository.findAll()).thenReturn(List.of(drinks, burgers));
+        CatalogSnapshot before = catalogCache.snapshot();
+
+        // Act
+        catalogCache.onCatalogChanged();
+        CatalogSnapshot after = catalogCache.snapshot();
+
+        // Assert
+        assertEquals(1L, before.getVersion());
+        assertEquals(2L, after.getVersion());
+        assertNotEquals(before.getProductsView().etag(), after.getProductsView().etag());
+        assertEquals(2.0, meterRegistry.get("catalog.snapshot.version").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep the current snapshot when a refresh finds no changes")
+    void testShouldKeepSnapshotWhenUnchanged() {
+        // Arrange
+        when(productRepository.findAll()).thenReturn(List.of(soda));
+        when(categoryRepository.findAll()).thenReturn(List.of(drinks));
+        CatalogSnapshot before = catalogCache.snapshot();
+
+        // Act
+        CatalogSnapshot after = catalogCache.refresh();
+
+        // Assert
+        assertSame(before, after);
+        assertEquals(1L, after.getVersion());
+        assertEquals(2.0, meterRegistry.get("catalog.snapshot.rebuilds").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop the snapshot when the rebuild after a change fails")
+    void testShouldDropSnapshotWhenRebuildFails() {
+        // Arrange
+        when(productRepository.findAll())
+                .thenReturn(List.of(soda))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of(soda, burger));
+        when(categoryRepository.findAll()).thenReturn(List.of(drinks, burgers));
+        catalogCache.snapshot();
+
+        // Act
+        catalogCache.onCatalogChanged();
+        CatalogSnapshot afterFailure = catalogCache.snapshot();
+
+        // Assert: o cardápio antigo não é servido, a leitura seguinte remonta
+        assertEquals(2, afterFailure.getProducts().size());
+        verify(productRepository, times(3)).findAll();
+    }
+}
@@ -0,0 +1,272 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.domain.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenBoardTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KitchenBoard kitchenBoard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        kitchenBoard = new KitchenBoard(orderRepository, meterRegistry);
+    }
+
+    private static Order order(long id, OrderStatus status, int minute) {
+        return new Order(id, null, List.of(), BigDecimal.TEN, status, StatusPayment.APROVADO, id * 10,
+                BASE.plusMinutes(minute), BASE.plusMinutes(minute));
+    }
+
+    private List<Long> ids() {
+        return kitchenBoard.activeOrders().stream().map(Order::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should order active orders by status and then by arrival")
+    void testShouldOrderByStatusThenArrival() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenReturn(List.of());
+        kitchenBoard.load();
+
+        // Act
+        kitchenBoard.onOrderChanged(order(1, OrderStatus.RECEIVED, 1));
+        kitchenBoard.onOrderChanged(order(2, OrderStatus.IN_PREPARATION, 5));
+        kitchenBoard.onOrderChanged(order(3, OrderStatus.READY, 9));
+        kitchenBoard.onOrderChanged(order(4, OrderStatus.IN_PREPARATION, 2));
+        kitchenBoard.onOrderChanged(order(5, OrderStatus.RECEIVED, 0));
+
+        // Assert
+        assertEquals(List.of(3L, 4L, 2L, 5L, 1L), ids());
+        assertEquals(5.0, meterRegistry.get("kitchen.board.orders").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should move orders between statuses and drop finished ones")
+    void testShouldMoveAndRemoveOrders() {
+        // Arrange
+        when(orderRepository.findActiveOrders())
+                .thenReturn(List.of(order(1, OrderStatus.RECEIVED, 1), order(2, OrderStatus.RECEIVED, 2)));
+        kitchenBoard.load();
+
+        // Act
+        kitchenBoard.onOrderChanged(order(2, OrderStatus.READY, 2));
+        kitchenBoard.onOrderChanged(order(1, OrderStatus.FINISHED, 1));
+
+        // Assert
+        assertEquals(List.of(2L), ids());
+        assertEquals(OrderStatus.READY, kitchenBoard.activeOrders().get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should keep its own copy of the order")
+    void testShouldNotShareOrderInstance() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenReturn(List.of());
+        kitchenBoard.load();
+        Order order = order(1, OrderStatus.RECEIVED, 1);
+        kitchenBoard.onOrderChanged(order);
+
+        // Act
+        order.setStatus(OrderStatus.FINISHED);
+
+        // Assert
+        assertEquals(OrderStatus.RECEIVED, kitchenBoard.activeOrders().get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reconcile changes made outside the app")
+    void testShouldReconcileExternalChanges() {
+        // Arrange
+        when(orderRepository.findActiveOrders())
+                .thenReturn(List.of(order(1, OrderStatus.RECEIVED, 1), order(2, OrderStatus.RECEIVED, 2)))
+                .thenReturn(List.of(order(2, OrderStatus.READY, 2), order(3, OrderStatus.RECEIVED, 3)));
+        kitchenBoard.load();
+
+        // Act
+        int corrections = kitchenBoard.reconcile();
+
+        // Assert
+        assertEquals(3, corrections);
+        assertEquals(List.of(2L, 3L), ids());
+        assertEquals(3.0, meterRegistry.get("kitchen.board.reconcile.corrections").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not overwrite changes applied while reconciliation was querying")
+    void testShouldKeepChangesAppliedDuringReconcile() {
+        // Arrange
+        when(orderRepository.findActiveOrders())
+                .thenReturn(List.of(order(1, OrderStatus.RECEIVED, 1), order(2, OrderStatus.RECEIVED, 2)))
+                .thenAnswer(invocation -> {
+                    // Pedido alterado pela aplicação depois que a leitura do reconcile já começou
+                    kitchenBoard.onOrderChanged(order(1, OrderStatus.READY, 1));
+                    kitchenBoard.onOrderChanged(order(2, OrderStatus.FINISHED, 2));
+                    kitchenBoard.onOrderChanged(order(3, OrderStatus.RECEIVED, 3));
+                    return List.of(order(1, OrderStatus.RECEIVED, 1), order(2, OrderStatus.RECEIVED, 2));
+                });
+        kitchenBoard.load();
+
+        // Act
+        int corrections = kitchenBoard.reconcile();
+
+        // Assert
+        assertEquals(0, corrections);
+        assertEquals(List.of(1L, 3L), ids());
+        assertEquals(OrderStatus.READY, kitchenBoard.activeOrders().get(0).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should stay unloaded when the initial load fails")
+    void testShouldStayUnloadedWhenLoadFails() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenThrow(new RuntimeException("connection refused"));
+
+        // Act
+        kitchenBoard.load();
+
+        // Assert
+        assertFalse(kitchenBoard.isLoaded());
+        assertTrue(kitchenBoard.activeOrders().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should publish a delta only when status or payment status changes")
+    void testShouldPublishDeltasOnStatusChanges() {
+        // Arrange
+        OrderChangeFeed feed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry);
+        kitchenBoard = new KitchenBoard(orderRepository, meterRegistry, feed);
+        when(orderRepository.findActiveOrders()).thenReturn(List.of(order(1, OrderStatus.RECEIVED, 1)));
+        kitchenBoard.load();
+
+        // Act
+        kitchenBoard.onOrderChanged(order(1, OrderStatus.RECEIVED, 1));
+        kitchenBoard.onOrderChanged(order(1, OrderStatus.IN_PREPARATION, 1));
+        kitchenBoard.onOrderChanged(order(1, OrderStatus.FINISHED, 1));
+
+        // Assert
+        assertEquals(2L, feed.currentVersion());
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should publish orders finished outside the app during reconciliation")
+    void testShouldPublishFinishedOnReconcileRemoval() {
+        // Arrange
+        OrderChangeFeed feed = spy(new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry));
+        kitchenBoard = new KitchenBoard(orderRepository, meterRegistry, feed);
+        when(orderRepository.findActiveOrders())
+                .thenReturn(List.of(order(1, OrderStatus.READY, 1)))
+                .thenReturn(List.of());
+        kitchenBoard.load();
+
+        // Act
+        kitchenBoard.reconcile();
+
+        // Assert
+        verify(feed).publish(1L, OrderStatus.FINISHED, StatusPayment.APROVADO);
+        assertEquals(1L, feed.currentVersion());
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should page a status after the given position")
+    void testShouldPageStatusAfterPosition() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenReturn(List.of(
+                order(1, OrderStatus.RECEIVED, 1), order(2, OrderStatus.RECEIVED, 2),
+                order(3, OrderStatus.RECEIVED, 3), order(4, OrderStatus.READY, 0)));
+        kitchenBoard.load();
+
+        // Act
+        List<OrderSummary> first = kitchenBoard.page(OrderStatus.RECEIVED, null, null, 2);
+        List<OrderSummary> second = kitchenBoard.page(OrderStatus.RECEIVED, BASE.plusMinutes(2), 2L, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), first.stream().map(OrderSummary::getId).toList());
+        assertEquals(List.of(3L), second.stream().map(OrderSummary::getId).toList());
+        assertTrue(kitchenBoard.page(OrderStatus.FINISHED, null, null, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return consistent pages while statuses change concurrently")
+    void testShouldPageConsistentlyDuringConcurrentChanges() throws Exception {
+        // Arrange: createdAt cresce com o id, então uma página válida tem ids crescentes depois da posição
+        List<Order> orders = LongStream.rangeClosed(1, 200)
+                .mapToObj(id -> order(id, OrderStatus.RECEIVED, (int) id)).toList();
+        when(orderRepository.findActiveOrders()).thenReturn(orders);
+        kitchenBoard.load();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (long i = 0; running.get(); i++) {
+                long id = 1 + (i % 200);
+                OrderStatus status = (i / 200) % 2 == 0 ? OrderStatus.IN_PREPARATION : OrderStatus.RECEIVED;
+                kitchenBoard.onStatusChanged(id, status, BASE);
+            }
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        writer.start();
+
+        try {
+            // Act
+            List<Future<?>> results = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                results.add(readers.submit(() -> {
+                    for (int i = 0; System.nanoTime() < until; i++) {
+                        long afterId = 1 + (i % 190);
+                        List<Long> page = kitchenBoard.page(OrderStatus.RECEIVED, BASE.plusMinutes(afterId), afterId, 10)
+                                .stream().map(OrderSummary::getId).toList();
+                        long previous = afterId;
+                        for (Long id : page) {
+                            assertTrue(id > previous, "page " + page + " after " + afterId + " is out of order");
+                            previous = id;
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            // Assert
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            readers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(3, meterRegistry);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should retry a conflicting update until it succeeds")
+    void testShouldRetryUntilSuccess() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ConcurrentUpdateException("conflict");
+            }
+            return "saved";
+        });
+
+        // Assert
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, count("orders.update.conflicts"));
+        assertEquals(2.0, count("orders.update.retries"));
+        assertEquals(0.0, count("orders.update.retries.exhausted"));
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void testShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ConcurrentUpdateException("conflict");
+        }));
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, count("orders.update.conflicts"));
+        assertEquals(2.0, count("orders.update.retries"));
+        assertEquals(1.0, count("orders.update.retries.exhausted"));
+    }
+
+    @Test
+    @DisplayName("Should not retry other failures")
+    void testShouldNotRetryOtherFailures() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, count("orders.update.conflicts"));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive number of attempts")
+    void testShouldRejectInvalidMaxAttempts() {
+        assertThrows(IllegalArgumentException.class, () -> new OptimisticRetry(0, meterRegistry));
+    }
+}
@@ -0,0 +1,236 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.OrderChange;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed.Subscriber;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderChangeFeedTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.shutdown();
+        }
+    }
+
+    private static class RecordingSubscriber implements Subscriber {
+        final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChange(OrderChange change) {
+            received.add(change);
+        }
+
+        @Override
+        public void onReset(long version) {
+            received.add("reset:" + version);
+        }
+
+        @Override
+        public void onHeartbeat() {
+            received.add("heartbeat");
+        }
+
+        Object next() throws InterruptedException {
+            Object item = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(item, "expected a delivery");
+            return item;
+        }
+    }
+
+    private void publish(long orderId, OrderStatus status) {
+        feed.publish(orderId, status, StatusPayment.APROVADO);
+    }
+
+    @Test
+    @DisplayName("Should deliver changes published after subscribing, in version order")
+    void testShouldDeliverLiveChangesInOrder() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry);
+        publish(1, OrderStatus.RECEIVED);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        feed.subscribe(null, subscriber);
+
+        // Act
+        publish(2, OrderStatus.RECEIVED);
+        publish(2, OrderStatus.IN_PREPARATION);
+
+        // Assert
+        OrderChange first = (OrderChange) subscriber.next();
+        OrderChange second = (OrderChange) subscriber.next();
+        assertEquals(2L, first.version());
+        assertEquals(OrderStatus.RECEIVED, first.status());
+        assertEquals(3L, second.version());
+        assertEquals(OrderStatus.IN_PREPARATION, second.status());
+        assertEquals(1.0, meterRegistry.get("orders.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should resume from the last version received")
+    void testShouldResumeFromLastVersion() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry);
+        publish(1, OrderStatus.RECEIVED);
+        publish(2, OrderStatus.RECEIVED);
+        publish(1, OrderStatus.READY);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        // Act
+        feed.subscribe(1L, subscriber);
+
+        // Assert
+        assertEquals(2L, ((OrderChange) subscriber.next()).version());
+        assertEquals(3L, ((OrderChange) subscriber.next()).version());
+        assertTrue(subscriber.received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ask the client to reload when it fell behind the buffer")
+    void testShouldResetWhenBehindBuffer() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(2, Duration.ZERO, 16, 2, meterRegistry);
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            publish(orderId, OrderStatus.RECEIVED);
+        }
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        // Act
+        feed.subscribe(1L, subscriber);
+        Object reset = subscriber.next();
+        publish(6, OrderStatus.RECEIVED);
+
+        // Assert
+        assertEquals("reset:5", reset);
+        assertEquals(6L, ((OrderChange) subscriber.next()).version());
+        assertEquals(1.0, meterRegistry.get("orders.stream.resets").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should ask the client to reload when its version is ahead of this feed")
+    void testShouldResetWhenAheadOfFeed() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry);
+        publish(1, OrderStatus.RECEIVED);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        // Act
+        feed.subscribe(500L, subscriber);
+
+        // Assert
+        assertEquals("reset:1", subscriber.next());
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers that fail to receive")
+    void testShouldDropFailingSubscriber() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, meterRegistry);
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        feed.subscribe(null, new RecordingSubscriber() {
+            @Override
+            public void onChange(OrderChange change) {
+                throw new IllegalStateException("client disconnected");
+            }
+        });
+        feed.subscribe(null, healthy);
+
+        // Act
+        publish(1, OrderStatus.RECEIVED);
+
+        // Assert
+        assertEquals(1L, ((OrderChange) healthy.next()).version());
+        // A ordem de entrega entre inscritos não é garantida: espera o despacho terminar de descartar o que falhou
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("orders.stream.subscribers").gauge().value() > 1.0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1.0, meterRegistry.get("orders.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep delivering to other subscribers while one is stuck and drop the stuck one")
+    void testShouldNotLetBlockedSubscriberStallOthers() throws Exception {
+        // Arrange: fila de saída de 2 eventos; o primeiro inscrito trava no primeiro envio
+        feed = new OrderChangeFeed(100, Duration.ZERO, 2, 2, meterRegistry);
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        feed.subscribe(null, new Subscriber() {
+            @Override
+            public void onChange(OrderChange change) throws InterruptedException {
+                stuck.countDown();
+                release.await();
+            }
+
+            @Override
+            public void onReset(long version) throws InterruptedException {
+                release.await();
+            }
+
+            @Override
+            public void onHeartbeat() {
+            }
+        });
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        feed.subscribe(null, healthy);
+
+        try {
+            // Act
+            long published = 0;
+            while (meterRegistry.get("orders.stream.subscribers").gauge().value() > 1.0 && published < 20) {
+                publish(++published, OrderStatus.RECEIVED);
+                // Assert: cada mudança chega ao inscrito saudável, em ordem, mesmo com o outro travado
+                assertEquals(published, ((OrderChange) healthy.next()).version());
+            }
+
+            // Assert
+            assertTrue(stuck.await(5, TimeUnit.SECONDS));
+            assertEquals(1.0, meterRegistry.get("orders.stream.subscribers").gauge().value());
+            assertEquals(1.0, meterRegistry.get("orders.stream.dropped").counter().count());
+            publish(++published, OrderStatus.READY);
+            assertEquals(published, ((OrderChange) healthy.next()).version());
+            assertTrue(healthy.received.isEmpty());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send heartbeats to idle subscribers and stop after close")
+    void testShouldSendHeartbeatsUntilClosed() throws Exception {
+        // Arrange
+        feed = new OrderChangeFeed(100, Duration.ofMillis(20), 16, 2, meterRegistry);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        OrderChangeFeed.Subscription subscription = feed.subscribe(null, subscriber);
+
+        // Act
+        Object heartbeat = subscriber.next();
+        subscription.close();
+
+        // Assert
+        assertEquals("heartbeat", heartbeat);
+        assertEquals(0.0, meterRegistry.get("orders.stream.subscribers").gauge().value());
+    }
+}
@@ -4,13 +4,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.application.usecases.OrderUseCase.OrderItemRequest;
 import com.fiap.techchallenge.domain.entities.*;
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
 import com.fiap.techchallenge.domain.exception.DomainException;
+import com.fiap.techchallenge.domain.exception.InvalidStatusTransitionException;
 import com.fiap.techchallenge.domain.exception.NotFoundException;
 import com.fiap.techchallenge.domain.repositories.OrderRepository;
 import com.fiap.techchallenge.domain.repositories.ProductRepository;
 import com.fiap.techchallenge.external.api.CustomerApiClient;
-import com.fiap.techchallenge.external.api.PaymentApiClient;
-import com.fiap.techchallenge.external.api.PaymentApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,14 +23,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,9 +49,6 @@ class OrderUseCaseImplTest {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private PaymentApiClient paymentApiClient;
-
     @Mock
     private CustomerApiClient customerApiClient;
 
@@ -88,10 +94,8 @@ class OrderUseCaseImplTest {
     void testShouldCreateOrderSuccessfully() {
         // Arrange
         when(customerApiClient.fetchCustomerByCpf("12345678900")).thenReturn(customerData);
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(product));
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn("{\"id\":123}");
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
+        when(orderRepository.saveWithPaymentOutbox(any(Order.class), any(PaymentOutboxEntry.class))).thenReturn(order);
 
         List<OrderItemRequest> items = List.of(orderItemRequest);
 
@@ -107,9 +111,9 @@ class OrderUseCaseImplTest {
         assertEquals(123L, result.getIdPayment());
 
         verify(customerApiClient).fetchCustomerByCpf("12345678900");
-        verify(productRepository).findById(any(UUID.class));
-        verify(paymentApiClient).createPayment(any(), any(), any(), any(), any(), any(), any());
-        verify(orderRepository).save(any(Order.class));
+        verify(productRepository).findAllByIds(Set.of(product.getId()));
+        verify(orderRepository).saveWithPaymentOutbox(any(Order.class), any(PaymentOutboxEntry.class));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -117,7 +121,7 @@ class OrderUseCaseImplTest {
     void testShouldThrowNotFoundExceptionWhenProductNotFound() {
         // Arrange
         when(customerApiClient.fetchCustomerByCpf("12345678900")).thenReturn(customerData);
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of());
 
         List<OrderItemRequest> items = List.of(orderItemRequest);
 
@@ -127,7 +131,7 @@ class OrderUseCaseImplTest {
         });
 
         assertEquals("Product not found", exception.getMessage());
-        verify(productRepository).findById(any(UUID.class));
+        verify(productRepository).findAllByIds(anyCollection());
     }
 
     @Test
@@ -135,7 +139,7 @@ class OrderUseCaseImplTest {
     void testShouldThrowDomainExceptionWhenProductIsInactive() {
         // Arrange
         Product inactiveProduct = Product.builder()
-                .id(UUID.randomUUID())
+                .id(product.getId())
                 .name("Inactive Product")
                 .description("Description")
                 .price(BigDecimal.valueOf(10.00))
@@ -144,7 +148,7 @@ class OrderUseCaseImplTest {
                 .build();
 
         when(customerApiClient.fetchCustomerByCpf("12345678900")).thenReturn(customerData);
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(inactiveProduct));
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(inactiveProduct));
 
         List<OrderItemRequest> items = List.of(orderItemRequest);
 
@@ -204,45 +208,30 @@ class OrderUseCaseImplTest {
     }
 
     @Test
-    @DisplayName("Should find orders by status")
-    void testShouldFindOrdersByStatus() {
-        // Arrange
-        List<Order> orders = List.of(order);
-        when(orderRepository.findByOptionalStatus(OrderStatus.RECEIVED)).thenReturn(orders);
-
-        // Act
-        List<Order> result = orderUseCase.findByOptionalStatus(OrderStatus.RECEIVED);
-
-        // Assert
-        assertEquals(1, result.size());
-        assertEquals(order, result.get(0));
-        verify(orderRepository).findByOptionalStatus(OrderStatus.RECEIVED);
-    }
-
-    @Test
-    @DisplayName("Should update order status successfully")
+    @DisplayName("Should update order status with a single conditional update")
     void testShouldUpdateOrderStatusSuccessfully() {
         // Arrange
-        Order paidOrder = new Order(1L, "12345678900", List.of(), BigDecimal.valueOf(20.00), 
-                                   OrderStatus.RECEIVED, StatusPayment.APROVADO, 
+        Order paidOrder = new Order(1L, "12345678900", List.of(), BigDecimal.valueOf(20.00),
+                                   OrderStatus.IN_PREPARATION, StatusPayment.APROVADO,
                                    123L, LocalDateTime.now(), LocalDateTime.now());
-        
+        when(orderRepository.transitionStatus(eq(1L), eq(Set.of(OrderStatus.RECEIVED, OrderStatus.IN_PREPARATION)),
+                eq(OrderStatus.IN_PREPARATION), eq(StatusPayment.APROVADO), any(LocalDateTime.class))).thenReturn(true);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(paidOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(paidOrder);
 
         // Act
         Order result = orderUseCase.updateOrderStatus(1L, OrderStatus.IN_PREPARATION);
 
         // Assert
-        assertNotNull(result);
-        verify(orderRepository).findById(1L);
-        verify(orderRepository).save(any(Order.class));
+        assertEquals(OrderStatus.IN_PREPARATION, result.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
     @DisplayName("Should throw DomainException when order is not paid")
     void testShouldThrowDomainExceptionWhenOrderIsNotPaid() {
         // Arrange
+        when(orderRepository.transitionStatus(eq(1L), anySet(), eq(OrderStatus.IN_PREPARATION),
+                eq(StatusPayment.APROVADO), any(LocalDateTime.class))).thenReturn(false);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         // Act & Assert
@@ -251,23 +240,59 @@ class OrderUseCaseImplTest {
         });
 
         assertEquals("The order is not paid", exception.getMessage());
-        verify(orderRepository).findById(1L);
+        assertFalse(exception instanceof InvalidStatusTransitionException);
     }
 
     @Test
-    @DisplayName("Should update order status to preparation")
+    @DisplayName("Should reject a transition that skips or reverts the order flow")
+    void testShouldRejectIllegalTransition() {
+        // Arrange
+        order.setStatusPayment(StatusPayment.APROVADO);
+        order.setStatus(OrderStatus.FINISHED);
+        when(orderRepository.transitionStatus(eq(1L), eq(Set.of(OrderStatus.IN_PREPARATION, OrderStatus.READY)),
+                eq(OrderStatus.READY), eq(StatusPayment.APROVADO), any(LocalDateTime.class))).thenReturn(false);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        // Act & Assert
+        InvalidStatusTransitionException exception = assertThrows(InvalidStatusTransitionException.class,
+                () -> orderUseCase.updateOrderStatus(1L, OrderStatus.READY));
+        assertEquals("Cannot change order status from FINISHED to READY", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when the order to transition does not exist")
+    void testShouldThrowNotFoundWhenTransitioningMissingOrder() {
+        // Arrange
+        when(orderRepository.transitionStatus(eq(99L), anySet(), eq(OrderStatus.IN_PREPARATION), isNull(),
+                any(LocalDateTime.class))).thenReturn(false);
+        when(orderRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> orderUseCase.updateOrderStatus(99L));
+    }
+
+    @Test
+    @DisplayName("Should require a status")
+    void testShouldRequireStatus() {
+        // Act & Assert
+        assertThrows(DomainException.class, () -> orderUseCase.updateOrderStatus(1L, null));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Should update order status to preparation without checking payment")
     void testShouldUpdateOrderStatusToPreparation() {
         // Arrange
+        when(orderRepository.transitionStatus(eq(1L), eq(Set.of(OrderStatus.RECEIVED, OrderStatus.IN_PREPARATION)),
+                eq(OrderStatus.IN_PREPARATION), isNull(), any(LocalDateTime.class))).thenReturn(true);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         // Act
         Order result = orderUseCase.updateOrderStatus(1L);
 
         // Assert
         assertNotNull(result);
-        verify(orderRepository).findById(1L);
-        verify(orderRepository).save(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -286,6 +311,40 @@ class OrderUseCaseImplTest {
         verify(orderRepository).save(any(Order.class));
     }
 
+    @Test
+    @DisplayName("Should reread and retry the payment update when the order changed concurrently")
+    void testShouldRetryPaymentUpdateOnConflict() {
+        // Arrange
+        Order ready = new Order(1L, "12345678900", List.of(), BigDecimal.TEN, OrderStatus.READY,
+                StatusPayment.AGUARDANDO_PAGAMENTO, 123L, LocalDateTime.now(), LocalDateTime.now());
+        when(orderRepository.findByIdPayment(123L)).thenReturn(Optional.of(order), Optional.of(ready));
+        when(orderRepository.save(any(Order.class)))
+                .thenThrow(new ConcurrentUpdateException("Order 1 was modified concurrently"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order result = orderUseCase.updateOrderStatusPayment(123L, StatusPayment.APROVADO);
+
+        // Assert
+        assertEquals(StatusPayment.APROVADO, result.getStatusPayment());
+        assertEquals(OrderStatus.READY, result.getStatus());
+        verify(orderRepository, times(2)).findByIdPayment(123L);
+    }
+
+    @Test
+    @DisplayName("Should surface the conflict after the retry budget is exhausted")
+    void testShouldSurfaceConflictAfterRetries() {
+        // Arrange
+        OrderUseCaseImpl useCase = new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient,
+                null, null, null, new OptimisticRetry(2, new SimpleMeterRegistry()));
+        when(orderRepository.findByIdPayment(123L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenThrow(new ConcurrentUpdateException("conflict"));
+
+        // Act & Assert
+        assertThrows(ConcurrentUpdateException.class, () -> useCase.updateOrderStatusPayment(123L, StatusPayment.APROVADO));
+        verify(orderRepository, times(2)).save(any(Order.class));
+    }
+
     @Test
     @DisplayName("Should validate quantity correctly")
     void testShouldValidateQuantityCorrectly() {
@@ -315,7 +374,7 @@ class OrderUseCaseImplTest {
     @DisplayName("Should convert order items correctly")
     void testShouldConvertOrderItemsCorrectly() {
         // Arrange
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(product));
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
         List<OrderItemRequest> items = List.of(orderItemRequest);
 
         // Act
@@ -330,52 +389,76 @@ class OrderUseCaseImplTest {
     }
 
     @Test
-    @DisplayName("Should create payment order and parse response")
-    void testShouldCreatePaymentOrderAndParseResponse() {
+    @DisplayName("Should fetch repeated products with a single lookup")
+    void testShouldFetchRepeatedProductsWithSingleLookup() {
         // Arrange
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn("{\"id\":456}");
-
-        List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
-        Order testOrder = Order.create("12345678900", orderItems);
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
+        List<OrderItemRequest> items = List.of(
+                new OrderItemRequest(product.getId(), 1),
+                new OrderItemRequest(product.getId(), 3));
 
         // Act
-        Long paymentId = orderUseCase.createPaymentOrder(testOrder, customerData);
+        List<OrderItem> result = orderUseCase.validateAndConvertOrderItems(items);
 
         // Assert
-        assertEquals(456L, paymentId);
-        verify(paymentApiClient).createPayment(any(), any(), any(), any(), any(), any(), any());
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getQuantity());
+        assertEquals(3, result.get(1).getQuantity());
+        verify(productRepository, times(1)).findAllByIds(Set.of(product.getId()));
+        verify(productRepository, never()).findById(any(UUID.class));
     }
 
     @Test
-    @DisplayName("Should handle payment response parsing error")
-    void testShouldHandlePaymentResponseParsingError() {
+    @DisplayName("Should throw NotFoundException when only one of the products is missing")
+    void testShouldThrowNotFoundExceptionWhenOneProductIsMissing() {
         // Arrange
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn("invalid json");
+        when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
+        List<OrderItemRequest> items = List.of(
+                orderItemRequest,
+                new OrderItemRequest(UUID.randomUUID(), 1));
 
+        // Act & Assert
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
+            orderUseCase.validateAndConvertOrderItems(items);
+        });
+
+        assertEquals("Product not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should create pending payment outbox entry from order and customer data")
+    void testShouldCreatePaymentOutboxEntry() {
+        // Arrange
         List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
         Order testOrder = Order.create("12345678900", orderItems);
 
-        // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
-            orderUseCase.createPaymentOrder(testOrder, customerData);
-        });
+        // Act
+        PaymentOutboxEntry entry = orderUseCase.createPaymentOutboxEntry(testOrder, customerData);
+
+        // Assert
+        assertEquals(testOrder.getTotalAmount(), entry.getAmount());
+        assertEquals("Pagamento para o pedido", entry.getDescription());
+        assertEquals("pix", entry.getPaymentMethodId());
+        assertEquals(1, entry.getInstallments());
+        assertEquals("test@test.com", entry.getPayerEmail());
+        assertEquals("CPF", entry.getDocumentType());
+        assertEquals("12345678900", entry.getDocumentNumber());
+        assertEquals(PaymentOutboxStatus.PENDING, entry.getStatus());
+        assertEquals(0, entry.getAttempts());
+        assertNotNull(entry.getNextAttemptAt());
     }
 
     @Test
     @DisplayName("Should create order with null customer data")
     void testShouldCreateOrderWithNullCustomerData() {
         // Arrange
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn("{\"id\":789}");
-        
         List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
         Order orderWithNullCpf = new Order(1L, null, orderItems, BigDecimal.valueOf(10.00), 
                                           OrderStatus.RECEIVED, StatusPayment.AGUARDANDO_PAGAMENTO, 
-                                          789L, LocalDateTime.now(), LocalDateTime.now());
+                                          null, LocalDateTime.now(), LocalDateTime.now());
         
-        when(orderRepository.save(any(Order.class))).thenReturn(orderWithNullCpf);
+        when(orderRepository.saveWithPaymentOutbox(any(Order.class), any(PaymentOutboxEntry.class)))
+                .thenReturn(orderWithNullCpf);
 
         // Act
         Order result = orderUseCase.createAndSaveOrder(null, orderItems);
@@ -383,75 +466,319 @@ class OrderUseCaseImplTest {
         // Assert
         assertNotNull(result);
         assertNull(result.getCpf());
-        assertEquals(789L, result.getIdPayment());
-        verify(orderRepository).save(any(Order.class));
+        assertNull(result.getIdPayment());
+        assertEquals(PaymentCreationStatus.PENDING_CREATION, result.getPaymentCreationStatus());
+        verify(orderRepository).saveWithPaymentOutbox(any(Order.class), any(PaymentOutboxEntry.class));
     }
 
     @Test
-    @DisplayName("Should create payment order with null customer data")
-    void testShouldCreatePaymentOrderWithNullCustomerData() {
+    @DisplayName("Should create payment outbox entry with null customer data")
+    void testShouldCreatePaymentOutboxEntryWithNullCustomerData() {
         // Arrange
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), 
-                eq("default@example.com"), eq("CPF"), eq("00000000000")))
-                .thenReturn("{\"id\":999}");
-
         List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
         Order testOrder = Order.create(null, orderItems);
 
         // Act
-        Long paymentId = orderUseCase.createPaymentOrder(testOrder, null);
+        PaymentOutboxEntry entry = orderUseCase.createPaymentOutboxEntry(testOrder, null);
 
         // Assert
-        assertEquals(999L, paymentId);
-        verify(paymentApiClient).createPayment(any(), any(), any(), any(), 
-                eq("default@example.com"), eq("CPF"), eq("00000000000"));
+        assertEquals("default@example.com", entry.getPayerEmail());
+        assertEquals("CPF", entry.getDocumentType());
+        assertEquals("00000000000", entry.getDocumentNumber());
     }
 
     @Test
-    @DisplayName("Should create payment order with customer data missing email")
-    void testShouldCreatePaymentOrderWithCustomerDataMissingEmail() throws Exception {
+    @DisplayName("Should create payment outbox entry with customer data missing email")
+    void testShouldCreatePaymentOutboxEntryWithCustomerDataMissingEmail() throws Exception {
         // Arrange
         ObjectMapper mapper = new ObjectMapper();
-        String customerJsonNoEmail = "{\"cpf\":\"12345678900\"}";
-        JsonNode customerDataNoEmail = mapper.readTree(customerJsonNoEmail);
-        
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), 
-                eq("default@example.com"), eq("CPF"), eq("12345678900")))
-                .thenReturn("{\"id\":888}");
+        JsonNode customerDataNoEmail = mapper.readTree("{\"cpf\":\"12345678900\"}");
 
         List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
         Order testOrder = Order.create("12345678900", orderItems);
 
         // Act
-        Long paymentId = orderUseCase.createPaymentOrder(testOrder, customerDataNoEmail);
+        PaymentOutboxEntry entry = orderUseCase.createPaymentOutboxEntry(testOrder, customerDataNoEmail);
 
         // Assert
-        assertEquals(888L, paymentId);
-        verify(paymentApiClient).createPayment(any(), any(), any(), any(), 
-                eq("default@example.com"), eq("CPF"), eq("12345678900"));
+        assertEquals("default@example.com", entry.getPayerEmail());
+        assertEquals("12345678900", entry.getDocumentNumber());
     }
 
     @Test
-    @DisplayName("Should create payment order with customer data missing cpf")
-    void testShouldCreatePaymentOrderWithCustomerDataMissingCpf() throws Exception {
+    @DisplayName("Should create payment outbox entry with customer data missing cpf")
+    void testShouldCreatePaymentOutboxEntryWithCustomerDataMissingCpf() throws Exception {
         // Arrange
         ObjectMapper mapper = new ObjectMapper();
-        String customerJsonNoCpf = "{\"email\":\"test@test.com\"}";
-        JsonNode customerDataNoCpf = mapper.readTree(customerJsonNoCpf);
-        
-        when(paymentApiClient.createPayment(any(), any(), any(), any(), 
-                eq("test@test.com"), eq("CPF"), eq("00000000000")))
-                .thenReturn("{\"id\":777}");
+        JsonNode customerDataNoCpf = mapper.readTree("{\"email\":\"test@test.com\"}");
 
         List<OrderItem> orderItems = List.of(OrderItem.create(product, 1));
         Order testOrder = Order.create(null, orderItems);
 
         // Act
-        Long paymentId = orderUseCase.createPaymentOrder(testOrder, customerDataNoCpf);
+        PaymentOutboxEntry entry = orderUseCase.createPaymentOutboxEntry(testOrder, customerDataNoCpf);
+
+        // Assert
+        assertEquals("test@test.com", entry.getPayerEmail());
+        assertEquals("00000000000", entry.getDocumentNumber());
+    }
+
+    @Test
+    @DisplayName("Should create order fetching customer and products in parallel")
+    void testShouldCreateOrderInParallel() {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            OrderUseCaseImpl parallelUseCase = new OrderUseCaseImpl(orderRepository, productRepository,
+                    customerApiClient, executor, Duration.ofSeconds(5));
+            when(customerApiClient.fetchCustomerByCpf("12345678900")).thenReturn(customerData);
+            when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
+            when(orderRepository.saveWithPaymentOutbox(any(Order.class), any(PaymentOutboxEntry.class)))
+                    .thenReturn(order);
+
+            // Act
+            Order result = parallelUseCase.createOrder("12345678900", List.of(orderItemRequest));
+
+            // Assert
+            assertEquals(order, result);
+            verify(customerApiClient).fetchCustomerByCpf("12345678900");
+            verify(productRepository).findAllByIds(anyCollection());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should cancel product validation when customer lookup fails in parallel mode")
+    void testShouldCancelSiblingWhenCustomerLookupFails() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch validationStarted = new CountDownLatch(1);
+        CountDownLatch validationInterrupted = new CountDownLatch(1);
+        try {
+            OrderUseCaseImpl parallelUseCase = new OrderUseCaseImpl(orderRepository, productRepository,
+                    customerApiClient, executor, Duration.ofSeconds(5));
+            when(productRepository.findAllByIds(anyCollection())).thenAnswer(invocation -> {
+                validationStarted.countDown();
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    validationInterrupted.countDown();
+                    throw e;
+                }
+                return List.of(product);
+            });
+            when(customerApiClient.fetchCustomerByCpf("12345678900")).thenAnswer(invocation -> {
+                validationStarted.await(1, TimeUnit.SECONDS);
+                throw new NotFoundException("Customer not found");
+            });
+
+            // Act & Assert
+            NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                    parallelUseCase.createOrder("12345678900", List.of(orderItemRequest)));
+
+            assertEquals("Customer not found", exception.getMessage());
+            assertTrue(validationInterrupted.await(1, TimeUnit.SECONDS));
+            verifyNoInteractions(orderRepository);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail with DeadlineExceededException when parallel steps exceed the shared deadline")
+    void testShouldFailWhenParallelStepsExceedDeadline() {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            OrderUseCaseImpl parallelUseCase = new OrderUseCaseImpl(orderRepository, productRepository,
+                    customerApiClient, executor, Duration.ofMillis(100));
+            when(customerApiClient.fetchCustomerByCpf("12345678900")).thenAnswer(invocation -> {
+                Thread.sleep(5_000);
+                return customerData;
+            });
+            when(productRepository.findAllByIds(anyCollection())).thenReturn(List.of(product));
+
+            // Act & Assert
+            assertThrows(DeadlineExceededException.class, () ->
+                    parallelUseCase.createOrder("12345678900", List.of(orderItemRequest)));
+            verifyNoInteractions(orderRepository);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should approve payments in batch and report unmatched payment ids")
+    void testShouldApprovePaymentsAndReportUnmatched() {
+        // Arrange
+        when(orderRepository.approvePayments(eq(Set.of(1L, 2L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(Set.of(1L, 3L));
+
+        // Act
+        Set<Long> unmatched = orderUseCase.approvePayments(List.of(1L, 2L, 2L, 3L));
+
+        // Assert
+        assertEquals(Set.of(2L), unmatched);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should not hit the repository for an empty approval batch")
+    void testShouldIgnoreEmptyApprovalBatch() {
+        // Act
+        Set<Long> unmatched = orderUseCase.approvePayments(List.of());
+
+        // Assert
+        assertTrue(unmatched.isEmpty());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Should apply status updates to the kitchen board without reading the order back")
+    void testShouldApplyStatusUpdatesToKitchenBoard() {
+        // Arrange
+        order.setStatus(OrderStatus.READY);
+        order.setStatusPayment(StatusPayment.APROVADO);
+        when(orderRepository.findActiveOrders()).thenReturn(List.of(order));
+        KitchenBoard kitchenBoard = new KitchenBoard(orderRepository, new SimpleMeterRegistry());
+        kitchenBoard.load();
+        OrderUseCaseImpl useCase = new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient,
+                null, null, kitchenBoard);
+        when(orderRepository.transitionStatus(eq(1L), anySet(), eq(OrderStatus.FINISHED), eq(StatusPayment.APROVADO),
+                any(LocalDateTime.class))).thenReturn(true);
+
+        // Act
+        Order result = useCase.updateOrderStatus(1L, OrderStatus.FINISHED);
+
+        // Assert
+        assertEquals(OrderStatus.FINISHED, result.getStatus());
+        assertEquals(order.getItems(), result.getItems());
+        assertTrue(kitchenBoard.activeOrders().isEmpty());
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should reload only approved orders to refresh the kitchen board")
+    void testShouldRefreshKitchenBoardAfterBatchApproval() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenReturn(List.of(order));
+        KitchenBoard kitchenBoard = new KitchenBoard(orderRepository, new SimpleMeterRegistry());
+        kitchenBoard.load();
+        OrderUseCaseImpl useCase = new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient,
+                null, null, kitchenBoard);
+        Order approved = new Order(1L, order.getCpf(), order.getItems(), order.getTotalAmount(),
+                OrderStatus.IN_PREPARATION, StatusPayment.APROVADO, 123L, order.getCreatedAt(), LocalDateTime.now());
+        when(orderRepository.approvePayments(eq(Set.of(123L, 456L)), any(LocalDateTime.class))).thenReturn(Set.of(123L));
+        when(orderRepository.findAllByIdPayments(Set.of(123L))).thenReturn(List.of(approved));
+
+        // Act
+        Set<Long> unmatched = useCase.approvePayments(List.of(123L, 456L));
+
+        // Assert
+        assertEquals(Set.of(456L), unmatched);
+        List<Order> active = kitchenBoard.activeOrders();
+        assertEquals(OrderStatus.IN_PREPARATION, active.get(0).getStatus());
+        assertEquals(StatusPayment.APROVADO, active.get(0).getStatusPayment());
+    }
+
+    private static Order listedOrder(long id, OrderStatus status, int minute) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(minute);
+        return new Order(id, null, List.of(), BigDecimal.TEN, status, StatusPayment.APROVADO, null, createdAt, createdAt);
+    }
+
+    private static OrderSummary listed(long id, OrderStatus status, int minute) {
+        return OrderSummary.of(listedOrder(id, status, minute));
+    }
+
+    @Test
+    @DisplayName("Should page across active statuses in priority order and return a next cursor")
+    void testShouldPageAcrossActiveStatuses() {
+        // Arrange
+        OrderSummary ready = listed(1L, OrderStatus.READY, 5);
+        OrderSummary preparing = listed(2L, OrderStatus.IN_PREPARATION, 1);
+        when(orderRepository.findSummaryPageByStatus(OrderStatus.READY, null, null, 3)).thenReturn(List.of(ready));
+        when(orderRepository.findSummaryPageByStatus(OrderStatus.IN_PREPARATION, null, null, 2))
+                .thenReturn(List.of(preparing, listed(3L, OrderStatus.IN_PREPARATION, 2)));
+
+        // Act
+        OrderPage page = orderUseCase.findOrders(null, null, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(OrderSummary::getId).toList());
+        assertTrue(page.hasNext());
+        assertEquals(OrderCursor.after(preparing), OrderCursor.decode(page.getNextCursor()));
+        verify(orderRepository, never()).findSummaryPageByStatus(eq(OrderStatus.RECEIVED), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should resume from the cursor and continue into the next status")
+    void testShouldResumeFromCursor() {
+        // Arrange
+        OrderSummary preparing = listed(2L, OrderStatus.IN_PREPARATION, 1);
+        String cursor = OrderCursor.after(preparing).encode();
+        when(orderRepository.findSummaryPageByStatus(OrderStatus.IN_PREPARATION, preparing.getCreatedAt(), 2L, 3))
+                .thenReturn(List.of(listed(3L, OrderStatus.IN_PREPARATION, 2)));
+        when(orderRepository.findSummaryPageByStatus(OrderStatus.RECEIVED, null, null, 2))
+                .thenReturn(List.of(listed(4L, OrderStatus.RECEIVED, 0)));
+
+        // Act
+        OrderPage page = orderUseCase.findOrders(null, cursor, 2);
+
+        // Assert
+        assertEquals(List.of(3L, 4L), page.getItems().stream().map(OrderSummary::getId).toList());
+        assertFalse(page.hasNext());
+        verify(orderRepository, never()).findSummaryPageByStatus(eq(OrderStatus.READY), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should filter by status, including finished orders, and cap the page size")
+    void testShouldFilterByStatusAndCapPageSize() {
+        // Arrange
+        when(orderRepository.findSummaryPageByStatus(OrderStatus.FINISHED, null, null, OrderUseCaseImpl.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of(listed(9L, OrderStatus.FINISHED, 0)));
+
+        // Act
+        OrderPage page = orderUseCase.findOrders(OrderStatus.FINISHED, null, 10_000);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cursors and limits")
+    void testShouldRejectInvalidCursorAndLimit() {
+        // Arrange
+        String receivedCursor = OrderCursor.after(listed(1L, OrderStatus.RECEIVED, 0)).encode();
+
+        // Act & Assert
+        assertThrows(DomainException.class, () -> orderUseCase.findOrders(null, "not-a-cursor", null));
+        assertThrows(DomainException.class, () -> orderUseCase.findOrders(OrderStatus.READY, receivedCursor, null));
+        assertThrows(DomainException.class, () -> orderUseCase.findOrders(null, null, 0));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Should serve active pages from the kitchen board")
+    void testShouldServeActivePagesFromKitchenBoard() {
+        // Arrange
+        when(orderRepository.findActiveOrders()).thenReturn(List.of(
+                listedOrder(1L, OrderStatus.RECEIVED, 0), listedOrder(2L, OrderStatus.RECEIVED, 1),
+                listedOrder(3L, OrderStatus.READY, 2)));
+        KitchenBoard kitchenBoard = new KitchenBoard(orderRepository, new SimpleMeterRegistry());
+        kitchenBoard.load();
+        OrderUseCaseImpl useCase = new OrderUseCaseImpl(orderRepository, productRepository, customerApiClient,
+                null, null, kitchenBoard);
+
+        // Act
+        OrderPage first = useCase.findOrders(null, null, 2);
+        OrderPage second = useCase.findOrders(null, first.getNextCursor(), 2);
 
         // Assert
-        assertEquals(777L, paymentId);
-        verify(paymentApiClient).createPayment(any(), any(), any(), any(), 
-                eq("test@test.com"), eq("CPF"), eq("00000000000"));
+        assertEquals(List.of(3L, 1L), first.getItems().stream().map(OrderSummary::getId).toList());
+        assertEquals(List.of(2L), second.getItems().stream().map(OrderSummary::getId).toList());
+        assertFalse(second.hasNext());
+        verify(orderRepository, never()).findSummaryPageByStatus(any(), any(), any(), anyInt());
     }
 }
@@ -0,0 +1,132 @@
+package com.fiap.techchallenge.application.usecases;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentApprovalBatcherTest {
+
+    @Mock
+    private OrderUseCase orderUseCase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentApprovalBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should coalesce approvals received within the window into one update")
+    @SuppressWarnings("unchecked")
+    void testShouldCoalesceApprovalsIntoOneBatch() {
+        // Arrange
+        when(orderUseCase.approvePayments(anyCollection())).thenReturn(Set.of());
+        batcher = new PaymentApprovalBatcher(orderUseCase, 100, 50, Duration.ofMillis(500), meterRegistry);
+
+        // Act
+        batcher.handlePaymentNotification(1L);
+        batcher.handlePaymentNotification(2L);
+        batcher.handlePaymentNotification(3L);
+        batcher.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(orderUseCase, times(1)).approvePayments(captor.capture());
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(captor.getValue()));
+        verify(orderUseCase, never()).updateOrderStatusPayment(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should flush early when the batch reaches the max size")
+    void testShouldFlushWhenBatchIsFull() {
+        // Arrange
+        when(orderUseCase.approvePayments(anyCollection())).thenReturn(Set.of());
+        batcher = new PaymentApprovalBatcher(orderUseCase, 100, 2, Duration.ofSeconds(30), meterRegistry);
+
+        // Act
+        batcher.handlePaymentNotification(1L);
+        batcher.handlePaymentNotification(2L);
+
+        // Assert - a janela de 30s não precisa expirar
+        verify(orderUseCase, timeout(2000)).approvePayments(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should count and report payment ids that matched no order")
+    void testShouldCountUnmatchedPaymentIds() {
+        // Arrange
+        List<Long> applied = new CopyOnWriteArrayList<>();
+        List<Long> notApplied = new CopyOnWriteArrayList<>();
+        when(orderUseCase.approvePayments(anyCollection())).thenReturn(Set.of(2L));
+        batcher = new PaymentApprovalBatcher(orderUseCase, 100, 50, Duration.ofMillis(10), meterRegistry);
+
+        // Act
+        batcher.handlePaymentNotification(1L, () -> applied.add(1L), () -> notApplied.add(1L));
+        batcher.handlePaymentNotification(2L, () -> applied.add(2L), () -> notApplied.add(2L));
+        batcher.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("webhook.approval.unmatched").counter().count());
+        assertEquals(List.of(1L), applied);
+        assertEquals(List.of(2L), notApplied);
+    }
+
+    @Test
+    @DisplayName("Should report every approval of a batch whose update failed")
+    void testShouldReportFailedBatch() {
+        // Arrange
+        List<Long> notApplied = new CopyOnWriteArrayList<>();
+        when(orderUseCase.approvePayments(anyCollection())).thenThrow(new IllegalStateException("database down"));
+        batcher = new PaymentApprovalBatcher(orderUseCase, 100, 50, Duration.ofMillis(10), meterRegistry);
+
+        // Act
+        batcher.handlePaymentNotification(1L, () -> notApplied.add(1L));
+        batcher.handlePaymentNotification(2L, () -> notApplied.add(2L));
+        batcher.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), notApplied);
+        assertEquals(2.0, meterRegistry.get("webhook.approval.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should apply approvals directly after shutdown")
+    void testShouldApplyDirectlyAfterShutdown() {
+        // Arrange
+        when(orderUseCase.approvePayments(anyCollection())).thenReturn(Set.of());
+        batcher = new PaymentApprovalBatcher(orderUseCase, 100, 50, Duration.ofMillis(10), meterRegistry);
+        batcher.shutdown(Duration.ofSeconds(5));
+
+        // Act
+        batcher.handlePaymentNotification(7L);
+
+        // Assert
+        verify(orderUseCase).approvePayments(List.of(7L));
+    }
+}
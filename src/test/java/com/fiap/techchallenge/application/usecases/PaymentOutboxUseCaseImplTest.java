@@ -0,0 +1,220 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.PaymentOutboxEntry;
+import com.fiap.techchallenge.domain.repositories.PaymentOutboxRepository;
+import com.fiap.techchallenge.external.api.PaymentApiClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxUseCaseImplTest {
+
+    @Mock
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Mock
+    private PaymentApiClient paymentApiClient;
+
+    private PaymentOutboxUseCaseImpl paymentOutboxUseCase;
+
+    private PaymentOutboxEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        paymentOutboxUseCase = new PaymentOutboxUseCaseImpl(paymentOutboxRepository, paymentApiClient,
+                2, 3, 3, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+        entry = PaymentOutboxEntry.pending(BigDecimal.valueOf(20.00), "Pagamento para o pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900");
+        entry.setId(10L);
+        entry.setOrderId(1L);
+
+        lenient().when(paymentOutboxRepository.renewLease(any(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should create payment and mark outbox entry as dispatched")
+    void testShouldDispatchPendingPayment() {
+        // Arrange
+        when(paymentOutboxRepository.claimDue(eq(2), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry));
+        when(paymentApiClient.createPayment("order-1-payment", 20.0, "Pagamento para o pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900")).thenReturn("{\"id\":123}");
+
+        // Act
+        int dispatched = paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(1, dispatched);
+        assertEquals(1, entry.getAttempts());
+        verify(paymentOutboxRepository).markDispatched(entry, 123L);
+        verify(paymentOutboxRepository, never()).scheduleRetry(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should give each dispatch its own traceId and clear it afterwards")
+    void testShouldUseTraceIdPerDispatch() {
+        // Arrange
+        PaymentOutboxEntry second = PaymentOutboxEntry.pending(BigDecimal.TEN, "Pagamento para o pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900");
+        second.setId(11L);
+        second.setOrderId(2L);
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry, second), List.of());
+        List<String> traceIds = new ArrayList<>();
+        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    traceIds.add(MDC.get("traceId"));
+                    return "{\"id\":123}";
+                });
+
+        // Act
+        paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(2, traceIds.size());
+        assertNotNull(traceIds.get(0));
+        assertNotNull(traceIds.get(1));
+        assertNotEquals(traceIds.get(0), traceIds.get(1));
+        assertNull(MDC.get("traceId"));
+    }
+
+    @Test
+    @DisplayName("Should schedule retry with backoff when payment API fails")
+    void testShouldScheduleRetryWhenPaymentApiFails() {
+        // Arrange
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry));
+        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Erro ao chamar API de pagamento"));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        int dispatched = paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(0, dispatched);
+        verify(paymentOutboxRepository).scheduleRetry(eq(entry),
+                argThat(next -> !next.isBefore(before.plusSeconds(1))), eq("Erro ao chamar API de pagamento"));
+        verify(paymentOutboxRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should treat payment response without id as failure")
+    void testShouldTreatResponseWithoutIdAsFailure() {
+        // Arrange
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry));
+        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("{\"status\":\"pending\"}");
+
+        // Act
+        paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        verify(paymentOutboxRepository).scheduleRetry(eq(entry), any(LocalDateTime.class), anyString());
+        verify(paymentOutboxRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should mark outbox entry as failed after max attempts")
+    void testShouldMarkFailedAfterMaxAttempts() {
+        // Arrange
+        entry.setAttempts(2);
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry));
+        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("invalid json");
+
+        // Act
+        paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(3, entry.getAttempts());
+        verify(paymentOutboxRepository).markFailed(eq(entry), anyString());
+        verify(paymentOutboxRepository, never()).scheduleRetry(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep claiming batches while they come back full")
+    void testShouldDrainFullBatches() {
+        // Arrange
+        PaymentOutboxEntry other = PaymentOutboxEntry.pending(BigDecimal.TEN, "Pagamento para o pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900");
+        other.setId(11L);
+        other.setOrderId(2L);
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry, other))
+                .thenReturn(List.of());
+        when(paymentApiClient.createPayment(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("{\"id\":1}", "{\"id\":2}");
+
+        // Act
+        int dispatched = paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(2, dispatched);
+        verify(paymentOutboxRepository, times(2)).claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(paymentOutboxRepository).markDispatched(entry, 1L);
+        verify(paymentOutboxRepository).markDispatched(other, 2L);
+    }
+
+    @Test
+    @DisplayName("Should skip entries whose lease could not be renewed before dispatch")
+    void testShouldSkipEntryWhenLeaseIsLost() {
+        // Arrange: a segunda entrada expirou enquanto a primeira era enviada e outra instância a reservou
+        PaymentOutboxEntry other = PaymentOutboxEntry.pending(BigDecimal.TEN, "Pagamento para o pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900");
+        other.setId(11L);
+        other.setOrderId(2L);
+        when(paymentOutboxRepository.claimDue(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(entry, other))
+                .thenReturn(List.of());
+        when(paymentOutboxRepository.renewLease(eq(other), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(false);
+        when(paymentApiClient.createPayment(eq("order-1-payment"), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn("{\"id\":1}");
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        int dispatched = paymentOutboxUseCase.dispatchPendingPayments();
+
+        // Assert
+        assertEquals(1, dispatched);
+        verify(paymentOutboxRepository).renewLease(eq(entry), any(LocalDateTime.class),
+                argThat(leaseUntil -> !leaseUntil.isBefore(before.plusMinutes(1))));
+        verify(paymentApiClient, never()).createPayment(eq("order-2-payment"), any(), any(), any(), any(), any(), any(), any());
+        verify(paymentOutboxRepository, never()).markDispatched(eq(other), any());
+        verify(paymentOutboxRepository, never()).scheduleRetry(eq(other), any(), any());
+        assertEquals(0, other.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should grow backoff exponentially up to the configured maximum")
+    void testShouldCapExponentialBackoff() {
+        assertEquals(Duration.ofSeconds(1), paymentOutboxUseCase.backoffFor(1));
+        assertEquals(Duration.ofSeconds(2), paymentOutboxUseCase.backoffFor(2));
+        assertEquals(Duration.ofSeconds(8), paymentOutboxUseCase.backoffFor(4));
+        assertEquals(Duration.ofSeconds(10), paymentOutboxUseCase.backoffFor(5));
+        assertEquals(Duration.ofSeconds(10), paymentOutboxUseCase.backoffFor(60));
+    }
+}
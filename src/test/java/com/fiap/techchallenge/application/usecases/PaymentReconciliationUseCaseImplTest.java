@@ -0,0 +1,238 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.PendingPayment;
+import com.fiap.techchallenge.domain.exception.PaymentNotFoundException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import com.fiap.techchallenge.domain.repositories.OrderRepository;
+import com.fiap.techchallenge.external.api.PaymentApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationUseCaseImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PaymentApiClient paymentApiClient;
+
+    @Mock
+    private PaymentNotificationUseCase paymentNotificationUseCase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentReconciliationUseCaseImpl reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = reconciler(2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdown();
+    }
+
+    private PaymentReconciliationUseCaseImpl reconciler(int pageSize, double maxCallsPerSecond) {
+        return new PaymentReconciliationUseCaseImpl(orderRepository, paymentApiClient, paymentNotificationUseCase,
+                pageSize, 5, 4, maxCallsPerSecond, Duration.ofMinutes(2), Duration.ofDays(1), meterRegistry);
+    }
+
+    private static PendingPayment pending(long orderId, long idPayment, int minutesAgo) {
+        return new PendingPayment(orderId, idPayment, LocalDateTime.now().minusMinutes(minutesAgo));
+    }
+
+    @Test
+    @DisplayName("Should page by id and apply only approved payments through the webhook path")
+    void testShouldApplyApprovedPaymentsAcrossPages() {
+        // Arrange
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(pending(1, 101, 30), pending(2, 102, 20)));
+        when(orderRepository.findPendingPaymentsPage(any(), any(), eq(2L), eq(2)))
+                .thenReturn(List.of(pending(3, 103, 10)));
+        when(paymentApiClient.findPaymentStatus(101L)).thenReturn("approved");
+        when(paymentApiClient.findPaymentStatus(102L)).thenReturn("pending");
+        when(paymentApiClient.findPaymentStatus(103L)).thenReturn("approved");
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(paymentNotificationUseCase).handlePaymentNotification(any(), any(Runnable.class), any(Runnable.class));
+
+        // Act
+        int submitted = reconciler.reconcilePendingPayments();
+
+        // Assert
+        assertEquals(2, submitted);
+        verify(paymentNotificationUseCase).handlePaymentNotification(eq(101L), any(Runnable.class), any(Runnable.class));
+        verify(paymentNotificationUseCase).handlePaymentNotification(eq(103L), any(Runnable.class), any(Runnable.class));
+        verifyNoMoreInteractions(paymentNotificationUseCase);
+        assertEquals(3.0, meterRegistry.get("payments.reconcile.scanned").counter().count());
+        assertEquals(2.0, meterRegistry.get("payments.reconcile.fixed").counter().count());
+        assertTrue(meterRegistry.get("payments.reconcile.lag").gauge().value() >= 30 * 60);
+    }
+
+    @Test
+    @DisplayName("Should count as fixed only the approvals applied to their order")
+    void testShouldCountFixedOnlyWhenApplied() {
+        // Arrange
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(pending(1, 101, 5), pending(2, 102, 5)));
+        when(orderRepository.findPendingPaymentsPage(any(), any(), eq(2L), eq(2))).thenReturn(List.of());
+        when(paymentApiClient.findPaymentStatus(any())).thenReturn("approved");
+        List<Runnable> onApplied = new ArrayList<>();
+        List<Runnable> onFailure = new ArrayList<>();
+        doAnswer(invocation -> {
+            onApplied.add(invocation.getArgument(1));
+            onFailure.add(invocation.getArgument(2));
+            return null;
+        }).when(paymentNotificationUseCase).handlePaymentNotification(any(), any(Runnable.class), any(Runnable.class));
+
+        // Act: a fila do webhook aplica depois que a execução termina; o segundo pedido falha no worker
+        int submitted = reconciler.reconcilePendingPayments();
+        double fixedBeforeApplied = meterRegistry.get("payments.reconcile.fixed").counter().count();
+        onApplied.get(0).run();
+        onFailure.get(1).run();
+
+        // Assert
+        assertEquals(2, submitted);
+        assertEquals(0.0, fixedBeforeApplied);
+        assertEquals(1.0, meterRegistry.get("payments.reconcile.fixed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count failed lookups and keep reconciling the rest of the page")
+    void testShouldCountFailedLookups() {
+        // Arrange
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(pending(1, 101, 5), pending(2, 102, 5)));
+        when(orderRepository.findPendingPaymentsPage(any(), any(), eq(2L), eq(2))).thenReturn(List.of());
+        when(paymentApiClient.findPaymentStatus(101L)).thenThrow(new PaymentNotFoundException("not found"));
+        when(paymentApiClient.findPaymentStatus(102L)).thenReturn("approved");
+
+        // Act
+        int submitted = reconciler.reconcilePendingPayments();
+
+        // Assert
+        assertEquals(1, submitted);
+        assertEquals(1.0, meterRegistry.get("payments.reconcile.failed").counter().count());
+        verify(paymentNotificationUseCase).handlePaymentNotification(eq(102L), any(Runnable.class), any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Should stop the run when the webhook queue is full")
+    void testShouldStopWhenNotificationQueueIsFull() {
+        // Arrange
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(pending(1, 101, 5), pending(2, 102, 5)));
+        when(paymentApiClient.findPaymentStatus(any())).thenReturn("approved");
+        doNothing().doThrow(new ServiceUnavailableException("full"))
+                .when(paymentNotificationUseCase).handlePaymentNotification(any(), any(Runnable.class), any(Runnable.class));
+
+        // Act
+        int submitted = reconciler.reconcilePendingPayments();
+
+        // Assert
+        assertEquals(1, submitted);
+        verify(orderRepository, times(1)).findPendingPaymentsPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should resume from where the previous run stopped and wrap to the oldest order at the end")
+    void testShouldCarryCursorAcrossRuns() {
+        // Arrange: 11 pedidos pendentes, mais que as 5 páginas de 2 de uma execução
+        List<PendingPayment> backlog = LongStream.rangeClosed(1, 11)
+                .mapToObj(id -> pending(id, 100 + id, 60 - (int) id)).toList();
+        when(orderRepository.findPendingPaymentsPage(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return backlog.stream()
+                    .filter(payment -> afterId == null || payment.getOrderId() > afterId)
+                    .limit(limit)
+                    .toList();
+        });
+        List<Long> lookedUp = new CopyOnWriteArrayList<>();
+        when(paymentApiClient.findPaymentStatus(any())).thenAnswer(invocation -> {
+            lookedUp.add(invocation.getArgument(0));
+            return "pending";
+        });
+
+        // Act
+        reconciler.reconcilePendingPayments();
+        List<Long> firstRun = List.copyOf(lookedUp);
+        lookedUp.clear();
+        reconciler.reconcilePendingPayments();
+        List<Long> secondRun = List.copyOf(lookedUp);
+        lookedUp.clear();
+        reconciler.reconcilePendingPayments();
+
+        // Assert
+        assertEquals(LongStream.rangeClosed(101, 110).boxed().toList(), firstRun.stream().sorted().toList());
+        assertEquals(List.of(111L), secondRun);
+        assertEquals(LongStream.rangeClosed(101, 110).boxed().toList(), lookedUp.stream().sorted().toList());
+        // O atraso continua medido pelo pedido mais antigo mesmo quando a execução começa no meio
+        assertTrue(meterRegistry.get("payments.reconcile.lag").gauge().value() >= 59 * 60);
+    }
+
+    @Test
+    @DisplayName("Should report zero lag when nothing is waiting")
+    void testShouldReportZeroLagWhenNothingIsPending() {
+        // Arrange
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(2))).thenReturn(List.of());
+
+        // Act
+        int fixed = reconciler.reconcilePendingPayments();
+
+        // Assert
+        assertEquals(0, fixed);
+        assertEquals(0.0, meterRegistry.get("payments.reconcile.lag").gauge().value());
+        verifyNoInteractions(paymentApiClient);
+    }
+
+    @Test
+    @DisplayName("Should cap calls to the payments service at the configured rate")
+    void testShouldCapCallRate() {
+        // Arrange
+        reconciler.shutdown();
+        reconciler = reconciler(10, 50);
+        AtomicInteger calls = new AtomicInteger();
+        List<PendingPayment> page = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> pending(id, 100 + id, 5)).toList();
+        when(orderRepository.findPendingPaymentsPage(any(), any(), isNull(), eq(10))).thenReturn(page);
+        when(orderRepository.findPendingPaymentsPage(any(), any(), eq(10L), eq(10))).thenReturn(List.of());
+        when(paymentApiClient.findPaymentStatus(any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            return "pending";
+        });
+
+        // Act
+        long start = System.nanoTime();
+        reconciler.reconcilePendingPayments();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert: 10 chamadas a 50/s ocupam pelo menos 9 intervalos de 20ms
+        assertEquals(10, calls.get());
+        assertTrue(elapsedMs >= 170, "elapsed " + elapsedMs + "ms");
+    }
+}
@@ -0,0 +1,101 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.entities.Category;
+import com.fiap.techchallenge.domain.entities.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private final Category category = new Category(UUID.randomUUID(), "Lanches");
+
+    private Product pao;
+    private Product paoDeQueijo;
+    private Product xBurger;
+    private Product cafe;
+    private Product suco;
+    private ProductSearchIndex index;
+
+    private Product product(String name, String description) {
+        return new Product(UUID.randomUUID(), name, description, BigDecimal.TEN, category, true);
+    }
+
+    @BeforeEach
+    void setUp() {
+        pao = product("Pão", "Francês na chapa");
+        paoDeQueijo = product("Pão de Queijo", "Porção com 6 unidades");
+        xBurger = product("X-Burger", "Pão, hambúrguer e queijo");
+        cafe = product("Café  Expresso", "Grãos selecionados");
+        suco = product("Suco de Laranja", "Natural");
+        index = ProductSearchIndex.build(List.of(xBurger, suco, paoDeQueijo, cafe, pao));
+    }
+
+    @Test
+    @DisplayName("Should rank exact name, name prefix, word prefix, substring and description matches in that order")
+    void testShouldRankMatches() {
+        // Act
+        List<Product> result = index.search("pao");
+
+        // Assert
+        assertEquals(List.of(pao, paoDeQueijo, xBurger), result);
+    }
+
+    @Test
+    @DisplayName("Should ignore accents, case and repeated spaces on both sides")
+    void testShouldIgnoreAccentsAndCase() {
+        // Act & Assert
+        assertEquals(List.of(cafe), index.search("CAFÉ expresso"));
+        assertEquals(List.of(cafe), index.search("cafe"));
+        assertEquals(List.of(paoDeQueijo, xBurger), index.search("Queíjo"));
+    }
+
+    @Test
+    @DisplayName("Should find terms shorter than a trigram and words in the middle of the name")
+    void testShouldFindShortAndInnerTerms() {
+        // Act & Assert
+        assertEquals(List.of(xBurger), index.search("bu"));
+        assertEquals(List.of(suco), index.search("laranja"));
+        assertTrue(index.search("r").containsAll(List.of(xBurger, suco, cafe, pao)));
+    }
+
+    @Test
+    @DisplayName("Should not return products whose trigrams match out of order")
+    void testShouldRejectTrigramFalsePositives() {
+        // Arrange: "abcxbcd" contém os trigramas de "abcd", mas não a sequência
+        Product decoy = product("abcxbcd", null);
+        ProductSearchIndex decoyIndex = ProductSearchIndex.build(List.of(decoy));
+
+        // Act & Assert
+        assertTrue(decoyIndex.search("abcd").isEmpty());
+        assertEquals(List.of(decoy), decoyIndex.search("xbc"));
+    }
+
+    @Test
+    @DisplayName("Should return every product for a blank term and nothing for an unknown one")
+    void testShouldHandleBlankAndUnknownTerms() {
+        // Act & Assert
+        assertEquals(5, index.search("  ").size());
+        assertEquals(5, index.search(null).size());
+        assertTrue(index.search("pizza").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report its size and estimated memory footprint")
+    void testShouldReportFootprint() {
+        // Act
+        ProductSearchIndex empty = ProductSearchIndex.build(List.of());
+
+        // Assert
+        assertEquals(5, index.size());
+        assertTrue(index.grams() > 0);
+        assertTrue(index.estimatedBytes() > empty.estimatedBytes());
+        assertEquals(0, empty.grams());
+    }
+}
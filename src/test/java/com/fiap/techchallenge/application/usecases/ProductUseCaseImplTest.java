@@ -1,5 +1,6 @@
 package com.fiap.techchallenge.application.usecases;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.domain.entities.Category;
 import com.fiap.techchallenge.domain.entities.Product;
 import com.fiap.techchallenge.domain.exception.NotFoundException;
@@ -8,6 +9,7 @@ import com.fiap.techchallenge.domain.repositories.CategoryRepository;
 import com.fiap.techchallenge.domain.repositories.OrderRepository;
 import com.fiap.techchallenge.domain.repositories.ProductRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -236,4 +238,38 @@ class ProductUseCaseImplTest {
         verify(productRepository, times(1)).findById(productId);
         verify(orderRepository, times(1)).existsByProductId(productId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve listings from the catalog snapshot and rebuild it after a change")
+    void testShouldServeListingsFromCatalogSnapshot() {
+        // Arrange
+        CatalogCache catalogCache = new CatalogCache(productRepository, categoryRepository,
+                new ObjectMapper(), new SimpleMeterRegistry());
+        ProductUseCaseImpl cachedUseCase = new ProductUseCaseImpl(productRepository, categoryRepository, orderRepository,
+                catalogCache);
+        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        // Act
+        List<Product> all = cachedUseCase.findAllProducts();
+        List<Product> byCategory = cachedUseCase.findProductsByCategory(categoryId);
+        CatalogSnapshot.View view = cachedUseCase.findAllProductsView();
+        CatalogSnapshot.View sameView = cachedUseCase.findAllProductsView();
+        when(productRepository.findAll()).thenReturn(List.of(product, product));
+        cachedUseCase.createProduct("Other", "Other", BigDecimal.ONE, categoryId);
+
+        // Assert
+        assertEquals(List.of(product), all);
+        assertEquals(List.of(product), byCategory);
+        assertSame(view, sameView);
+        assertNotEquals(view.etag(), cachedUseCase.findAllProductsView().etag());
+        assertEquals(2L, catalogCache.snapshot().getVersion());
+        assertEquals(2, cachedUseCase.findAllProducts().size());
+        assertEquals(2, cachedUseCase.findProductsByName(product.getName()).size());
+        verify(productRepository, never()).findByCategoryId(any());
+        verify(productRepository, never()).findByName(any());
+        verify(productRepository, times(2)).findAll();
+    }
+}
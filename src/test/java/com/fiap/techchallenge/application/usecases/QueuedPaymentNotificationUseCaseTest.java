@@ -0,0 +1,149 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueuedPaymentNotificationUseCaseTest {
+
+    private final List<Long> processed = new CopyOnWriteArrayList<>();
+    private final List<String> traceIds = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueuedPaymentNotificationUseCase queuedUseCase;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (queuedUseCase != null) {
+            queuedUseCase.shutdown(Duration.ofSeconds(1));
+        }
+        MDC.clear();
+        RequestDeadline.clear();
+    }
+
+    private PaymentNotificationUseCase blockingDelegate() {
+        return paymentId -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            traceIds.add(String.valueOf(MDC.get("traceId")));
+            processed.add(paymentId);
+        };
+    }
+
+    @Test
+    @DisplayName("Should return immediately and process notification on a worker thread")
+    void testShouldAckAndProcessAsynchronously() {
+        // Arrange
+        queuedUseCase = new QueuedPaymentNotificationUseCase(blockingDelegate(), 10, 1, meterRegistry);
+        MDC.put("traceId", "trace-webhook");
+
+        // Act
+        queuedUseCase.handlePaymentNotification(123L);
+
+        // Assert
+        assertTrue(processed.isEmpty());
+        release.countDown();
+        queuedUseCase.shutdown(Duration.ofSeconds(5));
+        assertEquals(List.of(123L), processed);
+        assertEquals(List.of("trace-webhook"), traceIds);
+        assertEquals(1, meterRegistry.get("webhook.queue.lag").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should reject with ServiceUnavailableException when the queue is full")
+    void testShouldRejectWhenQueueIsFull() throws Exception {
+        // Arrange
+        queuedUseCase = new QueuedPaymentNotificationUseCase(blockingDelegate(), 2, 1, meterRegistry);
+
+        // Act - um em execução no worker e dois na fila
+        queuedUseCase.handlePaymentNotification(1L);
+        waitUntilQueueDepth(0);
+        queuedUseCase.handlePaymentNotification(2L);
+        queuedUseCase.handlePaymentNotification(3L);
+
+        // Assert
+        assertThrows(ServiceUnavailableException.class, () -> queuedUseCase.handlePaymentNotification(4L));
+        assertEquals(2.0, meterRegistry.get("webhook.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("webhook.queue.rejected").counter().count());
+
+        release.countDown();
+        queuedUseCase.shutdown(Duration.ofSeconds(5));
+        assertEquals(List.of(1L, 2L, 3L), processed);
+    }
+
+    @Test
+    @DisplayName("Should keep processing after a notification fails")
+    void testShouldKeepWorkingAfterFailure() {
+        // Arrange
+        queuedUseCase = new QueuedPaymentNotificationUseCase(paymentId -> {
+            if (paymentId == 1L) {
+                throw new IllegalStateException("boom");
+            }
+            processed.add(paymentId);
+        }, 10, 1, meterRegistry);
+
+        // Act
+        queuedUseCase.handlePaymentNotification(1L);
+        queuedUseCase.handlePaymentNotification(2L);
+        queuedUseCase.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(List.of(2L), processed);
+    }
+
+    @Test
+    @DisplayName("Should process a queued notification after the webhook request deadline has passed")
+    void testShouldNotCarryRequestDeadlineToWorker() throws Exception {
+        // Arrange: o worker está ocupado, então a notificação fica na fila até depois do prazo do webhook
+        List<Boolean> deadlineSeen = new CopyOnWriteArrayList<>();
+        queuedUseCase = new QueuedPaymentNotificationUseCase(paymentId -> {
+            blockingDelegate().handlePaymentNotification(paymentId);
+            deadlineSeen.add(RequestDeadline.isSet());
+            RequestDeadline.check("updating order status");
+        }, 10, 1, meterRegistry);
+        queuedUseCase.handlePaymentNotification(1L);
+        waitUntilQueueDepth(0);
+        RequestDeadline.start(Duration.ofMillis(20));
+
+        // Act
+        queuedUseCase.handlePaymentNotification(2L);
+        Thread.sleep(50);
+        release.countDown();
+        queuedUseCase.shutdown(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(RequestDeadline.isExpired());
+        assertEquals(List.of(1L, 2L), processed);
+        assertEquals(List.of(false, false), deadlineSeen);
+    }
+
+    private void waitUntilQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queuedUseCase.getQueueDepth() != depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
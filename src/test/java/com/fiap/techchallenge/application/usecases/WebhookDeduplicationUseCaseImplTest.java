@@ -0,0 +1,144 @@
+package com.fiap.techchallenge.application.usecases;
+
+import com.fiap.techchallenge.domain.repositories.ProcessedWebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDeduplicationUseCaseImplTest {
+
+    @Mock
+    private ProcessedWebhookEventRepository processedWebhookEventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookDeduplicationUseCaseImpl deduplication;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deduplication = new WebhookDeduplicationUseCaseImpl(processedWebhookEventRepository,
+                Duration.ofMinutes(10), 1000, Duration.ofDays(7), meterRegistry);
+    }
+
+    private double deliveries(String result, String source) {
+        return meterRegistry.get("webhook.deliveries").tag("result", result).tag("source", source).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should accept the first delivery and persist it")
+    void testShouldAcceptFirstDelivery() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(eq("10:123"), eq(10L), eq(123L), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        // Act
+        boolean first = deduplication.registerIfFirst(10L, 123L);
+
+        // Assert
+        assertTrue(first);
+        assertEquals(1.0, deliveries("new", "none"));
+    }
+
+    @Test
+    @DisplayName("Should drop redelivery within the window without hitting the database")
+    void testShouldDropRedeliveryFromMemory() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(anyString(), any(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        // Act
+        deduplication.registerIfFirst(10L, 123L);
+        boolean second = deduplication.registerIfFirst(10L, 123L);
+
+        // Assert
+        assertFalse(second);
+        verify(processedWebhookEventRepository, times(1)).registerIfAbsent(anyString(), any(), anyLong(), any(LocalDateTime.class));
+        assertEquals(1.0, deliveries("duplicate", "memory"));
+    }
+
+    @Test
+    @DisplayName("Should drop delivery already recorded in the database")
+    void testShouldDropRedeliveryFromDatabase() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(eq("10:123"), eq(10L), eq(123L), any(LocalDateTime.class)))
+                .thenReturn(false);
+
+        // Act
+        boolean first = deduplication.registerIfFirst(10L, 123L);
+
+        // Assert
+        assertFalse(first);
+        assertEquals(1.0, deliveries("duplicate", "database"));
+    }
+
+    @Test
+    @DisplayName("Should treat a different event for the same payment as new")
+    void testShouldKeyOnEventAndPaymentId() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(anyString(), any(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        // Act & Assert
+        assertTrue(deduplication.registerIfFirst(10L, 123L));
+        assertTrue(deduplication.registerIfFirst(11L, 123L));
+        assertTrue(deduplication.registerIfFirst(null, 123L));
+        verify(processedWebhookEventRepository).registerIfAbsent(eq("-:123"), isNull(), eq(123L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should process the delivery when the processed events table is unavailable")
+    void testShouldFailOpenWhenDatabaseUnavailable() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(anyString(), any(), anyLong(), any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        // Act & Assert
+        assertTrue(deduplication.registerIfFirst(10L, 123L));
+    }
+
+    @Test
+    @DisplayName("Should accept redelivery again after the delivery was forgotten")
+    void testShouldAcceptAfterForget() {
+        // Arrange
+        when(processedWebhookEventRepository.registerIfAbsent(anyString(), any(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(true);
+        deduplication.registerIfFirst(10L, 123L);
+
+        // Act
+        deduplication.forget(10L, 123L);
+
+        // Assert
+        verify(processedWebhookEventRepository).remove("10:123");
+        assertTrue(deduplication.registerIfFirst(10L, 123L));
+    }
+
+    @Test
+    @DisplayName("Should purge events older than the retention")
+    void testShouldPurgeExpiredEvents() {
+        // Arrange
+        when(processedWebhookEventRepository.deleteReceivedBefore(any(LocalDateTime.class))).thenReturn(3);
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+
+        // Act
+        int removed = deduplication.purgeExpired();
+
+        // Assert
+        assertEquals(3, removed);
+        verify(processedWebhookEventRepository).deleteReceivedBefore(argThat(cutoff -> !cutoff.isBefore(before)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fiap.techchallenge.config;
+
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceFilterTest {
+
+    private final TraceFilter traceFilter = new TraceFilter(15000, 30000);
+
+    @Test
+    @DisplayName("Should use the default deadline without header and cap the header at the maximum")
+    void testShouldResolveDeadlineFromHeaderOrDefault() {
+        // Act & Assert
+        assertEquals(15000, traceFilter.deadlineMs(null));
+        assertEquals(15000, traceFilter.deadlineMs("abc"));
+        assertEquals(800, traceFilter.deadlineMs("800"));
+        assertEquals(30000, traceFilter.deadlineMs("120000"));
+        assertTrue(traceFilter.deadlineMs("0") < 0);
+        assertEquals(0, new TraceFilter(0, 0).deadlineMs(null));
+    }
+
+    @Test
+    @DisplayName("Should expose the deadline while the request runs and clear it afterwards")
+    void testShouldSetDeadlineDuringRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(TraceFilter.REQUEST_TIMEOUT_HEADER, "800");
+        List<Optional<Duration>> seen = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen.add(RequestDeadline.remaining());
+            }
+        };
+
+        // Act
+        traceFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertTrue(seen.get(0).isPresent());
+        assertTrue(seen.get(0).get().compareTo(Duration.ofMillis(800)) <= 0);
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    @Test
+    @DisplayName("Should answer 504 without running the request when the caller has no time left")
+    void testShouldRejectSpentDeadline() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(TraceFilter.REQUEST_TIMEOUT_HEADER, "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean called = new AtomicBoolean();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                called.set(true);
+            }
+        };
+
+        // Act
+        traceFilter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(504, response.getStatus());
+        assertFalse(called.get());
+    }
+}
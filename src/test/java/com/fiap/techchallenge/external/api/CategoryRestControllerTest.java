@@ -1,6 +1,7 @@
 package com.fiap.techchallenge.external.api;
 
 import com.fiap.techchallenge.adapters.controllers.CategoryController;
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.domain.entities.Category;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,7 +13,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -87,16 +87,17 @@ class CategoryRestControllerTest {
     @DisplayName("Should find all categories successfully")
     void testShouldFindAllCategoriesSuccessfully() {
         // Arrange
-        List<Category> categories = List.of(category);
-        when(categoryController.findAll()).thenReturn(categories);
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[{\"name\":\"Electronics\"}]".getBytes(), "\"abc\"");
+        when(categoryController.findAllView()).thenReturn(view);
 
         // Act
-        ResponseEntity<List<Category>> response = categoryRestController.findAll();
+        ResponseEntity<byte[]> response = categoryRestController.findAll(null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(categories, response.getBody());
-        verify(categoryController).findAll();
+        assertSame(view.json(), response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(categoryController).findAllView();
     }
 
     @Test
@@ -0,0 +1,225 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private CustomerCache customerCache;
+    private JsonNode customer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        customerCache = new CustomerCache(Duration.ofMinutes(10), Duration.ofSeconds(30), 100, ticker);
+        customer = new ObjectMapper().readTree("{\"cpf\":\"12345678900\",\"email\":\"test@test.com\"}");
+    }
+
+    private JsonNode loadCustomer(String cpf) {
+        remoteCalls.incrementAndGet();
+        return customer;
+    }
+
+    private JsonNode loadNotFound(String cpf) {
+        remoteCalls.incrementAndGet();
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from cache until the TTL expires")
+    void testShouldCacheUntilTtlExpires() {
+        // Act
+        customerCache.get("12345678900", this::loadCustomer);
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        Optional<JsonNode> cached = customerCache.get("12345678900", this::loadCustomer);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        customerCache.get("12345678900", this::loadCustomer);
+
+        // Assert
+        assertEquals(Optional.of(customer), cached);
+        assertEquals(2, remoteCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should cache 404 only for the short not-found TTL")
+    void testShouldCacheNotFoundBriefly() {
+        // Act
+        Optional<JsonNode> first = customerCache.get("00000000000", this::loadNotFound);
+        Optional<JsonNode> second = customerCache.get("00000000000", this::loadNotFound);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        customerCache.get("00000000000", this::loadNotFound);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(2, remoteCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache errors other than 404")
+    void testShouldNotCacheOtherErrors() {
+        // Arrange
+        RuntimeException failure = new RuntimeException("Timeout connecting to Customer Service");
+
+        // Act & Assert
+        RuntimeException thrown = assertThrows(RuntimeException.class, () ->
+                customerCache.get("12345678900", cpf -> { throw failure; }));
+        assertSame(failure, thrown);
+        assertEquals(Optional.of(customer), customerCache.get("12345678900", this::loadCustomer));
+        assertEquals(1, remoteCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should make a single remote call for concurrent lookups of the same CPF")
+    void testShouldSingleFlightConcurrentLoads() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(50);
+
+        try {
+            List<Future<Optional<JsonNode>>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(callers.submit(() -> customerCache.get("12345678900", cpf -> {
+                    loading.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loadCustomer(cpf);
+                })));
+            }
+
+            // Act
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+
+            // Assert
+            for (Future<Optional<JsonNode>> future : futures) {
+                assertEquals(Optional.of(customer), future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, remoteCalls.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should let waiters load again when the first caller's deadline ends mid-lookup")
+    void testShouldRetryWhenLoaderDeadlineExpires() throws Exception {
+        // Arrange: a primeira busca termina com o prazo de quem a iniciou
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Optional<JsonNode>> leader = callers.submit(() -> customerCache.get("12345678900", cpf -> {
+                remoteCalls.incrementAndGet();
+                loading.countDown();
+                awaitQuietly(release);
+                throw new DeadlineExceededException("Request deadline exceeded fetching customer");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Optional<JsonNode>> waiter = callers.submit(() -> customerCache.get("12345678900", this::loadCustomer));
+            Thread.sleep(50);
+
+            // Act
+            release.countDown();
+
+            // Assert
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, failure.getCause());
+            assertEquals(Optional.of(customer), waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(2, remoteCalls.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should let waiters load again when the first caller is cancelled mid-lookup")
+    void testShouldRetryWhenLoaderIsInterrupted() throws Exception {
+        // Arrange: como no createOrder paralelo, que cancela a busca com cancel(true) no timeout
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Optional<JsonNode>> leader = callers.submit(() -> customerCache.get("12345678900", cpf -> {
+                remoteCalls.incrementAndGet();
+                loading.countDown();
+                awaitQuietly(new CountDownLatch(1));
+                throw new IllegalStateException("Interrupted fetching customer");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Optional<JsonNode>> waiter = callers.submit(() -> customerCache.get("12345678900", this::loadCustomer));
+            Thread.sleep(50);
+
+            // Act
+            leader.cancel(true);
+
+            // Assert
+            assertEquals(Optional.of(customer), waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(2, remoteCalls.get());
+            assertEquals(Optional.of(customer), customerCache.get("12345678900", this::loadCustomer));
+            assertEquals(2, remoteCalls.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose hit, miss and load metrics")
+    void testShouldExposeMetrics() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        customerCache.bindTo(registry);
+
+        // Act
+        customerCache.get("12345678900", this::loadCustomer);
+        customerCache.get("12345678900", this::loadCustomer);
+        customerCache.get("12345678900", this::loadCustomer);
+
+        // Assert
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "customers").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "customers").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.loads").tag("cache", "customers").functionTimer().count());
+    }
+}
@@ -0,0 +1,426 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fiap.techchallenge.application.concurrent.CircuitBreaker;
+import com.fiap.techchallenge.application.concurrent.HedgePolicy;
+import com.fiap.techchallenge.application.concurrent.LatencyTracker;
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.application.concurrent.RetryPolicy;
+import com.fiap.techchallenge.application.concurrent.SingleFlight;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import com.fiap.techchallenge.domain.exception.PaymentNotFoundException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.MDC;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+    private final List<String> traceIds = new CopyOnWriteArrayList<>();
+    private final List<String> requestTimeouts = new CopyOnWriteArrayList<>();
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final AtomicInteger hedgeCalls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch blockedReceived = new CountDownLatch(1);
+    private final CountDownLatch releaseBlocked = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/cpf/", exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("00000000000")) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+            respond(exchange, 200, "{\"cpf\":\"12345678900\",\"email\":\"test@test.com\"}");
+        });
+        server.createContext("/payments", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                boolean known = exchange.getRequestURI().getPath().endsWith("/123");
+                respond(exchange, known ? 200 : 404, known ? "{\"id\":123,\"status\":\"approved\"}" : "{}");
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 201, "{\"id\":123}");
+        });
+        server.createContext("/flaky/payments", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            idempotencyKeys.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Idempotency-Key")));
+            boolean recovered = flakyCalls.incrementAndGet() > 2;
+            respond(exchange, recovered ? 201 : 503, recovered ? "{\"id\":456}" : "{}");
+        });
+        server.createContext("/hedge/cpf/", exchange -> {
+            // Primeira busca cai num "pod" lento; as seguintes respondem na hora
+            if (hedgeCalls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, 200, "{\"cpf\":\"12345678900\",\"email\":\"hedged@test.com\"}");
+        });
+        server.createContext("/slow", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            respond(exchange, 200, "ok");
+        });
+        server.createContext("/blocked", exchange -> {
+            // Segura a conexão até o teste liberar, ocupando a vaga do host
+            blockedReceived.countDown();
+            try {
+                releaseBlocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "ok");
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocked.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        MDC.clear();
+        RequestDeadline.clear();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        traceIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Trace-ID")));
+        requestTimeouts.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Request-Timeout")));
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse the same keep-alive connection across calls from both clients")
+    void testShouldReuseConnectionAcrossCalls() {
+        // Arrange
+        HttpTransport transport = new HttpTransport(3000, 4, false);
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl, 3000, transport);
+        PaymentApiClient paymentApiClient = new PaymentApiClient(baseUrl, 3000, transport);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            JsonNode customer = customerApiClient.fetchCustomerByCpf("12345678900");
+            assertEquals("test@test.com", customer.get("email").asText());
+            String payment = paymentApiClient.createPayment(10.0, "Pedido", "pix", 1,
+                    "test@test.com", "CPF", "12345678900");
+            assertEquals("{\"id\":123}", payment);
+        }
+
+        // Assert
+        assertEquals(10, traceIds.size());
+        assertEquals(1, remotePorts.size(), "expected every request to use the same TCP connection");
+    }
+
+    @Test
+    @DisplayName("Should send the MDC traceId in the X-Trace-ID header")
+    void testShouldPropagateTraceHeader() {
+        // Arrange
+        MDC.put("traceId", "trace-123");
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl, 3000,
+                new HttpTransport(3000, 4, false));
+
+        // Act
+        customerApiClient.fetchCustomerByCpf("12345678900");
+
+        // Assert
+        assertEquals(List.of("trace-123"), traceIds);
+    }
+
+    @Test
+    @DisplayName("Should not leave a generated traceId in the MDC of a thread outside a request")
+    void testShouldNotLeakGeneratedTraceId() {
+        // Arrange
+        PaymentApiClient paymentApiClient = new PaymentApiClient(baseUrl, 3000, new HttpTransport(3000, 4, false));
+
+        // Act
+        paymentApiClient.createPayment(10.0, "Pedido", "pix", 1, "test@test.com", "CPF", "12345678900");
+        paymentApiClient.createPayment(10.0, "Pedido", "pix", 1, "test@test.com", "CPF", "12345678900");
+
+        // Assert
+        assertNull(MDC.get("traceId"));
+        assertEquals(2, traceIds.size());
+        assertNotEquals(traceIds.get(0), traceIds.get(1));
+    }
+
+    @Test
+    @DisplayName("Should keep mapping 404 from customer API to NOT_FOUND")
+    void testShouldMapCustomerNotFound() {
+        // Arrange
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl, 3000,
+                new HttpTransport(3000, 4, false));
+
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> customerApiClient.fetchCustomerByCpf("00000000000"));
+        assertEquals(404, exception.getStatusCode().value());
+    }
+
+    @Test
+    @DisplayName("Should fetch the payment status and map 404 to PaymentNotFoundException")
+    void testShouldFetchPaymentStatus() {
+        // Arrange
+        PaymentApiClient paymentApiClient = new PaymentApiClient(baseUrl, 3000, new HttpTransport(3000, 4, false));
+
+        // Act & Assert
+        assertEquals("approved", paymentApiClient.findPaymentStatus(123L));
+        assertThrows(PaymentNotFoundException.class, () -> paymentApiClient.findPaymentStatus(999L));
+    }
+
+    @Test
+    @DisplayName("Should fall back to an anonymous customer when the customer service fails, but not on 404")
+    void testShouldFallBackToAnonymousCustomer() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("customer.api",
+                new CircuitBreaker.Settings(50, 100, Duration.ofSeconds(5), 2, 2, Duration.ofMinutes(1), 1),
+                CustomerApiClient::isServiceFailure, meterRegistry);
+        CustomerApiClient down = new CustomerApiClient(baseUrl + "/slow", 3000,
+                new HttpTransport(3000, 4, false), null, circuitBreaker, null, true);
+        CustomerApiClient up = new CustomerApiClient(baseUrl, 3000,
+                new HttpTransport(3000, 4, false), null, null, null, true);
+
+        // Act: /slow responde texto inválido, contado como falha do serviço
+        assertNull(down.fetchCustomerByCpf("12345678900"));
+        assertNull(down.fetchCustomerByCpf("12345678900"));
+        assertNull(down.fetchCustomerByCpf("12345678900"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.get("customer.api.circuit.rejected").counter().count());
+        assertEquals(2, traceIds.size(), "the open circuit should not reach the service");
+        assertThrows(ResponseStatusException.class, () -> up.fetchCustomerByCpf("00000000000"));
+    }
+
+    @Test
+    @DisplayName("Should size calls to the request deadline, send it downstream and fail fast once it is spent")
+    void testShouldPropagateRequestDeadline() {
+        // Arrange
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl, 3000,
+                new HttpTransport(3000, 4, false));
+        CustomerApiClient slowClient = new CustomerApiClient(baseUrl + "/slow", 3000,
+                new HttpTransport(3000, 4, false), null, null, null, true);
+
+        // Act
+        RequestDeadline.start(Duration.ofSeconds(2));
+        customerApiClient.fetchCustomerByCpf("12345678900");
+        RequestDeadline.start(Duration.ofMillis(30));
+        DeadlineExceededException timedOut = assertThrows(DeadlineExceededException.class,
+                () -> slowClient.fetchCustomerByCpf("12345678900"));
+        RequestDeadline.start(Duration.ZERO);
+        DeadlineExceededException spent = assertThrows(DeadlineExceededException.class,
+                () -> customerApiClient.fetchCustomerByCpf("12345678900"));
+
+        // Assert: o fim do prazo não vira pedido anônimo e nem chega ao serviço depois de esgotado
+        long sent = Long.parseLong(requestTimeouts.get(0));
+        assertTrue(sent > 0 && sent <= 2000, "sent " + sent + "ms");
+        assertTrue(timedOut.getMessage().contains("Request deadline exceeded"));
+        assertEquals("Request deadline exceeded before customer lookup", spent.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should hedge a slow customer lookup past the p95 and answer with the faster request")
+    void testShouldHedgeSlowCustomerLookup() {
+        // Arrange: histórico de buscas de ~5ms
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LatencyTracker latencyTracker = new LatencyTracker("customer.api", new LatencyTracker.Settings(
+                Duration.ofMinutes(1), 10, 0.99, 2.0, Duration.ofMillis(500), Duration.ofSeconds(3)), meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            latencyTracker.record(Duration.ofMillis(5));
+        }
+        HedgePolicy hedgePolicy = new HedgePolicy("customer.api", new HedgePolicy.Settings(0.95, Duration.ofMillis(20),
+                0.1, 10), latencyTracker, meterRegistry);
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl + "/hedge", 3000,
+                new HttpTransport(3000, 4, false), null, null, null, false, latencyTracker, hedgePolicy);
+
+        // Act
+        long start = System.nanoTime();
+        JsonNode customer = customerApiClient.fetchCustomerByCpf("12345678900");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert: a resposta não esperou o pod lento, e o timeout enviado veio do histograma
+        assertEquals("hedged@test.com", customer.get("email").asText());
+        assertTrue(elapsedMs < 1500, "took " + elapsedMs + "ms");
+        assertEquals(2, hedgeCalls.get());
+        assertEquals(1.0, meterRegistry.get("customer.api.hedge.wins").counter().count());
+        long sentTimeout = Long.parseLong(requestTimeouts.get(0));
+        assertTrue(sentTimeout > 0 && sentTimeout <= 500, "sent " + sentTimeout + "ms");
+    }
+
+    @Test
+    @DisplayName("Should send a single request for concurrent lookups of the same CPF")
+    void testShouldCoalesceConcurrentCustomerLookups() throws Exception {
+        // Arrange: a primeira busca de /hedge demora 2s
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CustomerApiClient customerApiClient = new CustomerApiClient(baseUrl + "/hedge", 3000,
+                new HttpTransport(3000, 4, false), null, null, null, false, null, null,
+                new SingleFlight<>("customer.api", meterRegistry));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<JsonNode>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                futures.add(callers.submit(() -> customerApiClient.fetchCustomerByCpf("12345678900")));
+            }
+            for (Future<JsonNode> future : futures) {
+                assertEquals("hedged@test.com", future.get(5, TimeUnit.SECONDS).get("email").asText());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, hedgeCalls.get());
+        assertEquals(3.0, meterRegistry.get("customer.api.singleflight.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should retry a 503 with the same idempotency key and never retry without one")
+    void testShouldRetryPaymentCreationWithIdempotencyKey() {
+        // Arrange
+        RetryPolicy retryPolicy = new RetryPolicy("payment.api", new RetryPolicy.Settings(3, Duration.ofMillis(1),
+                Duration.ofMillis(5), Duration.ofSeconds(5), 0.1, 10), new SimpleMeterRegistry());
+        PaymentApiClient paymentApiClient = new PaymentApiClient(baseUrl + "/flaky", 3000,
+                new HttpTransport(3000, 4, false), retryPolicy);
+
+        // Act
+        String payment = paymentApiClient.createPayment("order-7-payment", 10.0, "Pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900");
+
+        // Assert
+        assertEquals("{\"id\":456}", payment);
+        assertEquals(List.of("order-7-payment", "order-7-payment", "order-7-payment"), idempotencyKeys);
+
+        flakyCalls.set(0);
+        idempotencyKeys.clear();
+        assertThrows(RuntimeException.class, () -> paymentApiClient.createPayment(10.0, "Pedido", "pix", 1,
+                "test@test.com", "CPF", "12345678900"));
+        assertEquals(List.of("null"), idempotencyKeys);
+    }
+
+    @Test
+    @DisplayName("Should fail with timeout when the response takes longer than the read timeout")
+    void testShouldTimeoutSlowResponses() {
+        // Arrange
+        PaymentApiClient paymentApiClient = new PaymentApiClient(baseUrl + "/slow", 20,
+                new HttpTransport(3000, 4, false));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                paymentApiClient.createPayment(10.0, "Pedido", "pix", 1, "test@test.com", "CPF", "12345678900"));
+        assertTrue(exception.getMessage().contains("Timeout connecting to Payment Service"));
+    }
+
+    @Test
+    @DisplayName("Should cap concurrent requests per host at the configured max connections")
+    void testShouldCapConcurrentRequestsPerHost() throws Exception {
+        // Arrange
+        HttpTransport transport = new HttpTransport(3000, 2, false);
+        CustomerApiClient slowClient = new CustomerApiClient(baseUrl + "/slow", 3000, transport);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+
+        // Act
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(callers.submit(() -> {
+                    try {
+                        slowClient.fetchCustomerByCpf("12345678900");
+                    } catch (RuntimeException ignored) {
+                        // "ok" não é JSON válido; só interessa a concorrência observada no servidor
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(6, traceIds.size());
+        assertTrue(maxInFlight.get() <= 2, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for a busy host at the request timeout or the request deadline")
+    void testShouldBoundWaitForConnectionPermit() throws Exception {
+        // Arrange: a única vaga do host fica presa numa chamada que não responde
+        HttpTransport transport = new HttpTransport(3000, 1, false);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<?> stuck = caller.submit(() -> transport.send(HttpRequest.newBuilder(URI.create(baseUrl + "/blocked")).build()));
+        assertTrue(blockedReceived.await(5, TimeUnit.SECONDS));
+        HttpRequest withTimeout = HttpRequest.newBuilder(URI.create(baseUrl + "/slow"))
+                .timeout(Duration.ofMillis(100)).build();
+        HttpRequest withoutTimeout = HttpRequest.newBuilder(URI.create(baseUrl + "/slow")).build();
+
+        try {
+            // Act & Assert: timeout da própria requisição, no envio síncrono e no assíncrono
+            long start = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class, () -> transport.send(withTimeout));
+            assertThrows(ServiceUnavailableException.class, () -> transport.sendAsync(withTimeout));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+            // Act & Assert: prazo da requisição de entrada, mesmo sem timeout na HttpRequest
+            RequestDeadline.start(Duration.ofMillis(100));
+            assertThrows(DeadlineExceededException.class, () -> transport.send(withoutTimeout));
+            RequestDeadline.clear();
+
+            releaseBlocked.countDown();
+            stuck.get(5, TimeUnit.SECONDS);
+            assertEquals(200, transport.send(withoutTimeout).statusCode());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.adapters.controllers.OrderController;
 import com.fiap.techchallenge.application.usecases.OrderUseCase.OrderItemRequest;
 import com.fiap.techchallenge.domain.entities.Order;
+import com.fiap.techchallenge.domain.entities.OrderPage;
 import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.OrderSummary;
 import com.fiap.techchallenge.domain.entities.StatusPayment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -109,7 +111,7 @@ class OrderRestControllerTest {
 
         List<Order> mockOrders = Arrays.asList(order1, order2);
 
-        when(orderController.findByOptionalStatus(OrderStatus.RECEIVED)).thenReturn(mockOrders);
+        when(orderController.findOrders(OrderStatus.RECEIVED, null, null)).thenReturn(new OrderPage(summaries(mockOrders), null));
 
         // Act & Assert
         mockMvc.perform(get("/orders")
@@ -130,13 +132,55 @@ class OrderRestControllerTest {
 
         List<Order> mockOrders = Arrays.asList(order1);
 
-        when(orderController.findByOptionalStatus(null)).thenReturn(mockOrders);
+        when(orderController.findOrders(null, null, null)).thenReturn(new OrderPage(summaries(mockOrders), null));
 
         // Act & Assert
         mockMvc.perform(get("/orders"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(OrderRestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testFindOrdersReturnsNextCursorHeader() throws Exception {
+        // Arrange
+        Order order1 = new Order();
+        order1.setId(1L);
+        order1.setStatus(OrderStatus.FINISHED);
+
+        when(orderController.findOrders(OrderStatus.FINISHED, "abc", 1)).thenReturn(new OrderPage(summaries(List.of(order1)), "def"));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders")
+                .param("status", "FINISHED")
+                .param("cursor", "abc")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(OrderRestController.NEXT_CURSOR_HEADER, "def"));
+    }
+
+    @Test
+    void testFindOrdersReturnsFlatSummaries() throws Exception {
+        // Arrange
+        OrderSummary summary = new OrderSummary(1L, OrderStatus.READY, StatusPayment.APROVADO, null,
+                List.of(new OrderSummary.Item("X-Burger", 2)));
+        when(orderController.findOrders(null, null, null)).thenReturn(new OrderPage(List.of(summary), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].status").value("READY"))
+                .andExpect(jsonPath("$[0].statusPayment").value("APROVADO"))
+                .andExpect(jsonPath("$[0].items[0].name").value("X-Burger"))
+                .andExpect(jsonPath("$[0].items[0].quantity").value(2))
+                .andExpect(jsonPath("$[0].items[0].product").doesNotExist());
+    }
+
+    private static List<OrderSummary> summaries(List<Order> orders) {
+        return orders.stream().map(OrderSummary::of).toList();
     }
 
     @Test
@@ -0,0 +1,94 @@
+package com.fiap.techchallenge.external.api;
+
+import com.fiap.techchallenge.adapters.controllers.OrderStreamController;
+import com.fiap.techchallenge.application.usecases.OrderChangeFeed;
+import com.fiap.techchallenge.domain.entities.OrderStatus;
+import com.fiap.techchallenge.domain.entities.StatusPayment;
+import com.fiap.techchallenge.external.api.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderStreamRestControllerTest {
+
+    private OrderChangeFeed orderChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        orderChangeFeed = new OrderChangeFeed(100, Duration.ZERO, 16, 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderChangeFeed.shutdown();
+    }
+
+    private MockMvc mockMvc(OrderChangeFeed feed) {
+        OrderStreamRestController controller =
+                new OrderStreamRestController(new OrderStreamController(feed), 60000);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    void testStream_ResumesFromLastEventId() throws Exception {
+        // Arrange
+        orderChangeFeed.publish(1L, OrderStatus.RECEIVED, StatusPayment.AGUARDANDO_PAGAMENTO);
+        orderChangeFeed.publish(1L, OrderStatus.IN_PREPARATION, StatusPayment.APROVADO);
+
+        // Act
+        MvcResult result = mockMvc(orderChangeFeed).perform(get("/orders/stream").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String content = awaitContent(result, "id:2");
+        assertTrue(content.contains("event:order"));
+        assertTrue(content.contains("\"status\":\"IN_PREPARATION\""));
+        assertFalse(content.contains("id:1\n"));
+    }
+
+    @Test
+    void testStream_PushesNewChanges() throws Exception {
+        // Act
+        MvcResult result = mockMvc(orderChangeFeed).perform(get("/orders/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        orderChangeFeed.publish(7L, OrderStatus.READY, StatusPayment.APROVADO);
+
+        // Assert
+        String content = awaitContent(result, "\"orderId\":7");
+        assertTrue(content.contains("\"version\":1"));
+        assertTrue(content.contains("\"status\":\"READY\""));
+    }
+
+    @Test
+    void testStream_ServiceUnavailableWhenDisabled() throws Exception {
+        // Act & Assert
+        mockMvc(null).perform(get("/orders/stream"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
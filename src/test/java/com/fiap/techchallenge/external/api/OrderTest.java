@@ -101,4 +101,17 @@ public class OrderTest {
         assertNotNull(order.getCreatedAt());
         assertNotNull(order.getUpdatedAt());
     }
+
+    @Test
+    @DisplayName("Deve indicar pagamento pendente de criação até o idPayment ser gravado")
+    public void testShouldExposePaymentCreationStatus() {
+        Product product = createProduct("Product D", new BigDecimal("10.00"));
+        Order order = Order.create("11122233344", List.of(createOrderItem(product, 1)));
+
+        assertEquals(PaymentCreationStatus.PENDING_CREATION, order.getPaymentCreationStatus());
+
+        order.setIdPayment(555L);
+
+        assertEquals(PaymentCreationStatus.CREATED, order.getPaymentCreationStatus());
+    }
 }
@@ -1,6 +1,7 @@
 package com.fiap.techchallenge.external.api;
 
 import com.fiap.techchallenge.adapters.controllers.ProductController;
+import com.fiap.techchallenge.application.usecases.CatalogSnapshot;
 import com.fiap.techchallenge.domain.entities.Category;
 import com.fiap.techchallenge.domain.entities.Product;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
@@ -104,16 +106,34 @@ class ProductRestControllerTest {
     @DisplayName("Should find all products successfully")
     void testShouldFindAllProductsSuccessfully() {
         // Arrange
-        List<Product> products = List.of(product);
-        when(productController.findAllProducts()).thenReturn(products);
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[{\"name\":\"Laptop\"}]".getBytes(), "\"abc\"");
+        when(productController.findAllProductsView()).thenReturn(view);
 
         // Act
-        ResponseEntity<List<Product>> response = productRestController.findAllProducts();
+        ResponseEntity<byte[]> response = productRestController.findAllProducts(null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(products, response.getBody());
-        verify(productController).findAllProducts();
+        assertSame(view.json(), response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        verify(productController).findAllProductsView();
+    }
+
+    @Test
+    @DisplayName("Should answer not modified when the client already has the catalog version")
+    void testShouldReturnNotModifiedForMatchingEtag() {
+        // Arrange
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[]".getBytes(), "\"abc\"");
+        when(productController.findAllProductsView()).thenReturn(view);
+
+        // Act
+        ResponseEntity<byte[]> response = productRestController.findAllProducts("\"abc\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
     }
 
     @Test
@@ -137,16 +157,16 @@ class ProductRestControllerTest {
     @DisplayName("Should find products by category successfully")
     void testShouldFindProductsByCategorySuccessfully() {
         // Arrange
-        List<Product> products = List.of(product);
-        when(productController.findProductsByCategory(categoryId)).thenReturn(products);
+        CatalogSnapshot.View view = new CatalogSnapshot.View("[{\"name\":\"Laptop\"}]".getBytes(), "\"abc\"");
+        when(productController.findProductsByCategoryView(categoryId)).thenReturn(view);
 
         // Act
-        ResponseEntity<List<Product>> response = productRestController.findProductsByCategory(categoryId);
+        ResponseEntity<byte[]> response = productRestController.findProductsByCategory(categoryId, "\"other\"");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(products, response.getBody());
-        verify(productController).findProductsByCategory(categoryId);
+        assertSame(view.json(), response.getBody());
+        verify(productController).findProductsByCategoryView(categoryId);
     }
 
     @Test
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fiap.techchallenge.adapters.controllers.WebhookController;
 import com.fiap.techchallenge.external.api.dto.Data;
 import com.fiap.techchallenge.external.api.dto.WebhookRequestDTO;
+import com.fiap.techchallenge.external.api.exception.GlobalExceptionHandler;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,7 +16,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,7 +38,9 @@ class WebhookRestControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(webhookRestController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(webhookRestController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
     }
 
@@ -53,7 +60,7 @@ class WebhookRestControllerTest {
         data.setId(9988776655L);
         webhookRequest.setData(data);
 
-        doNothing().when(webhookController).handlePaymentNotification(eq(9988776655L));
+        doNothing().when(webhookController).handlePaymentNotification(eq(123L), eq(9988776655L));
 
         // Act & Assert
         mockMvc.perform(post("/webhooks")
@@ -61,8 +68,8 @@ class WebhookRestControllerTest {
                 .content(objectMapper.writeValueAsString(webhookRequest)))
                 .andExpect(status().isOk());
 
-        // Verify that the webhook controller was called with the correct payment ID
-        verify(webhookController).handlePaymentNotification(eq(9988776655L));
+        // Verify that the webhook controller was called with the event id and the correct payment ID
+        verify(webhookController).handlePaymentNotification(eq(123L), eq(9988776655L));
     }
 
     @Test
@@ -73,7 +80,7 @@ class WebhookRestControllerTest {
         data.setId(1234567890L);
         webhookRequest.setData(data);
 
-        doNothing().when(webhookController).handlePaymentNotification(eq(1234567890L));
+        doNothing().when(webhookController).handlePaymentNotification(isNull(), eq(1234567890L));
 
         // Act & Assert
         mockMvc.perform(post("/webhooks")
@@ -81,8 +88,8 @@ class WebhookRestControllerTest {
                 .content(objectMapper.writeValueAsString(webhookRequest)))
                 .andExpect(status().isOk());
 
-        // Verify that the webhook controller was called with the correct payment ID
-        verify(webhookController).handlePaymentNotification(eq(1234567890L));
+        // Verify that the webhook controller was called with the event id and the correct payment ID
+        verify(webhookController).handlePaymentNotification(isNull(), eq(1234567890L));
     }
 
     @Test
@@ -97,7 +104,7 @@ class WebhookRestControllerTest {
         data.setId(555666777L);
         webhookRequest.setData(data);
 
-        doNothing().when(webhookController).handlePaymentNotification(eq(555666777L));
+        doNothing().when(webhookController).handlePaymentNotification(eq(999L), eq(555666777L));
 
         // Act & Assert
         mockMvc.perform(post("/webhooks")
@@ -105,8 +112,8 @@ class WebhookRestControllerTest {
                 .content(objectMapper.writeValueAsString(webhookRequest)))
                 .andExpect(status().isOk());
 
-        // Verify that the webhook controller was called with the correct payment ID
-        verify(webhookController).handlePaymentNotification(eq(555666777L));
+        // Verify that the webhook controller was called with the event id and the correct payment ID
+        verify(webhookController).handlePaymentNotification(eq(999L), eq(555666777L));
     }
 
     @Test
@@ -125,7 +132,7 @@ class WebhookRestControllerTest {
         data.setId(7777888899L);
         webhookRequest.setData(data);
 
-        doNothing().when(webhookController).handlePaymentNotification(eq(7777888899L));
+        doNothing().when(webhookController).handlePaymentNotification(eq(100L), eq(7777888899L));
 
         // Act & Assert
         mockMvc.perform(post("/webhooks")
@@ -133,7 +140,40 @@ class WebhookRestControllerTest {
                 .content(objectMapper.writeValueAsString(webhookRequest)))
                 .andExpect(status().isOk());
 
-        // Verify that the webhook controller was called with the correct payment ID
-        verify(webhookController).handlePaymentNotification(eq(7777888899L));
+        // Verify that the webhook controller was called with the event id and the correct payment ID
+        verify(webhookController).handlePaymentNotification(eq(100L), eq(7777888899L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleNotification_WithoutPaymentId_ReturnsBadRequest() throws Exception {
+        // Arrange
+        WebhookRequestDTO webhookRequest = new WebhookRequestDTO();
+        webhookRequest.setData(new Data());
+
+        // Act & Assert
+        mockMvc.perform(post("/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(webhookRequest)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(webhookController);
+    }
+
+    @Test
+    void testHandleNotification_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        WebhookRequestDTO webhookRequest = new WebhookRequestDTO();
+        Data data = new Data();
+        data.setId(42L);
+        webhookRequest.setData(data);
+
+        doThrow(new ServiceUnavailableException("Payment notification queue is full, retry later"))
+                .when(webhookController).handlePaymentNotification(isNull(), eq(42L));
+
+        // Act & Assert
+        mockMvc.perform(post("/webhooks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(webhookRequest)))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
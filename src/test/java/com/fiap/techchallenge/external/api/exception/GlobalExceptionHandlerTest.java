@@ -1,12 +1,17 @@
 package com.fiap.techchallenge.external.api.exception;
 
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
 import com.fiap.techchallenge.domain.exception.DomainException;
 import com.fiap.techchallenge.domain.exception.InvalidCpfException;
 import com.fiap.techchallenge.domain.exception.InvalidEmailException;
+import com.fiap.techchallenge.domain.exception.ConcurrentUpdateException;
+import com.fiap.techchallenge.domain.exception.InvalidStatusTransitionException;
 import com.fiap.techchallenge.domain.exception.ProductLinkedToOrderException;
+import com.fiap.techchallenge.domain.exception.ServiceUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -102,4 +107,97 @@ class GlobalExceptionHandlerTest {
         assertEquals("Product is linked to orders", body.get("error"));
         assertNotNull(body.get("timestamp"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should handle InvalidStatusTransitionException")
+    void testShouldHandleInvalidStatusTransitionException() {
+        // Arrange
+        InvalidStatusTransitionException exception =
+                new InvalidStatusTransitionException("Cannot change order status from FINISHED to READY");
+
+        // Act
+        ResponseEntity<Object> response = globalExceptionHandler.handleInvalidStatusTransitionException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(409, body.get("status"));
+        assertEquals("Cannot change order status from FINISHED to READY", body.get("error"));
+    }
+
+    @Test
+    @DisplayName("Should handle ConcurrentUpdateException")
+    void testShouldHandleConcurrentUpdateException() {
+        // Arrange
+        ConcurrentUpdateException exception = new ConcurrentUpdateException("Order 1 was modified concurrently");
+
+        // Act
+        ResponseEntity<Object> response = globalExceptionHandler.handleConcurrentUpdateException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(409, body.get("status"));
+        assertEquals("Order 1 was modified concurrently", body.get("error"));
+    }
+
+    @Test
+    @DisplayName("Should handle DeadlineExceededException")
+    void testShouldHandleDeadlineExceededException() {
+        // Arrange
+        DeadlineExceededException exception = new DeadlineExceededException("Timeout creating order");
+
+        // Act
+        ResponseEntity<Object> response = globalExceptionHandler.handleDeadlineExceededException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertNotNull(response.getBody());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(504, body.get("status"));
+        assertEquals("Timeout creating order", body.get("error"));
+        assertNotNull(body.get("timestamp"));
+    }
+
+    @Test
+    @DisplayName("Should handle a database query timeout as 504")
+    void testShouldHandleQueryTimeoutException() {
+        // Arrange
+        QueryTimeoutException exception = new QueryTimeoutException("canceling statement due to user request");
+
+        // Act
+        ResponseEntity<Object> response = globalExceptionHandler.handleQueryTimeoutException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(504, body.get("status"));
+        assertEquals("Request deadline exceeded waiting for the database", body.get("error"));
+    }
+
+    @Test
+    @DisplayName("Should handle ServiceUnavailableException as 503")
+    void testShouldHandleServiceUnavailableException() {
+        // Arrange
+        ServiceUnavailableException exception = new ServiceUnavailableException("Payment notification queue is full, retry later");
+
+        // Act
+        ResponseEntity<Object> response = globalExceptionHandler.handleServiceUnavailableException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(503, body.get("status"));
+        assertEquals("Payment notification queue is full, retry later", body.get("error"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.fiap.techchallenge.external.datasource;
+
+import com.fiap.techchallenge.application.concurrent.RequestDeadline;
+import com.fiap.techchallenge.domain.exception.DeadlineExceededException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineAwareDataSourceTest {
+
+    private DeadlineAwareDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        dataSource = new DeadlineAwareDataSource(h2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Should leave statements untouched when the request has no deadline")
+    void testShouldNotSetTimeoutWithoutDeadline() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // Assert
+            assertEquals(0, statement.getQueryTimeout());
+            assertNotSame(connection, DataSourceUtils.getTargetConnection(connection));
+        }
+    }
+
+    @Test
+    @DisplayName("Should set the query timeout to the remaining budget, rounded up to whole seconds")
+    void testShouldSetQueryTimeoutFromDeadline() throws Exception {
+        // Arrange
+        RequestDeadline.start(Duration.ofMillis(2500));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            // Assert
+            int timeout = statement.getQueryTimeout();
+            assertTrue(timeout >= 1 && timeout <= 3, "timeout was " + timeout);
+            assertTrue(statement.executeQuery().next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to prepare statements once the deadline is spent")
+    void testShouldFailFastWhenDeadlineSpent() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            // Arrange
+            RequestDeadline.start(Duration.ZERO);
+
+            // Act & Assert
+            assertThrows(DeadlineExceededException.class, () -> connection.prepareStatement("SELECT 1"));
+        }
+    }
+}
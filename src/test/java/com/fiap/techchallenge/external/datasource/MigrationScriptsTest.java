@@ -0,0 +1,126 @@
+package com.fiap.techchallenge.external.datasource;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os testes rodam em H2 com o Flyway desligado (as migrations usam índices parciais e setval do PostgreSQL),
+ * então a consistência das migrations é conferida aqui, sobre os próprios scripts.
+ */
+class MigrationScriptsTest {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__.+\\.sql");
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE (?:IF NOT EXISTS )?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+            "(?:ALTER TABLE (?:IF EXISTS )?|REFERENCES |\\bON )(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Map<Integer, String> migrations = new TreeMap<>();
+    private static int baselineVersion;
+
+    @BeforeAll
+    static void loadMigrations() throws Exception {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql")) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+            assertTrue(matcher.matches(), "unexpected migration file name " + resource.getFilename());
+            String script = resource.getContentAsString(StandardCharsets.UTF_8).replaceAll("--[^\\n]*", "");
+            assertNull(migrations.put(Integer.parseInt(matcher.group(1)), script), "duplicate version " + matcher.group(1));
+        }
+
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        baselineVersion = Integer.parseInt(yaml.getObject().getProperty("spring.flyway.baseline-version"));
+    }
+
+    private static Set<String> matches(Pattern pattern, String script) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = pattern.matcher(script);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase());
+        }
+        return tables;
+    }
+
+    private static Set<String> missing(Set<String> expected, Set<String> created) {
+        Set<String> missing = new HashSet<>(expected);
+        missing.removeAll(created);
+        return missing;
+    }
+
+    private static Set<String> entityTables() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        Set<String> tables = new HashSet<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.fiap.techchallenge.external.datasource")) {
+            Map<String, Object> table = ((AnnotatedBeanDefinition) definition)
+                    .getMetadata().getAnnotationAttributes(Table.class.getName());
+            assertNotNull(table, definition.getBeanClassName() + " should declare its table name");
+            tables.add(((String) table.get("name")).toLowerCase());
+        }
+        return tables;
+    }
+
+    @Test
+    @DisplayName("Should keep the baseline migration equal to the schema that existed before Flyway")
+    void testBaselineHoldsOnlyPreFlywaySchema() {
+        // Assert: bancos existentes recebem o baseline na V1 e nunca executam o que estiver nela
+        assertEquals(1, baselineVersion);
+        assertEquals(Set.of("categories", "products", "orders", "order_items"),
+                matches(CREATE_TABLE, migrations.get(baselineVersion)));
+    }
+
+    @Test
+    @DisplayName("Should create every mapped table on both fresh and baselined databases")
+    void testEveryEntityTableIsCreated() {
+        // Arrange
+        Set<String> fresh = new HashSet<>();
+        Set<String> baselined = new HashSet<>(matches(CREATE_TABLE, migrations.get(baselineVersion)));
+        migrations.forEach((version, script) -> {
+            fresh.addAll(matches(CREATE_TABLE, script));
+            if (version > baselineVersion) {
+                baselined.addAll(matches(CREATE_TABLE, script));
+            }
+        });
+
+        // Act
+        Set<String> entities = entityTables();
+
+        // Assert
+        assertFalse(entities.isEmpty());
+        assertEquals(Set.of(), missing(entities, fresh), "tables missing on a fresh database");
+        assertEquals(Set.of(), missing(entities, baselined), "tables missing on a baselined database");
+    }
+
+    @Test
+    @DisplayName("Should only index or alter tables created by the same or an earlier migration")
+    void testMigrationsOnlyReferenceExistingTables() {
+        Set<String> created = new HashSet<>();
+        migrations.forEach((version, script) -> {
+            created.addAll(matches(CREATE_TABLE, script));
+            Set<String> referenced = matches(TABLE_REFERENCE, script);
+            referenced.removeAll(created);
+            assertTrue(referenced.isEmpty(), "V" + version + " references tables not created yet: " + referenced);
+        });
+    }
+}